@@ -43,6 +43,34 @@ public enum AutomataLibProperty {
      */
     LTSMIN_PATH("ltsmin.path"),
 
+    /**
+     * {@code automatalib.ltsmin.pipes}.
+     * <p>
+     * Whether to exchange data with the LTSmin binaries via named pipes instead of temporary files.
+     * <p>
+     * If set to "true", named pipes will be used (if supported by the system).
+     */
+    LTSMIN_PIPES("ltsmin.pipes"),
+
+    /**
+     * {@code automatalib.ltsmin.processes}.
+     * <p>
+     * The maximum number of LTSmin processes that may run concurrently.
+     * <p>
+     * If not set, the number of available processors is used.
+     */
+    LTSMIN_PROCESSES("ltsmin.processes"),
+
+    /**
+     * {@code automatalib.ltsmin.threads}.
+     * <p>
+     * The number of threads each LTSmin process may use for model checking.
+     * <p>
+     * If not set (or set to "0"), the number of threads is chosen adaptively, based on the size of the hypothesis and
+     * the number of concurrently running LTSmin processes.
+     */
+    LTSMIN_THREADS("ltsmin.threads"),
+
     /**
      * {@code ltsmin.verbose}.
      * <p>
@@ -16,6 +16,8 @@
 package net.automatalib.modelchecking;
 
 import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 import net.automatalib.automata.fsa.DFA;
 import net.automatalib.automata.transducers.MealyMachine;
@@ -57,6 +59,42 @@ public interface ModelChecker<I, A, P, R> {
      */
     @Nullable R findCounterExample(A automaton, Collection<? extends I> inputs, P property);
 
+    /**
+     * Try to find counter examples for each of the given {@code properties} and {@code automaton}.
+     * <p>
+     * The returned map contains an entry for every property that has been checked. A property is mapped to its
+     * counter example or to {@code null}, if no counter example exists. Implementations may decide to not check all
+     * properties (e.g. if a certain amount of counter examples has already been found), in which case the unchecked
+     * properties are not contained in the returned map.
+     * <p>
+     * The default implementation checks every property sequentially via {@link #findCounterExample(Object,
+     * Collection, Object)}. Implementations may override this method to share intermediate results (e.g. the
+     * serialization of the automaton) between the individual checks.
+     *
+     * @param automaton
+     *         the automaton to check the properties on.
+     * @param inputs
+     *         the alphabet.
+     * @param properties
+     *         the properties.
+     *
+     * @return a map from the checked properties to their (potentially {@code null}) counter examples.
+     *
+     * @throws ModelCheckingException
+     *         when this model checker can not check one of the properties.
+     */
+    default Map<P, @Nullable R> findCounterExamples(A automaton,
+                                                    Collection<? extends I> inputs,
+                                                    Collection<? extends P> properties) {
+        final Map<P, @Nullable R> result = new LinkedHashMap<>();
+
+        for (P property : properties) {
+            result.put(property, findCounterExample(automaton, inputs, property));
+        }
+
+        return result;
+    }
+
     interface DFAModelChecker<I, P, R> extends ModelChecker<I, DFA<?, I>, P, R> {}
 
     /**
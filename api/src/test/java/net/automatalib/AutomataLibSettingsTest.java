@@ -51,6 +51,15 @@ public class AutomataLibSettingsTest {
                 case LTSMIN_PATH:
                     Assert.assertEquals("ltsmin", settings.getProperty(AutomataLibProperty.LTSMIN_PATH));
                     break;
+                case LTSMIN_PIPES:
+                    Assert.assertEquals("true", settings.getProperty(AutomataLibProperty.LTSMIN_PIPES));
+                    break;
+                case LTSMIN_PROCESSES:
+                    Assert.assertEquals("4", settings.getProperty(AutomataLibProperty.LTSMIN_PROCESSES));
+                    break;
+                case LTSMIN_THREADS:
+                    Assert.assertEquals("2", settings.getProperty(AutomataLibProperty.LTSMIN_THREADS));
+                    break;
                 case LTSMIN_VERBOSE:
                     Assert.assertEquals("false", settings.getProperty(AutomataLibProperty.LTSMIN_VERBOSE));
                     break;
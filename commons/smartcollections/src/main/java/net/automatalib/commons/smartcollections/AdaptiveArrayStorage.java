@@ -0,0 +1,240 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.commons.smartcollections;
+
+import java.util.Arrays;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * An index-based storage, which adapts its internal representation to the number of stored elements. As long as only
+ * few indices are occupied (relative to the largest occupied index), the elements are stored in small arrays that are
+ * sorted by their indices. For up to {@value #INLINE_CAPACITY} elements, these arrays are searched linearly and above
+ * that via binary search. Once at least every {@value #DENSITY_FACTOR}-th index is occupied, the storage switches to a
+ * (regular) dense array that is directly indexed. An empty storage does not allocate any arrays, so that, e.g., the
+ * (child-less) leaves of a tree only pay for the storage object itself.
+ * <p>
+ * In contrast to {@link ResizingArrayStorage}, the storage does not have to be sized in advance: Indices beyond the
+ * current capacity are simply treated as unoccupied. This allows, e.g., to grow the index space (such as an input
+ * alphabet) in constant time, without touching any of the existing storages.
+ *
+ * @param <T>
+ *         element type
+ *
+ * @author frohme
+ */
+public final class AdaptiveArrayStorage<T> {
+
+    /**
+     * The capacity of the initial (sparse) storage, up to which indices are searched linearly.
+     */
+    public static final int INLINE_CAPACITY = 4;
+
+    /**
+     * The storage switches to a dense representation, if at least every {@code DENSITY_FACTOR}-th index (up to the
+     * largest occupied index) is occupied.
+     */
+    public static final int DENSITY_FACTOR = 4;
+
+    // the (sorted) indices of the elements in sparse mode, null in dense mode or if the storage is empty
+    private int @Nullable [] indices;
+    // the elements, null if the (sparse) storage is empty
+    private @Nullable Object @Nullable [] elements;
+    private int size;
+
+    /**
+     * Default constructor. Creates an empty storage. The internal arrays are only allocated once the first element is
+     * stored.
+     */
+    public AdaptiveArrayStorage() {
+        // do nothing
+    }
+
+    /**
+     * Returns the element stored at the given index.
+     *
+     * @param idx
+     *         the (non-negative) index
+     *
+     * @return the element stored at the given index, or {@code null} if no such element exists
+     */
+    @SuppressWarnings("unchecked")
+    public @Nullable T get(int idx) {
+        final Object[] elements = this.elements;
+
+        if (elements == null) {
+            return null;
+        } else if (indices == null) {
+            return idx < elements.length ? (T) elements[idx] : null;
+        }
+
+        final int pos = find(indices, size, idx);
+        return pos < 0 ? null : (T) elements[pos];
+    }
+
+    /**
+     * Stores the given element at the given index. Storing {@code null} removes the element at the given index.
+     *
+     * @param idx
+     *         the (non-negative) index
+     * @param element
+     *         the element to store
+     */
+    public void set(int idx, @Nullable T element) {
+        final Object[] elements = this.elements;
+
+        if (elements == null) {
+            if (element != null) {
+                final int[] newIndices = new int[INLINE_CAPACITY];
+                final Object[] newElements = new Object[INLINE_CAPACITY];
+                this.indices = newIndices;
+                this.elements = newElements;
+                setSparse(newIndices, newElements, idx, element);
+            }
+        } else if (indices == null) {
+            setDense(elements, idx, element);
+        } else {
+            setSparse(indices, elements, idx, element);
+        }
+    }
+
+    /**
+     * Returns the number of (non-{@code null}) elements in this storage.
+     *
+     * @return the number of elements in this storage
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns whether this storage currently uses its dense representation.
+     *
+     * @return {@code true} if this storage is dense, {@code false} otherwise
+     */
+    public boolean isDense() {
+        return indices == null && elements != null;
+    }
+
+    private void setDense(@Nullable Object[] elements, int idx, @Nullable Object element) {
+        final @Nullable Object[] dense;
+
+        if (idx < elements.length) {
+            dense = elements;
+        } else if (element == null) {
+            return;
+        } else {
+            dense = Arrays.copyOf(elements, ArrayUtil.computeNewCapacity(elements.length, idx + 1));
+            this.elements = dense;
+        }
+
+        final Object old = dense[idx];
+        dense[idx] = element;
+
+        if (old == null && element != null) {
+            size++;
+        } else if (old != null && element == null) {
+            size--;
+        }
+    }
+
+    private void setSparse(int[] indices, @Nullable Object[] elements, int idx, @Nullable Object element) {
+        final int pos = find(indices, size, idx);
+
+        if (pos >= 0) {
+            if (element == null) {
+                if (--size == 0) {
+                    // release the arrays of storages that become empty again, e.g., after removing all children
+                    this.indices = null;
+                    this.elements = null;
+                    return;
+                }
+                System.arraycopy(indices, pos + 1, indices, pos, size - pos);
+                System.arraycopy(elements, pos + 1, elements, pos, size - pos);
+                elements[size] = null;
+            } else {
+                elements[pos] = element;
+            }
+            return;
+        }
+
+        if (element == null) {
+            return;
+        }
+
+        final int insertPos = -(pos + 1);
+        final int[] newIndices;
+        final @Nullable Object[] newElements;
+
+        if (size == indices.length) {
+            final int maxIdx = Math.max(idx, indices[size - 1]);
+
+            if ((size + 1) * DENSITY_FACTOR > maxIdx) {
+                setDense(makeDense(indices, elements, maxIdx + 1), idx, element);
+                return;
+            }
+
+            newIndices = Arrays.copyOf(indices, size * 2);
+            newElements = Arrays.copyOf(elements, size * 2);
+            this.indices = newIndices;
+            this.elements = newElements;
+        } else {
+            newIndices = indices;
+            newElements = elements;
+        }
+
+        System.arraycopy(newIndices, insertPos, newIndices, insertPos + 1, size - insertPos);
+        System.arraycopy(newElements, insertPos, newElements, insertPos + 1, size - insertPos);
+        newIndices[insertPos] = idx;
+        newElements[insertPos] = element;
+        size++;
+    }
+
+    private @Nullable Object[] makeDense(int[] indices, @Nullable Object[] elements, int capacity) {
+        final Object[] dense = new Object[capacity];
+
+        for (int i = 0; i < size; i++) {
+            dense[indices[i]] = elements[i];
+        }
+
+        this.indices = null;
+        this.elements = dense;
+
+        return dense;
+    }
+
+    /**
+     * Searches the given index in the sorted prefix of the given indices.
+     *
+     * @return the position of the index, if it exists, {@code -(insertion point + 1)} otherwise
+     */
+    private static int find(int[] indices, int size, int idx) {
+        if (size > INLINE_CAPACITY) {
+            return Arrays.binarySearch(indices, 0, size, idx);
+        }
+
+        for (int i = 0; i < size; i++) {
+            final int key = indices[i];
+            if (key == idx) {
+                return i;
+            } else if (key > idx) {
+                return -(i + 1);
+            }
+        }
+
+        return -(size + 1);
+    }
+}
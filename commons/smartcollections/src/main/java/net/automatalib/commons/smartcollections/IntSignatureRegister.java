@@ -0,0 +1,339 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.commons.smartcollections;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * A hash-consing register for fixed-width {@code int} signatures (e.g. the successor and property vectors of automaton
+ * states). Each signature is identified by a (non-negative) id and stored in a flat {@code int} arena at offset {@code
+ * id * width}. The register itself is an open-addressing hash table of ids that compares candidate signatures in place,
+ * so neither looking up nor registering a signature allocates any objects.
+ * <p>
+ * Ids may also be {@link #allocate(int) allocated} without registering them, e.g. for mutable entries (such as the initial
+ * state of an automaton) that must never be found by a lookup. Only such unregistered entries may be {@link
+ * #set(int, int, int) modified}. Ids of {@link #remove(int) removed} entries are re-used by subsequent allocations.
+ *
+ * @author frohme
+ */
+public final class IntSignatureRegister {
+
+    /**
+     * The value returned by {@link #find(int[])} if no matching signature is registered.
+     */
+    public static final int NOT_FOUND = -1;
+
+    private static final int EMPTY = -1;
+    private static final int DELETED = -2;
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private int width;
+    private int[] arena;
+    private int[] hashes;
+    private final BitSet registered;
+
+    private int[] table;
+    private int numEntries;
+    private int numDeleted;
+
+    private int numIds;
+    private int[] freeIds;
+    private int numFreeIds;
+    private final BitSet freed;
+
+    /**
+     * Constructor.
+     *
+     * @param width
+     *         the number of {@code int}s per signature
+     */
+    public IntSignatureRegister(int width) {
+        this.width = width;
+        this.arena = new int[DEFAULT_CAPACITY * width];
+        this.hashes = new int[DEFAULT_CAPACITY];
+        this.registered = new BitSet();
+        this.table = new int[DEFAULT_CAPACITY * 2];
+        this.freeIds = new int[DEFAULT_CAPACITY];
+        this.freed = new BitSet();
+        Arrays.fill(this.table, EMPTY);
+    }
+
+    /**
+     * Returns the number of {@code int}s per signature.
+     *
+     * @return the width of the signatures
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Returns the number of registered signatures.
+     *
+     * @return the number of registered signatures
+     */
+    public int size() {
+        return numEntries;
+    }
+
+    /**
+     * Returns an (exclusive) upper bound for all ids that are currently in use.
+     *
+     * @return an upper bound for all ids
+     */
+    public int getIdBound() {
+        return numIds;
+    }
+
+    /**
+     * Returns whether the signature with the given id is registered.
+     *
+     * @param id
+     *         the id
+     *
+     * @return {@code true} if the signature is registered, {@code false} otherwise
+     */
+    public boolean isRegistered(int id) {
+        return registered.get(id);
+    }
+
+    /**
+     * Returns a single value of the signature with the given id.
+     *
+     * @param id
+     *         the id of the signature
+     * @param pos
+     *         the position within the signature
+     *
+     * @return the value at the given position
+     */
+    public int get(int id, int pos) {
+        return arena[id * width + pos];
+    }
+
+    /**
+     * Copies the signature with the given id into the given buffer.
+     *
+     * @param id
+     *         the id of the signature
+     * @param buffer
+     *         the buffer to write the signature to (of at least {@link #getWidth() width} length)
+     */
+    public void copy(int id, int[] buffer) {
+        System.arraycopy(arena, id * width, buffer, 0, width);
+    }
+
+    /**
+     * Sets a single value of an (unregistered) signature.
+     *
+     * @param id
+     *         the id of the signature
+     * @param pos
+     *         the position within the signature
+     * @param value
+     *         the new value
+     *
+     * @throws IllegalStateException
+     *         if the signature is registered
+     */
+    public void set(int id, int pos, int value) {
+        if (registered.get(id)) {
+            throw new IllegalStateException("Registered signatures cannot be modified");
+        }
+        arena[id * width + pos] = value;
+    }
+
+    /**
+     * Allocates a new (unregistered) id, whose signature is initialized with the given value.
+     *
+     * @param fill
+     *         the initial value of all positions of the signature
+     *
+     * @return the allocated id
+     */
+    public int allocate(int fill) {
+        final int id;
+        if (numFreeIds > 0) {
+            id = freeIds[--numFreeIds];
+            freed.clear(id);
+        } else {
+            id = numIds++;
+            if (numIds > hashes.length) {
+                final int newCapacity = hashes.length * 2;
+                arena = Arrays.copyOf(arena, newCapacity * width);
+                hashes = Arrays.copyOf(hashes, newCapacity);
+            }
+        }
+        Arrays.fill(arena, id * width, (id + 1) * width, fill);
+        return id;
+    }
+
+    /**
+     * Looks up the id of the given signature.
+     *
+     * @param signature
+     *         the signature (of at least {@link #getWidth() width} length)
+     *
+     * @return the id of the registered signature, or {@link #NOT_FOUND} if no such signature is registered
+     */
+    public int find(int[] signature) {
+        final int hash = hash(signature, 0);
+        final int mask = table.length - 1;
+
+        for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+            final int id = table[slot];
+            if (id == EMPTY) {
+                return NOT_FOUND;
+            }
+            if (id != DELETED && hashes[id] == hash && matches(id, signature)) {
+                return id;
+            }
+        }
+    }
+
+    /**
+     * Registers the given signature under a new id. The signature must not be registered already.
+     *
+     * @param signature
+     *         the signature (of at least {@link #getWidth() width} length)
+     *
+     * @return the id of the registered signature
+     */
+    public int add(int[] signature) {
+        final int id = allocate(0);
+        System.arraycopy(signature, 0, arena, id * width, width);
+        register(id);
+        return id;
+    }
+
+    /**
+     * Removes the signature with the given id from the register (if registered) and releases its id for re-use.
+     *
+     * @param id
+     *         the id
+     *
+     * @throws IllegalArgumentException
+     *         if the id is not allocated (e.g. because it has already been removed)
+     */
+    public void remove(int id) {
+        if (id < 0 || id >= numIds || freed.get(id)) {
+            throw new IllegalArgumentException("Id " + id + " is not allocated");
+        }
+
+        if (registered.get(id)) {
+            final int mask = table.length - 1;
+            int slot = hashes[id] & mask;
+            while (table[slot] != id) {
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = DELETED;
+            registered.clear(id);
+            numEntries--;
+            numDeleted++;
+        }
+
+        if (numFreeIds == freeIds.length) {
+            freeIds = Arrays.copyOf(freeIds, freeIds.length * 2);
+        }
+        freeIds[numFreeIds++] = id;
+        freed.set(id);
+    }
+
+    /**
+     * Increases the width of all signatures, by appending the given value to each (allocated) signature.
+     *
+     * @param newWidth
+     *         the new width
+     * @param fill
+     *         the value of the appended positions
+     */
+    public void widen(int newWidth, int fill) {
+        if (newWidth <= width) {
+            return;
+        }
+
+        final int[] newArena = new int[hashes.length * newWidth];
+        for (int id = 0; id < numIds; id++) {
+            System.arraycopy(arena, id * width, newArena, id * newWidth, width);
+            Arrays.fill(newArena, id * newWidth + width, (id + 1) * newWidth, fill);
+        }
+
+        this.arena = newArena;
+        this.width = newWidth;
+        rehash(table.length);
+    }
+
+    private void register(int id) {
+        if ((numEntries + numDeleted + 1) * 4 > table.length * 3) {
+            // only grow if the table is actually full, otherwise simply clean up the deleted slots
+            rehash((numEntries + 1) * 4 > table.length ? table.length * 2 : table.length);
+        }
+
+        final int hash = hash(arena, id * width);
+        final int mask = table.length - 1;
+        int slot = hash & mask;
+        while (table[slot] >= 0) {
+            slot = (slot + 1) & mask;
+        }
+        if (table[slot] == DELETED) {
+            numDeleted--;
+        }
+
+        table[slot] = id;
+        hashes[id] = hash;
+        registered.set(id);
+        numEntries++;
+    }
+
+    private void rehash(int newTableSize) {
+        final int[] newTable = new int[newTableSize];
+        Arrays.fill(newTable, EMPTY);
+        final int mask = newTableSize - 1;
+
+        for (int id = registered.nextSetBit(0); id >= 0; id = registered.nextSetBit(id + 1)) {
+            final int hash = hash(arena, id * width);
+            hashes[id] = hash;
+            int slot = hash & mask;
+            while (newTable[slot] != EMPTY) {
+                slot = (slot + 1) & mask;
+            }
+            newTable[slot] = id;
+        }
+
+        this.table = newTable;
+        this.numDeleted = 0;
+    }
+
+    private boolean matches(int id, int[] signature) {
+        final int offset = id * width;
+        for (int i = 0; i < width; i++) {
+            if (arena[offset + i] != signature[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int hash(int[] array, int offset) {
+        int result = 1;
+        for (int i = offset; i < offset + width; i++) {
+            result = 31 * result + array[i];
+        }
+        // spread the higher bits, since the table size is a power of two
+        return result ^ (result >>> 16);
+    }
+}
@@ -0,0 +1,143 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.commons.smartcollections;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * @author frohme
+ */
+public class AdaptiveArrayStorageTest {
+
+    @Test
+    public void testEmpty() {
+        // e.g., the storage of a child-less node
+        final AdaptiveArrayStorage<String> storage = new AdaptiveArrayStorage<>();
+
+        Assert.assertEquals(storage.size(), 0);
+        Assert.assertFalse(storage.isDense());
+        Assert.assertNull(storage.get(0));
+        Assert.assertNull(storage.get(1000));
+
+        storage.set(3, null);
+        Assert.assertEquals(storage.size(), 0);
+        Assert.assertNull(storage.get(3));
+
+        // removing the only element yields an empty storage again
+        storage.set(7, "a");
+        Assert.assertEquals(storage.get(7), "a");
+        storage.set(7, null);
+        Assert.assertEquals(storage.size(), 0);
+        Assert.assertNull(storage.get(7));
+
+        storage.set(2, "b");
+        Assert.assertEquals(storage.size(), 1);
+        Assert.assertEquals(storage.get(2), "b");
+        Assert.assertNull(storage.get(7));
+    }
+
+    @Test
+    public void testSparse() {
+        final AdaptiveArrayStorage<String> storage = new AdaptiveArrayStorage<>();
+
+        Assert.assertNull(storage.get(0));
+        Assert.assertNull(storage.get(1000));
+
+        storage.set(500, "a");
+        storage.set(3, "b");
+        storage.set(250, "c");
+
+        Assert.assertEquals(storage.size(), 3);
+        Assert.assertEquals(storage.get(500), "a");
+        Assert.assertEquals(storage.get(3), "b");
+        Assert.assertEquals(storage.get(250), "c");
+        Assert.assertNull(storage.get(4));
+        Assert.assertFalse(storage.isDense());
+
+        storage.set(3, "d");
+        Assert.assertEquals(storage.get(3), "d");
+        Assert.assertEquals(storage.size(), 3);
+
+        storage.set(250, null);
+        Assert.assertNull(storage.get(250));
+        Assert.assertEquals(storage.size(), 2);
+        Assert.assertEquals(storage.get(500), "a");
+
+        // exceed the inline capacity with widely spread indices
+        for (int i = 0; i < 10; i++) {
+            storage.set(1000 + i * 100, Integer.toString(i));
+        }
+
+        Assert.assertFalse(storage.isDense());
+        Assert.assertEquals(storage.size(), 12);
+        for (int i = 0; i < 10; i++) {
+            Assert.assertEquals(storage.get(1000 + i * 100), Integer.toString(i));
+        }
+    }
+
+    @Test
+    public void testDense() {
+        final AdaptiveArrayStorage<Integer> storage = new AdaptiveArrayStorage<>();
+
+        for (int i = 0; i < 20; i++) {
+            storage.set(i, i);
+        }
+
+        Assert.assertTrue(storage.isDense());
+        Assert.assertEquals(storage.size(), 20);
+
+        // indices beyond the current capacity
+        Assert.assertNull(storage.get(100));
+        storage.set(100, 100);
+        Assert.assertEquals(storage.get(100).intValue(), 100);
+        Assert.assertEquals(storage.size(), 21);
+
+        storage.set(5, null);
+        storage.set(200, null);
+        Assert.assertNull(storage.get(5));
+        Assert.assertEquals(storage.size(), 20);
+    }
+
+    @Test
+    public void testRandom() {
+        final Random random = new Random(42);
+        final AdaptiveArrayStorage<Integer> storage = new AdaptiveArrayStorage<>();
+        final Map<Integer, Integer> reference = new HashMap<>();
+
+        for (int i = 0; i < 1000; i++) {
+            final int idx = random.nextInt(200);
+            final Integer value = random.nextInt(10) == 0 ? null : random.nextInt();
+
+            storage.set(idx, value);
+            if (value == null) {
+                reference.remove(idx);
+            } else {
+                reference.put(idx, value);
+            }
+
+            Assert.assertEquals(storage.size(), reference.size());
+        }
+
+        for (int i = 0; i < 250; i++) {
+            Assert.assertEquals(storage.get(i), reference.get(i));
+        }
+    }
+}
@@ -0,0 +1,127 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.commons.smartcollections;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * @author frohme
+ */
+public class IntSignatureRegisterTest {
+
+    @Test
+    public void testRegister() {
+        final IntSignatureRegister register = new IntSignatureRegister(3);
+
+        final int init = register.allocate(-1);
+        final int a = register.add(new int[] {1, 2, 3});
+        final int b = register.add(new int[] {3, 2, 1});
+
+        Assert.assertEquals(register.size(), 2);
+        Assert.assertEquals(register.getIdBound(), 3);
+        Assert.assertFalse(register.isRegistered(init));
+        Assert.assertTrue(register.isRegistered(a));
+
+        Assert.assertEquals(register.find(new int[] {1, 2, 3}), a);
+        Assert.assertEquals(register.find(new int[] {3, 2, 1}), b);
+        Assert.assertEquals(register.find(new int[] {-1, -1, -1}), IntSignatureRegister.NOT_FOUND);
+        Assert.assertEquals(register.get(b, 0), 3);
+
+        register.set(init, 1, 7);
+        Assert.assertEquals(register.get(init, 1), 7);
+        Assert.assertThrows(IllegalStateException.class, () -> register.set(a, 1, 7));
+
+        register.remove(a);
+        Assert.assertEquals(register.find(new int[] {1, 2, 3}), IntSignatureRegister.NOT_FOUND);
+        Assert.assertEquals(register.size(), 1);
+
+        // ids are re-used
+        Assert.assertEquals(register.add(new int[] {4, 5, 6}), a);
+
+        register.widen(4, 0);
+        Assert.assertEquals(register.getWidth(), 4);
+        Assert.assertEquals(register.find(new int[] {3, 2, 1, 0}), b);
+        Assert.assertEquals(register.get(init, 1), 7);
+        Assert.assertEquals(register.get(init, 3), 0);
+
+        final int[] buffer = new int[4];
+        register.copy(a, buffer);
+        Assert.assertEquals(buffer, new int[] {4, 5, 6, 0});
+    }
+
+    @Test
+    public void testDoubleRemove() {
+        final IntSignatureRegister register = new IntSignatureRegister(2);
+
+        final int init = register.allocate(-1);
+        final int a = register.add(new int[] {1, 2});
+
+        register.remove(init);
+        register.remove(a);
+
+        // releasing an id twice would hand it out to two different allocations
+        Assert.assertThrows(IllegalArgumentException.class, () -> register.remove(init));
+        Assert.assertThrows(IllegalArgumentException.class, () -> register.remove(a));
+        Assert.assertThrows(IllegalArgumentException.class, () -> register.remove(-1));
+        Assert.assertThrows(IllegalArgumentException.class, () -> register.remove(2));
+
+        final int b = register.add(new int[] {3, 4});
+        final int c = register.add(new int[] {5, 6});
+        Assert.assertNotEquals(b, c);
+        Assert.assertEquals(register.getIdBound(), 2);
+
+        // re-allocated ids can be removed again
+        register.remove(b);
+        Assert.assertEquals(register.find(new int[] {3, 4}), IntSignatureRegister.NOT_FOUND);
+        Assert.assertEquals(register.find(new int[] {5, 6}), c);
+    }
+
+    @Test
+    public void testRandomized() {
+        final Random random = new Random(42);
+        final IntSignatureRegister register = new IntSignatureRegister(2);
+        final Map<List<Integer>, Integer> reference = new HashMap<>();
+
+        for (int i = 0; i < 10000; i++) {
+            final int[] sig = {random.nextInt(50), random.nextInt(50)};
+            final List<Integer> key = new ArrayList<>(2);
+            key.add(sig[0]);
+            key.add(sig[1]);
+
+            final Integer expected = reference.get(key);
+            final int actual = register.find(sig);
+
+            if (expected == null) {
+                Assert.assertEquals(actual, IntSignatureRegister.NOT_FOUND);
+                reference.put(key, register.add(sig));
+            } else {
+                Assert.assertEquals(actual, expected.intValue());
+                if (random.nextBoolean()) {
+                    register.remove(actual);
+                    reference.remove(key);
+                }
+            }
+            Assert.assertEquals(register.size(), reference.size());
+        }
+    }
+}
@@ -0,0 +1,213 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.commons.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A lock-free implementation of a disjoint set (union-find) data structure for integers, which may be accessed and
+ * modified concurrently by multiple threads. The implementation follows the ideas presented in the paper <a
+ * href="https://doi.org/10.1145/103418.103458"><i>Wait-free Parallel Algorithms for the Union-Find Problem</i> (R.
+ * Anderson, H. Woll; Proc. STOC 1991)</a>:
+ * <ul>
+ * <li>The parent and the rank of each element are stored in a single (atomically updated) {@code long}, so that
+ * linking two roots and increasing the rank of a root are compare-and-swap (CAS) operations that only succeed if the
+ * respective element is still a root with the expected rank.</li>
+ * <li>Roots are linked by rank, using the index of the roots to break ties. This total order on roots guarantees that
+ * concurrent links cannot form cycles.</li>
+ * <li>{@link #find(int) Find} operations shorten the traversed paths via path splitting. Failing CAS operations are
+ * benign here, since they only indicate that another thread has shortened the path already.</li>
+ * </ul>
+ * All operations are linearizable. In particular, {@link #union(int, int)} returns {@code true} for exactly one of
+ * multiple concurrent invocations that unite the same two sets.
+ *
+ * @author frohme
+ */
+public final class ConcurrentIntDisjointSets implements IntDisjointSets {
+
+    private static final long PARENT_MASK = 0xFFFFFFFFL;
+
+    private final AtomicLongArray nodes;
+
+    /**
+     * Initializes the disjoint-set data structure.
+     *
+     * @param n
+     *         the overall size of the domain
+     */
+    public ConcurrentIntDisjointSets(int n) {
+        this.nodes = new AtomicLongArray(n);
+        for (int i = 0; i < n; i++) {
+            // rank 0
+            nodes.lazySet(i, i);
+        }
+    }
+
+    @Override
+    public int size() {
+        return nodes.length();
+    }
+
+    @Override
+    public boolean equivalent(int x, int y) {
+        int rx = x;
+        int ry = y;
+
+        while (true) {
+            rx = find(rx);
+            ry = find(ry);
+
+            if (rx == ry) {
+                return true;
+            }
+            // rx may have been linked (to ry) concurrently
+            if (parent(nodes.get(rx)) == rx) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Finds the set of a given element, and shortens the path to the root node via path splitting.
+     *
+     * @param x
+     *         the element
+     *
+     * @return the identifier of the set which contains the given element
+     */
+    @Override
+    public int find(int x) {
+        int curr = x;
+        long node = nodes.get(curr);
+        int parent = parent(node);
+
+        while (curr != parent) {
+            final long parentNode = nodes.get(parent);
+            final int grandParent = parent(parentNode);
+
+            if (parent != grandParent) {
+                nodes.compareAndSet(curr, node, withParent(node, grandParent));
+            }
+
+            curr = parent;
+            node = parentNode;
+            parent = grandParent;
+        }
+
+        return curr;
+    }
+
+    @Override
+    public boolean union(int x, int y) {
+        int rx = x;
+        int ry = y;
+
+        while (true) {
+            rx = find(rx);
+            ry = find(ry);
+
+            if (rx == ry) {
+                return false;
+            }
+
+            if (tryLink(rx, ry) >= 0) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Unites two given sets. If one of the given elements has concurrently ceased to be a representative, the sets of
+     * the two elements are united nonetheless.
+     *
+     * @param rx
+     *         the first set
+     * @param ry
+     *         the second set
+     *
+     * @return the identifier of the resulting set
+     */
+    @Override
+    public int link(int rx, int ry) {
+        final int root = tryLink(rx, ry);
+        if (root >= 0) {
+            return root;
+        }
+
+        union(rx, ry);
+        return find(rx);
+    }
+
+    /**
+     * Tries to link the two given roots.
+     *
+     * @return the root of the united set, or {@code -1} if one of the given elements has concurrently ceased to be a
+     * root (or its rank has changed)
+     */
+    private int tryLink(int rx, int ry) {
+        final long nx = nodes.get(rx);
+        final long ny = nodes.get(ry);
+
+        if (parent(nx) != rx || parent(ny) != ry) {
+            return -1;
+        }
+
+        final int rankX = rank(nx);
+        final int rankY = rank(ny);
+
+        final int child, root;
+        final long childNode, rootNode;
+
+        if (rankX < rankY || (rankX == rankY && rx < ry)) {
+            child = rx;
+            childNode = nx;
+            root = ry;
+            rootNode = ny;
+        } else {
+            child = ry;
+            childNode = ny;
+            root = rx;
+            rootNode = nx;
+        }
+
+        if (!nodes.compareAndSet(child, childNode, withParent(childNode, root))) {
+            return -1;
+        }
+
+        if (rankX == rankY) {
+            // best effort: a failing CAS only leads to a less balanced forest
+            nodes.compareAndSet(root, rootNode, node(root, rank(rootNode) + 1));
+        }
+
+        return root;
+    }
+
+    private static int parent(long node) {
+        return (int) (node & PARENT_MASK);
+    }
+
+    private static int rank(long node) {
+        return (int) (node >>> Integer.SIZE);
+    }
+
+    private static long withParent(long node, int parent) {
+        return (node & ~PARENT_MASK) | parent;
+    }
+
+    private static long node(int parent, int rank) {
+        return ((long) rank << Integer.SIZE) | parent;
+    }
+}
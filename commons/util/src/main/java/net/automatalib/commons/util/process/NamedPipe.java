@@ -0,0 +1,302 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.commons.util.process;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A named pipe (FIFO) in the file system. Named pipes allow to exchange data with system processes that expect file
+ * arguments, without writing the data to disk first. A named pipe can be re-used for multiple exchanges, as long as
+ * the previous exchange has been completed successfully. After a failed exchange, the pipe should be {@link #delete()
+ * deleted}, since a failed reader or writer may not have released its end of the pipe.
+ * <p>
+ * Note that opening a named pipe blocks until the other end has been opened as well. Therefore, the local end of the
+ * pipe should be handled asynchronously (see {@link #readAsync(PipeReader)} and {@link #writeAsync(PipeWriter)}) by the
+ * pooled threads of the {@link ProcessUtil}, while the communicating process runs. Once the process has terminated,
+ * {@link #await(Future)} collects the result of the local end, even if the process terminated without ever opening its
+ * end of the pipe (e.g. due to an error).
+ * <p>
+ * Named pipes are created via the {@code mkfifo} utility and are therefore only available on POSIX-like systems, see
+ * {@link #isSupported()}.
+ *
+ * @author frohme
+ */
+public final class NamedPipe {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(NamedPipe.class);
+
+    private static final String MKFIFO = "mkfifo";
+
+    private static final long UNBLOCK_INTERVAL_MS = 10;
+
+    private static @Nullable Boolean supported;
+
+    private final File file;
+
+    private NamedPipe(File file) {
+        this.file = file;
+    }
+
+    /**
+     * Creates a new named pipe in a (new) temporary directory. The pipe is deleted upon termination of the JVM, unless
+     * deleted earlier via {@link #delete()}.
+     *
+     * @param prefix
+     *         the prefix of the pipe's file name
+     * @param suffix
+     *         the suffix of the pipe's file name, e.g. to indicate the file format of the transmitted data
+     *
+     * @return the created named pipe
+     *
+     * @throws IOException
+     *         if the pipe could not be created
+     */
+    public static NamedPipe create(String prefix, String suffix) throws IOException {
+        final File dir = Files.createTempDirectory(prefix).toFile();
+        final File file = new File(dir, prefix + suffix);
+
+        final int exitValue;
+        try {
+            exitValue = ProcessUtil.invokeProcess(new String[] {MKFIFO, file.getAbsolutePath()});
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new IOException(ie);
+        }
+
+        if (exitValue != 0) {
+            if (!dir.delete()) {
+                LOGGER.warn("Could not delete directory: " + dir.getAbsolutePath());
+            }
+            throw new IOException("Could not create named pipe (exit code " + exitValue + ')');
+        }
+
+        // files are deleted in reverse order of registration
+        dir.deleteOnExit();
+        file.deleteOnExit();
+
+        return new NamedPipe(file);
+    }
+
+    /**
+     * Checks whether named pipes can be created on the current system. The result of the (one-time) check is cached.
+     *
+     * @return {@code true} if named pipes are supported, {@code false} otherwise
+     */
+    public static synchronized boolean isSupported() {
+        if (supported == null) {
+            try {
+                create("fifo-check", "").delete();
+                supported = Boolean.TRUE;
+            } catch (IOException e) {
+                LOGGER.debug("Named pipes are not supported", e);
+                supported = Boolean.FALSE;
+            }
+        }
+        return supported;
+    }
+
+    /**
+     * Returns the file (path) of this named pipe.
+     *
+     * @return the file of this named pipe
+     */
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * Asynchronously writes data to this named pipe. The given writer is executed by a pooled thread and is expected
+     * to open (and close) the given file itself. If the writer fails, the pipe is briefly opened for writing, so that a
+     * reading process observes the end of the stream rather than waiting indefinitely.
+     *
+     * @param writer
+     *         the writer that writes the data to the given file
+     *
+     * @return a future that completes once the writer has finished
+     *
+     * @see #await(Future)
+     */
+    public Future<?> writeAsync(PipeWriter writer) {
+        return CompletableFuture.runAsync(() -> {
+            try {
+                writer.write(file);
+            } catch (IOException | RuntimeException e) {
+                // signal EOF to the reader
+                try (FileOutputStream os = new FileOutputStream(file)) {
+                    LOGGER.trace("Closing named pipe {} due to failed writer", os);
+                } catch (IOException ioe) {
+                    e.addSuppressed(ioe);
+                }
+                throw new CompletionException(e);
+            }
+        }, ProcessUtil.EXECUTOR);
+    }
+
+    /**
+     * Asynchronously reads data from this named pipe. The given reader is executed by a pooled thread and is expected
+     * to open (and close) the given file itself. If the reader fails, the pipe is briefly opened for reading, so that a
+     * writing process does not wait indefinitely.
+     *
+     * @param reader
+     *         the reader that reads the data from the given file
+     * @param <T>
+     *         the type of the read data
+     *
+     * @return a future for the read data
+     *
+     * @see #await(Future)
+     */
+    public <T> Future<T> readAsync(PipeReader<T> reader) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return reader.read(file);
+            } catch (IOException | RuntimeException e) {
+                // release a blocked writer
+                try (FileInputStream is = new FileInputStream(file)) {
+                    LOGGER.trace("Closing named pipe {} due to failed reader", is);
+                } catch (IOException ioe) {
+                    e.addSuppressed(ioe);
+                }
+                throw new CompletionException(e);
+            }
+        }, ProcessUtil.EXECUTOR);
+    }
+
+    /**
+     * Waits for a reader or writer (see {@link #readAsync(PipeReader)}, {@link #writeAsync(PipeWriter)}) to finish.
+     * This method must only be called after the communication partner (i.e. the process on the other end of the pipe)
+     * has terminated. As long as the reader or writer has not finished (e.g. because it is blocked on opening the pipe
+     * or on a full pipe buffer), the pipe is {@link #unblock() unblocked}, so that the reader or writer can terminate.
+     *
+     * @param future
+     *         the future of the reader or writer
+     * @param <T>
+     *         the type of the result
+     *
+     * @return the result of the future
+     *
+     * @throws IOException
+     *         if the reader or writer failed with an {@link IOException}
+     * @throws InterruptedException
+     *         if the current thread has been interrupted while waiting
+     */
+    public <T> T await(Future<T> future) throws IOException, InterruptedException {
+        try {
+            while (true) {
+                try {
+                    return future.get(UNBLOCK_INTERVAL_MS, TimeUnit.MILLISECONDS);
+                } catch (TimeoutException te) {
+                    unblock();
+                }
+            }
+        } catch (ExecutionException ee) {
+            final Throwable cause =
+                    ee.getCause() instanceof CompletionException ? ee.getCause().getCause() : ee.getCause();
+
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else {
+                throw new IOException(cause);
+            }
+        }
+    }
+
+    /**
+     * Releases any thread that is blocked on opening this pipe (for either reading or writing) by briefly opening both
+     * ends of the pipe. A blocked reader will subsequently encounter the end of the stream, a blocked writer will
+     * encounter a broken pipe.
+     */
+    public void unblock() {
+        // opening a FIFO for reading and writing does not block
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            LOGGER.trace("Unblocking named pipe {}", raf);
+        } catch (IOException e) {
+            LOGGER.warn("Could not unblock named pipe: " + file.getAbsolutePath(), e);
+        }
+    }
+
+    /**
+     * Deletes this named pipe (and its directory).
+     */
+    public void delete() {
+        final File dir = file.getParentFile();
+
+        if (!file.delete()) {
+            LOGGER.warn("Could not delete file: " + file.getAbsolutePath());
+        }
+        if (dir != null && !dir.delete()) {
+            LOGGER.warn("Could not delete directory: " + dir.getAbsolutePath());
+        }
+    }
+
+    /**
+     * A reader for the data transmitted through a {@link NamedPipe}.
+     *
+     * @param <T>
+     *         the type of the read data
+     */
+    @FunctionalInterface
+    public interface PipeReader<T> {
+
+        /**
+         * Reads the data from the given file (i.e. the pipe).
+         *
+         * @param file
+         *         the file of the pipe
+         *
+         * @return the read data
+         *
+         * @throws IOException
+         *         if reading from the pipe fails
+         */
+        T read(File file) throws IOException;
+    }
+
+    /**
+     * A writer for the data transmitted through a {@link NamedPipe}.
+     */
+    @FunctionalInterface
+    public interface PipeWriter {
+
+        /**
+         * Writes the data to the given file (i.e. the pipe).
+         *
+         * @param file
+         *         the file of the pipe
+         *
+         * @throws IOException
+         *         if writing to the pipe fails
+         */
+        void write(File file) throws IOException;
+    }
+}
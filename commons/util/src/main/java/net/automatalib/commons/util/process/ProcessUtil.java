@@ -20,6 +20,10 @@ import java.io.OutputStream;
 import java.io.Reader;
 import java.io.Writer;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 
 import com.google.common.io.CharStreams;
@@ -35,6 +39,13 @@ import org.checkerframework.checker.nullness.qual.Nullable;
  */
 public final class ProcessUtil {
 
+    /**
+     * A shared pool of daemon threads for handling the (asynchronous) I/O of system processes. Threads are re-used
+     * across process invocations, so that frequently spawning short-lived processes does not additionally spawn new
+     * threads for each of them.
+     */
+    static final ExecutorService EXECUTOR = Executors.newCachedThreadPool(new DaemonThreadFactory());
+
     private ProcessUtil() {
         // prevent instantiation
     }
@@ -241,9 +252,9 @@ public final class ProcessUtil {
      * Builds and starts a system process for the given set of command line arguments. Additionally allows to supply an
      * input stream to the invoked program, as well as independent consumers for the process' standard and error output.
      * <p>
-     * The consumers for the process' outputs run in separate threads, preventing potential deadlock scenarios where
-     * client code waits for the process' termination (e.g. {@link Process#waitFor()}) which is blocked by full system
-     * buffers.
+     * The consumers for the process' outputs run in separate (pooled) threads, preventing potential deadlock scenarios
+     * where client code waits for the process' termination (e.g. {@link Process#waitFor()}) which is blocked by full
+     * system buffers.
      *
      * @param commandLine
      *         the list of command line arguments to run
@@ -270,15 +281,11 @@ public final class ProcessUtil {
         writeProcessInput(process, input);
 
         if (stdOutConsumer != null) {
-            final Thread stdOutThread =
-                    new StreamGobbler(process.getInputStream(), new DelegatingConsumer(stdOutConsumer));
-            stdOutThread.start();
+            EXECUTOR.execute(new StreamGobbler(process.getInputStream(), new DelegatingConsumer(stdOutConsumer)));
         }
 
         if (stdErrConsumer != null) {
-            final Thread stdErrThread =
-                    new StreamGobbler(process.getErrorStream(), new DelegatingConsumer(stdErrConsumer));
-            stdErrThread.start();
+            EXECUTOR.execute(new StreamGobbler(process.getErrorStream(), new DelegatingConsumer(stdErrConsumer)));
         }
 
         return process;
@@ -293,4 +300,19 @@ public final class ProcessUtil {
         }
     }
 
+    /**
+     * A {@link ThreadFactory} for the daemon threads of the {@link #EXECUTOR}, so that pending I/O of system
+     * processes does not prevent the JVM from terminating.
+     */
+    private static final class DaemonThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable r) {
+            final Thread t = new Thread(r, "automatalib-process-" + counter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        }
+    }
 }
@@ -0,0 +1,132 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.commons.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * @author frohme
+ */
+public class ConcurrentIntDisjointSetsTest {
+
+    private static final int SIZE = 10_000;
+    private static final int NUM_UNIONS = 8_000;
+    private static final int NUM_THREADS = 4;
+
+    @Test
+    public void testSequential() {
+        final Random random = new Random(42);
+        final IntDisjointSets reference = new UnionFind(SIZE);
+        final IntDisjointSets sets = new ConcurrentIntDisjointSets(SIZE);
+
+        Assert.assertEquals(sets.size(), SIZE);
+
+        for (int i = 0; i < NUM_UNIONS; i++) {
+            final int x = random.nextInt(SIZE);
+            final int y = random.nextInt(SIZE);
+
+            Assert.assertEquals(sets.equivalent(x, y), reference.equivalent(x, y));
+            Assert.assertEquals(sets.union(x, y), reference.union(x, y));
+            Assert.assertTrue(sets.equivalent(x, y));
+        }
+
+        final int x = random.nextInt(SIZE);
+        final int y = random.nextInt(SIZE);
+        final int rx = sets.find(x), ry = sets.find(y);
+        if (rx != ry) {
+            final int root = sets.link(rx, ry);
+            Assert.assertTrue(root == rx || root == ry);
+            Assert.assertEquals(sets.find(x), root);
+            Assert.assertEquals(sets.find(y), root);
+            reference.union(x, y);
+        }
+
+        checkPartition(sets, reference);
+    }
+
+    @Test
+    public void testConcurrent() throws InterruptedException, ExecutionException {
+        final Random random = new Random(42);
+        final int[][] unions = new int[NUM_UNIONS][2];
+        final IntDisjointSets reference = new UnionFind(SIZE);
+
+        int expectedUnions = 0;
+        for (int[] union : unions) {
+            union[0] = random.nextInt(SIZE);
+            union[1] = random.nextInt(SIZE);
+            if (reference.union(union[0], union[1])) {
+                expectedUnions++;
+            }
+        }
+
+        final IntDisjointSets sets = new ConcurrentIntDisjointSets(SIZE);
+        final CyclicBarrier barrier = new CyclicBarrier(NUM_THREADS);
+        final ExecutorService executor = Executors.newFixedThreadPool(NUM_THREADS);
+
+        try {
+            final List<Future<Integer>> futures = new ArrayList<>(NUM_THREADS);
+
+            // all threads perform all unions (in different orders) to maximize contention
+            for (int t = 0; t < NUM_THREADS; t++) {
+                final int offset = t * (NUM_UNIONS / NUM_THREADS);
+                final Callable<Integer> task = () -> {
+                    barrier.await();
+                    int successful = 0;
+                    for (int i = 0; i < NUM_UNIONS; i++) {
+                        final int[] union = unions[(offset + i) % NUM_UNIONS];
+                        if (sets.union(union[0], union[1])) {
+                            successful++;
+                        }
+                    }
+                    return successful;
+                };
+                futures.add(executor.submit(task));
+            }
+
+            int actualUnions = 0;
+            for (Future<Integer> f : futures) {
+                actualUnions += f.get();
+            }
+
+            // each union of two disjoint sets must have been reported by exactly one thread
+            Assert.assertEquals(actualUnions, expectedUnions);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        checkPartition(sets, reference);
+    }
+
+    private static void checkPartition(IntDisjointSets sets, IntDisjointSets reference) {
+        for (int i = 0; i < SIZE; i++) {
+            final int repr = sets.find(i);
+            Assert.assertEquals(sets.find(repr), repr);
+            Assert.assertTrue(reference.equivalent(i, repr));
+            Assert.assertTrue(sets.equivalent(i, reference.find(i)));
+        }
+    }
+}
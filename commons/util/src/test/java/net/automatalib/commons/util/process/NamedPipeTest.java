@@ -0,0 +1,154 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.commons.util.process;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Future;
+
+import net.automatalib.commons.util.IOUtil;
+import org.testng.Assert;
+import org.testng.SkipException;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Tests for {@link NamedPipe}s, using a shell script as a stand-in for an external tool (e.g. LTSmin) that reads its
+ * input from one file and writes its output to another file.
+ *
+ * @author frohme
+ */
+public class NamedPipeTest {
+
+    private static final String STUB = "if [ \"$1\" = fail ]; then exit 3; fi; tr a-z A-Z < \"$2\" > \"$3\"";
+
+    private NamedPipe input;
+    private NamedPipe output;
+
+    @BeforeClass
+    public void checkSupport() {
+        if (!NamedPipe.isSupported()) {
+            throw new SkipException("Named pipes are not supported");
+        }
+    }
+
+    @BeforeMethod
+    public void setUp() throws IOException {
+        input = NamedPipe.create("input", ".txt");
+        output = NamedPipe.create("output", ".txt");
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        input.delete();
+        output.delete();
+    }
+
+    @Test(timeOut = 10000)
+    public void testRoundTrip() throws IOException, InterruptedException {
+        // re-use the pipes for multiple exchanges
+        for (int i = 0; i < 3; i++) {
+            final String data = buildData(i);
+            final Result result = runStub("ok", data);
+
+            Assert.assertEquals(result.exitValue, 0);
+            Assert.assertEquals(result.output, data.toUpperCase());
+        }
+    }
+
+    @Test(timeOut = 10000)
+    public void testAbortingProcess() throws IOException, InterruptedException {
+        // the stub exits without ever opening the pipes, which must not block us
+        final Result result = runStub("fail", buildData(0));
+
+        Assert.assertEquals(result.exitValue, 3);
+        Assert.assertEquals(result.output, "");
+    }
+
+    @Test(timeOut = 10000)
+    public void testFailingWriter() throws IOException, InterruptedException {
+        final Future<?> writer = input.writeAsync(f -> {
+            throw new IOException("expected");
+        });
+        final Future<String> reader = output.readAsync(NamedPipeTest::readFile);
+
+        final int exitValue = ProcessUtil.invokeProcess(buildCommandLine("ok"));
+        Assert.assertEquals(exitValue, 0);
+        Assert.assertEquals(output.await(reader), "");
+        Assert.assertThrows(IOException.class, () -> input.await(writer));
+    }
+
+    private Result runStub(String mode, String data) throws IOException, InterruptedException {
+        final Future<?> writer = input.writeAsync(f -> {
+            try (Writer w = IOUtil.asBufferedUTF8Writer(f)) {
+                w.write(data);
+            }
+        });
+        final Future<String> reader = output.readAsync(NamedPipeTest::readFile);
+
+        final int exitValue = ProcessUtil.invokeProcess(buildCommandLine(mode));
+
+        try {
+            input.await(writer);
+        } catch (IOException ioe) {
+            // a broken pipe is expected if the process did not consume the input
+            Assert.assertNotEquals(exitValue, 0);
+        }
+
+        return new Result(exitValue, output.await(reader));
+    }
+
+    private List<String> buildCommandLine(String mode) {
+        return Arrays.asList("sh",
+                             "-c",
+                             STUB,
+                             "stub",
+                             mode,
+                             input.getFile().getAbsolutePath(),
+                             output.getFile().getAbsolutePath());
+    }
+
+    private static String readFile(File file) throws IOException {
+        return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+    }
+
+    private static String buildData(int seed) {
+        // exceed the usual pipe buffer size of 64 KiB
+        final StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 20000; i++) {
+            sb.append("line").append(seed).append('-').append(i).append('\n');
+        }
+        return sb.toString();
+    }
+
+    private static final class Result {
+
+        private final int exitValue;
+        private final String output;
+
+        Result(int exitValue, String output) {
+            this.exitValue = exitValue;
+            this.output = output;
+        }
+    }
+}
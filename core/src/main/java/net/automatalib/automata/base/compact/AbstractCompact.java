@@ -123,6 +123,103 @@ public abstract class AbstractCompact<I, T, SP, TP> implements MutableAutomaton<
         return newState;
     }
 
+    /**
+     * Adds the given number of states to this automaton. The states have neither properties nor transitions. This
+     * method allows to allocate the storage of several states at once, e.g. for {@link #copyStatePropertiesFrom(
+     * AbstractCompact, int) bulk copies}.
+     *
+     * @param count
+     *         the number of states to add
+     *
+     * @return the id of the first added state
+     */
+    public int addIntStates(int count) {
+        final int first = numStates;
+        numStates += count;
+        ensureCapacity(numStates);
+        return first;
+    }
+
+    /**
+     * Checks whether the (raw) data of the given automaton can be copied into this automaton via {@link
+     * #copyStatePropertiesFrom(AbstractCompact, int)} and {@link #copyTransitionsFrom(AbstractCompact, int, int,
+     * int)}. By default, this is not the case. Subclasses that maintain additional data must not inherit a positive
+     * answer of this method.
+     *
+     * @param other
+     *         the automaton to copy from
+     *
+     * @return {@code true} if the data of the given automaton can be copied in bulk, {@code false} otherwise
+     */
+    public boolean isBulkCopyCompatible(AbstractCompact<?, ?, ?, ?> other) {
+        return false;
+    }
+
+    /**
+     * Copies the state properties of all states of the given (bulk-copy compatible) automaton to the states of this
+     * automaton, starting at the given offset.
+     * <p>
+     * The default implementation copies the properties state by state. Subclasses that declare themselves bulk-copy
+     * compatible should override this method with a direct copy of their internal data.
+     *
+     * @param other
+     *         the automaton to copy from
+     * @param offset
+     *         the id of the state of this automaton that receives the properties of state {@code 0}
+     *
+     * @see #isBulkCopyCompatible(AbstractCompact)
+     */
+    @SuppressWarnings("unchecked") // compatible automata share their property types
+    public void copyStatePropertiesFrom(AbstractCompact<?, ?, ?, ?> other, int offset) {
+        final int otherSize = other.size();
+        for (int i = 0; i < otherSize; i++) {
+            setStateProperty(offset + i, (SP) other.getStateProperty(i));
+        }
+    }
+
+    /**
+     * Copies the transitions of the states {@code from} (inclusive) to {@code to} (exclusive) of the given (bulk-copy
+     * compatible) automaton to the states of this automaton, shifted by the given offset. Concurrent invocations are
+     * permitted for disjoint ranges of states, as long as no other modifications happen concurrently.
+     * <p>
+     * The default implementation copies the transitions state by state (and symbol by symbol). Subclasses that declare
+     * themselves bulk-copy compatible should override this method with a direct copy of their internal data.
+     *
+     * @param other
+     *         the automaton to copy from
+     * @param from
+     *         the first state whose transitions should be copied
+     * @param to
+     *         the state after the last state whose transitions should be copied
+     * @param offset
+     *         the offset that is added to all (copied) states and successors
+     *
+     * @see #isBulkCopyCompatible(AbstractCompact)
+     */
+    public void copyTransitionsFrom(AbstractCompact<?, ?, ?, ?> other, int from, int to, int offset) {
+        copyTransitionsStateByState(other, from, to, offset);
+    }
+
+    @SuppressWarnings("unchecked") // compatible automata share their property types
+    private <I2, T2> void copyTransitionsStateByState(AbstractCompact<I2, T2, ?, ?> other,
+                                                      int from,
+                                                      int to,
+                                                      int offset) {
+        final Alphabet<I2> otherAlphabet = other.getInputAlphabet();
+        final List<T> transitions = new ArrayList<>();
+
+        for (int s = from; s < to; s++) {
+            for (int i = 0; i < alphabetSize; i++) {
+                transitions.clear();
+                for (T2 t : other.getTransitions(s, otherAlphabet.getSymbol(i))) {
+                    final int succ = other.getSuccessor(t);
+                    transitions.add(createTransition(succ + offset, (TP) other.getTransitionProperty(t)));
+                }
+                setTransitions(s + offset, alphabet.getSymbol(i), transitions);
+            }
+        }
+    }
+
     private void ensureCapacity(int newCapacity) {
         if (newCapacity <= stateCapacity) {
             return;
@@ -300,6 +397,38 @@ public abstract class AbstractCompact<I, T, SP, TP> implements MutableAutomaton<
         return payload.type.updateStorage(oldStorage, payload, arrayConstructor, (arr, idx) -> arr[idx] = defaultValue);
     }
 
+    /**
+     * Copies the (successor) entries of the states {@code from} (inclusive) to {@code to} (exclusive) from the given
+     * source storage to the given target storage, shifting all valid successors by the given offset.
+     */
+    protected final void copyShifted(int[] source, int[] target, int from, int to, int offset) {
+        final int low = from * alphabetSize;
+        final int high = to * alphabetSize;
+
+        if (offset == 0) {
+            System.arraycopy(source, low, target, low, high - low);
+        } else {
+            final int shift = offset * alphabetSize;
+            for (int i = low; i < high; i++) {
+                final int succ = source[i];
+                target[i + shift] = succ == INVALID_STATE ? INVALID_STATE : succ + offset;
+            }
+        }
+    }
+
+    /**
+     * Copies the (property) entries of the states {@code from} (inclusive) to {@code to} (exclusive) from the given
+     * source storage to the given target storage, shifted by the given offset.
+     */
+    protected final void copyShifted(@Nullable Object[] source,
+                                     @Nullable Object[] target,
+                                     int from,
+                                     int to,
+                                     int offset) {
+        final int low = from * alphabetSize;
+        System.arraycopy(source, low, target, low + offset * alphabetSize, (to - from) * alphabetSize);
+    }
+
     protected static @Nullable Integer toState(int id) {
         return (id != INVALID_STATE) ? id : null;
     }
@@ -78,6 +78,11 @@ public abstract class AbstractCompactSimpleDeterministic<I, SP>
         this.transitions = updateTransitionStorage(this.transitions, AbstractCompact.INVALID_STATE, payload);
     }
 
+    @Override
+    public void copyTransitionsFrom(AbstractCompact<?, ?, ?, ?> other, int from, int to, int offset) {
+        copyShifted(((AbstractCompactSimpleDeterministic<?, ?>) other).transitions, transitions, from, to, offset);
+    }
+
     @Override
     public void setTransitionProperty(Integer transition, Void property) {}
 
@@ -69,6 +69,26 @@ public class UniversalCompactDet<I, SP, TP> extends AbstractCompactDeterministic
         return new CompactTransition<>(idx, succ, output);
     }
 
+    @Override
+    public boolean isBulkCopyCompatible(AbstractCompact<?, ?, ?, ?> other) {
+        // only the exact class is compatible, because subclasses may maintain additional data
+        return getClass() == UniversalCompactDet.class && other.getClass() == UniversalCompactDet.class &&
+               other.numInputs() == numInputs();
+    }
+
+    @Override
+    public void copyStatePropertiesFrom(AbstractCompact<?, ?, ?, ?> other, int offset) {
+        final UniversalCompactDet<?, ?, ?> det = (UniversalCompactDet<?, ?, ?>) other;
+        System.arraycopy(det.stateProperties, 0, stateProperties, offset, det.size());
+    }
+
+    @Override
+    public void copyTransitionsFrom(AbstractCompact<?, ?, ?, ?> other, int from, int to, int offset) {
+        final UniversalCompactDet<?, ?, ?> det = (UniversalCompactDet<?, ?, ?>) other;
+        copyShifted(det.transitions, transitions, from, to, offset);
+        copyShifted(det.transitionProperties, transitionProperties, from, to, offset);
+    }
+
     @Override
     public int getIntSuccessor(CompactTransition<TP> transition) {
         return transition.getSuccId();
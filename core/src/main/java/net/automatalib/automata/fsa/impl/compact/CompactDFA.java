@@ -18,6 +18,7 @@ package net.automatalib.automata.fsa.impl.compact;
 import java.util.BitSet;
 
 import net.automatalib.automata.AutomatonCreator;
+import net.automatalib.automata.base.compact.AbstractCompact;
 import net.automatalib.automata.base.compact.AbstractCompactSimpleDeterministic;
 import net.automatalib.automata.fsa.MutableDFA;
 import net.automatalib.commons.util.WrapperUtil;
@@ -63,6 +64,24 @@ public class CompactDFA<I> extends AbstractCompactSimpleDeterministic<I, Boolean
         return new CompactDFA<>(newAlphabet, this);
     }
 
+    @Override
+    public boolean isBulkCopyCompatible(AbstractCompact<?, ?, ?, ?> other) {
+        // only the exact class is compatible, because subclasses may maintain additional data
+        return getClass() == CompactDFA.class && other.getClass() == CompactDFA.class &&
+               other.numInputs() == numInputs();
+    }
+
+    @Override
+    public void copyStatePropertiesFrom(AbstractCompact<?, ?, ?, ?> other, int offset) {
+        final BitSet otherAcceptance = ((CompactDFA<?>) other).acceptance;
+        final int otherSize = other.size();
+
+        acceptance.clear(offset, offset + otherSize);
+        for (int i = otherAcceptance.nextSetBit(0); i >= 0 && i < otherSize; i = otherAcceptance.nextSetBit(i + 1)) {
+            acceptance.set(i + offset);
+        }
+    }
+
     @Override
     public void flipAcceptance() {
         acceptance.flip(0, size());
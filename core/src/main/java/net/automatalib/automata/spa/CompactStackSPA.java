@@ -0,0 +1,421 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.automata.spa;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Map;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
+
+import net.automatalib.automata.concepts.InputAlphabetHolder;
+import net.automatalib.automata.concepts.StateIDs;
+import net.automatalib.automata.fsa.DFA;
+import net.automatalib.ts.simple.SimpleDTS;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.SPAAlphabet;
+import net.automatalib.words.VPDAlphabet.SymbolType;
+import net.automatalib.words.Word;
+import net.automatalib.words.WordBuilder;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A stack-based implementation for {@link SPA}s that operates on integer-encoded configurations. Compared to the
+ * {@link StackSPA}, procedures and procedure states are represented by integers and stacks are stored in a
+ * hash-consed, persistent trie. As a result, each configuration is identified by a single {@code int}, equal
+ * configurations are always represented by the same value, and executing a transition to an already known
+ * configuration does not allocate any memory.
+ * <p>
+ * The dense numbering of configurations allows for efficient (bounded) explorations of the configuration space, see
+ * {@link #findAccessSequence(IntPredicate, int)}.
+ * <p>
+ * Note that encountered configurations are stored for the lifetime of this {@link SPA} and that the procedures are
+ * encoded upon construction, i.e. later modifications of the procedures are not reflected by this {@link SPA}. This
+ * class is not thread-safe.
+ *
+ * @param <I>
+ *         input symbol type
+ *
+ * @author frohme
+ */
+public class CompactStackSPA<I> implements SPA<Integer, I>, SimpleDTS<Integer, I> {
+
+    /**
+     * The initial configuration, i.e. the empty stack.
+     */
+    public static final int INIT = StackTrie.EMPTY;
+
+    /**
+     * The (accepting) configuration after returning from the initial procedure.
+     */
+    public static final int TERM = -1;
+
+    /**
+     * The (rejecting) configuration after an undefined transition.
+     */
+    public static final int SINK = -2;
+
+    private static final int UNDEFINED = -1;
+
+    private final SPAAlphabet<I> alphabet;
+    private final I initialCall;
+    private final Map<I, DFA<?, I>> procedures;
+
+    private final int numInternals;
+    private final int numProceduralInputs;
+    private final int initialProcedure;
+
+    // procedure states are numbered globally, the successors of state s are stored at s * numProceduralInputs
+    private final int[] initialStates;
+    private final int[] stateProcedures;
+    private final int[] successors;
+    private final BitSet acceptance;
+
+    private final StackTrie stacks;
+
+    public CompactStackSPA(SPAAlphabet<I> alphabet, I initialCall, Map<I, ? extends DFA<?, I>> procedures) {
+        this.alphabet = alphabet;
+        this.initialCall = initialCall;
+        this.procedures = Collections.unmodifiableMap(procedures);
+
+        this.numInternals = alphabet.getNumInternals();
+        this.numProceduralInputs = numInternals + alphabet.getNumCalls();
+        this.initialProcedure = alphabet.isCallSymbol(initialCall) ? alphabet.getCallSymbolIndex(initialCall) : -1;
+
+        final int numProcedures = alphabet.getNumCalls();
+        final int[] offsets = new int[numProcedures + 1];
+
+        for (int p = 0; p < numProcedures; p++) {
+            final DFA<?, I> dfa = procedures.get(alphabet.getCallSymbol(p));
+            offsets[p + 1] = offsets[p] + (dfa == null ? 0 : dfa.size());
+        }
+
+        final int numStates = offsets[numProcedures];
+
+        this.initialStates = new int[numProcedures];
+        this.stateProcedures = new int[numStates];
+        this.successors = new int[numStates * numProceduralInputs];
+        this.acceptance = new BitSet(numStates);
+        this.stacks = new StackTrie();
+
+        Arrays.fill(this.initialStates, UNDEFINED);
+        Arrays.fill(this.successors, UNDEFINED);
+
+        for (int p = 0; p < numProcedures; p++) {
+            final DFA<?, I> dfa = procedures.get(alphabet.getCallSymbol(p));
+            if (dfa != null) {
+                encodeProcedure(dfa, p, offsets[p]);
+            }
+        }
+    }
+
+    private <S> void encodeProcedure(DFA<S, I> dfa, int procedure, int offset) {
+        final StateIDs<S> stateIDs = dfa.stateIDs();
+        final Predicate<I> definedInputs = getDefinedInputs(dfa);
+        final Alphabet<I> internals = alphabet.getInternalAlphabet();
+        final Alphabet<I> calls = alphabet.getCallAlphabet();
+
+        final S init = dfa.getInitialState();
+        if (init != null) {
+            initialStates[procedure] = offset + stateIDs.getStateId(init);
+        }
+
+        for (S s : dfa) {
+            final int id = offset + stateIDs.getStateId(s);
+            final int base = id * numProceduralInputs;
+
+            stateProcedures[id] = procedure;
+            acceptance.set(id, dfa.isAccepting(s));
+
+            for (int i = 0; i < numProceduralInputs; i++) {
+                final I sym = i < numInternals ? internals.getSymbol(i) : calls.getSymbol(i - numInternals);
+
+                if (definedInputs.test(sym)) {
+                    final S succ = dfa.getSuccessor(s, sym);
+                    if (succ != null) {
+                        successors[base + i] = offset + stateIDs.getStateId(succ);
+                    }
+                }
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <I> Predicate<I> getDefinedInputs(DFA<?, I> dfa) {
+        if (dfa instanceof InputAlphabetHolder) {
+            return ((InputAlphabetHolder<I>) dfa).getInputAlphabet()::containsSymbol;
+        }
+        return i -> true;
+    }
+
+    /**
+     * Returns the successor configuration of the given configuration for the given input.
+     *
+     * @param configuration
+     *         the (int-encoded) configuration
+     * @param input
+     *         the input symbol
+     *
+     * @return the (int-encoded) successor configuration
+     */
+    public int getIntTransition(int configuration, I input) {
+        if (!alphabet.containsSymbol(input)) {
+            return SINK;
+        }
+
+        final SymbolType type = alphabet.getSymbolType(input);
+        switch (type) {
+            case INTERNAL:
+                return getIntTransition(configuration, type, alphabet.getInternalSymbolIndex(input));
+            case CALL:
+                return getIntTransition(configuration, type, alphabet.getCallSymbolIndex(input));
+            case RETURN:
+                return getIntTransition(configuration, type, 0);
+            default:
+                throw new IllegalStateException("Unknown symbol type " + type);
+        }
+    }
+
+    private int getIntTransition(int configuration, SymbolType type, int index) {
+        if (configuration < 0) {
+            // sink and term
+            return SINK;
+        }
+
+        switch (type) {
+            case INTERNAL:
+                return getInternalSuccessor(configuration, index);
+            case CALL:
+                return getCallSuccessor(configuration, index);
+            case RETURN:
+                return getReturnSuccessor(configuration);
+            default:
+                throw new IllegalStateException("Unknown symbol type " + type);
+        }
+    }
+
+    private int getInternalSuccessor(int configuration, int internalIndex) {
+        if (configuration == INIT) {
+            return SINK;
+        }
+
+        final int next = successors[stacks.peek(configuration) * numProceduralInputs + internalIndex];
+        return next == UNDEFINED ? SINK : stacks.replaceTop(configuration, next);
+    }
+
+    private int getCallSuccessor(int configuration, int callIndex) {
+        final int next = initialStates[callIndex];
+        return next == UNDEFINED ? SINK : stacks.push(configuration, next);
+    }
+
+    private int getReturnSuccessor(int configuration) {
+        if (configuration == INIT) {
+            return SINK;
+        }
+
+        final int state = stacks.peek(configuration);
+
+        // cannot return, return unaccepted word
+        if (!acceptance.get(state)) {
+            return SINK;
+        }
+
+        final int procedure = stateProcedures[state];
+        final int previous = stacks.pop(configuration);
+
+        if (previous == INIT) {
+            return procedure == initialProcedure ? TERM : SINK;
+        }
+
+        final int next = successors[stacks.peek(previous) * numProceduralInputs + numInternals + procedure];
+        return next == UNDEFINED ? SINK : stacks.replaceTop(previous, next);
+    }
+
+    /**
+     * Returns whether the given configuration is accepting.
+     *
+     * @param configuration
+     *         the (int-encoded) configuration
+     *
+     * @return {@code true} if the configuration is accepting, {@code false} otherwise
+     */
+    public boolean isAccepting(int configuration) {
+        return configuration == TERM;
+    }
+
+    /**
+     * Returns the height of the stack of the given configuration. The static configurations {@link #INIT}, {@link
+     * #TERM} and {@link #SINK} have a stack height of {@code 0}.
+     *
+     * @param configuration
+     *         the (int-encoded) configuration
+     *
+     * @return the stack height of the given configuration
+     */
+    public int getStackHeight(int configuration) {
+        return configuration < 0 ? 0 : stacks.height(configuration);
+    }
+
+    /**
+     * Returns the number of distinct (non-static) configurations that have been encountered so far.
+     *
+     * @return the number of distinct configurations
+     */
+    public int getNumConfigurations() {
+        return stacks.size() - 1;
+    }
+
+    /**
+     * Computes a shortest word that transfers this {@link SPA} from its initial configuration to a configuration that
+     * satisfies the given predicate. The configuration space is explored in breadth-first order, whereas
+     * configurations whose stack height exceeds the given bound are not explored. Since configurations are interned,
+     * each configuration is explored at most once.
+     *
+     * @param target
+     *         the predicate for the (int-encoded) configurations to reach. The predicate is never evaluated on the
+     *         {@link #SINK} configuration
+     * @param maxStackHeight
+     *         the maximum stack height of explored configurations
+     *
+     * @return a shortest word leading to a configuration that satisfies the given predicate, or {@code null} if no
+     * such configuration is reachable within the given stack height
+     */
+    public @Nullable Word<I> findAccessSequence(IntPredicate target, int maxStackHeight) {
+        if (target.test(INIT)) {
+            return Word.epsilon();
+        }
+
+        final int numInputs = alphabet.size();
+        final SymbolType[] types = new SymbolType[numInputs];
+        final int[] indices = new int[numInputs];
+
+        for (int i = 0; i < numInputs; i++) {
+            final I sym = alphabet.getSymbol(i);
+            types[i] = alphabet.getSymbolType(sym);
+
+            if (types[i] == SymbolType.INTERNAL) {
+                indices[i] = alphabet.getInternalSymbolIndex(sym);
+            } else if (types[i] == SymbolType.CALL) {
+                indices[i] = alphabet.getCallSymbolIndex(sym);
+            }
+        }
+
+        // information about configurations is stored at index (configuration + 1) to account for TERM
+        int[] predConfigs = new int[stacks.size() + 1];
+        int[] predInputs = new int[stacks.size() + 1];
+        final BitSet visited = new BitSet();
+
+        int[] queue = new int[stacks.size()];
+        int head = 0;
+        int tail = 0;
+
+        visited.set(INIT + 1);
+        queue[tail++] = INIT;
+
+        while (head < tail) {
+            final int curr = queue[head++];
+
+            for (int i = 0; i < numInputs; i++) {
+                final int succ = getIntTransition(curr, types[i], indices[i]);
+
+                if (succ == SINK || visited.get(succ + 1) || getStackHeight(succ) > maxStackHeight) {
+                    continue;
+                }
+
+                visited.set(succ + 1);
+
+                if (succ + 1 >= predConfigs.length) {
+                    final int newLength = Math.max(succ + 2, stacks.size() + 1);
+                    predConfigs = Arrays.copyOf(predConfigs, newLength);
+                    predInputs = Arrays.copyOf(predInputs, newLength);
+                }
+
+                predConfigs[succ + 1] = curr;
+                predInputs[succ + 1] = i;
+
+                if (target.test(succ)) {
+                    return buildWord(succ, predConfigs, predInputs);
+                }
+
+                if (succ != TERM) {
+                    if (tail == queue.length) {
+                        queue = Arrays.copyOf(queue, queue.length * 2);
+                    }
+                    queue[tail++] = succ;
+                }
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Computes a shortest word accepted by this {@link SPA} whose runs do not exceed the given stack height.
+     *
+     * @param maxStackHeight
+     *         the maximum stack height of explored configurations
+     *
+     * @return a shortest accepted word, or {@code null} if no word is accepted within the given stack height
+     *
+     * @see #findAccessSequence(IntPredicate, int)
+     */
+    public @Nullable Word<I> findShortestAcceptedWord(int maxStackHeight) {
+        return findAccessSequence(this::isAccepting, maxStackHeight);
+    }
+
+    private Word<I> buildWord(int configuration, int[] predConfigs, int[] predInputs) {
+        final WordBuilder<I> wb = new WordBuilder<>();
+        int curr = configuration;
+
+        while (curr != INIT) {
+            wb.append(alphabet.getSymbol(predInputs[curr + 1]));
+            curr = predConfigs[curr + 1];
+        }
+
+        return wb.reverse().toWord();
+    }
+
+    @Override
+    public Integer getTransition(Integer state, I input) {
+        return getIntTransition(state, input);
+    }
+
+    @Override
+    public boolean isAccepting(Integer state) {
+        return isAccepting(state.intValue());
+    }
+
+    @Override
+    public Integer getInitialState() {
+        return INIT;
+    }
+
+    @Override
+    public I getInitialProcedure() {
+        return initialCall;
+    }
+
+    @Override
+    public SPAAlphabet<I> getInputAlphabet() {
+        return this.alphabet;
+    }
+
+    @Override
+    public Map<I, DFA<?, I>> getProcedures() {
+        return procedures;
+    }
+}
@@ -0,0 +1,158 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.automata.spa;
+
+import java.util.Arrays;
+
+/**
+ * A hash-consed, persistent trie of stacks. Each node of the trie represents a (non-empty) stack by means of a
+ * reference to the node of the remaining stack and the (int-encoded) top-of-stack element. Since nodes are interned,
+ * equal stacks are represented by the same node id, and pushing an element onto an already known stack does not
+ * allocate new memory.
+ * <p>
+ * Node ids are assigned densely in order of creation, which allows to associate additional data with stacks by means
+ * of arrays. The id {@link #EMPTY} represents the empty stack.
+ * <p>
+ * Nodes are never removed. This class is not thread-safe.
+ *
+ * @author frohme
+ */
+final class StackTrie {
+
+    /**
+     * The node id of the empty stack.
+     */
+    static final int EMPTY = 0;
+
+    private static final int DEFAULT_CAPACITY = 1 << 6;
+
+    private int[] parents;
+    private int[] tops;
+    private int[] heights;
+    private int size;
+
+    // open addressing, stores node ids, EMPTY denotes a free slot (the empty stack is never stored)
+    private int[] table;
+    private int mask;
+
+    StackTrie() {
+        this.parents = new int[DEFAULT_CAPACITY];
+        this.tops = new int[DEFAULT_CAPACITY];
+        this.heights = new int[DEFAULT_CAPACITY];
+        this.size = 1;
+
+        this.table = new int[DEFAULT_CAPACITY * 2];
+        this.mask = table.length - 1;
+    }
+
+    /**
+     * Returns the (unique) node of the stack that results from pushing the given element onto the given stack.
+     *
+     * @param node
+     *         the node of the stack
+     * @param top
+     *         the element to push
+     *
+     * @return the node of the resulting stack
+     */
+    int push(int node, int top) {
+        int idx = hash(node, top) & mask;
+        int candidate;
+
+        while ((candidate = table[idx]) != EMPTY) {
+            if (parents[candidate] == node && tops[candidate] == top) {
+                return candidate;
+            }
+            idx = (idx + 1) & mask;
+        }
+
+        final int result = size++;
+
+        if (result == parents.length) {
+            final int newCapacity = parents.length * 2;
+            parents = Arrays.copyOf(parents, newCapacity);
+            tops = Arrays.copyOf(tops, newCapacity);
+            heights = Arrays.copyOf(heights, newCapacity);
+        }
+
+        parents[result] = node;
+        tops[result] = top;
+        heights[result] = heights[node] + 1;
+        table[idx] = result;
+
+        if (size * 2 > table.length) {
+            rehash();
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns the (unique) node of the stack that results from replacing the top-of-stack element of the given stack.
+     *
+     * @param node
+     *         the node of the (non-empty) stack
+     * @param top
+     *         the new top-of-stack element
+     *
+     * @return the node of the resulting stack
+     */
+    int replaceTop(int node, int top) {
+        return push(parents[node], top);
+    }
+
+    int pop(int node) {
+        return parents[node];
+    }
+
+    int peek(int node) {
+        return tops[node];
+    }
+
+    int height(int node) {
+        return heights[node];
+    }
+
+    /**
+     * Returns the number of nodes in this trie (including the empty stack). All node ids are smaller than this value.
+     *
+     * @return the number of nodes
+     */
+    int size() {
+        return size;
+    }
+
+    private void rehash() {
+        final int[] newTable = new int[table.length * 2];
+        final int newMask = newTable.length - 1;
+
+        for (int i = 1; i < size; i++) {
+            int idx = hash(parents[i], tops[i]) & newMask;
+            while (newTable[idx] != EMPTY) {
+                idx = (idx + 1) & newMask;
+            }
+            newTable[idx] = i;
+        }
+
+        this.table = newTable;
+        this.mask = newMask;
+    }
+
+    private static int hash(int node, int top) {
+        final int h = (node * 31 + top) * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -58,6 +58,25 @@ public class CompactMealy<I, O> extends AbstractCompactDeterministic<I, CompactT
         this.outputs = updateTransitionStorage(this.outputs, null, payload);
     }
 
+    @Override
+    public boolean isBulkCopyCompatible(AbstractCompact<?, ?, ?, ?> other) {
+        // only the exact class is compatible, because subclasses may maintain additional data
+        return getClass() == CompactMealy.class && other.getClass() == CompactMealy.class &&
+               other.numInputs() == numInputs();
+    }
+
+    @Override
+    public void copyStatePropertiesFrom(AbstractCompact<?, ?, ?, ?> other, int offset) {
+        // no state properties
+    }
+
+    @Override
+    public void copyTransitionsFrom(AbstractCompact<?, ?, ?, ?> other, int from, int to, int offset) {
+        final CompactMealy<?, ?> mealy = (CompactMealy<?, ?>) other;
+        copyShifted(mealy.transitions, transitions, from, to, offset);
+        copyShifted(mealy.outputs, outputs, from, to, offset);
+    }
+
     @Override
     public O getTransitionOutput(CompactTransition<O> transition) {
         return transition.getProperty();
@@ -0,0 +1,246 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.automata.vpda;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+import net.automatalib.commons.util.collections.CollectionsUtil;
+import net.automatalib.words.VPDAlphabet;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A compact implementation for 1-SEVPAs, whose locations are represented by integers. Internal transitions are stored
+ * in a flat array indexed by {@code (location, internalSymbol)} and return transitions are stored in a flat array
+ * indexed by {@code (location, returnSymbol, stackSymbol)}. Stack symbols are encoded as {@code location *
+ * numCalls + callSymbol} (see {@link #encodeIntStackSym(int, int)}), in accordance with {@link DefaultOneSEVPA}.
+ * <p>
+ * Since the number of stack symbols grows with the number of locations, the return transitions occupy memory
+ * quadratic in the number of locations. The arrays are resized (amortized) when locations are added.
+ *
+ * @param <I>
+ *         input symbol type
+ *
+ * @author frohme
+ */
+public class CompactOneSEVPA<I> extends AbstractOneSEVPA<Integer, I> {
+
+    /**
+     * The value of undefined locations (e.g. of undefined transitions).
+     */
+    public static final int INVALID_LOCATION = -1;
+
+    private static final int DEFAULT_INIT_CAPACITY = 8;
+
+    private final int numInternals;
+    private final int numCalls;
+    private final int numReturns;
+
+    private final BitSet acceptance;
+    private int[] internalSuccessors;
+    private int[] returnSuccessors;
+
+    private int capacity;
+    private int size;
+    private int initial;
+
+    public CompactOneSEVPA(final VPDAlphabet<I> alphabet) {
+        this(alphabet, DEFAULT_INIT_CAPACITY);
+    }
+
+    public CompactOneSEVPA(final VPDAlphabet<I> alphabet, final int capacity) {
+        super(alphabet);
+        this.numInternals = alphabet.getNumInternals();
+        this.numCalls = alphabet.getNumCalls();
+        this.numReturns = alphabet.getNumReturns();
+
+        this.capacity = Math.max(1, capacity);
+        this.acceptance = new BitSet(this.capacity);
+        this.internalSuccessors = newTable(this.capacity * numInternals);
+        this.returnSuccessors = newTable(this.capacity * numReturns * this.capacity * numCalls);
+        this.initial = INVALID_LOCATION;
+    }
+
+    public int addInitialLocation(final boolean accepting) {
+        final int loc = addLocation(accepting);
+        setInitialLocation(loc);
+        return loc;
+    }
+
+    public int addLocation(final boolean accepting) {
+        if (size == capacity) {
+            ensureCapacity(capacity * 2);
+        }
+
+        final int loc = size++;
+        acceptance.set(loc, accepting);
+        return loc;
+    }
+
+    private void ensureCapacity(final int newCapacity) {
+        this.internalSuccessors = Arrays.copyOf(internalSuccessors, newCapacity * numInternals);
+        Arrays.fill(this.internalSuccessors, capacity * numInternals, newCapacity * numInternals, INVALID_LOCATION);
+
+        final int oldRowLength = capacity * numCalls;
+        final int newRowLength = newCapacity * numCalls;
+        final int[] newReturnSuccessors = newTable(newCapacity * numReturns * newRowLength);
+
+        for (int row = 0; row < capacity * numReturns; row++) {
+            System.arraycopy(returnSuccessors,
+                             row * oldRowLength,
+                             newReturnSuccessors,
+                             row * newRowLength,
+                             oldRowLength);
+        }
+
+        this.returnSuccessors = newReturnSuccessors;
+        this.capacity = newCapacity;
+    }
+
+    private static int[] newTable(final int length) {
+        final int[] result = new int[length];
+        Arrays.fill(result, INVALID_LOCATION);
+        return result;
+    }
+
+    public void setInitialLocation(final int loc) {
+        this.initial = loc;
+    }
+
+    public void setAccepting(final int loc, final boolean accepting) {
+        acceptance.set(loc, accepting);
+    }
+
+    public void setInternalSuccessor(final int loc, final I intSym, final int succ) {
+        setIntInternalSuccessor(loc, alphabet.getInternalSymbolIndex(intSym), succ);
+    }
+
+    public void setIntInternalSuccessor(final int loc, final int intSymIdx, final int succ) {
+        internalSuccessors[loc * numInternals + intSymIdx] = succ;
+    }
+
+    public void setReturnSuccessor(final int loc, final I retSym, final int stackSym, final int succ) {
+        setIntReturnSuccessor(loc, alphabet.getReturnSymbolIndex(retSym), stackSym, succ);
+    }
+
+    public void setIntReturnSuccessor(final int loc, final int retSymIdx, final int stackSym, final int succ) {
+        returnSuccessors[returnIndex(loc, retSymIdx, stackSym)] = succ;
+    }
+
+    /**
+     * Returns the internal successor of the given location.
+     *
+     * @param loc
+     *         the location
+     * @param intSymIdx
+     *         the index of the internal symbol
+     *
+     * @return the successor location, or {@link #INVALID_LOCATION} if the transition is undefined
+     */
+    public int getIntInternalSuccessor(final int loc, final int intSymIdx) {
+        return internalSuccessors[loc * numInternals + intSymIdx];
+    }
+
+    /**
+     * Returns the return successor of the given location.
+     *
+     * @param loc
+     *         the location
+     * @param retSymIdx
+     *         the index of the return symbol
+     * @param stackSym
+     *         the (encoded) stack symbol
+     *
+     * @return the successor location, or {@link #INVALID_LOCATION} if the transition is undefined
+     */
+    public int getIntReturnSuccessor(final int loc, final int retSymIdx, final int stackSym) {
+        if (stackSym >= size * numCalls) {
+            return INVALID_LOCATION;
+        }
+        return returnSuccessors[returnIndex(loc, retSymIdx, stackSym)];
+    }
+
+    private int returnIndex(final int loc, final int retSymIdx, final int stackSym) {
+        return (loc * numReturns + retSymIdx) * capacity * numCalls + stackSym;
+    }
+
+    /**
+     * Encodes the stack symbol that is pushed when reading the given call symbol in the given location.
+     *
+     * @param srcLoc
+     *         the location
+     * @param callSymIdx
+     *         the index of the call symbol
+     *
+     * @return the encoded stack symbol
+     */
+    public int encodeIntStackSym(final int srcLoc, final int callSymIdx) {
+        return numCalls * srcLoc + callSymIdx;
+    }
+
+    public boolean isAcceptingLocation(final int loc) {
+        return acceptance.get(loc);
+    }
+
+    public int getIntInitialLocation() {
+        return initial;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public @Nullable Integer getInternalSuccessor(final Integer loc, final I intSym) {
+        final int succ = getIntInternalSuccessor(loc, alphabet.getInternalSymbolIndex(intSym));
+        return succ == INVALID_LOCATION ? null : succ;
+    }
+
+    @Override
+    public @Nullable Integer getReturnSuccessor(final Integer loc, final I retSym, final int stackSym) {
+        final int succ = getIntReturnSuccessor(loc, alphabet.getReturnSymbolIndex(retSym), stackSym);
+        return succ == INVALID_LOCATION ? null : succ;
+    }
+
+    @Override
+    public Integer getLocation(final int id) {
+        return id;
+    }
+
+    @Override
+    public int getLocationId(final Integer loc) {
+        return loc;
+    }
+
+    @Override
+    public List<Integer> getLocations() {
+        return CollectionsUtil.intRange(0, size);
+    }
+
+    @Override
+    public boolean isAcceptingLocation(final Integer loc) {
+        return isAcceptingLocation(loc.intValue());
+    }
+
+    @Override
+    @SuppressWarnings("nullness") // the initial location is only undefined during construction
+    public Integer getInitialLocation() {
+        return initial == INVALID_LOCATION ? null : initial;
+    }
+
+}
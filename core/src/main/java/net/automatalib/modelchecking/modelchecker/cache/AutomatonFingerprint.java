@@ -0,0 +1,159 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.modelchecking.modelchecker.cache;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+
+import net.automatalib.automata.UniversalDeterministicAutomaton;
+import net.automatalib.automata.concepts.StateIDs;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A canonical, structural representation of the reachable part of a deterministic automaton. States are numbered in
+ * the order of a breadth-first traversal that explores the inputs in the order given by the input collection. Hence,
+ * two automata that are isomorphic (with respect to their reachable states, the given inputs and their state and
+ * transition properties) yield equal fingerprints, regardless of their concrete state objects or implementations.
+ * <p>
+ * In particular, two minimal automata that accept the same language (or compute the same transduction) have equal
+ * fingerprints.
+ *
+ * @author frohme
+ */
+final class AutomatonFingerprint {
+
+    private static final int UNDEFINED = -1;
+
+    /**
+     * The inputs this fingerprint has been computed for.
+     */
+    private final List<?> inputs;
+
+    /**
+     * The canonical successor indices, {@code inputs.size()} many per state.
+     */
+    private final int[] successors;
+
+    /**
+     * The state property followed by the {@code inputs.size()} transition properties, per state.
+     */
+    private final @Nullable Object[] properties;
+
+    private final int hashCode;
+
+    private AutomatonFingerprint(List<?> inputs, int[] successors, @Nullable Object[] properties) {
+        this.inputs = inputs;
+        this.successors = successors;
+        this.properties = properties;
+        this.hashCode = 31 * (31 * inputs.hashCode() + Arrays.hashCode(successors)) + Arrays.hashCode(properties);
+    }
+
+    /**
+     * Computes the fingerprint of the given automaton.
+     *
+     * @param automaton
+     *         the automaton
+     * @param inputs
+     *         the inputs to regard
+     * @param <S>
+     *         state type
+     * @param <I>
+     *         input symbol type
+     * @param <T>
+     *         transition type
+     *
+     * @return the fingerprint of the given automaton
+     */
+    static <S, I, T> AutomatonFingerprint of(UniversalDeterministicAutomaton<S, I, T, ?, ?> automaton,
+                                             Collection<? extends I> inputs) {
+
+        final List<I> inputList = new ArrayList<>(inputs);
+        final int numInputs = inputList.size();
+        final S init = automaton.getInitialState();
+
+        if (init == null) {
+            return new AutomatonFingerprint(inputList, new int[0], new Object[0]);
+        }
+
+        final StateIDs<S> stateIDs = automaton.stateIDs();
+        final int size = automaton.size();
+
+        // maps the automaton-specific state ids to their canonical (BFS) ids
+        final int[] canonicalIds = new int[size];
+        Arrays.fill(canonicalIds, UNDEFINED);
+
+        final List<S> bfsOrder = new ArrayList<>(size);
+        bfsOrder.add(init);
+        canonicalIds[stateIDs.getStateId(init)] = 0;
+
+        final int[] successors = new int[size * numInputs];
+        final Object[] properties = new Object[size * (numInputs + 1)];
+
+        int succPtr = 0;
+        int propPtr = 0;
+
+        for (int i = 0; i < bfsOrder.size(); i++) {
+            final S state = bfsOrder.get(i);
+            properties[propPtr++] = automaton.getStateProperty(state);
+
+            for (I sym : inputList) {
+                final T trans = automaton.getTransition(state, sym);
+
+                if (trans == null) {
+                    successors[succPtr++] = UNDEFINED;
+                    properties[propPtr++] = null;
+                } else {
+                    final S succ = automaton.getSuccessor(trans);
+                    final int succId = stateIDs.getStateId(succ);
+
+                    if (canonicalIds[succId] == UNDEFINED) {
+                        canonicalIds[succId] = bfsOrder.size();
+                        bfsOrder.add(succ);
+                    }
+
+                    successors[succPtr++] = canonicalIds[succId];
+                    properties[propPtr++] = automaton.getTransitionProperty(trans);
+                }
+            }
+        }
+
+        return new AutomatonFingerprint(inputList,
+                                        Arrays.copyOf(successors, succPtr),
+                                        Arrays.copyOf(properties, propPtr));
+    }
+
+    @Override
+    public boolean equals(@Nullable Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof AutomatonFingerprint)) {
+            return false;
+        }
+
+        final AutomatonFingerprint that = (AutomatonFingerprint) o;
+        return hashCode == that.hashCode && Arrays.equals(successors, that.successors) &&
+               Objects.equals(inputs, that.inputs) && Arrays.equals(properties, that.properties);
+    }
+
+    @Override
+    public int hashCode() {
+        return hashCode;
+    }
+}
@@ -0,0 +1,43 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.modelchecking.modelchecker.cache;
+
+import net.automatalib.automata.fsa.DFA;
+import net.automatalib.modelchecking.ModelCheckerCache.DFAModelCheckerCache;
+
+/**
+ * A DFAModelCheckerCache that looks up cached counter examples by a canonical representation of the given DFA, and
+ * evicts the least recently used results once a given capacity is exceeded.
+ * <p>
+ * In active learning, hypotheses may re-visit (structurally) equivalent models between refinements. Contrary to the
+ * {@link SizeDFAModelCheckerCache}, results for such models are retained.
+ *
+ * @param <I>
+ *         the input type
+ * @param <P>
+ *         the property type
+ * @param <R>
+ *         the type of a counterexample
+ *
+ * @author frohme
+ */
+public class StructuralDFAModelCheckerCache<I, P, R> extends StructuralModelCheckerCache<I, DFA<?, I>, P, R>
+        implements DFAModelCheckerCache<I, P, R> {
+
+    public StructuralDFAModelCheckerCache(DFAModelChecker<I, P, R> modelChecker, int capacity) {
+        super(modelChecker, capacity);
+    }
+}
@@ -0,0 +1,43 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.modelchecking.modelchecker.cache;
+
+import net.automatalib.automata.transducers.MealyMachine;
+import net.automatalib.modelchecking.ModelChecker.MealyModelChecker;
+import net.automatalib.modelchecking.ModelCheckerCache.MealyModelCheckerCache;
+import net.automatalib.modelchecking.modelchecker.cache.InternalModelCheckerDelegator.MealyModelCheckerDelegator;
+
+/**
+ * @author frohme
+ * @see StructuralDFAModelCheckerCache
+ */
+public class StructuralMealyModelCheckerCache<I, O, P, R>
+        extends StructuralModelCheckerCache<I, MealyMachine<?, I, ?, O>, P, R>
+        implements MealyModelCheckerCache<I, O, P, R>,
+                   MealyModelCheckerDelegator<MealyModelChecker<I, O, P, R>, I, O, P, R> {
+
+    private final MealyModelChecker<I, O, P, R> mealyModelChecker;
+
+    public StructuralMealyModelCheckerCache(MealyModelChecker<I, O, P, R> modelChecker, int capacity) {
+        super(modelChecker, capacity);
+        this.mealyModelChecker = modelChecker;
+    }
+
+    @Override
+    public MealyModelChecker<I, O, P, R> getModelChecker() {
+        return mealyModelChecker;
+    }
+}
@@ -0,0 +1,173 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.modelchecking.modelchecker.cache;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import net.automatalib.automata.UniversalDeterministicAutomaton;
+import net.automatalib.commons.util.Pair;
+import net.automatalib.modelchecking.ModelChecker;
+import net.automatalib.modelchecking.ModelCheckerCache;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * An implementation of a cache for model checkers. Based on the structure of the (reachable part of the) automaton and
+ * the input alphabet.
+ * <p>
+ * Contrary to the {@link SizeModelCheckerCache size-based caches}, cached results are not invalidated when the
+ * automaton changes, but are looked up by a canonical representation of the automaton. Hence, results remain available
+ * if a (structurally) equivalent automaton is checked again at a later point. To bound the memory consumption, the
+ * cache holds at most {@link #getCapacity()} results and evicts the least recently used result once this capacity is
+ * exceeded.
+ *
+ * @param <I>
+ *         the input type
+ * @param <A>
+ *         the automaton type
+ * @param <P>
+ *         the property type
+ * @param <R>
+ *         the result type of a call to {@link #findCounterExample(UniversalDeterministicAutomaton, Collection,
+ *         Object)}.
+ *
+ * @author frohme
+ */
+class StructuralModelCheckerCache<I, A extends UniversalDeterministicAutomaton<?, I, ?, ?, ?>, P, R>
+        implements ModelCheckerCache<I, A, P, R> {
+
+    /**
+     * The actual cache, in access order. We need to wrap R in an {@link Optional} because results from {@link
+     * ModelChecker#findCounterExample(Object, Collection, Object)} can be null.
+     */
+    private final Map<Pair<AutomatonFingerprint, P>, Optional<R>> counterExamples;
+
+    /**
+     * A function to any ModelChecker.findCounterExample.
+     */
+    private final ModelChecker<I, A, P, R> modelChecker;
+
+    private final int capacity;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * Constructs a new {@link StructuralModelCheckerCache}.
+     *
+     * @param modelChecker
+     *         a function to any ModelChecker.findCounterExample.
+     * @param capacity
+     *         the maximum number of cached results
+     */
+    StructuralModelCheckerCache(ModelChecker<I, A, P, R> modelChecker, int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+
+        this.modelChecker = modelChecker;
+        this.capacity = capacity;
+        this.counterExamples = new LinkedHashMap<Pair<AutomatonFingerprint, P>, Optional<R>>(16, 0.75f, true) {
+
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Pair<AutomatonFingerprint, P>, Optional<R>> eldest) {
+                if (size() > StructuralModelCheckerCache.this.capacity) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * The cached implementation for finding counter examples.
+     *
+     * @see ModelChecker#findCounterExample(Object, Collection, Object)
+     */
+    @Override
+    public @Nullable R findCounterExample(A automaton, Collection<? extends I> inputs, P property) {
+        final UniversalDeterministicAutomaton<?, I, ?, ?, ?> uda = automaton;
+        final Pair<AutomatonFingerprint, P> key = Pair.of(AutomatonFingerprint.of(uda, inputs), property);
+        final Optional<R> cached = counterExamples.get(key);
+
+        if (cached != null) {
+            hits++;
+            return cached.orElse(null);
+        }
+
+        misses++;
+        final R result = modelChecker.findCounterExample(automaton, inputs, property);
+        counterExamples.put(key, Optional.ofNullable(result));
+
+        return result;
+    }
+
+    @Override
+    public void clear() {
+        counterExamples.clear();
+    }
+
+    /**
+     * Returns the maximum number of results that are cached.
+     *
+     * @return the capacity of this cache
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Returns the number of currently cached results.
+     *
+     * @return the number of currently cached results
+     */
+    public int size() {
+        return counterExamples.size();
+    }
+
+    /**
+     * Returns the number of queries that could be answered by the cache.
+     *
+     * @return the number of cache hits
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * Returns the number of queries that had to be delegated to the model checker.
+     *
+     * @return the number of cache misses
+     */
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Returns the number of results that have been evicted due to the bounded capacity.
+     *
+     * @return the number of evictions
+     */
+    public long getEvictions() {
+        return evictions;
+    }
+}
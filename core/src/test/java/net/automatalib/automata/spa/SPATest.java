@@ -15,6 +15,7 @@
  */
 package net.automatalib.automata.spa;
 
+import java.util.List;
 import java.util.Map;
 
 import com.google.common.collect.ImmutableMap;
@@ -22,6 +23,7 @@ import net.automatalib.automata.fsa.DFA;
 import net.automatalib.automata.fsa.impl.FastDFA;
 import net.automatalib.automata.fsa.impl.FastDFAState;
 import net.automatalib.automata.fsa.impl.compact.CompactDFA;
+import net.automatalib.commons.util.collections.CollectionsUtil;
 import net.automatalib.words.Alphabet;
 import net.automatalib.words.SPAAlphabet;
 import net.automatalib.words.Word;
@@ -44,8 +46,57 @@ public class SPATest {
 
     @Test
     public void testStackSPA() {
-        final SPA<?, Character> spa = new StackSPA<>(alphabet, 'S', subModels);
+        checkSemantics(new StackSPA<>(alphabet, 'S', subModels));
+    }
+
+    @Test
+    public void testCompactStackSPA() {
+        checkSemantics(new CompactStackSPA<>(alphabet, 'S', subModels));
+    }
+
+    @Test
+    public void testCompactStackSPAConsistency() {
+        final StackSPA<?, Character> stackSPA = new StackSPA<>(alphabet, 'S', subModels);
+        final CompactStackSPA<Character> compactSPA = new CompactStackSPA<>(alphabet, 'S', subModels);
+
+        for (List<Character> word : CollectionsUtil.allTuples(alphabet, 0, 5)) {
+            Assert.assertEquals(compactSPA.accepts(word), stackSPA.accepts(word), word.toString());
+        }
+    }
+
+    @Test
+    public void testCompactStackSPAInterning() {
+        final CompactStackSPA<Character> spa = new CompactStackSPA<>(alphabet, 'S', subModels);
+
+        final Integer c1 = spa.getState(Word.fromCharSequence("SaSRa"));
+        final Integer c2 = spa.getState(Word.fromCharSequence("STSRR"));
+        final int numConfigurations = spa.getNumConfigurations();
+        final Integer c3 = spa.getState(Word.fromCharSequence("SaSRa"));
+
+        Assert.assertNotNull(c1);
+        Assert.assertEquals(c1, c2);
+        Assert.assertEquals(c1, c3);
+        Assert.assertEquals(spa.getNumConfigurations(), numConfigurations);
+        Assert.assertEquals(spa.getStackHeight(c1), 1);
+    }
+
+    @Test
+    public void testCompactStackSPAExploration() {
+        final CompactStackSPA<Character> spa = new CompactStackSPA<>(alphabet, 'S', subModels);
+
+        Assert.assertEquals(spa.findShortestAcceptedWord(1), Word.fromCharSequence("SR"));
+        Assert.assertEquals(spa.findAccessSequence(c -> spa.getStackHeight(c) == 3, 3), Word.fromCharSequence("SSS"));
+        Assert.assertNull(spa.findAccessSequence(c -> spa.getStackHeight(c) == 3, 2));
+
+        // words that require the (nested) invocation of T
+        final Integer nested = spa.getState(Word.fromCharSequence("STcT"));
+        Assert.assertNotNull(nested);
+        Assert.assertEquals(spa.findAccessSequence(c -> c == nested, 3), Word.fromCharSequence("STcT"));
+
+        Assert.assertNull(new CompactStackSPA<>(alphabet, 'U', subModels).findShortestAcceptedWord(5));
+    }
 
+    private void checkSemantics(SPA<?, Character> spa) {
         // Check getters
         Assert.assertEquals(spa.getInputAlphabet(), alphabet);
         Assert.assertEquals(spa.getInitialProcedure(), (Character) 'S');
@@ -65,6 +65,51 @@ public class VPDATest {
         Assert.assertFalse(vpda.accepts(Word.fromCharSequence("()()")));
     }
 
+    /**
+     * Tests the bracket language (see {@link #testBracketLanguage()}) on a {@link CompactOneSEVPA} whose tables are
+     * resized after the transitions have been defined.
+     */
+    @Test
+    public void testCompactBracketLanguage() {
+
+        final Alphabet<Character> callAlphabet = Alphabets.fromArray('(', '[');
+        final Alphabet<Character> returnAlphabet = Alphabets.fromArray(')', ']');
+        final VPDAlphabet<Character> alphabet =
+                new DefaultVPDAlphabet<>(Collections.emptyList(), callAlphabet, returnAlphabet);
+
+        final CompactOneSEVPA<Character> vpda = new CompactOneSEVPA<>(alphabet, 1);
+
+        final int init = vpda.addInitialLocation(false);
+        final int accepting = vpda.addLocation(true);
+
+        vpda.setReturnSuccessor(init, ')', vpda.encodeIntStackSym(init, 0), accepting);
+        vpda.setReturnSuccessor(init, ']', vpda.encodeIntStackSym(init, 1), accepting);
+        vpda.setReturnSuccessor(accepting, ')', vpda.encodeIntStackSym(init, 0), accepting);
+        vpda.setReturnSuccessor(accepting, ']', vpda.encodeIntStackSym(init, 1), accepting);
+
+        // force resizing
+        for (int i = 0; i < 10; i++) {
+            vpda.addLocation(false);
+        }
+
+        Assert.assertEquals(vpda.size(), 12);
+        Assert.assertEquals(vpda.getLocations().size(), 12);
+        Assert.assertEquals(vpda.getIntReturnSuccessor(accepting, 1, vpda.encodeIntStackSym(init, 1)), accepting);
+        Assert.assertEquals(vpda.getIntReturnSuccessor(accepting, 1, vpda.encodeIntStackSym(11, 1)),
+                            CompactOneSEVPA.INVALID_LOCATION);
+
+        Assert.assertTrue(vpda.accepts(Word.fromCharSequence("(([[]]))")));
+        Assert.assertTrue(vpda.accepts(Word.fromCharSequence("([([])])")));
+        Assert.assertTrue(vpda.accepts(Word.fromCharSequence("[(())]")));
+
+        Assert.assertFalse(vpda.accepts(Word.fromCharSequence("([([")));
+        Assert.assertFalse(vpda.accepts(Word.fromCharSequence("(((]]]")));
+        Assert.assertFalse(vpda.accepts(Word.fromCharSequence(")(")));
+        Assert.assertFalse(vpda.accepts(Word.fromCharSequence("()()")));
+
+        verifyGraphRepresentation(alphabet, vpda, vpda.graphView());
+    }
+
     /**
      * Test case for reported issue <a href="https://github.com/LearnLib/automatalib/pull/39">#39</a>.
      */
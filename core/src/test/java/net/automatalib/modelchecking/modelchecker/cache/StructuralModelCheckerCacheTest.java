@@ -0,0 +1,181 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.modelchecking.modelchecker.cache;
+
+import java.util.Collection;
+import java.util.Collections;
+
+import net.automatalib.automata.fsa.DFA;
+import net.automatalib.automata.fsa.impl.compact.CompactDFA;
+import net.automatalib.automata.transducers.MealyMachine;
+import net.automatalib.automata.transducers.impl.compact.CompactMealy;
+import net.automatalib.modelchecking.ModelChecker.DFAModelChecker;
+import net.automatalib.modelchecking.ModelChecker.MealyModelChecker;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.impl.Alphabets;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * @author frohme
+ */
+public class StructuralModelCheckerCacheTest {
+
+    private static final Alphabet<Character> ALPHABET = Alphabets.characters('a', 'b');
+
+    @Test
+    public void testIsomorphicAutomata() {
+        final int[] checks = {0};
+        final DFAModelChecker<Character, String, String> modelChecker = (dfa, inputs, property) -> {
+            checks[0]++;
+            return property;
+        };
+        final StructuralDFAModelCheckerCache<Character, String, String> cache =
+                new StructuralDFAModelCheckerCache<>(modelChecker, 10);
+
+        final DFA<?, Character> dfa1 = buildDFA(false);
+        final DFA<?, Character> dfa2 = buildDFA(true);
+
+        Assert.assertEquals(cache.findCounterExample(dfa1, ALPHABET, "p"), "p");
+        Assert.assertEquals(cache.findCounterExample(dfa2, ALPHABET, "p"), "p");
+        Assert.assertEquals(checks[0], 1);
+        Assert.assertEquals(cache.getHits(), 1);
+        Assert.assertEquals(cache.getMisses(), 1);
+
+        // different property
+        Assert.assertEquals(cache.findCounterExample(dfa2, ALPHABET, "q"), "q");
+        Assert.assertEquals(checks[0], 2);
+
+        // different structure
+        final CompactDFA<Character> dfa3 = buildDFA(false);
+        dfa3.setAccepting(dfa3.getInitialState(), false);
+        Assert.assertEquals(cache.findCounterExample(dfa3, ALPHABET, "p"), "p");
+        Assert.assertEquals(checks[0], 3);
+
+        // previous results are still cached
+        Assert.assertEquals(cache.findCounterExample(dfa1, ALPHABET, "p"), "p");
+        Assert.assertEquals(checks[0], 3);
+
+        Assert.assertEquals(cache.getHits(), 2);
+        Assert.assertEquals(cache.getMisses(), 3);
+        Assert.assertEquals(cache.getEvictions(), 0);
+        Assert.assertEquals(cache.size(), 3);
+
+        cache.clear();
+        Assert.assertEquals(cache.size(), 0);
+        Assert.assertEquals(cache.findCounterExample(dfa1, ALPHABET, "p"), "p");
+        Assert.assertEquals(checks[0], 4);
+    }
+
+    @Test
+    public void testNullResults() {
+        final int[] checks = {0};
+        final MealyModelChecker<Character, Integer, String, String> modelChecker =
+                new MealyModelChecker<Character, Integer, String, String>() {
+
+                    @Override
+                    public @Nullable String findCounterExample(MealyMachine<?, Character, ?, Integer> automaton,
+                                                               Collection<? extends Character> inputs,
+                                                               String property) {
+                        checks[0]++;
+                        return null;
+                    }
+
+                    @Override
+                    public Collection<? super Integer> getSkipOutputs() {
+                        return Collections.emptyList();
+                    }
+
+                    @Override
+                    public void setSkipOutputs(Collection<? super Integer> skipOutputs) {}
+                };
+
+        final StructuralMealyModelCheckerCache<Character, Integer, String, String> cache =
+                new StructuralMealyModelCheckerCache<>(modelChecker, 10);
+
+        final CompactMealy<Character, Integer> mealy = new CompactMealy<>(ALPHABET);
+        final Integer s0 = mealy.addInitialState();
+        mealy.addTransition(s0, 'a', s0, 1);
+
+        Assert.assertNull(cache.findCounterExample(mealy, ALPHABET, "p"));
+        Assert.assertNull(cache.findCounterExample(mealy, ALPHABET, "p"));
+        Assert.assertEquals(checks[0], 1);
+
+        // different output
+        mealy.removeAllTransitions(s0);
+        mealy.addTransition(s0, 'a', s0, 2);
+        Assert.assertNull(cache.findCounterExample(mealy, ALPHABET, "p"));
+        Assert.assertEquals(checks[0], 2);
+    }
+
+    @Test
+    public void testEviction() {
+        final int[] checks = {0};
+        final DFAModelChecker<Character, Integer, Integer> modelChecker = (dfa, inputs, property) -> {
+            checks[0]++;
+            return property;
+        };
+        final StructuralDFAModelCheckerCache<Character, Integer, Integer> cache =
+                new StructuralDFAModelCheckerCache<>(modelChecker, 2);
+        final DFA<?, Character> dfa = buildDFA(false);
+
+        cache.findCounterExample(dfa, ALPHABET, 1);
+        cache.findCounterExample(dfa, ALPHABET, 2);
+        // refresh 1, so that 2 is the least recently used entry
+        cache.findCounterExample(dfa, ALPHABET, 1);
+        cache.findCounterExample(dfa, ALPHABET, 3);
+
+        Assert.assertEquals(checks[0], 3);
+        Assert.assertEquals(cache.size(), 2);
+        Assert.assertEquals(cache.getEvictions(), 1);
+
+        cache.findCounterExample(dfa, ALPHABET, 1);
+        Assert.assertEquals(checks[0], 3);
+        cache.findCounterExample(dfa, ALPHABET, 2);
+        Assert.assertEquals(checks[0], 4);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testInvalidCapacity() {
+        new StructuralDFAModelCheckerCache<Character, Object, Object>((dfa, inputs, property) -> null, 0);
+    }
+
+    /**
+     * Builds a DFA accepting words with an even number of 'a's. The {@code reversed} flag controls the order of state
+     * creation, so that both variants have different state ids but are isomorphic.
+     */
+    private static CompactDFA<Character> buildDFA(boolean reversed) {
+        final CompactDFA<Character> dfa = new CompactDFA<>(ALPHABET);
+
+        final Integer even;
+        final Integer odd;
+        if (reversed) {
+            odd = dfa.addState(false);
+            even = dfa.addInitialState(true);
+        } else {
+            even = dfa.addInitialState(true);
+            odd = dfa.addState(false);
+        }
+
+        dfa.addTransition(even, 'a', odd);
+        dfa.addTransition(even, 'b', even);
+        dfa.addTransition(odd, 'a', even);
+        dfa.addTransition(odd, 'b', odd);
+
+        return dfa;
+    }
+}
@@ -0,0 +1,76 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.incremental;
+
+/**
+ * An (immutable) summary of the access and eviction metrics of an {@link EvictingCache}.
+ *
+ * @author frohme
+ */
+public final class CacheStatistics {
+
+    private final long hits;
+    private final long misses;
+    private final long evictions;
+
+    public CacheStatistics(long hits, long misses, long evictions) {
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+    }
+
+    /**
+     * Returns the number of lookups that could be answered by the cache.
+     *
+     * @return the number of hits
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * Returns the number of lookups that could not be answered by the cache.
+     *
+     * @return the number of misses
+     */
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Returns the number of nodes that have been evicted from the cache.
+     *
+     * @return the number of evicted nodes
+     */
+    public long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * Returns the ratio of hits to the total number of lookups.
+     *
+     * @return the hit ratio, or {@code 0} if there have been no lookups yet
+     */
+    public double getHitRatio() {
+        final long lookups = hits + misses;
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    @Override
+    public String toString() {
+        return "CacheStatistics{hits=" + hits + ", misses=" + misses + ", evictions=" + evictions + '}';
+    }
+}
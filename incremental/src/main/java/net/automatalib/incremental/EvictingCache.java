@@ -0,0 +1,90 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.incremental;
+
+import net.automatalib.words.Word;
+
+/**
+ * An incremental construction whose size is bounded. Once the number of stored nodes exceeds the capacity, the
+ * construction evicts cold subtrees according to its {@link EvictionPolicy}, i.e. it forgets the information about
+ * the respective words. Since evicted information may simply be re-inserted, this is mainly useful for caches.
+ * <p>
+ * Prefixes (e.g. the access sequences of the current hypothesis) may be {@link #pin(Word) pinned}, so that the nodes
+ * along their paths are never evicted. Note that the capacity may be exceeded if too many nodes are pinned.
+ *
+ * @param <I>
+ *         input symbol type
+ *
+ * @author frohme
+ */
+public interface EvictingCache<I> {
+
+    /**
+     * Pins the given word, i.e. prevents the nodes along its path from being evicted. Pinning a word that is (not yet)
+     * stored protects the respective nodes once they are inserted.
+     *
+     * @param word
+     *         the word to pin
+     */
+    void pin(Word<? extends I> word);
+
+    /**
+     * Releases a word that has previously been {@link #pin(Word) pinned}.
+     *
+     * @param word
+     *         the word to release
+     */
+    void unpin(Word<? extends I> word);
+
+    /**
+     * Releases all {@link #pin(Word) pinned} words.
+     */
+    void unpinAll();
+
+    /**
+     * Explicitly runs an eviction, which removes expired subtrees (see {@link EvictionPolicy#TTL}) and, if the
+     * capacity is exceeded, the coldest subtrees. Evictions are run automatically whenever an insertion exceeds the
+     * capacity.
+     */
+    void evict();
+
+    /**
+     * Returns the maximum number of nodes that should be stored.
+     *
+     * @return the capacity
+     */
+    int getCapacity();
+
+    /**
+     * Returns the number of currently stored nodes.
+     *
+     * @return the number of currently stored nodes
+     */
+    int getSize();
+
+    /**
+     * Returns the access and eviction metrics that have been collected since the creation of the cache or the last
+     * {@link #resetStatistics() reset}.
+     *
+     * @return the access and eviction metrics
+     */
+    CacheStatistics getStatistics();
+
+    /**
+     * Resets the access and eviction metrics.
+     */
+    void resetStatistics();
+}
@@ -0,0 +1,42 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.incremental;
+
+/**
+ * The policies by which an {@link EvictingCache} selects the (cold) subtrees that are evicted once its capacity is
+ * exceeded. Since every access to a node also counts as an access to all of its ancestors, a subtree is never hotter
+ * than its root. Hence, the policies evict complete subtrees, starting with the coldest ones.
+ *
+ * @author frohme
+ */
+public enum EvictionPolicy {
+
+    /**
+     * Evicts the least recently used subtrees first.
+     */
+    LRU,
+
+    /**
+     * Evicts the least frequently used subtrees first. Ties are broken by recency.
+     */
+    LFU,
+
+    /**
+     * Evicts all subtrees that have not been used within a given time-to-live (regardless of the capacity) and
+     * otherwise behaves like {@link #LRU}.
+     */
+    TTL
+}
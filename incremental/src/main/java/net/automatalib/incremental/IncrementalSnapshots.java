@@ -0,0 +1,813 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.incremental;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+import net.automatalib.commons.util.IOUtil;
+import net.automatalib.graphs.Graph;
+import net.automatalib.incremental.dfa.Acceptance;
+import net.automatalib.incremental.dfa.IncrementalDFABuilder;
+import net.automatalib.incremental.mealy.IncrementalMealyBuilder;
+import net.automatalib.words.Word;
+import net.automatalib.words.WordBuilder;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Utility methods for (binary) snapshots of incremental constructions.
+ * <p>
+ * A snapshot consists of a header, the tables of the occurring input (and output) symbols, and the structure of the
+ * construction, i.e. its states (numbered in breadth-first order) and their outgoing transitions. Snapshots are written
+ * and read via {@link IncrementalDFABuilder#writeSnapshot(OutputStream, SymbolEncoder)} and {@link
+ * IncrementalDFABuilder#readSnapshot(InputStream, SymbolDecoder)} (resp. their {@link IncrementalMealyBuilder}
+ * counterparts).
+ * <p>
+ * A snapshot may be followed by an arbitrary number of <i>deltas</i> (see {@link #appendDelta(OutputStream,
+ * SymbolEncoder, Word, boolean)} and {@link #appendDelta(OutputStream, SymbolEncoder, SymbolEncoder, Word, Word)}),
+ * which describe the words that have been inserted after the snapshot has been taken. When reading a snapshot, the
+ * deltas are re-inserted into the restored construction. Each delta is written in a single operation and prefixed with
+ * its length, so that a truncated trailing delta (e.g. due to a crash while writing) is detected and skipped.
+ *
+ * @author frohme
+ */
+public final class IncrementalSnapshots {
+
+    private static final int TYPE_DFA = 0;
+    private static final int TYPE_MEALY = 1;
+    private static final int DELTA = 'D';
+    private static final int INT_CHUNK_SIZE = 8192;
+
+    private IncrementalSnapshots() {
+        // prevent instantiation
+    }
+
+    /**
+     * Appends a delta for an incremental DFA construction to the given output stream.
+     *
+     * @param os
+     *         the output stream to write to, usually the (append-mode) stream of a previously written snapshot
+     * @param inputEncoder
+     *         the encoder for input symbols
+     * @param word
+     *         the inserted word
+     * @param accepting
+     *         the acceptance of the inserted word
+     * @param <I>
+     *         input symbol type
+     *
+     * @throws IOException
+     *         if writing the delta fails
+     * @see IncrementalDFABuilder#insert(Word, boolean)
+     */
+    public static <I> void appendDelta(OutputStream os,
+                                       SymbolEncoder<? super I> inputEncoder,
+                                       Word<? extends I> word,
+                                       boolean accepting) throws IOException {
+        final ByteArrayOutputStream payload = new ByteArrayOutputStream();
+        final DataOutputStream out = new DataOutputStream(payload);
+
+        writeWord(out, inputEncoder, word);
+        out.writeBoolean(accepting);
+
+        writeRecord(os, payload);
+    }
+
+    /**
+     * Appends a delta for an incremental Mealy construction to the given output stream.
+     *
+     * @param os
+     *         the output stream to write to, usually the (append-mode) stream of a previously written snapshot
+     * @param inputEncoder
+     *         the encoder for input symbols
+     * @param outputEncoder
+     *         the encoder for output symbols
+     * @param input
+     *         the inserted input word
+     * @param output
+     *         the inserted output word
+     * @param <I>
+     *         input symbol type
+     * @param <O>
+     *         output symbol type
+     *
+     * @throws IOException
+     *         if writing the delta fails
+     * @see IncrementalMealyBuilder#insert(Word, Word)
+     */
+    public static <I, O> void appendDelta(OutputStream os,
+                                          SymbolEncoder<? super I> inputEncoder,
+                                          SymbolEncoder<? super O> outputEncoder,
+                                          Word<? extends I> input,
+                                          Word<? extends O> output) throws IOException {
+        final ByteArrayOutputStream payload = new ByteArrayOutputStream();
+        final DataOutputStream out = new DataOutputStream(payload);
+
+        writeWord(out, inputEncoder, input);
+        writeWord(out, outputEncoder, output);
+
+        writeRecord(os, payload);
+    }
+
+    /**
+     * Writes a snapshot of the given graph view of an incremental DFA construction.
+     *
+     * @param graph
+     *         the graph view of the construction
+     * @param os
+     *         the output stream to write to
+     * @param inputEncoder
+     *         the encoder for input symbols
+     * @param <I>
+     *         input symbol type
+     * @param <N>
+     *         node type
+     * @param <E>
+     *         edge type
+     *
+     * @throws IOException
+     *         if writing the snapshot fails
+     */
+    public static <I, N, E> void writeDFA(IncrementalDFABuilder.GraphView<I, N, E> graph,
+                                          OutputStream os,
+                                          SymbolEncoder<? super I> inputEncoder) throws IOException {
+        final Snapshot<I, Void> snapshot =
+                Snapshot.of(graph, graph.getInitialNode(), graph::getInputSymbol, null, graph::getAcceptance);
+        write(snapshot, os, TYPE_DFA, inputEncoder, null);
+    }
+
+    /**
+     * Writes a snapshot of the given graph view of an incremental Mealy construction.
+     *
+     * @param graph
+     *         the graph view of the construction
+     * @param os
+     *         the output stream to write to
+     * @param inputEncoder
+     *         the encoder for input symbols
+     * @param outputEncoder
+     *         the encoder for output symbols
+     * @param <I>
+     *         input symbol type
+     * @param <O>
+     *         output symbol type
+     * @param <N>
+     *         node type
+     * @param <E>
+     *         edge type
+     *
+     * @throws IOException
+     *         if writing the snapshot fails
+     */
+    public static <I, O, N, E> void writeMealy(IncrementalMealyBuilder.GraphView<I, O, N, E> graph,
+                                               OutputStream os,
+                                               SymbolEncoder<? super I> inputEncoder,
+                                               SymbolEncoder<? super O> outputEncoder) throws IOException {
+        final Snapshot<I, O> snapshot =
+                Snapshot.of(graph, graph.getInitialNode(), graph::getInputSymbol, graph::getOutputSymbol, null);
+        write(snapshot, os, TYPE_MEALY, inputEncoder, outputEncoder);
+    }
+
+    /**
+     * Reads the structural part of a snapshot of an incremental DFA construction.
+     *
+     * @param in
+     *         the input to read from
+     * @param inputDecoder
+     *         the decoder for input symbols
+     * @param <I>
+     *         input symbol type
+     *
+     * @return the read snapshot
+     *
+     * @throws IOException
+     *         if reading the snapshot fails or the snapshot is malformed
+     * @see #readDFADeltas(DataInputStream, SymbolDecoder, BiConsumer)
+     */
+    public static <I> Snapshot<I, Void> readDFA(DataInput in, SymbolDecoder<? extends I> inputDecoder)
+            throws IOException {
+        return read(in, TYPE_DFA, inputDecoder, null);
+    }
+
+    /**
+     * Reads the structural part of a snapshot of an incremental Mealy construction.
+     *
+     * @param in
+     *         the input to read from
+     * @param inputDecoder
+     *         the decoder for input symbols
+     * @param outputDecoder
+     *         the decoder for output symbols
+     * @param <I>
+     *         input symbol type
+     * @param <O>
+     *         output symbol type
+     *
+     * @return the read snapshot
+     *
+     * @throws IOException
+     *         if reading the snapshot fails or the snapshot is malformed
+     * @see #readMealyDeltas(DataInputStream, SymbolDecoder, SymbolDecoder, BiConsumer)
+     */
+    public static <I, O> Snapshot<I, O> readMealy(DataInput in,
+                                                  SymbolDecoder<? extends I> inputDecoder,
+                                                  SymbolDecoder<? extends O> outputDecoder) throws IOException {
+        return read(in, TYPE_MEALY, inputDecoder, outputDecoder);
+    }
+
+    /**
+     * Reads the deltas of an incremental DFA construction until the end of the given input is reached.
+     *
+     * @param in
+     *         the input to read from
+     * @param inputDecoder
+     *         the decoder for input symbols
+     * @param consumer
+     *         the consumer of the inserted words and their acceptance
+     * @param <I>
+     *         input symbol type
+     *
+     * @throws IOException
+     *         if reading the deltas fails or a delta is malformed
+     */
+    public static <I> void readDFADeltas(DataInputStream in,
+                                         SymbolDecoder<? extends I> inputDecoder,
+                                         BiConsumer<? super Word<I>, ? super Boolean> consumer) throws IOException {
+        DataInputStream record;
+        while ((record = readRecord(in)) != null) {
+            final Word<I> word = readWord(record, inputDecoder);
+            consumer.accept(word, record.readBoolean());
+        }
+    }
+
+    /**
+     * Reads the deltas of an incremental Mealy construction until the end of the given input is reached.
+     *
+     * @param in
+     *         the input to read from
+     * @param inputDecoder
+     *         the decoder for input symbols
+     * @param outputDecoder
+     *         the decoder for output symbols
+     * @param consumer
+     *         the consumer of the inserted input words and their output words
+     * @param <I>
+     *         input symbol type
+     * @param <O>
+     *         output symbol type
+     *
+     * @throws IOException
+     *         if reading the deltas fails or a delta is malformed
+     */
+    public static <I, O> void readMealyDeltas(DataInputStream in,
+                                              SymbolDecoder<? extends I> inputDecoder,
+                                              SymbolDecoder<? extends O> outputDecoder,
+                                              BiConsumer<? super Word<I>, ? super Word<O>> consumer)
+            throws IOException {
+        DataInputStream record;
+        while ((record = readRecord(in)) != null) {
+            final Word<I> input = readWord(record, inputDecoder);
+            consumer.accept(input, readWord(record, outputDecoder));
+        }
+    }
+
+    /**
+     * Wraps the given input stream for reading a snapshot.
+     *
+     * @param is
+     *         the input stream
+     *
+     * @return the wrapped input stream
+     */
+    public static DataInputStream asDataInputStream(InputStream is) {
+        return new DataInputStream(IOUtil.asBufferedInputStream(is));
+    }
+
+    private static <I, O> void write(Snapshot<I, O> snapshot,
+                                     OutputStream os,
+                                     int type,
+                                     SymbolEncoder<? super I> inputEncoder,
+                                     @Nullable SymbolEncoder<? super O> outputEncoder) throws IOException {
+
+        final DataOutputStream out = new DataOutputStream(IOUtil.asBufferedNonClosingOutputStream(os));
+
+        out.writeByte('I');
+        out.writeByte('N');
+        out.writeByte('C');
+        out.writeByte(type);
+
+        writeSymbols(out, inputEncoder, snapshot.inputs);
+        if (outputEncoder != null) {
+            writeSymbols(out, outputEncoder, snapshot.outputs);
+        }
+
+        final int size = snapshot.size();
+        final int numEdges = snapshot.offsets[size];
+        out.writeInt(size);
+        out.writeInt(numEdges);
+
+        if (snapshot.acceptances != null) {
+            final byte[] acceptances = new byte[size];
+            for (int s = 0; s < size; s++) {
+                acceptances[s] = (byte) snapshot.acceptances[s].ordinal();
+            }
+            out.write(acceptances);
+        }
+
+        final int[] numTransitions = new int[size];
+        for (int s = 0; s < size; s++) {
+            numTransitions[s] = snapshot.offsets[s + 1] - snapshot.offsets[s];
+        }
+
+        writeInts(out, numTransitions, size);
+        writeInts(out, snapshot.edgeInputs, numEdges);
+        writeInts(out, snapshot.edgeTargets, numEdges);
+        if (snapshot.edgeOutputs != null) {
+            writeInts(out, snapshot.edgeOutputs, numEdges);
+        }
+
+        out.flush();
+    }
+
+    private static <I, O> Snapshot<I, O> read(DataInput in,
+                                              int type,
+                                              SymbolDecoder<? extends I> inputDecoder,
+                                              @Nullable SymbolDecoder<? extends O> outputDecoder) throws IOException {
+
+        if (in.readByte() != 'I' || in.readByte() != 'N' || in.readByte() != 'C') {
+            throw new IOException("Not a snapshot of an incremental construction");
+        }
+
+        final int actualType = in.readByte();
+        if (actualType != type) {
+            throw new IOException("Snapshot type " + actualType + " does not match the expected type " + type);
+        }
+
+        final List<I> inputs = readSymbols(in, inputDecoder);
+        final List<O> outputs = outputDecoder == null ? Collections.emptyList() : readSymbols(in, outputDecoder);
+
+        final int size = in.readInt();
+        final int numEdges = in.readInt();
+
+        if (size < 1 || numEdges < 0) {
+            throw new IOException("Malformed snapshot: " + size + " states, " + numEdges + " transitions");
+        }
+
+        Acceptance[] acceptances = null;
+        if (outputDecoder == null) {
+            final byte[] ordinals = new byte[size];
+            in.readFully(ordinals);
+
+            final Acceptance[] values = Acceptance.values();
+            acceptances = new Acceptance[size];
+            for (int s = 0; s < size; s++) {
+                acceptances[s] = values[checkIndex(ordinals[s], values.length)];
+            }
+        }
+
+        final int[] numTransitions = readInts(in, size);
+        final int[] offsets = new int[size + 1];
+        for (int s = 0; s < size; s++) {
+            final int end = offsets[s] + numTransitions[s];
+            if (end < offsets[s] || end > numEdges) {
+                throw new IOException("Malformed snapshot: too many transitions in state " + s);
+            }
+            offsets[s + 1] = end;
+        }
+
+        if (offsets[size] != numEdges) {
+            throw new IOException("Malformed snapshot: expected " + numEdges + " transitions, read " + offsets[size]);
+        }
+
+        final int[] edgeInputs = checkIndices(readInts(in, numEdges), inputs.size());
+        final int[] edgeTargets = checkIndices(readInts(in, numEdges), size);
+        final int[] edgeOutputs =
+                outputDecoder == null ? null : checkIndices(readInts(in, numEdges), outputs.size());
+
+        return new Snapshot<>(inputs, outputs, acceptances, offsets, edgeInputs, edgeTargets, edgeOutputs);
+    }
+
+    private static void writeInts(DataOutput out, int[] values, int length) throws IOException {
+        // DataOutput uses big-endian byte order as well
+        final ByteBuffer buffer = ByteBuffer.allocate(Math.min(length, INT_CHUNK_SIZE) * Integer.BYTES);
+        final IntBuffer ints = buffer.asIntBuffer();
+
+        for (int offset = 0; offset < length; offset += ints.capacity()) {
+            final int n = Math.min(length - offset, ints.capacity());
+            ints.clear();
+            ints.put(values, offset, n);
+            out.write(buffer.array(), 0, n * Integer.BYTES);
+        }
+    }
+
+    private static int[] readInts(DataInput in, int length) throws IOException {
+        final int[] result = new int[length];
+        final ByteBuffer buffer = ByteBuffer.allocate(Math.min(length, INT_CHUNK_SIZE) * Integer.BYTES);
+        final IntBuffer ints = buffer.asIntBuffer();
+
+        for (int offset = 0; offset < length; offset += ints.capacity()) {
+            final int n = Math.min(length - offset, ints.capacity());
+            in.readFully(buffer.array(), 0, n * Integer.BYTES);
+            ints.clear();
+            ints.get(result, offset, n);
+        }
+
+        return result;
+    }
+
+    private static int[] checkIndices(int[] indices, int bound) throws IOException {
+        for (int idx : indices) {
+            checkIndex(idx, bound);
+        }
+        return indices;
+    }
+
+    private static int checkIndex(int idx, int bound) throws IOException {
+        if (idx < 0 || idx >= bound) {
+            throw new IOException("Malformed snapshot: index " + idx + " out of bounds [0, " + bound + ')');
+        }
+        return idx;
+    }
+
+    private static <T> void writeSymbols(DataOutput out, SymbolEncoder<? super T> encoder, List<T> symbols)
+            throws IOException {
+        out.writeInt(symbols.size());
+        for (T sym : symbols) {
+            encoder.encode(out, sym);
+        }
+    }
+
+    private static <T> List<T> readSymbols(DataInput in, SymbolDecoder<? extends T> decoder) throws IOException {
+        final int size = in.readInt();
+        if (size < 0) {
+            throw new IOException("Malformed snapshot: negative number of symbols");
+        }
+
+        final List<T> result = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            result.add(decoder.decode(in));
+        }
+        return result;
+    }
+
+    private static <T> void writeWord(DataOutput out, SymbolEncoder<? super T> encoder, Word<? extends T> word)
+            throws IOException {
+        out.writeInt(word.length());
+        for (T sym : word) {
+            encoder.encode(out, sym);
+        }
+    }
+
+    private static <T> Word<T> readWord(DataInput in, SymbolDecoder<? extends T> decoder) throws IOException {
+        final int length = in.readInt();
+        if (length < 0) {
+            throw new IOException("Malformed delta: negative word length");
+        }
+
+        final WordBuilder<T> wb = new WordBuilder<>(length);
+        for (int i = 0; i < length; i++) {
+            wb.append(decoder.decode(in));
+        }
+        return wb.toWord();
+    }
+
+    private static void writeRecord(OutputStream os, ByteArrayOutputStream payload) throws IOException {
+        final ByteArrayOutputStream record = new ByteArrayOutputStream(payload.size() + 5);
+        final DataOutputStream out = new DataOutputStream(record);
+
+        out.writeByte(DELTA);
+        out.writeInt(payload.size());
+        payload.writeTo(out);
+
+        // write the complete record at once
+        record.writeTo(os);
+        os.flush();
+    }
+
+    private static @Nullable DataInputStream readRecord(DataInputStream in) throws IOException {
+        final int marker = in.read();
+
+        if (marker < 0) {
+            return null;
+        } else if (marker != DELTA) {
+            throw new IOException("Malformed snapshot: unexpected record type " + marker);
+        }
+
+        final byte[] payload;
+        try {
+            final int length = in.readInt();
+            if (length < 0) {
+                throw new IOException("Malformed delta: negative length");
+            }
+            payload = new byte[length];
+            in.readFully(payload);
+        } catch (EOFException eof) {
+            // truncated trailing record
+            return null;
+        }
+
+        return new DataInputStream(new ByteArrayInputStream(payload));
+    }
+
+    /**
+     * The structural part of a snapshot. States are identified by integers in {@code [0, size())}, where {@code 0}
+     * denotes the initial state. The outgoing transitions of a state {@code s} are identified by the integers in
+     * {@code [getTransitionsBegin(s), getTransitionsEnd(s))}.
+     *
+     * @param <I>
+     *         input symbol type
+     * @param <O>
+     *         output symbol type
+     */
+    public static final class Snapshot<I, O> {
+
+        private final List<I> inputs;
+        private final List<O> outputs;
+        private final @Nullable Acceptance[] acceptances;
+        private final int[] offsets;
+        private final int[] edgeInputs;
+        private final int[] edgeTargets;
+        private final int @Nullable [] edgeOutputs;
+
+        Snapshot(List<I> inputs,
+                 List<O> outputs,
+                 @Nullable Acceptance[] acceptances,
+                 int[] offsets,
+                 int[] edgeInputs,
+                 int[] edgeTargets,
+                 int @Nullable [] edgeOutputs) {
+            this.inputs = inputs;
+            this.outputs = outputs;
+            this.acceptances = acceptances;
+            this.offsets = offsets;
+            this.edgeInputs = edgeInputs;
+            this.edgeTargets = edgeTargets;
+            this.edgeOutputs = edgeOutputs;
+        }
+
+        static <I, O, N, E> Snapshot<I, O> of(Graph<N, E> graph,
+                                              N init,
+                                              Function<? super E, ? extends I> inputFunction,
+                                              @Nullable Function<? super E, ? extends O> outputFunction,
+                                              @Nullable Function<? super N, Acceptance> acceptanceFunction) {
+
+            final Map<N, Integer> stateIds = new HashMap<>();
+            final List<N> states = new ArrayList<>();
+            final Map<I, Integer> inputIds = new HashMap<>();
+            final List<I> inputs = new ArrayList<>();
+            final Map<O, Integer> outputIds = new HashMap<>();
+            final List<O> outputs = new ArrayList<>();
+
+            stateIds.put(init, 0);
+            states.add(init);
+
+            int[] offsets = new int[16];
+            int[] edgeInputs = new int[16];
+            int[] edgeTargets = new int[16];
+            int[] edgeOutputs = outputFunction == null ? null : new int[16];
+            int numEdges = 0;
+
+            // breadth-first traversal, during which the states are numbered
+            for (int s = 0; s < states.size(); s++) {
+                if (s + 1 >= offsets.length) {
+                    offsets = Arrays.copyOf(offsets, offsets.length * 2);
+                }
+                offsets[s] = numEdges;
+
+                for (E edge : graph.getOutgoingEdges(states.get(s))) {
+                    if (numEdges == edgeTargets.length) {
+                        final int newLength = numEdges * 2;
+                        edgeInputs = Arrays.copyOf(edgeInputs, newLength);
+                        edgeTargets = Arrays.copyOf(edgeTargets, newLength);
+                        if (edgeOutputs != null) {
+                            edgeOutputs = Arrays.copyOf(edgeOutputs, newLength);
+                        }
+                    }
+
+                    final N target = graph.getTarget(edge);
+                    Integer targetId = stateIds.get(target);
+                    if (targetId == null) {
+                        targetId = states.size();
+                        stateIds.put(target, targetId);
+                        states.add(target);
+                    }
+
+                    edgeInputs[numEdges] = getSymbolId(inputFunction.apply(edge), inputIds, inputs);
+                    edgeTargets[numEdges] = targetId;
+                    if (edgeOutputs != null) {
+                        edgeOutputs[numEdges] = getSymbolId(outputFunction.apply(edge), outputIds, outputs);
+                    }
+                    numEdges++;
+                }
+            }
+
+            final int size = states.size();
+            offsets[size] = numEdges;
+
+            Acceptance[] acceptances = null;
+            if (acceptanceFunction != null) {
+                acceptances = new Acceptance[size];
+                for (int s = 0; s < size; s++) {
+                    acceptances[s] = acceptanceFunction.apply(states.get(s));
+                }
+            }
+
+            return new Snapshot<>(inputs,
+                                  outputs,
+                                  acceptances,
+                                  Arrays.copyOf(offsets, size + 1),
+                                  edgeInputs,
+                                  edgeTargets,
+                                  edgeOutputs);
+        }
+
+        private static <T> int getSymbolId(T symbol, Map<T, Integer> ids, List<T> symbols) {
+            final Integer id = ids.get(symbol);
+            if (id != null) {
+                return id;
+            }
+
+            final int newId = symbols.size();
+            ids.put(symbol, newId);
+            symbols.add(symbol);
+            return newId;
+        }
+
+        /**
+         * Returns the input symbols that occur in this snapshot.
+         *
+         * @return the input symbols
+         */
+        public List<I> getInputs() {
+            return Collections.unmodifiableList(inputs);
+        }
+
+        /**
+         * Returns the number of states of this snapshot.
+         *
+         * @return the number of states
+         */
+        public int size() {
+            return offsets.length - 1;
+        }
+
+        /**
+         * Returns the acceptance of the given state. For snapshots of Mealy constructions, this method always returns
+         * {@link Acceptance#DONT_KNOW}.
+         *
+         * @param state
+         *         the state
+         *
+         * @return the acceptance of the given state
+         */
+        public Acceptance getAcceptance(int state) {
+            return acceptances == null ? Acceptance.DONT_KNOW : acceptances[state];
+        }
+
+        /**
+         * Returns the (inclusive) identifier of the first outgoing transition of the given state.
+         *
+         * @param state
+         *         the state
+         *
+         * @return the identifier of the first outgoing transition
+         */
+        public int getTransitionsBegin(int state) {
+            return offsets[state];
+        }
+
+        /**
+         * Returns the (exclusive) identifier of the last outgoing transition of the given state.
+         *
+         * @param state
+         *         the state
+         *
+         * @return the identifier after the last outgoing transition
+         */
+        public int getTransitionsEnd(int state) {
+            return offsets[state + 1];
+        }
+
+        /**
+         * Returns the input symbol of the given transition.
+         *
+         * @param transition
+         *         the transition
+         *
+         * @return the input symbol of the transition
+         */
+        public I getInput(int transition) {
+            return inputs.get(edgeInputs[transition]);
+        }
+
+        /**
+         * Returns the output symbol of the given transition. Must only be called for snapshots of Mealy
+         * constructions.
+         *
+         * @param transition
+         *         the transition
+         *
+         * @return the output symbol of the transition
+         */
+        public O getOutput(int transition) {
+            assert edgeOutputs != null;
+            return outputs.get(edgeOutputs[transition]);
+        }
+
+        /**
+         * Returns the target state of the given transition.
+         *
+         * @param transition
+         *         the transition
+         *
+         * @return the target state of the transition
+         */
+        public int getTarget(int transition) {
+            return edgeTargets[transition];
+        }
+
+        /**
+         * Returns the states of this snapshot in an order, in which each state occurs after all of its successors.
+         *
+         * @return the states of this snapshot in bottom-up order
+         *
+         * @throws IOException
+         *         if the snapshot contains cycles or unreachable states
+         */
+        public int[] getBottomUpOrder() throws IOException {
+            final int size = size();
+            final int[] order = new int[size];
+            // 0 = unvisited, 1 = on stack, 2 = finished
+            final byte[] marks = new byte[size];
+            final int[] stack = new int[size];
+            final int[] positions = new int[size];
+            int numOrdered = 0;
+            int depth = 0;
+
+            stack[0] = 0;
+            positions[0] = offsets[0];
+            marks[0] = 1;
+
+            while (depth >= 0) {
+                final int state = stack[depth];
+                final int pos = positions[depth];
+
+                if (pos == offsets[state + 1]) {
+                    marks[state] = 2;
+                    order[numOrdered++] = state;
+                    depth--;
+                    continue;
+                }
+
+                positions[depth] = pos + 1;
+
+                final int target = edgeTargets[pos];
+                if (marks[target] == 1) {
+                    throw new IOException("Malformed snapshot: the structure contains a cycle");
+                } else if (marks[target] == 0) {
+                    marks[target] = 1;
+                    depth++;
+                    stack[depth] = target;
+                    positions[depth] = offsets[target];
+                }
+            }
+
+            if (numOrdered != size) {
+                throw new IOException("Malformed snapshot: the structure contains unreachable states");
+            }
+
+            return order;
+        }
+    }
+}
@@ -0,0 +1,162 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.incremental;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import net.automatalib.automata.simple.SimpleAutomaton;
+import net.automatalib.words.Word;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A log of the words that have been inserted into an incremental construction since its last (successful) separating
+ * word search. If the previous search did not reveal a separating word, a subsequent search against the same
+ * (unmodified) target only needs to check the paths of the logged words, because only these paths may expose new
+ * information.
+ * <p>
+ * Logging only takes place after a search has been {@link #arm(Object, Collection, boolean, long) armed}. Once the
+ * total length of the logged words exceeds the given limit (i.e. re-checking the logged words is likely to be more
+ * expensive than a full search), logging stops and the next search has to be a full one.
+ * <p>
+ * Since automata do not expose modification stamps, a modified target can only be detected by a changed number of
+ * states (or inputs). Other modifications (e.g. redirected transitions) remain undetected, so a modified target has to
+ * be passed as a fresh object or be searched non-incrementally.
+ *
+ * @param <I>
+ *         input symbol type
+ *
+ * @author frohme
+ */
+public final class InsertionLog<I> {
+
+    private final List<Word<? extends I>> words = new ArrayList<>();
+
+    private @Nullable Object target;
+    private @Nullable Collection<?> inputs;
+    private Set<?> inputSet = Collections.emptySet();
+    private boolean omitUndefined;
+    private int targetSize;
+    private int numInputs;
+
+    private long length;
+    private long limit;
+    private boolean armed;
+
+    /**
+     * Starts logging after a search against the given parameters did not reveal a separating word.
+     *
+     * @param target
+     *         the target of the search
+     * @param inputs
+     *         the inputs of the search
+     * @param omitUndefined
+     *         the undefined-transition semantics of the search
+     * @param limit
+     *         the maximum total length of words to log
+     */
+    public void arm(Object target, Collection<?> inputs, boolean omitUndefined, long limit) {
+        this.words.clear();
+        if (this.inputs != inputs || this.numInputs != inputs.size()) {
+            this.inputSet = new HashSet<>(inputs);
+        }
+        this.target = target;
+        this.inputs = inputs;
+        this.omitUndefined = omitUndefined;
+        this.targetSize = sizeOf(target);
+        this.numInputs = inputs.size();
+        this.length = 0;
+        this.limit = limit;
+        this.armed = true;
+    }
+
+    /**
+     * Stops logging and discards all logged words.
+     */
+    public void disarm() {
+        this.words.clear();
+        this.target = null;
+        this.inputs = null;
+        this.inputSet = Collections.emptySet();
+        this.armed = false;
+    }
+
+    /**
+     * Logs an inserted word, if logging is currently active.
+     *
+     * @param word
+     *         the inserted word
+     */
+    public void log(Word<? extends I> word) {
+        if (armed) {
+            length += word.length() + 1;
+            if (length > limit) {
+                disarm();
+            } else {
+                words.add(word);
+            }
+        }
+    }
+
+    /**
+     * Checks whether a search against the given parameters can be resumed by checking the logged words only. This
+     * requires that the parameters are identical to the ones of the (unsuccessful) search that armed this log and that
+     * neither the number of states of the target nor the number of inputs have changed since then.
+     *
+     * @param target
+     *         the target of the search
+     * @param inputs
+     *         the inputs of the search
+     * @param omitUndefined
+     *         the undefined-transition semantics of the search
+     *
+     * @return {@code true} if the search can be resumed, {@code false} otherwise
+     */
+    public boolean canResume(Object target, Collection<?> inputs, boolean omitUndefined) {
+        return armed && this.target == target && this.inputs == inputs && this.omitUndefined == omitUndefined &&
+               this.targetSize == sizeOf(target) && this.numInputs == inputs.size();
+    }
+
+    /**
+     * Checks whether the given symbol is contained in the inputs of the search that armed this log. In contrast to the
+     * (arbitrary) collection of inputs, this check takes constant time.
+     *
+     * @param symbol
+     *         the symbol to check
+     *
+     * @return {@code true} if the symbol is contained in the inputs, {@code false} otherwise
+     */
+    public boolean containsInput(Object symbol) {
+        return inputSet.contains(symbol);
+    }
+
+    /**
+     * Returns the words logged since arming this log.
+     *
+     * @return the logged words
+     */
+    public List<Word<? extends I>> getWords() {
+        return Collections.unmodifiableList(words);
+    }
+
+    private static int sizeOf(Object target) {
+        return target instanceof SimpleAutomaton ? ((SimpleAutomaton<?, ?>) target).size() : -1;
+    }
+}
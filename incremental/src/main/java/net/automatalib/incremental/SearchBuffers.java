@@ -0,0 +1,344 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.incremental;
+
+import java.util.Arrays;
+import java.util.function.IntFunction;
+
+import net.automatalib.commons.util.IntDisjointSets;
+import net.automatalib.words.Word;
+import net.automatalib.words.WordBuilder;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Re-usable buffers for the separating word searches of the incremental constructions. The buffers comprise a
+ * disjoint-set forest and a queue (or stack) of product states, whose arrays are retained (and only grown) between
+ * searches in order to avoid re-allocation.
+ * <p>
+ * Each search is started via {@link #begin(int)}, which opens a new <i>epoch</i>. Elements of the disjoint-set forest
+ * that have not been touched during the current epoch implicitly form singleton sets, so starting a search does not
+ * require to re-initialize the (possibly large) forest. The epoch may additionally be used by the constructions to
+ * lazily number their states, see {@link #getEpoch()}.
+ * <p>
+ * Note that buffers are not thread-safe and must therefore not be shared between concurrent searches.
+ *
+ * @author frohme
+ */
+public final class SearchBuffers implements IntDisjointSets {
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private int epoch;
+    private int size;
+
+    private int[] stamps;
+    private int[] parents;
+    private int[] ranks;
+
+    private @Nullable Object[] left;
+    private @Nullable Object[] right;
+    private int[] predecessors;
+    private int[] symbols;
+    private int[] cursors;
+    private int head;
+    private int tail;
+
+    public SearchBuffers() {
+        this.stamps = new int[DEFAULT_CAPACITY];
+        this.parents = new int[DEFAULT_CAPACITY];
+        this.ranks = new int[DEFAULT_CAPACITY];
+
+        this.left = new Object[DEFAULT_CAPACITY];
+        this.right = new Object[DEFAULT_CAPACITY];
+        this.predecessors = new int[DEFAULT_CAPACITY];
+        this.symbols = new int[DEFAULT_CAPACITY];
+        this.cursors = new int[DEFAULT_CAPACITY];
+    }
+
+    /**
+     * Starts a new search. The disjoint-set forest is (implicitly) reset to the given number of singleton sets and the
+     * queue is emptied.
+     *
+     * @param numElements
+     *         the number of elements of the disjoint-set forest
+     *
+     * @return the epoch of the new search
+     */
+    public int begin(int numElements) {
+        if (++epoch <= 0) {
+            // overflow, invalidate all previous stamps
+            Arrays.fill(stamps, 0);
+            epoch = 1;
+        }
+
+        if (stamps.length < numElements) {
+            final int newCapacity = Math.max(numElements, stamps.length + (stamps.length >> 1));
+            stamps = Arrays.copyOf(stamps, newCapacity);
+            parents = Arrays.copyOf(parents, newCapacity);
+            ranks = Arrays.copyOf(ranks, newCapacity);
+        }
+
+        size = numElements;
+        head = 0;
+        tail = 0;
+
+        return epoch;
+    }
+
+    /**
+     * Finishes the current search and releases the references to the product states.
+     */
+    public void end() {
+        Arrays.fill(left, 0, tail, null);
+        Arrays.fill(right, 0, tail, null);
+        head = 0;
+        tail = 0;
+    }
+
+    /**
+     * Returns the epoch of the current search. Constructions may stamp their states with the epoch in order to detect
+     * whether a state has already been numbered during the current search.
+     *
+     * @return the epoch of the current search
+     */
+    public int getEpoch() {
+        return epoch;
+    }
+
+    // disjoint sets
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public int find(int x) {
+        if (stamps[x] != epoch) {
+            return x;
+        }
+
+        int curr = x;
+        int currp = parents[curr];
+        while (curr != currp) {
+            curr = currp;
+            currp = parents[curr];
+        }
+        final int ancestor = curr;
+        curr = x;
+        while (curr != ancestor) {
+            final int next = parents[curr];
+            parents[curr] = ancestor;
+            curr = next;
+        }
+
+        return ancestor;
+    }
+
+    @Override
+    public int link(int x, int y) {
+        touch(x);
+        touch(y);
+
+        final int rx = ranks[x], ry = ranks[y];
+        if (rx > ry) {
+            parents[y] = x;
+            return x;
+        }
+        parents[x] = y;
+        if (rx == ry) {
+            ranks[y] = ry + 1;
+        }
+        return y;
+    }
+
+    /**
+     * Marks the given element as visited during the current search. This allows to use the disjoint-set forest as a
+     * plain set of visited elements, if no unions are required.
+     *
+     * @param x
+     *         the element
+     *
+     * @return {@code true} if the element has not been visited before during the current search, {@code false}
+     * otherwise
+     */
+    public boolean visit(int x) {
+        if (stamps[x] == epoch) {
+            return false;
+        }
+        touch(x);
+        return true;
+    }
+
+    private void touch(int x) {
+        if (stamps[x] != epoch) {
+            stamps[x] = epoch;
+            parents[x] = x;
+            ranks[x] = 0;
+        }
+    }
+
+    // queue and stack
+
+    /**
+     * Appends a product state to the queue.
+     *
+     * @param state1
+     *         the state of the first automaton
+     * @param state2
+     *         the state of the second automaton
+     * @param predecessor
+     *         the entry from which the product state has been reached, or {@code -1} for initial entries
+     * @param symbol
+     *         the index of the symbol via which the product state has been reached
+     *
+     * @return the entry of the product state
+     */
+    public int offer(@Nullable Object state1, @Nullable Object state2, int predecessor, int symbol) {
+        ensureCapacity(tail + 1);
+
+        left[tail] = state1;
+        right[tail] = state2;
+        predecessors[tail] = predecessor;
+        symbols[tail] = symbol;
+        cursors[tail] = 0;
+
+        return tail++;
+    }
+
+    /**
+     * Removes the first entry from the queue. Note that the contents of the entry remain accessible until the end of
+     * the search.
+     *
+     * @return the first entry of the queue, or {@code -1} if the queue is empty
+     */
+    public int poll() {
+        return head < tail ? head++ : -1;
+    }
+
+    /**
+     * Pushes a product state onto the stack. The entries of the stack are implicitly connected to their predecessors.
+     * The queue and the stack must not be used during the same search.
+     *
+     * @param state1
+     *         the state of the first automaton
+     * @param state2
+     *         the state of the second automaton
+     * @param symbol
+     *         the index of the symbol via which the product state has been reached
+     *
+     * @return the entry of the product state
+     */
+    public int push(@Nullable Object state1, @Nullable Object state2, int symbol) {
+        return offer(state1, state2, tail - 1, symbol);
+    }
+
+    /**
+     * Returns the top-most entry of the stack.
+     *
+     * @return the top-most entry of the stack, or {@code -1} if the stack is empty
+     */
+    public int peek() {
+        return tail - 1;
+    }
+
+    /**
+     * Removes the top-most entry from the stack.
+     */
+    public void pop() {
+        tail--;
+        left[tail] = null;
+        right[tail] = null;
+    }
+
+    public @Nullable Object getState1(int entry) {
+        return left[entry];
+    }
+
+    public @Nullable Object getState2(int entry) {
+        return right[entry];
+    }
+
+    public int getPredecessor(int entry) {
+        return predecessors[entry];
+    }
+
+    public int getSymbol(int entry) {
+        return symbols[entry];
+    }
+
+    /**
+     * Returns the (user-defined) cursor of the given entry, e.g. the position of the next input symbol to explore.
+     * Cursors are initialized with {@code 0}.
+     *
+     * @param entry
+     *         the entry
+     *
+     * @return the cursor of the given entry
+     */
+    public int getCursor(int entry) {
+        return cursors[entry];
+    }
+
+    public void setCursor(int entry, int cursor) {
+        cursors[entry] = cursor;
+    }
+
+    /**
+     * Constructs the word that leads to the given entry, optionally followed by a last symbol.
+     *
+     * @param entry
+     *         the entry
+     * @param lastSymbol
+     *         the index of the last symbol of the word, or {@code -1} if no symbol should be appended
+     * @param symbols
+     *         the function mapping symbol indices to symbols
+     * @param <I>
+     *         input symbol type
+     *
+     * @return the word leading to the given entry, followed by the given last symbol
+     */
+    public <I> Word<I> toWord(int entry, int lastSymbol, IntFunction<I> symbols) {
+        int length = lastSymbol < 0 ? 0 : 1;
+        for (int e = entry; predecessors[e] >= 0; e = predecessors[e]) {
+            length++;
+        }
+
+        @SuppressWarnings("nullness") // we make sure to set each index to a value of type I
+        final WordBuilder<I> wb = new WordBuilder<>(null, length);
+
+        int index = length;
+        if (lastSymbol >= 0) {
+            wb.setSymbol(--index, symbols.apply(lastSymbol));
+        }
+        for (int e = entry; predecessors[e] >= 0; e = predecessors[e]) {
+            wb.setSymbol(--index, symbols.apply(this.symbols[e]));
+        }
+
+        return wb.toWord();
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (left.length < capacity) {
+            final int newCapacity = Math.max(capacity, left.length + (left.length >> 1));
+            left = Arrays.copyOf(left, newCapacity);
+            right = Arrays.copyOf(right, newCapacity);
+            predecessors = Arrays.copyOf(predecessors, newCapacity);
+            symbols = Arrays.copyOf(symbols, newCapacity);
+            cursors = Arrays.copyOf(cursors, newCapacity);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.incremental;
+
+import java.io.DataInput;
+import java.io.IOException;
+
+/**
+ * Reads (input or output) symbols from snapshots of incremental constructions.
+ *
+ * @param <T>
+ *         symbol type
+ *
+ * @author frohme
+ * @see SymbolEncoder
+ */
+@FunctionalInterface
+public interface SymbolDecoder<T> {
+
+    /**
+     * Reads a symbol from the given input.
+     *
+     * @param in
+     *         the input to read from
+     *
+     * @return the read symbol
+     *
+     * @throws IOException
+     *         if reading the symbol fails
+     */
+    T decode(DataInput in) throws IOException;
+}
@@ -0,0 +1,45 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.incremental;
+
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Writes (input or output) symbols to snapshots of incremental constructions.
+ *
+ * @param <T>
+ *         symbol type
+ *
+ * @author frohme
+ * @see SymbolDecoder
+ */
+@FunctionalInterface
+public interface SymbolEncoder<T> {
+
+    /**
+     * Writes the given symbol to the given output.
+     *
+     * @param out
+     *         the output to write to
+     * @param symbol
+     *         the symbol to write
+     *
+     * @throws IOException
+     *         if writing the symbol fails
+     */
+    void encode(DataOutput out, T symbol) throws IOException;
+}
@@ -15,11 +15,19 @@
  */
 package net.automatalib.incremental.dfa;
 
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Map;
 
 import net.automatalib.automata.concepts.InputAlphabetHolder;
+import net.automatalib.incremental.IncrementalSnapshots;
+import net.automatalib.incremental.IncrementalSnapshots.Snapshot;
+import net.automatalib.incremental.SymbolDecoder;
+import net.automatalib.incremental.SymbolEncoder;
 import net.automatalib.visualization.DefaultVisualizationHelper;
 import net.automatalib.visualization.VisualizationHelper;
 import net.automatalib.words.Alphabet;
@@ -65,6 +73,45 @@ public abstract class AbstractIncrementalDFABuilder<I> implements IncrementalDFA
         insert(word, true);
     }
 
+    @Override
+    public void writeSnapshot(OutputStream os, SymbolEncoder<? super I> inputEncoder) throws IOException {
+        IncrementalSnapshots.writeDFA(asGraph(), os, inputEncoder);
+    }
+
+    @Override
+    public void readSnapshot(InputStream is, SymbolDecoder<? extends I> inputDecoder) throws IOException {
+        if (!isEmpty(asGraph())) {
+            throw new IllegalStateException("Snapshots can only be restored into empty constructions");
+        }
+
+        final DataInputStream in = IncrementalSnapshots.asDataInputStream(is);
+        final Snapshot<I, Void> snapshot = IncrementalSnapshots.readDFA(in, inputDecoder);
+
+        for (I sym : snapshot.getInputs()) {
+            addAlphabetSymbol(sym);
+        }
+
+        restore(snapshot);
+        IncrementalSnapshots.readDFADeltas(in, inputDecoder, this::insert);
+    }
+
+    private static <N> boolean isEmpty(GraphView<?, N, ?> graph) {
+        final N init = graph.getInitialNode();
+        return graph.getAcceptance(init) == Acceptance.DONT_KNOW && graph.getOutgoingEdges(init).isEmpty();
+    }
+
+    /**
+     * Restores the structure of the given snapshot into this (empty) construction. All input symbols of the snapshot
+     * have already been added to the input alphabet.
+     *
+     * @param snapshot
+     *         the snapshot to restore
+     *
+     * @throws IOException
+     *         if the snapshot cannot be restored by this construction
+     */
+    protected abstract void restore(Snapshot<I, ?> snapshot) throws IOException;
+
     protected abstract static class AbstractGraphView<I, N, E> implements GraphView<I, N, E> {
 
         @Override
@@ -15,11 +15,18 @@
  */
 package net.automatalib.incremental.dfa;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
 import net.automatalib.SupportsGrowingAlphabet;
 import net.automatalib.automata.fsa.DFA;
 import net.automatalib.graphs.Graph;
 import net.automatalib.incremental.ConflictException;
 import net.automatalib.incremental.IncrementalConstruction;
+import net.automatalib.incremental.IncrementalSnapshots;
+import net.automatalib.incremental.SymbolDecoder;
+import net.automatalib.incremental.SymbolEncoder;
 import net.automatalib.ts.UniversalDTS;
 import net.automatalib.words.Word;
 
@@ -69,6 +76,40 @@ public interface IncrementalDFABuilder<I> extends IncrementalConstruction<DFA<?,
      */
     void insert(Word<? extends I> word);
 
+    /**
+     * Writes a (binary) snapshot of the current state of the construction to the given output stream. The stream is
+     * not closed. Subsequently inserted words may be appended to the snapshot via {@link
+     * IncrementalSnapshots#appendDelta(OutputStream, SymbolEncoder, Word, boolean)}.
+     *
+     * @param os
+     *         the output stream to write to
+     * @param inputEncoder
+     *         the encoder for input symbols
+     *
+     * @throws IOException
+     *         if writing the snapshot fails
+     */
+    void writeSnapshot(OutputStream os, SymbolEncoder<? super I> inputEncoder) throws IOException;
+
+    /**
+     * Restores a snapshot (including its deltas) that has been written by {@link #writeSnapshot(OutputStream,
+     * SymbolEncoder)}. Input symbols of the snapshot that are not yet known to this construction are added via {@link
+     * #addAlphabetSymbol(Object)}. The stream is read until its end, but not closed.
+     * <p>
+     * Note that snapshots of DAG-based constructions can only be restored by DAG-based constructions.
+     *
+     * @param is
+     *         the input stream to read from
+     * @param inputDecoder
+     *         the decoder for input symbols
+     *
+     * @throws IOException
+     *         if reading the snapshot fails or the snapshot is malformed
+     * @throws IllegalStateException
+     *         if this construction already contains information
+     */
+    void readSnapshot(InputStream is, SymbolDecoder<? extends I> inputDecoder) throws IOException;
+
     @Override
     GraphView<I, ?, ?> asGraph();
 
@@ -15,26 +15,25 @@
  */
 package net.automatalib.incremental.dfa.dag;
 
-import java.util.ArrayDeque;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Queue;
 
 import net.automatalib.automata.concepts.StateIDs;
 import net.automatalib.automata.fsa.DFA;
-import net.automatalib.commons.util.IntDisjointSets;
-import net.automatalib.commons.util.UnionFind;
+import net.automatalib.incremental.IncrementalSnapshots.Snapshot;
+import net.automatalib.incremental.InsertionLog;
+import net.automatalib.incremental.SearchBuffers;
 import net.automatalib.incremental.dfa.AbstractIncrementalDFABuilder;
 import net.automatalib.incremental.dfa.Acceptance;
 import net.automatalib.visualization.VisualizationHelper;
 import net.automatalib.visualization.helper.DelegateVisualizationHelper;
 import net.automatalib.words.Alphabet;
 import net.automatalib.words.Word;
-import net.automatalib.words.WordBuilder;
 import net.automatalib.words.impl.Alphabets;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
@@ -44,6 +43,15 @@ public abstract class AbstractIncrementalDFADAGBuilder<I> extends AbstractIncrem
     protected final State init;
     protected State sink;
 
+    /**
+     * The words inserted since the last incremental separating word search. Implementations have to {@link
+     * InsertionLog#log(Word) log} each inserted word.
+     */
+    protected final InsertionLog<I> insertionLog = new InsertionLog<>();
+
+    private final SearchBuffers searchBuffers = new SearchBuffers();
+    private int nextSearchId;
+
     public AbstractIncrementalDFADAGBuilder(Alphabet<I> inputAlphabet) {
         super(inputAlphabet);
         StateSignature sig = new StateSignature(alphabetSize, Acceptance.DONT_KNOW);
@@ -72,132 +80,269 @@ public abstract class AbstractIncrementalDFADAGBuilder<I> extends AbstractIncrem
         return doFindSeparatingWord(target, inputs, omitUndefined);
     }
 
-    private <S> @Nullable Word<I> doFindSeparatingWord(DFA<S, I> target,
-                                                       Collection<? extends I> inputs,
-                                                       boolean omitUndefined) {
-        int thisStates = register.size();
-        Map<State, Integer> stateIds = new HashMap<>();
-        if (sink != null) {
-            stateIds.put(sink, 0);
-            thisStates++;
+    /**
+     * Checks the current state of the construction against a given target model, and returns a word exposing a
+     * difference if there is one. See {@link #findSeparatingWord(DFA, Collection, boolean)}.
+     * <p>
+     * If {@code incremental} is set and the previous incremental search has been invoked with the identical target,
+     * inputs and undefined-transition semantics without revealing a separating word, only the paths of the words
+     * inserted since then are checked. Note that in this case the returned separating word is not necessarily a
+     * shortest one. Only modifications of the target that change its number of states are detected (see {@link
+     * InsertionLog}), so a target that has been modified otherwise has to be searched non-incrementally.
+     *
+     * @param target
+     *         the target automaton model
+     * @param inputs
+     *         the set of input symbols to consider
+     * @param omitUndefined
+     *         whether undefined transitions in the {@code target} model should be omitted
+     * @param incremental
+     *         whether the search may only check the words inserted since the previous incremental search
+     *
+     * @return a separating word, or {@code null} if no difference could be found.
+     */
+    public @Nullable Word<I> findSeparatingWord(DFA<?, I> target,
+                                                Collection<? extends I> inputs,
+                                                boolean omitUndefined,
+                                                boolean incremental) {
+        if (!incremental) {
+            return doFindSeparatingWord(target, inputs, omitUndefined);
+        }
+
+        final Word<I> result;
+        if (insertionLog.canResume(target, inputs, omitUndefined)) {
+            result = doCheckInsertedWords(target, inputs, omitUndefined);
+        } else {
+            result = doFindSeparatingWord(target, inputs, omitUndefined);
         }
-        int targetStates = target.size();
-        if (!omitUndefined) {
-            targetStates++;
+
+        if (result == null) {
+            insertionLog.arm(target, inputs, omitUndefined, register.size());
+        } else {
+            insertionLog.disarm();
         }
 
+        return result;
+    }
+
+    private <S> @Nullable Word<I> doFindSeparatingWord(DFA<S, I> target,
+                                                       Collection<? extends I> inputs,
+                                                       boolean omitUndefined) {
         S init2 = target.getInitialState();
 
         if (init2 == null && omitUndefined) {
             return null;
         }
 
-        State init1 = init;
-
         boolean acc = init2 != null && target.isAccepting(init2);
-        if (init1.getAcceptance().conflicts(acc)) {
+        if (init.getAcceptance().conflicts(acc)) {
             return Word.epsilon();
         }
 
-        IntDisjointSets uf = new UnionFind(thisStates + targetStates);
-        StateIDs<S> tgtIds = target.stateIDs();
-        int id1 = getStateId(init1, stateIds);
-        int id2 = (init2 != null ? tgtIds.getStateId(init2) : targetStates - 1) + thisStates;
-
-        uf.link(id1, id2);
+        return explore(target, inputs, omitUndefined, init, init2);
+    }
 
-        Queue<Record<@Nullable S, I>> queue = new ArrayDeque<>();
+    private <S> @Nullable Word<I> doCheckInsertedWords(DFA<S, I> target,
+                                                       Collection<? extends I> inputs,
+                                                       boolean omitUndefined) {
+        final S init2 = target.getInitialState();
 
-        queue.add(new Record<>(init1, init2));
+        if (init2 == null && omitUndefined) {
+            return null;
+        }
 
-        I lastSym = null;
+        if (init.getAcceptance().conflicts(init2 != null && target.isAccepting(init2))) {
+            return Word.epsilon();
+        }
 
-        Record<@Nullable S, I> current;
+        for (Word<? extends I> word : insertionLog.getWords()) {
+            State state1 = init;
+            S state2 = init2;
 
-        explore:
-        while ((current = queue.poll()) != null) {
-            State state1 = current.state1;
-            @Nullable S state2 = current.state2;
+            for (int i = 0; i < word.length(); i++) {
+                final I sym = word.getSymbol(i);
+                if (!insertionLog.containsInput(sym)) {
+                    break;
+                }
 
-            for (I sym : inputs) {
-                @Nullable S succ2 = (state2 != null) ? target.getSuccessor(state2, sym) : null;
+                final S succ2 = (state2 != null) ? target.getSuccessor(state2, sym) : null;
                 if (succ2 == null && omitUndefined) {
-                    continue;
+                    break;
                 }
 
-                int idx = inputAlphabet.getSymbolIndex(sym);
-                State succ1 = state1 != sink ? state1.getSuccessor(idx) : sink;
+                final int idx = inputAlphabet.getSymbolIndex(sym);
+                final State succ1 = state1 != sink ? state1.getSuccessor(idx) : sink;
 
                 if (succ1 == null) {
-                    continue;
-                }
-
-                id1 = getStateId(succ1, stateIds);
-                id2 = (succ2 != null ? tgtIds.getStateId(succ2) : targetStates - 1) + thisStates;
-
-                int r1 = uf.find(id1), r2 = uf.find(id2);
-
-                if (r1 == r2) {
-                    continue;
+                    break;
                 }
 
                 if (succ1 == sink) {
                     if (succ2 == null) {
-                        continue;
+                        break;
                     }
                     if (target.isAccepting(succ2)) {
-                        lastSym = sym;
-                        break explore;
+                        return Word.upcast(word.prefix(i + 1));
                     }
-                } else {
-                    boolean succ2acc = succ2 != null && target.isAccepting(succ2);
-                    if (succ1.getAcceptance().conflicts(succ2acc)) {
-                        lastSym = sym;
-                        break explore;
+                    // all continuations are rejected, so we have to check the reachable part of the target
+                    final Word<I> suffix = explore(target, inputs, omitUndefined, sink, succ2);
+                    if (suffix != null) {
+                        return Word.<I>upcast(word.prefix(i + 1)).concat(suffix);
                     }
+                    break;
                 }
 
-                uf.link(r1, r2);
+                if (succ1.getAcceptance().conflicts(succ2 != null && target.isAccepting(succ2))) {
+                    return Word.upcast(word.prefix(i + 1));
+                }
 
-                queue.add(new Record<>(succ1, succ2, sym, current));
+                state1 = succ1;
+                state2 = succ2;
             }
         }
 
-        if (current == null) {
-            return null;
+        return null;
+    }
+
+    /**
+     * Explores the product of this construction and the given target, starting from the given (consistent) pair of
+     * states.
+     *
+     * @return a word leading from the given pair of states to a pair of inconsistent states, or {@code null} if no such
+     * word exists
+     */
+    private <S> @Nullable Word<I> explore(DFA<S, I> target,
+                                          Collection<? extends I> inputs,
+                                          boolean omitUndefined,
+                                          State start1,
+                                          @Nullable S start2) {
+        // the id 0 is reserved for the sink, the id target.size() for the undefined target state
+        final int thisStates = register.size() + 1;
+        final int targetStates = target.size() + 1;
+        final StateIDs<S> tgtIds = target.stateIDs();
+
+        final int epoch = searchBuffers.begin(thisStates + targetStates);
+        nextSearchId = 1;
+
+        int id1 = getStateId(start1, epoch);
+        int id2 = (start2 != null ? tgtIds.getStateId(start2) : targetStates - 1) + thisStates;
+
+        searchBuffers.link(id1, id2);
+        searchBuffers.offer(start1, start2, -1, -1);
+
+        int current;
+        int lastSym = -1;
+
+        try {
+            explore:
+            while ((current = searchBuffers.poll()) >= 0) {
+                State state1 = (State) searchBuffers.getState1(current);
+                @SuppressWarnings("unchecked")
+                @Nullable S state2 = (S) searchBuffers.getState2(current);
+                assert state1 != null;
+
+                for (I sym : inputs) {
+                    @Nullable S succ2 = (state2 != null) ? target.getSuccessor(state2, sym) : null;
+                    if (succ2 == null && omitUndefined) {
+                        continue;
+                    }
+
+                    int idx = inputAlphabet.getSymbolIndex(sym);
+                    State succ1 = state1 != sink ? state1.getSuccessor(idx) : sink;
+
+                    if (succ1 == null) {
+                        continue;
+                    }
+
+                    id1 = getStateId(succ1, epoch);
+                    id2 = (succ2 != null ? tgtIds.getStateId(succ2) : targetStates - 1) + thisStates;
+
+                    int r1 = searchBuffers.find(id1), r2 = searchBuffers.find(id2);
+
+                    if (r1 == r2) {
+                        continue;
+                    }
+
+                    if (succ1 == sink) {
+                        if (succ2 == null) {
+                            continue;
+                        }
+                        if (target.isAccepting(succ2)) {
+                            lastSym = idx;
+                            break explore;
+                        }
+                    } else {
+                        boolean succ2acc = succ2 != null && target.isAccepting(succ2);
+                        if (succ1.getAcceptance().conflicts(succ2acc)) {
+                            lastSym = idx;
+                            break explore;
+                        }
+                    }
+
+                    searchBuffers.link(r1, r2);
+                    searchBuffers.offer(succ1, succ2, current, idx);
+                }
+            }
+
+            if (current < 0) {
+                return null;
+            }
+
+            return searchBuffers.toWord(current, lastSym, inputAlphabet);
+        } finally {
+            searchBuffers.end();
         }
+    }
 
-        int ceLength = current.depth;
-        if (lastSym != null) {
-            ceLength++;
+    private int getStateId(State s, int epoch) {
+        if (s == sink) {
+            return 0;
+        }
+        if (s.searchEpoch != epoch) {
+            s.searchEpoch = epoch;
+            s.searchId = nextSearchId++;
         }
+        return s.searchId;
+    }
 
-        @SuppressWarnings("nullness") // we make sure to set each index to a value of type I
-        WordBuilder<I> wb = new WordBuilder<>(null, ceLength);
+    @Override
+    protected void restore(Snapshot<I, ?> snapshot) throws IOException {
+        insertionLog.disarm();
 
-        int index = ceLength;
+        final State[] states = new State[snapshot.size()];
 
-        if (lastSym != null) {
-            wb.setSymbol(--index, lastSym);
-        }
+        // register the states bottom-up, so that each signature refers to canonical successors only
+        for (int s : snapshot.getBottomUpOrder()) {
+            if (s == 0) {
+                continue;
+            }
 
-        while (current.reachedFrom != null) {
-            final I reachedVia = current.reachedVia;
-            wb.setSymbol(--index, reachedVia);
-            current = current.reachedFrom;
+            final StateSignature sig = new StateSignature(alphabetSize, snapshot.getAcceptance(s));
+            for (int t = snapshot.getTransitionsBegin(s); t < snapshot.getTransitionsEnd(s); t++) {
+                final int idx = inputAlphabet.getSymbolIndex(snapshot.getInput(t));
+                sig.successors.array[idx] = states[snapshot.getTarget(t)];
+            }
+            sig.updateHashCode();
+            states[s] = restoreState(sig);
         }
 
-        return wb.toWord();
+        for (int t = snapshot.getTransitionsBegin(0); t < snapshot.getTransitionsEnd(0); t++) {
+            final int idx = inputAlphabet.getSymbolIndex(snapshot.getInput(t));
+            updateInitSignature(idx, states[snapshot.getTarget(t)]);
+        }
+        updateInitSignature(snapshot.getAcceptance(0));
     }
 
-    private static int getStateId(State s, Map<State, Integer> idMap) {
-        Integer id = idMap.get(s);
-        if (id != null) {
-            return id;
-        }
-        id = idMap.size();
-        idMap.put(s, id);
-        return id;
+    /**
+     * Returns the (canonical) state for the given signature while restoring a snapshot.
+     *
+     * @param sig
+     *         the signature of the state
+     *
+     * @return the canonical state for the given signature
+     */
+    protected State restoreState(StateSignature sig) {
+        return replaceOrRegister(sig);
     }
 
     protected abstract @Nullable State getState(Word<? extends I> word);
@@ -481,32 +626,6 @@ public abstract class AbstractIncrementalDFADAGBuilder<I> extends AbstractIncrem
         return new TransitionSystemView();
     }
 
-    private static final class Record<S, I> {
-
-        public final State state1;
-        public final S state2;
-        public final I reachedVia;
-        public final @Nullable Record<S, I> reachedFrom;
-        public final int depth;
-
-        @SuppressWarnings("nullness") // we will only access reachedVia after checking reachedFrom for null
-        Record(State state1, S state2) {
-            this.state1 = state1;
-            this.state2 = state2;
-            this.reachedVia = null;
-            this.reachedFrom = null;
-            this.depth = 0;
-        }
-
-        Record(State state1, S state2, I reachedVia, Record<S, I> reachedFrom) {
-            this.state1 = state1;
-            this.state2 = state2;
-            this.reachedVia = reachedVia;
-            this.reachedFrom = reachedFrom;
-            this.depth = reachedFrom.depth + 1;
-        }
-    }
-
     public class GraphView extends AbstractGraphView<I, State, EdgeRecord> {
 
         @Override
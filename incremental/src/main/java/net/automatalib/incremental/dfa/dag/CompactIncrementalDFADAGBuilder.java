@@ -0,0 +1,546 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.incremental.dfa.dag;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+
+import net.automatalib.automata.concepts.StateIDs;
+import net.automatalib.automata.fsa.DFA;
+import net.automatalib.commons.smartcollections.IntSignatureRegister;
+import net.automatalib.commons.util.IntDisjointSets;
+import net.automatalib.commons.util.UnionFind;
+import net.automatalib.incremental.ConflictException;
+import net.automatalib.incremental.IncrementalSnapshots.Snapshot;
+import net.automatalib.incremental.dfa.AbstractIncrementalDFABuilder;
+import net.automatalib.incremental.dfa.Acceptance;
+import net.automatalib.visualization.VisualizationHelper;
+import net.automatalib.visualization.helper.DelegateVisualizationHelper;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.Word;
+import net.automatalib.words.WordBuilder;
+import net.automatalib.words.impl.Alphabets;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A variation of the {@link IncrementalDFADAGBuilder}, which represents states by integers and stores their signatures
+ * (the acceptance followed by the successor of each input symbol) in the flat {@code int} arena of an {@link
+ * IntSignatureRegister}. Signatures are hashed and compared in place, so the construction does not allocate any state,
+ * signature or map entry objects.
+ * <p>
+ * Rather than updating states in place, an insertion re-creates the states along the path of the inserted word
+ * bottom-up (re-using any equivalent, already registered state) and finally re-directs the initial state. States that
+ * are no longer referenced are removed from the register, based on their number of incoming transitions. Hence, the
+ * construction always maintains the minimal DAG.
+ *
+ * @param <I>
+ *         input symbol type
+ *
+ * @author frohme
+ */
+public class CompactIncrementalDFADAGBuilder<I> extends AbstractIncrementalDFABuilder<I> {
+
+    private static final int UNDEFINED = -1;
+    private static final int ACCEPTANCE = 0;
+    private static final Acceptance[] ACCEPTANCES = Acceptance.values();
+
+    private final IntSignatureRegister register;
+    private final int init;
+    private int[] incoming;
+    private int[] buffer;
+    private int[] stack;
+    private int[] symIdx;
+    private int[] path;
+
+    /**
+     * Constructor. Initializes the incremental builder.
+     *
+     * @param inputAlphabet
+     *         the input alphabet to use
+     */
+    public CompactIncrementalDFADAGBuilder(Alphabet<I> inputAlphabet) {
+        super(inputAlphabet);
+        this.register = new IntSignatureRegister(alphabetSize + 1);
+        // the initial state is never registered, because it must not be merged with any other state
+        this.init = register.allocate(UNDEFINED);
+        this.register.set(init, ACCEPTANCE, Acceptance.DONT_KNOW.ordinal());
+        this.incoming = new int[16];
+        this.buffer = new int[alphabetSize + 1];
+        this.stack = new int[16];
+        this.symIdx = new int[16];
+        this.path = new int[16];
+    }
+
+    @Override
+    public void addAlphabetSymbol(I symbol) {
+        if (!this.inputAlphabet.containsSymbol(symbol)) {
+            Alphabets.toGrowingAlphabetOrThrowException(this.inputAlphabet).addSymbol(symbol);
+        }
+
+        final int newAlphabetSize = this.inputAlphabet.size();
+        // even if the symbol was already in the alphabet, we need to make sure to be able to store the new symbol
+        if (alphabetSize < newAlphabetSize) {
+            register.widen(newAlphabetSize + 1, UNDEFINED);
+            buffer = new int[newAlphabetSize + 1];
+            alphabetSize = newAlphabetSize;
+        }
+    }
+
+    @Override
+    public Acceptance lookup(Word<? extends I> word) {
+        int curr = init;
+
+        for (I sym : word) {
+            curr = getSuccessor(curr, getSymbolIndex(sym));
+            if (curr == UNDEFINED) {
+                return Acceptance.DONT_KNOW;
+            }
+        }
+
+        return getAcceptance(curr);
+    }
+
+    @Override
+    public void insert(Word<? extends I> word, boolean accepting) {
+        final Acceptance acc = Acceptance.fromBoolean(accepting);
+        final int len = word.length();
+
+        if (path.length <= len) {
+            symIdx = new int[len + 1];
+            path = new int[len + 1];
+        }
+
+        int i = 0;
+        for (I sym : word) {
+            symIdx[i++] = getSymbolIndex(sym);
+        }
+
+        // path[i] is the state reached by the prefix of length i
+        path[0] = init;
+        int prefixLen = 0;
+        while (prefixLen < len) {
+            final int succ = getSuccessor(path[prefixLen], symIdx[prefixLen]);
+            if (succ == UNDEFINED) {
+                break;
+            }
+            path[++prefixLen] = succ;
+        }
+
+        // the (new) state that replaces path[level]
+        int last;
+        int level;
+
+        if (prefixLen == len) {
+            final Acceptance currAcc = getAcceptance(path[len]);
+            if (currAcc == acc) {
+                return;
+            }
+            if (currAcc != Acceptance.DONT_KNOW) {
+                throw new ConflictException("Incompatible acceptances: " + currAcc + " vs " + acc);
+            }
+            if (len == 0) {
+                register.set(init, ACCEPTANCE, acc.ordinal());
+                return;
+            }
+
+            register.copy(path[len], buffer);
+            buffer[ACCEPTANCE] = acc.ordinal();
+            last = replaceOrRegister(buffer);
+            level = len;
+        } else {
+            // create the (linear) suffix path bottom-up
+            resetBuffer(acc);
+            last = replaceOrRegister(buffer);
+
+            for (int j = len - 1; j > prefixLen; j--) {
+                resetBuffer(Acceptance.DONT_KNOW);
+                buffer[1 + symIdx[j]] = last;
+                last = replaceOrRegister(buffer);
+            }
+
+            level = prefixLen + 1;
+            path[level] = UNDEFINED;
+        }
+
+        // re-create the states of the path bottom-up, until a state does not change anymore
+        for (int j = level - 1; j > 0; j--) {
+            if (last == path[j + 1]) {
+                return;
+            }
+            register.copy(path[j], buffer);
+            buffer[1 + symIdx[j]] = last;
+            last = replaceOrRegister(buffer);
+        }
+
+        if (last != path[1]) {
+            setInitSuccessor(symIdx[0], last);
+        }
+    }
+
+    @Override
+    public @Nullable Word<I> findSeparatingWord(DFA<?, I> target,
+                                                Collection<? extends I> inputs,
+                                                boolean omitUndefined) {
+        return doFindSeparatingWord(target, inputs, omitUndefined);
+    }
+
+    private <S> @Nullable Word<I> doFindSeparatingWord(DFA<S, I> target,
+                                                       Collection<? extends I> inputs,
+                                                       boolean omitUndefined) {
+        final int thisStates = register.getIdBound();
+        int targetStates = target.size();
+        if (!omitUndefined) {
+            targetStates++;
+        }
+
+        final S init2 = target.getInitialState();
+
+        if (init2 == null && omitUndefined) {
+            return null;
+        }
+
+        final boolean acc = init2 != null && target.isAccepting(init2);
+        if (getAcceptance(init).conflicts(acc)) {
+            return Word.epsilon();
+        }
+
+        final IntDisjointSets uf = new UnionFind(thisStates + targetStates);
+        final StateIDs<S> tgtIds = target.stateIDs();
+        uf.link(init, (init2 != null ? tgtIds.getStateId(init2) : targetStates - 1) + thisStates);
+
+        final Queue<Record<@Nullable S, I>> queue = new ArrayDeque<>();
+        queue.add(new Record<>(init, init2));
+
+        I lastSym = null;
+
+        Record<@Nullable S, I> current;
+
+        explore:
+        while ((current = queue.poll()) != null) {
+            final int state1 = current.state1;
+            final @Nullable S state2 = current.state2;
+
+            for (I sym : inputs) {
+                final @Nullable S succ2 = (state2 != null) ? target.getSuccessor(state2, sym) : null;
+                if (succ2 == null && omitUndefined) {
+                    continue;
+                }
+
+                final int succ1 = getSuccessor(state1, getSymbolIndex(sym));
+                if (succ1 == UNDEFINED) {
+                    continue;
+                }
+
+                final int id2 = (succ2 != null ? tgtIds.getStateId(succ2) : targetStates - 1) + thisStates;
+                final int r1 = uf.find(succ1), r2 = uf.find(id2);
+
+                if (r1 == r2) {
+                    continue;
+                }
+
+                final boolean succ2acc = succ2 != null && target.isAccepting(succ2);
+                if (getAcceptance(succ1).conflicts(succ2acc)) {
+                    lastSym = sym;
+                    break explore;
+                }
+
+                uf.link(r1, r2);
+
+                queue.add(new Record<>(succ1, succ2, sym, current));
+            }
+        }
+
+        if (current == null) {
+            return null;
+        }
+
+        int ceLength = current.depth;
+        if (lastSym != null) {
+            ceLength++;
+        }
+
+        @SuppressWarnings("nullness") // we make sure to set each index to a value of type I
+        WordBuilder<I> wb = new WordBuilder<>(null, ceLength);
+
+        int index = ceLength;
+
+        if (lastSym != null) {
+            wb.setSymbol(--index, lastSym);
+        }
+
+        while (current.reachedFrom != null) {
+            final I reachedVia = current.reachedVia;
+            wb.setSymbol(--index, reachedVia);
+            current = current.reachedFrom;
+        }
+
+        return wb.toWord();
+    }
+
+    @Override
+    protected void restore(Snapshot<I, ?> snapshot) throws IOException {
+        final int[] states = new int[snapshot.size()];
+
+        // register the states bottom-up, so that each signature refers to canonical successors only
+        for (int s : snapshot.getBottomUpOrder()) {
+            if (s == 0) {
+                continue;
+            }
+
+            resetBuffer(snapshot.getAcceptance(s));
+            for (int t = snapshot.getTransitionsBegin(s); t < snapshot.getTransitionsEnd(s); t++) {
+                buffer[1 + getSymbolIndex(snapshot.getInput(t))] = states[snapshot.getTarget(t)];
+            }
+            states[s] = replaceOrRegister(buffer);
+        }
+
+        for (int t = snapshot.getTransitionsBegin(0); t < snapshot.getTransitionsEnd(0); t++) {
+            setInitSuccessor(getSymbolIndex(snapshot.getInput(t)), states[snapshot.getTarget(t)]);
+        }
+        register.set(init, ACCEPTANCE, snapshot.getAcceptance(0).ordinal());
+    }
+
+    @Override
+    public GraphView asGraph() {
+        return new GraphView();
+    }
+
+    @Override
+    public TransitionSystemView asTransitionSystem() {
+        return new TransitionSystemView();
+    }
+
+    private Acceptance getAcceptance(int state) {
+        return ACCEPTANCES[register.get(state, ACCEPTANCE)];
+    }
+
+    private int getSuccessor(int state, int symIdx) {
+        checkSymbolIndex(symIdx);
+        return register.get(state, 1 + symIdx);
+    }
+
+    private int getSymbolIndex(I symbol) {
+        final int symIdx = inputAlphabet.getSymbolIndex(symbol);
+        checkSymbolIndex(symIdx);
+        return symIdx;
+    }
+
+    /**
+     * Rejects symbol indices outside the alphabet, which would otherwise address the acceptance or a foreign position
+     * of a signature.
+     */
+    private void checkSymbolIndex(int symIdx) {
+        if (symIdx < 0 || symIdx >= alphabetSize) {
+            throw new IllegalArgumentException("Symbol index " + symIdx + " is not within the input alphabet");
+        }
+    }
+
+    private void resetBuffer(Acceptance acc) {
+        Arrays.fill(buffer, UNDEFINED);
+        buffer[ACCEPTANCE] = acc.ordinal();
+    }
+
+    /**
+     * Returns the id of the registered state with the given signature, or registers a new state (and updates the
+     * incoming transitions of its successors) if no such state exists.
+     */
+    private int replaceOrRegister(int[] sig) {
+        int id = register.find(sig);
+        if (id != IntSignatureRegister.NOT_FOUND) {
+            return id;
+        }
+
+        id = register.add(sig);
+        if (id >= incoming.length) {
+            incoming = Arrays.copyOf(incoming, Math.max(incoming.length * 2, id + 1));
+        }
+        incoming[id] = 0;
+
+        for (int i = 1; i < sig.length; i++) {
+            if (sig[i] != UNDEFINED) {
+                incoming[sig[i]]++;
+            }
+        }
+
+        return id;
+    }
+
+    private void setInitSuccessor(int symIdx, int succ) {
+        final int oldSucc = getSuccessor(init, symIdx);
+        register.set(init, 1 + symIdx, succ);
+        incoming[succ]++;
+
+        if (oldSucc != UNDEFINED) {
+            decreaseIncoming(oldSucc);
+        }
+    }
+
+    /**
+     * Decreases the number of incoming transitions of the given state and removes the state (and transitively all of
+     * its no longer referenced successors) if it becomes unreachable.
+     */
+    private void decreaseIncoming(int state) {
+        if (--incoming[state] > 0) {
+            return;
+        }
+
+        final int width = register.getWidth();
+        int top = 0;
+        stack[top++] = state;
+
+        while (top > 0) {
+            final int curr = stack[--top];
+            for (int i = 1; i < width; i++) {
+                final int succ = register.get(curr, i);
+                if (succ != UNDEFINED && --incoming[succ] == 0) {
+                    if (top == stack.length) {
+                        stack = Arrays.copyOf(stack, stack.length * 2);
+                    }
+                    stack[top++] = succ;
+                }
+            }
+            register.remove(curr);
+        }
+    }
+
+    private static final class Record<S, I> {
+
+        public final int state1;
+        public final S state2;
+        public final I reachedVia;
+        public final @Nullable Record<S, I> reachedFrom;
+        public final int depth;
+
+        @SuppressWarnings("nullness") // we will only access reachedVia after checking reachedFrom for null
+        Record(int state1, S state2) {
+            this.state1 = state1;
+            this.state2 = state2;
+            this.reachedVia = null;
+            this.reachedFrom = null;
+            this.depth = 0;
+        }
+
+        Record(int state1, S state2, I reachedVia, Record<S, I> reachedFrom) {
+            this.state1 = state1;
+            this.state2 = state2;
+            this.reachedVia = reachedVia;
+            this.reachedFrom = reachedFrom;
+            this.depth = reachedFrom.depth + 1;
+        }
+    }
+
+    public class GraphView extends AbstractGraphView<I, Integer, CompactEdgeRecord> {
+
+        @Override
+        public int size() {
+            return register.size() + 1;
+        }
+
+        @Override
+        public Collection<Integer> getNodes() {
+            final List<Integer> result = new ArrayList<>(size());
+            result.add(init);
+            for (int i = 0; i < register.getIdBound(); i++) {
+                if (register.isRegistered(i)) {
+                    result.add(i);
+                }
+            }
+            return result;
+        }
+
+        @Override
+        public Collection<CompactEdgeRecord> getOutgoingEdges(Integer node) {
+            final List<CompactEdgeRecord> result = new ArrayList<>();
+            for (int i = 0; i < alphabetSize; i++) {
+                if (getSuccessor(node, i) != UNDEFINED) {
+                    result.add(new CompactEdgeRecord(node, i));
+                }
+            }
+            return result;
+        }
+
+        @Override
+        public Integer getTarget(CompactEdgeRecord edge) {
+            return getSuccessor(edge.source, edge.transIdx);
+        }
+
+        @Override
+        public I getInputSymbol(CompactEdgeRecord edge) {
+            return inputAlphabet.getSymbol(edge.transIdx);
+        }
+
+        @Override
+        public Acceptance getAcceptance(Integer node) {
+            return CompactIncrementalDFADAGBuilder.this.getAcceptance(node);
+        }
+
+        @Override
+        public Integer getInitialNode() {
+            return init;
+        }
+
+        @Override
+        public VisualizationHelper<Integer, CompactEdgeRecord> getVisualizationHelper() {
+            return new DelegateVisualizationHelper<Integer, CompactEdgeRecord>(super.getVisualizationHelper()) {
+
+                @Override
+                public boolean getNodeProperties(Integer node, Map<String, String> properties) {
+                    if (!super.getNodeProperties(node, properties)) {
+                        return false;
+                    }
+                    properties.put(NodeAttrs.LABEL, "n" + node);
+                    if (node != init && incoming[node] > 1) {
+                        String shape = (getAcceptance(node) == Acceptance.TRUE) ?
+                                NodeShapes.DOUBLEOCTAGON :
+                                NodeShapes.OCTAGON;
+                        properties.put(NodeAttrs.SHAPE, shape);
+                    }
+                    return true;
+                }
+            };
+        }
+    }
+
+    public class TransitionSystemView extends AbstractTransitionSystemView<Integer, I, Integer> {
+
+        @Override
+        public Integer getSuccessor(Integer transition) {
+            return transition;
+        }
+
+        @Override
+        public @Nullable Integer getTransition(Integer state, I input) {
+            final int succ = CompactIncrementalDFADAGBuilder.this.getSuccessor(state, getSymbolIndex(input));
+            return succ == UNDEFINED ? null : succ;
+        }
+
+        @Override
+        public Integer getInitialState() {
+            return init;
+        }
+
+        @Override
+        public Acceptance getAcceptance(Integer state) {
+            return CompactIncrementalDFADAGBuilder.this.getAcceptance(state);
+        }
+    }
+}
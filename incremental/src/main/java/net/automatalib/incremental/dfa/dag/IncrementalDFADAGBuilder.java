@@ -16,8 +16,10 @@
 package net.automatalib.incremental.dfa.dag;
 
 import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Deque;
 import java.util.Iterator;
+import java.util.List;
 
 import net.automatalib.incremental.ConflictException;
 import net.automatalib.incremental.dfa.Acceptance;
@@ -76,6 +78,8 @@ public class IncrementalDFADAGBuilder<I> extends AbstractIncrementalDFADAGBuilde
      */
     @Override
     public void insert(Word<? extends I> word, boolean accepting) {
+        insertionLog.log(word);
+
         int len = word.length();
         Acceptance acc = Acceptance.fromBoolean(accepting);
 
@@ -223,6 +227,159 @@ public class IncrementalDFADAGBuilder<I> extends AbstractIncrementalDFADAGBuilde
         updateInitSignature(finalIdx, last);
     }
 
+    /**
+     * Inserts a lexicographically sorted sequence of words into either the set of accepted or rejected words. The words
+     * need to be sorted with respect to the symbol order of the input alphabet (see {@link Alphabet#compare(Object,
+     * Object)}), i.e. each word has to be a (non-strict) extension of its predecessor or has to be larger at the first
+     * position where both words differ. Note that this order differs from the canonical (length-first) order of {@link
+     * Word#canonicalComparator(java.util.Comparator)}.
+     * <p>
+     * If the builder does not contain any words yet (apart from possibly the empty word), this method constructs the
+     * minimal DAG using the algorithm by <a href="https://doi.org/10.1162/089120100561601">Daciuk et al.</a>: since
+     * sorted input guarantees that no word extends the states of a previous word beyond their common prefix, every
+     * state is registered exactly once, namely as soon as its suffix language is final. The resulting structure is the
+     * same as for subsequent {@link #insert(Word, boolean) insertions} and may therefore be extended incrementally
+     * afterwards. If the builder already contains words, the given words are inserted one after another.
+     * <p>
+     * Words may be supplied lazily, e.g. from a pre-sorted stream via {@code stream::iterator}.
+     *
+     * @param words
+     *         the lexicographically sorted words to insert
+     * @param accepting
+     *         whether to insert the words into the set of accepted or rejected words.
+     *
+     * @throws IllegalArgumentException
+     *         if the words are not sorted. In this case, all words preceding the offending word have been inserted.
+     * @throws ConflictException
+     *         if the empty word is inserted with an acceptance contradicting the existing knowledge
+     */
+    public void insertSorted(Iterable<? extends Word<? extends I>> words, boolean accepting) {
+        final Acceptance acc = Acceptance.fromBoolean(accepting);
+
+        if (!isEmpty()) {
+            Word<? extends I> prev = null;
+            for (Word<? extends I> word : words) {
+                checkSorted(prev, word);
+                insert(word, accepting);
+                prev = word;
+            }
+            return;
+        }
+
+        // the signatures (and transition indices) of the yet unregistered states along the previous word
+        final List<StateSignature> path = new ArrayList<>();
+        final List<Integer> pathIndices = new ArrayList<>();
+        final StateSignature initSig = new StateSignature(alphabetSize, init.getAcceptance());
+        path.add(initSig);
+
+        Word<? extends I> prev = null;
+
+        try {
+            for (Word<? extends I> word : words) {
+                final int prefixLen = checkSorted(prev, word);
+                final int len = word.length();
+
+                if (prev != null && prefixLen == len) {
+                    // duplicate word
+                    continue;
+                }
+
+                // the states of the previous word beyond the common prefix will not change anymore
+                registerPath(path, pathIndices, prefixLen);
+
+                for (int i = prefixLen; i < len; i++) {
+                    pathIndices.add(inputAlphabet.getSymbolIndex(word.getSymbol(i)));
+                    path.add(new StateSignature(alphabetSize, Acceptance.DONT_KNOW));
+                }
+
+                final StateSignature last = path.get(len);
+                if (last.acceptance != Acceptance.DONT_KNOW && last.acceptance != acc) {
+                    throw new ConflictException("Incompatible acceptances: " + last.acceptance + " vs " + acc);
+                }
+                last.acceptance = acc;
+                insertionLog.log(word);
+                prev = word;
+            }
+        } finally {
+            registerPath(path, pathIndices, 0);
+
+            for (int i = 0; i < alphabetSize; i++) {
+                final State succ = initSig.successors.array[i];
+                if (succ != null) {
+                    updateInitSignature(i, succ);
+                }
+            }
+            updateInitSignature(initSig.acceptance);
+        }
+    }
+
+    /**
+     * Registers the states of the given path that are located beyond the given depth in a bottom-up fashion and
+     * connects them to their (unregistered) predecessors.
+     *
+     * @param path
+     *         the signatures of the yet unregistered states
+     * @param pathIndices
+     *         the transition indices connecting the states of the path
+     * @param depth
+     *         the depth up to which the states should be kept unregistered
+     */
+    private void registerPath(List<StateSignature> path, List<Integer> pathIndices, int depth) {
+        for (int i = path.size() - 1; i > depth; i--) {
+            final StateSignature sig = path.remove(i);
+            sig.updateHashCode();
+            path.get(i - 1).successors.array[pathIndices.remove(i - 1)] = replaceOrRegister(sig);
+        }
+    }
+
+    /**
+     * Checks whether the given word lexicographically succeeds (or equals) its predecessor.
+     *
+     * @param prev
+     *         the preceding word, may be {@code null}
+     * @param word
+     *         the word to check
+     *
+     * @return the length of the longest common prefix of both words
+     */
+    private int checkSorted(@Nullable Word<? extends I> prev, Word<? extends I> word) {
+        if (prev == null) {
+            return 0;
+        }
+
+        final int prevLen = prev.length();
+        final int len = word.length();
+        final int minLen = Math.min(prevLen, len);
+
+        int prefixLen = 0;
+        while (prefixLen < minLen && prev.getSymbol(prefixLen).equals(word.getSymbol(prefixLen))) {
+            prefixLen++;
+        }
+
+        final boolean sorted;
+        if (prefixLen == minLen) {
+            sorted = prefixLen == prevLen;
+        } else {
+            sorted = inputAlphabet.getSymbolIndex(prev.getSymbol(prefixLen)) <
+                     inputAlphabet.getSymbolIndex(word.getSymbol(prefixLen));
+        }
+
+        if (!sorted) {
+            throw new IllegalArgumentException("Words are not sorted: '" + prev + "' precedes '" + word + '\'');
+        }
+
+        return prefixLen;
+    }
+
+    private boolean isEmpty() {
+        for (State succ : init.getSignature().successors.array) {
+            if (succ != null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     /**
      * Creates a suffix state sequence, i.e., a linear sequence of states connected by transitions labeled by the
      * letters of the given suffix word.
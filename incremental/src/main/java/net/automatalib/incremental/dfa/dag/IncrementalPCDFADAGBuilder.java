@@ -15,11 +15,13 @@
  */
 package net.automatalib.incremental.dfa.dag;
 
+import java.io.IOException;
 import java.util.ArrayDeque;
 import java.util.Deque;
 import java.util.Iterator;
 
 import net.automatalib.incremental.ConflictException;
+import net.automatalib.incremental.IncrementalSnapshots.Snapshot;
 import net.automatalib.incremental.dfa.Acceptance;
 import net.automatalib.words.Alphabet;
 import net.automatalib.words.Word;
@@ -75,6 +77,7 @@ public class IncrementalPCDFADAGBuilder<I> extends AbstractIncrementalDFADAGBuil
 
     @Override
     public void insert(Word<? extends I> word, boolean accepting) {
+        insertionLog.log(word);
 
         State curr = init;
         State conf = null;
@@ -248,7 +251,7 @@ public class IncrementalPCDFADAGBuilder<I> extends AbstractIncrementalDFADAGBuil
     }
 
     /**
-     * Removes a state and all of its successors from the register.
+     * Removes a state and all of its (exclusively referenced) successors from the register.
      *
      * @param state
      *         the state to purge
@@ -268,11 +271,34 @@ public class IncrementalPCDFADAGBuilder<I> extends AbstractIncrementalDFADAGBuil
         for (int i = 0; i < alphabetSize; i++) {
             State succ = sig.successors.array[i];
             if (succ != null) {
-                purge(succ);
+                // successors shared with other states remain reachable and must keep their acceptance
+                boolean shared = succ.isConfluence();
+                succ.decreaseIncoming();
+                if (!shared) {
+                    purge(succ);
+                }
             }
         }
     }
 
+    @Override
+    protected void restore(Snapshot<I, ?> snapshot) throws IOException {
+        super.restore(snapshot);
+        if (init.getAcceptance() == Acceptance.FALSE) {
+            sink = State.SINK;
+        }
+    }
+
+    @Override
+    protected State restoreState(StateSignature sig) {
+        // rejected words are represented by the shared sink
+        if (sig.acceptance == Acceptance.FALSE) {
+            sink = State.SINK;
+            return sink;
+        }
+        return super.restoreState(sig);
+    }
+
     /**
      * Creates a suffix state sequence, i.e., a linear sequence of states connected by transitions labeled by the
      * letters of the given suffix word.
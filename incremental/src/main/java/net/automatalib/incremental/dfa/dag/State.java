@@ -16,6 +16,7 @@
 package net.automatalib.incremental.dfa.dag;
 
 import net.automatalib.commons.smartcollections.ResizingArrayStorage;
+import net.automatalib.incremental.SearchBuffers;
 import net.automatalib.incremental.dfa.Acceptance;
 
 /**
@@ -31,6 +32,13 @@ final class State {
     private final StateSignature signature;
     private int numIncoming;
 
+    /**
+     * The epoch of the separating word search in which this state has last been numbered (see {@link
+     * SearchBuffers#getEpoch()}) and its id during that search.
+     */
+    int searchEpoch;
+    int searchId;
+
     /**
      * Constructor. Initializes the state with a given signature.
      *
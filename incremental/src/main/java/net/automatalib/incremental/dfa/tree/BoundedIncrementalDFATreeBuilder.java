@@ -0,0 +1,382 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.incremental.dfa.tree;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import net.automatalib.incremental.CacheStatistics;
+import net.automatalib.incremental.ConflictException;
+import net.automatalib.incremental.EvictingCache;
+import net.automatalib.incremental.EvictionPolicy;
+import net.automatalib.incremental.IncrementalSnapshots.Snapshot;
+import net.automatalib.incremental.dfa.Acceptance;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.Word;
+
+/**
+ * A size-bounded variant of the {@link IncrementalDFATreeBuilder}. Every {@link #lookup(Word) lookup} and {@link
+ * #insert(Word, boolean) insertion} updates the access information of the nodes along the path of the respective word.
+ * Once an insertion exceeds the capacity, the coldest (unpinned) subtrees are evicted according to the configured
+ * {@link EvictionPolicy} until only three quarters of the capacity are occupied, so that the cost of an eviction is
+ * amortized over many insertions.
+ *
+ * @param <I>
+ *         input symbol type
+ *
+ * @author frohme
+ */
+public class BoundedIncrementalDFATreeBuilder<I> extends IncrementalDFATreeBuilder<I> implements EvictingCache<I> {
+
+    private final int capacity;
+    private final EvictionPolicy policy;
+    private final long timeToLive;
+    private final LongSupplier clock;
+    private final Set<Word<I>> pins;
+
+    private int size;
+    private long tick;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * Constructor for the {@link EvictionPolicy#LRU} and {@link EvictionPolicy#LFU} policies.
+     *
+     * @param inputAlphabet
+     *         the input alphabet
+     * @param capacity
+     *         the maximum number of nodes
+     * @param policy
+     *         the eviction policy
+     */
+    public BoundedIncrementalDFATreeBuilder(Alphabet<I> inputAlphabet, int capacity, EvictionPolicy policy) {
+        super(inputAlphabet);
+        if (policy == EvictionPolicy.TTL) {
+            throw new IllegalArgumentException("The TTL policy requires a time-to-live");
+        }
+        this.capacity = capacity;
+        this.policy = policy;
+        this.timeToLive = Long.MAX_VALUE;
+        this.clock = () -> ++tick;
+        this.pins = new HashSet<>();
+        this.size = 1;
+    }
+
+    /**
+     * Constructor for the {@link EvictionPolicy#TTL} policy, measuring time via {@link System#nanoTime()}.
+     *
+     * @param inputAlphabet
+     *         the input alphabet
+     * @param capacity
+     *         the maximum number of nodes
+     * @param timeToLive
+     *         the time after which unused subtrees expire
+     * @param unit
+     *         the unit of {@code timeToLive}
+     */
+    public BoundedIncrementalDFATreeBuilder(Alphabet<I> inputAlphabet, int capacity, long timeToLive, TimeUnit unit) {
+        this(inputAlphabet, capacity, timeToLive, unit, System::nanoTime);
+    }
+
+    /**
+     * Constructor for the {@link EvictionPolicy#TTL} policy.
+     *
+     * @param inputAlphabet
+     *         the input alphabet
+     * @param capacity
+     *         the maximum number of nodes
+     * @param timeToLive
+     *         the time after which unused subtrees expire
+     * @param unit
+     *         the unit of {@code timeToLive}
+     * @param nanoClock
+     *         the source of the current time (in nanoseconds)
+     */
+    public BoundedIncrementalDFATreeBuilder(Alphabet<I> inputAlphabet,
+                                            int capacity,
+                                            long timeToLive,
+                                            TimeUnit unit,
+                                            LongSupplier nanoClock) {
+        super(inputAlphabet);
+        this.capacity = capacity;
+        this.policy = EvictionPolicy.TTL;
+        this.timeToLive = unit.toNanos(timeToLive);
+        this.clock = nanoClock;
+        this.pins = new HashSet<>();
+        this.size = 1;
+    }
+
+    @Override
+    public Acceptance lookup(Word<? extends I> inputWord) {
+        final long now = clock.getAsLong();
+        Node<I> curr = root;
+        touch(curr, now);
+
+        for (I sym : inputWord) {
+            final Node<I> succ = curr.getChild(inputAlphabet.getSymbolIndex(sym));
+            if (succ == null) {
+                misses++;
+                return Acceptance.DONT_KNOW;
+            }
+            touch(succ, now);
+            curr = succ;
+        }
+
+        final Acceptance acc = curr.getAcceptance();
+        if (acc == Acceptance.DONT_KNOW) {
+            misses++;
+        } else {
+            hits++;
+        }
+        return acc;
+    }
+
+    @Override
+    public void insert(Word<? extends I> word, boolean acceptance) {
+        final long now = clock.getAsLong();
+        Node<I> curr = root;
+        touch(curr, now);
+
+        for (I sym : word) {
+            final int inputIdx = inputAlphabet.getSymbolIndex(sym);
+            Node<I> succ = curr.getChild(inputIdx);
+            if (succ == null) {
+                succ = new Node<>();
+                curr.setChild(inputIdx, succ);
+                size++;
+            }
+            touch(succ, now);
+            curr = succ;
+        }
+
+        final Acceptance acc = curr.getAcceptance();
+        final Acceptance newWordAcc = Acceptance.fromBoolean(acceptance);
+        if (acc == Acceptance.DONT_KNOW) {
+            curr.setAcceptance(newWordAcc);
+        } else if (acc != newWordAcc) {
+            throw new ConflictException(
+                    "Conflicting acceptance values for word " + word + ": " + acc + " vs " + newWordAcc);
+        }
+
+        if (size > capacity) {
+            evict();
+        }
+    }
+
+    @Override
+    protected void restore(Snapshot<I, ?> snapshot) throws IOException {
+        super.restore(snapshot);
+
+        final long now = clock.getAsLong();
+        final Deque<Node<I>> stack = new ArrayDeque<>();
+        stack.push(root);
+        size = 0;
+
+        while (!stack.isEmpty()) {
+            final Node<I> node = stack.pop();
+            getAccessInfo(node).lastAccess = now;
+            size++;
+            for (int i = 0; i < alphabetSize; i++) {
+                final Node<I> succ = node.getChild(i);
+                if (succ != null) {
+                    stack.push(succ);
+                }
+            }
+        }
+
+        if (size > capacity) {
+            evict();
+        }
+    }
+
+    @Override
+    public void pin(Word<? extends I> word) {
+        pins.add(Word.upcast(word));
+    }
+
+    @Override
+    public void unpin(Word<? extends I> word) {
+        pins.remove(word);
+    }
+
+    @Override
+    public void unpinAll() {
+        pins.clear();
+    }
+
+    @Override
+    public void evict() {
+        final boolean shrink = size > capacity;
+        if (!shrink && policy != EvictionPolicy.TTL) {
+            return;
+        }
+
+        final long now = clock.getAsLong();
+        final int retainedSize = capacity - capacity / 4;
+
+        final List<Candidate<I>> candidates = collectCandidates();
+        candidates.sort(getComparator());
+
+        for (Candidate<I> c : candidates) {
+            if (getAccessInfo(c.node).evicted) {
+                continue; // an ancestor has already been evicted
+            }
+            if (!isExpired(c.node, now) && (!shrink || size <= retainedSize)) {
+                break;
+            }
+            c.parent.removeChild(c.index);
+            final int evicted = markEvicted(c.node);
+            size -= evicted;
+            evictions += evicted;
+        }
+    }
+
+    @Override
+    public int getCapacity() {
+        return capacity;
+    }
+
+    @Override
+    public int getSize() {
+        return size;
+    }
+
+    @Override
+    public CacheStatistics getStatistics() {
+        return new CacheStatistics(hits, misses, evictions);
+    }
+
+    @Override
+    public void resetStatistics() {
+        hits = 0;
+        misses = 0;
+        evictions = 0;
+    }
+
+    private List<Candidate<I>> collectCandidates() {
+        final Set<Node<I>> pinned = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        for (Word<I> pin : pins) {
+            Node<I> curr = root;
+            for (I sym : pin) {
+                curr = curr.getChild(inputAlphabet.getSymbolIndex(sym));
+                if (curr == null) {
+                    break;
+                }
+                pinned.add(curr);
+            }
+        }
+
+        final List<Candidate<I>> result = new ArrayList<>(size);
+        final Deque<Candidate<I>> stack = new ArrayDeque<>();
+        pushChildren(stack, root, 1);
+
+        while (!stack.isEmpty()) {
+            final Candidate<I> c = stack.pop();
+            if (!pinned.contains(c.node)) {
+                result.add(c);
+            }
+            pushChildren(stack, c.node, c.depth + 1);
+        }
+
+        return result;
+    }
+
+    private void pushChildren(Deque<Candidate<I>> stack, Node<I> node, int depth) {
+        for (int i = 0; i < alphabetSize; i++) {
+            final Node<I> succ = node.getChild(i);
+            if (succ != null) {
+                stack.push(new Candidate<>(succ, node, i, depth));
+            }
+        }
+    }
+
+    private int markEvicted(Node<I> node) {
+        final Deque<Node<I>> stack = new ArrayDeque<>();
+        stack.push(node);
+        int count = 0;
+
+        while (!stack.isEmpty()) {
+            final Node<I> curr = stack.pop();
+            getAccessInfo(curr).evicted = true;
+            count++;
+            for (int i = 0; i < alphabetSize; i++) {
+                final Node<I> succ = curr.getChild(i);
+                if (succ != null) {
+                    stack.push(succ);
+                }
+            }
+        }
+
+        return count;
+    }
+
+    private boolean isExpired(Node<I> node, long now) {
+        return policy == EvictionPolicy.TTL && now - getAccessInfo(node).lastAccess > timeToLive;
+    }
+
+    private Comparator<Candidate<I>> getComparator() {
+        // ancestors are never colder than their descendants, so ties are broken in favor of larger subtrees
+        final Comparator<Candidate<I>> byRecency = Comparator.comparingLong(c -> getAccessInfo(c.node).lastAccess);
+        final Comparator<Candidate<I>> byDepth = Comparator.comparingInt(c -> c.depth);
+
+        if (policy == EvictionPolicy.LFU) {
+            final Comparator<Candidate<I>> byFrequency =
+                    Comparator.comparingLong(c -> getAccessInfo(c.node).accessCount);
+            return byFrequency.thenComparing(byRecency).thenComparing(byDepth);
+        }
+        return byRecency.thenComparing(byDepth);
+    }
+
+    private static void touch(Node<?> node, long now) {
+        getAccessInfo(node).touch(now);
+    }
+
+    private static AccessInfo getAccessInfo(Node<?> node) {
+        AccessInfo info = node.accessInfo;
+        if (info == null) {
+            info = new AccessInfo();
+            node.accessInfo = info;
+        }
+        return info;
+    }
+
+    private static final class Candidate<I> {
+
+        private final Node<I> node;
+        private final Node<I> parent;
+        private final int index;
+        private final int depth;
+
+        Candidate(Node<I> node, Node<I> parent, int index, int depth) {
+            this.node = node;
+            this.parent = parent;
+            this.index = index;
+            this.depth = depth;
+        }
+    }
+}
@@ -15,6 +15,7 @@
  */
 package net.automatalib.incremental.dfa.tree;
 
+import java.io.IOException;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -27,6 +28,7 @@ import java.util.Map;
 import com.google.common.collect.Iterators;
 import net.automatalib.automata.fsa.DFA;
 import net.automatalib.incremental.ConflictException;
+import net.automatalib.incremental.IncrementalSnapshots.Snapshot;
 import net.automatalib.incremental.dfa.AbstractIncrementalDFABuilder;
 import net.automatalib.incremental.dfa.Acceptance;
 import net.automatalib.util.graphs.traversal.GraphTraversal;
@@ -66,22 +68,8 @@ public class IncrementalDFATreeBuilder<I> extends AbstractIncrementalDFABuilder<
             Alphabets.toGrowingAlphabetOrThrowException(this.inputAlphabet).addSymbol(symbol);
         }
 
-        final int newAlphabetSize = this.inputAlphabet.size();
-        // even if the symbol was already in the alphabet, we need to make sure to be able to store the new symbol
-        if (alphabetSize < newAlphabetSize) {
-            ensureInputCapacity(root, alphabetSize, newAlphabetSize);
-            alphabetSize = newAlphabetSize;
-        }
-    }
-
-    private void ensureInputCapacity(Node<I> node, int oldAlphabetSize, int newAlphabetSize) {
-        node.ensureInputCapacity(newAlphabetSize);
-        for (int i = 0; i < oldAlphabetSize; i++) {
-            final Node<I> child = node.getChild(i);
-            if (child != null) {
-                ensureInputCapacity(child, oldAlphabetSize, newAlphabetSize);
-            }
-        }
+        // the nodes do not need to be resized, because their storages treat new symbols as undefined
+        alphabetSize = this.inputAlphabet.size();
     }
 
     @Override
@@ -171,7 +159,7 @@ public class IncrementalDFATreeBuilder<I> extends AbstractIncrementalDFABuilder<
             Node<I> succ = curr.getChild(inputIdx);
             if (succ == null) {
                 succ = new Node<>();
-                curr.setChild(inputIdx, alphabetSize, succ);
+                curr.setChild(inputIdx, succ);
             }
             curr = succ;
         }
@@ -186,6 +174,62 @@ public class IncrementalDFATreeBuilder<I> extends AbstractIncrementalDFABuilder<
         }
     }
 
+    @Override
+    protected void restore(Snapshot<I, ?> snapshot) throws IOException {
+        final int size = snapshot.size();
+        @SuppressWarnings("unchecked")
+        final Node<I>[] nodes = new Node[size];
+
+        root.setAcceptance(snapshot.getAcceptance(0));
+        nodes[0] = root;
+
+        // states are numbered in breadth-first order, hence each node is created before its outgoing transitions
+        for (int s = 0; s < size; s++) {
+            final Node<I> node = nodes[s];
+            if (node == null) {
+                throw new IOException("Malformed snapshot: state " + s + " is not reachable");
+            }
+
+            for (int t = snapshot.getTransitionsBegin(s); t < snapshot.getTransitionsEnd(s); t++) {
+                final int target = snapshot.getTarget(t);
+                Node<I> succ = nodes[target];
+
+                if (succ == null) {
+                    succ = restoreNode(snapshot.getAcceptance(target));
+                    nodes[target] = succ;
+                } else if (!isSharedNode(succ)) {
+                    throw new IOException("The snapshot is not tree-shaped and cannot be restored by a tree");
+                }
+
+                node.setChild(inputAlphabet.getSymbolIndex(snapshot.getInput(t)), succ);
+            }
+        }
+    }
+
+    /**
+     * Creates a node while restoring a snapshot.
+     *
+     * @param acceptance
+     *         the acceptance of the node
+     *
+     * @return the created node
+     */
+    protected Node<I> restoreNode(Acceptance acceptance) {
+        return new Node<>(acceptance);
+    }
+
+    /**
+     * Returns whether the given node may be reached by multiple transitions.
+     *
+     * @param node
+     *         the node
+     *
+     * @return {@code true} if the node may be reached by multiple transitions, {@code false} otherwise
+     */
+    protected boolean isSharedNode(Node<I> node) {
+        return false;
+    }
+
     @Override
     public GraphView asGraph() {
         return new GraphView();
@@ -178,7 +178,7 @@ public class IncrementalPCDFATreeBuilder<I> extends IncrementalDFATreeBuilder<I>
             Node<I> succ = curr.getChild(symIdx);
             if (succ == null) {
                 succ = new Node<>(Acceptance.TRUE);
-                curr.setChild(symIdx, alphabetSize, succ);
+                curr.setChild(symIdx, succ);
             }
             curr = succ;
             idx++;
@@ -203,7 +203,7 @@ public class IncrementalPCDFATreeBuilder<I> extends IncrementalDFATreeBuilder<I>
             Node<I> succ = curr.getChild(symIdx);
             if (succ == null) {
                 succ = new Node<>(Acceptance.DONT_KNOW);
-                curr.setChild(symIdx, alphabetSize, succ);
+                curr.setChild(symIdx, succ);
             }
             prev = curr;
             curr = succ;
@@ -223,10 +223,21 @@ public class IncrementalPCDFATreeBuilder<I> extends IncrementalDFATreeBuilder<I>
             root.makeSink();
         } else {
             Node<I> sink = getSink();
-            prev.setChild(lastSymIdx, alphabetSize, sink);
+            prev.setChild(lastSymIdx, sink);
         }
     }
 
+    @Override
+    protected Node<I> restoreNode(Acceptance acceptance) {
+        // rejected words are represented by the shared sink
+        return acceptance == Acceptance.FALSE ? getSink() : super.restoreNode(acceptance);
+    }
+
+    @Override
+    protected boolean isSharedNode(Node<I> node) {
+        return node == sink;
+    }
+
     public Node<I> getSink() {
         if (sink == null) {
             sink = new Node<>(Acceptance.FALSE);
@@ -15,7 +15,7 @@
  */
 package net.automatalib.incremental.dfa.tree;
 
-import net.automatalib.commons.smartcollections.ResizingArrayStorage;
+import net.automatalib.commons.smartcollections.AdaptiveArrayStorage;
 import net.automatalib.incremental.dfa.Acceptance;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
@@ -30,7 +30,13 @@ import org.checkerframework.checker.nullness.qual.Nullable;
 public final class Node<I> {
 
     private Acceptance acceptance;
-    private @Nullable ResizingArrayStorage<Node<I>> children;
+    private @Nullable AdaptiveArrayStorage<Node<I>> children;
+
+    /**
+     * The access information used by the {@link BoundedIncrementalDFATreeBuilder}. With compressed references, this
+     * field fits into the alignment padding of the node and hence does not increase the size of regular nodes.
+     */
+    @Nullable AccessInfo accessInfo;
 
     /**
      * Constructor. Constructs a new node with no children and an acceptance value of {@link Acceptance#DONT_KNOW}
@@ -80,7 +86,7 @@ public final class Node<I> {
         if (children == null) {
             return null;
         }
-        return children.array[idx];
+        return children.get(idx);
     }
 
     /**
@@ -88,31 +94,24 @@ public final class Node<I> {
      *
      * @param idx
      *         the alphabet symbol index
-     * @param alphabetSize
-     *         the overall alphabet size; this is needed if a new children array needs to be created
      * @param child
      *         the new child
      */
-    public void setChild(int idx, int alphabetSize, Node<I> child) {
+    public void setChild(int idx, Node<I> child) {
         if (children == null) {
-            children = new ResizingArrayStorage<>(Node.class, alphabetSize);
+            children = new AdaptiveArrayStorage<>();
+        }
+        children.set(idx, child);
+    }
+
+    void removeChild(int idx) {
+        if (children != null) {
+            children.set(idx, null);
         }
-        children.array[idx] = child;
     }
 
     public void makeSink() {
         children = null;
         acceptance = Acceptance.FALSE;
     }
-
-    /**
-     * See {@link ResizingArrayStorage#ensureCapacity(int)}.
-     */
-    boolean ensureInputCapacity(int capacity) {
-        if (this.children == null) {
-            return false;
-        }
-
-        return this.children.ensureCapacity(capacity);
-    }
 }
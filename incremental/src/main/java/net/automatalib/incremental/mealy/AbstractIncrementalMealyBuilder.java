@@ -15,12 +15,20 @@
  */
 package net.automatalib.incremental.mealy;
 
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
+import net.automatalib.incremental.IncrementalSnapshots;
+import net.automatalib.incremental.IncrementalSnapshots.Snapshot;
+import net.automatalib.incremental.SymbolDecoder;
+import net.automatalib.incremental.SymbolEncoder;
 import net.automatalib.visualization.DefaultVisualizationHelper;
 import net.automatalib.visualization.VisualizationHelper;
 import net.automatalib.words.Word;
@@ -41,6 +49,48 @@ public abstract class AbstractIncrementalMealyBuilder<I, O> implements Increment
         return wb.toWord();
     }
 
+    @Override
+    public void writeSnapshot(OutputStream os,
+                              SymbolEncoder<? super I> inputEncoder,
+                              SymbolEncoder<? super O> outputEncoder) throws IOException {
+        IncrementalSnapshots.writeMealy(asGraph(), os, inputEncoder, outputEncoder);
+    }
+
+    @Override
+    public void readSnapshot(InputStream is,
+                             SymbolDecoder<? extends I> inputDecoder,
+                             SymbolDecoder<? extends O> outputDecoder) throws IOException {
+        if (!isEmpty(asGraph())) {
+            throw new IllegalStateException("Snapshots can only be restored into empty constructions");
+        }
+
+        final DataInputStream in = IncrementalSnapshots.asDataInputStream(is);
+        final Snapshot<I, O> snapshot = IncrementalSnapshots.readMealy(in, inputDecoder, outputDecoder);
+
+        for (I sym : snapshot.getInputs()) {
+            addAlphabetSymbol(sym);
+        }
+
+        restore(snapshot);
+        IncrementalSnapshots.readMealyDeltas(in, inputDecoder, outputDecoder, this::insert);
+    }
+
+    private static <N> boolean isEmpty(GraphView<?, ?, N, ?> graph) {
+        return graph.getOutgoingEdges(graph.getInitialNode()).isEmpty();
+    }
+
+    /**
+     * Restores the structure of the given snapshot into this (empty) construction. All input symbols of the snapshot
+     * have already been added to the input alphabet.
+     *
+     * @param snapshot
+     *         the snapshot to restore
+     *
+     * @throws IOException
+     *         if the snapshot cannot be restored by this construction
+     */
+    protected abstract void restore(Snapshot<I, O> snapshot) throws IOException;
+
     public abstract static class AbstractGraphView<I, O, N, E> implements GraphView<I, O, N, E> {
 
         @Override
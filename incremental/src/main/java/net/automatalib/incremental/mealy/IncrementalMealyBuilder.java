@@ -15,6 +15,9 @@
  */
 package net.automatalib.incremental.mealy;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.List;
 
 import net.automatalib.SupportsGrowingAlphabet;
@@ -22,6 +25,9 @@ import net.automatalib.automata.transducers.MealyMachine;
 import net.automatalib.graphs.Graph;
 import net.automatalib.incremental.ConflictException;
 import net.automatalib.incremental.IncrementalConstruction;
+import net.automatalib.incremental.IncrementalSnapshots;
+import net.automatalib.incremental.SymbolDecoder;
+import net.automatalib.incremental.SymbolEncoder;
 import net.automatalib.ts.output.MealyTransitionSystem;
 import net.automatalib.words.Word;
 
@@ -57,6 +63,46 @@ public interface IncrementalMealyBuilder<I, O>
      */
     void insert(Word<? extends I> inputWord, Word<? extends O> outputWord);
 
+    /**
+     * Writes a (binary) snapshot of the current state of the construction to the given output stream. The stream is
+     * not closed. Subsequently inserted words may be appended to the snapshot via {@link
+     * IncrementalSnapshots#appendDelta(OutputStream, SymbolEncoder, SymbolEncoder, Word, Word)}.
+     *
+     * @param os
+     *         the output stream to write to
+     * @param inputEncoder
+     *         the encoder for input symbols
+     * @param outputEncoder
+     *         the encoder for output symbols
+     *
+     * @throws IOException
+     *         if writing the snapshot fails
+     */
+    void writeSnapshot(OutputStream os, SymbolEncoder<? super I> inputEncoder, SymbolEncoder<? super O> outputEncoder)
+            throws IOException;
+
+    /**
+     * Restores a snapshot (including its deltas) that has been written by {@link #writeSnapshot(OutputStream,
+     * SymbolEncoder, SymbolEncoder)}. Input symbols of the snapshot that are not yet known to this construction are
+     * added via {@link #addAlphabetSymbol(Object)}. The stream is read until its end, but not closed.
+     * <p>
+     * Note that snapshots of DAG-based constructions can only be restored by DAG-based constructions.
+     *
+     * @param is
+     *         the input stream to read from
+     * @param inputDecoder
+     *         the decoder for input symbols
+     * @param outputDecoder
+     *         the decoder for output symbols
+     *
+     * @throws IOException
+     *         if reading the snapshot fails or the snapshot is malformed
+     * @throws IllegalStateException
+     *         if this construction already contains information
+     */
+    void readSnapshot(InputStream is, SymbolDecoder<? extends I> inputDecoder, SymbolDecoder<? extends O> outputDecoder)
+            throws IOException;
+
     @Override
     GraphView<I, O, ?, ?> asGraph();
 
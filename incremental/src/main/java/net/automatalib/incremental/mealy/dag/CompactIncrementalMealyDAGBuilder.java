@@ -0,0 +1,590 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.incremental.mealy.dag;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+
+import net.automatalib.automata.concepts.InputAlphabetHolder;
+import net.automatalib.automata.concepts.StateIDs;
+import net.automatalib.automata.transducers.MealyMachine;
+import net.automatalib.commons.smartcollections.IntSignatureRegister;
+import net.automatalib.commons.util.IntDisjointSets;
+import net.automatalib.commons.util.UnionFind;
+import net.automatalib.incremental.ConflictException;
+import net.automatalib.incremental.IncrementalSnapshots.Snapshot;
+import net.automatalib.incremental.mealy.AbstractIncrementalMealyBuilder;
+import net.automatalib.ts.output.MealyTransitionSystem;
+import net.automatalib.visualization.VisualizationHelper;
+import net.automatalib.visualization.helper.DelegateVisualizationHelper;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.Word;
+import net.automatalib.words.WordBuilder;
+import net.automatalib.words.impl.Alphabets;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A variation of the {@link IncrementalMealyDAGBuilder}, which represents states by integers and stores their
+ * signatures (the successor and output index of each input symbol) in the flat {@code int} arena of an {@link
+ * IntSignatureRegister}. Output symbols are stored once in a table of the distinct outputs. Signatures are hashed and
+ * compared in place, so the construction does not allocate any state, signature or map entry objects.
+ * <p>
+ * Rather than updating states in place, an insertion re-creates the states along the path of the inserted word
+ * bottom-up (re-using any equivalent, already registered state) and finally re-directs the initial state. States that
+ * are no longer referenced are removed from the register, based on their number of incoming transitions. Hence, the
+ * construction always maintains the minimal DAG.
+ *
+ * @param <I>
+ *         input symbol type
+ * @param <O>
+ *         output symbol type
+ *
+ * @author frohme
+ */
+public class CompactIncrementalMealyDAGBuilder<I, O> extends AbstractIncrementalMealyBuilder<I, O>
+        implements InputAlphabetHolder<I> {
+
+    private static final int UNDEFINED = -1;
+
+    private final Alphabet<I> inputAlphabet;
+    private int alphabetSize;
+
+    private final IntSignatureRegister register;
+    private final int init;
+    private int[] incoming;
+    private int[] buffer;
+    private int[] stack;
+    private int[] symIdx;
+    private int[] outIdx;
+    private int[] path;
+
+    private final List<O> outputTable;
+    private final Map<O, Integer> outputIndices;
+
+    /**
+     * Constructor.
+     *
+     * @param inputAlphabet
+     *         the input alphabet to use
+     */
+    public CompactIncrementalMealyDAGBuilder(Alphabet<I> inputAlphabet) {
+        this.inputAlphabet = inputAlphabet;
+        this.alphabetSize = inputAlphabet.size();
+        this.register = new IntSignatureRegister(2 * alphabetSize);
+        // the initial state is never registered, because it must not be merged with any other state
+        this.init = register.allocate(UNDEFINED);
+        this.incoming = new int[16];
+        this.buffer = new int[2 * alphabetSize];
+        this.stack = new int[16];
+        this.symIdx = new int[16];
+        this.outIdx = new int[16];
+        this.path = new int[16];
+        this.outputTable = new ArrayList<>();
+        this.outputIndices = new HashMap<>();
+    }
+
+    @Override
+    public void addAlphabetSymbol(I symbol) {
+        if (!this.inputAlphabet.containsSymbol(symbol)) {
+            Alphabets.toGrowingAlphabetOrThrowException(this.inputAlphabet).addSymbol(symbol);
+        }
+
+        final int newAlphabetSize = this.inputAlphabet.size();
+        // even if the symbol was already in the alphabet, we need to make sure to be able to store the new symbol
+        if (alphabetSize < newAlphabetSize) {
+            register.widen(2 * newAlphabetSize, UNDEFINED);
+            buffer = new int[2 * newAlphabetSize];
+            alphabetSize = newAlphabetSize;
+        }
+    }
+
+    @Override
+    public boolean hasDefinitiveInformation(Word<? extends I> word) {
+        int curr = init;
+
+        for (I sym : word) {
+            curr = getSuccessor(curr, getSymbolIndex(sym));
+            if (curr == UNDEFINED) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    @Override
+    public boolean lookup(Word<? extends I> word, List<? super O> output) {
+        int curr = init;
+
+        for (I sym : word) {
+            final int idx = getSymbolIndex(sym);
+            final int succ = getSuccessor(curr, idx);
+            if (succ == UNDEFINED) {
+                return false;
+            }
+            output.add(getOutput(curr, idx));
+            curr = succ;
+        }
+
+        return true;
+    }
+
+    @Override
+    public void insert(Word<? extends I> word, Word<? extends O> outputWord) {
+        final int len = word.length();
+
+        if (path.length <= len) {
+            symIdx = new int[len + 1];
+            outIdx = new int[len + 1];
+            path = new int[len + 1];
+        }
+
+        // path[i] is the state reached by the prefix of length i
+        path[0] = init;
+        int prefixLen = 0;
+
+        final Iterator<? extends O> outputIt = outputWord.iterator();
+        for (I sym : word) {
+            final O out = outputIt.next();
+            final int idx = getSymbolIndex(sym);
+            symIdx[prefixLen] = idx;
+
+            final int succ = getSuccessor(path[prefixLen], idx);
+            if (succ == UNDEFINED) {
+                break;
+            }
+            if (!Objects.equals(out, getOutput(path[prefixLen], idx))) {
+                throw new ConflictException();
+            }
+            path[++prefixLen] = succ;
+        }
+
+        if (prefixLen == len) {
+            // the word is already contained, nothing changes
+            return;
+        }
+
+        // index the remaining symbols (the first one has already been indexed above)
+        int i = 0;
+        for (O out : outputWord) {
+            if (i >= prefixLen) {
+                outIdx[i] = getOutputIndex(out);
+                if (i > prefixLen) {
+                    symIdx[i] = getSymbolIndex(word.getSymbol(i));
+                }
+            }
+            i++;
+        }
+
+        // create the (linear) suffix path bottom-up
+        Arrays.fill(buffer, UNDEFINED);
+        int last = replaceOrRegister(buffer);
+
+        for (int j = len - 1; j > prefixLen; j--) {
+            Arrays.fill(buffer, UNDEFINED);
+            buffer[2 * symIdx[j]] = last;
+            buffer[2 * symIdx[j] + 1] = outIdx[j];
+            last = replaceOrRegister(buffer);
+        }
+
+        final int level = prefixLen + 1;
+        path[level] = UNDEFINED;
+
+        // re-create the states of the path bottom-up, until a state does not change anymore
+        for (int j = level - 1; j > 0; j--) {
+            if (last == path[j + 1]) {
+                return;
+            }
+            register.copy(path[j], buffer);
+            buffer[2 * symIdx[j]] = last;
+            buffer[2 * symIdx[j] + 1] = j == prefixLen ? outIdx[j] : register.get(path[j], 2 * symIdx[j] + 1);
+            last = replaceOrRegister(buffer);
+        }
+
+        if (last != path[1]) {
+            setInitSuccessor(symIdx[0], last, prefixLen == 0 ? outIdx[0] : register.get(init, 2 * symIdx[0] + 1));
+        }
+    }
+
+    @Override
+    public @Nullable Word<I> findSeparatingWord(MealyMachine<?, I, ?, O> target,
+                                                Collection<? extends I> inputs,
+                                                boolean omitUndefined) {
+        return doFindSeparatingWord(target, inputs, omitUndefined);
+    }
+
+    private <S, T> @Nullable Word<I> doFindSeparatingWord(MealyMachine<S, I, T, O> mealy,
+                                                          Collection<? extends I> inputs,
+                                                          boolean omitUndefined) {
+        final S init2 = mealy.getInitialState();
+
+        if (init2 == null) {
+            return omitUndefined ? null : Word.epsilon();
+        }
+
+        final StateIDs<S> mealyIds = mealy.stateIDs();
+        final int thisStates = register.getIdBound();
+
+        final IntDisjointSets uf = new UnionFind(thisStates + mealy.size());
+        uf.link(init, mealyIds.getStateId(init2) + thisStates);
+
+        final Queue<Record<S, I>> queue = new ArrayDeque<>();
+        queue.offer(new Record<>(init, init2));
+
+        I lastSym = null;
+
+        Record<S, I> current;
+
+        explore:
+        while ((current = queue.poll()) != null) {
+            final int state1 = current.state1;
+            final S state2 = current.state2;
+
+            for (I sym : inputs) {
+                final int idx = getSymbolIndex(sym);
+                final int succ1 = getSuccessor(state1, idx);
+                if (succ1 == UNDEFINED) {
+                    continue;
+                }
+
+                final T trans2 = mealy.getTransition(state2, sym);
+                if (trans2 == null) {
+                    if (omitUndefined) {
+                        continue;
+                    }
+                    lastSym = sym;
+                    break explore;
+                }
+
+                final Object out1 = getOutput(state1, idx);
+                final Object out2 = mealy.getTransitionOutput(trans2);
+                if (!Objects.equals(out1, out2)) {
+                    lastSym = sym;
+                    break explore;
+                }
+
+                final S succ2 = mealy.getSuccessor(trans2);
+                final int r1 = uf.find(succ1), r2 = uf.find(mealyIds.getStateId(succ2) + thisStates);
+
+                if (r1 == r2) {
+                    continue;
+                }
+
+                uf.link(r1, r2);
+
+                queue.offer(new Record<>(succ1, succ2, current, sym));
+            }
+        }
+
+        if (current == null) {
+            return null;
+        }
+
+        int ceLength = current.depth;
+        if (lastSym != null) {
+            ceLength++;
+        }
+
+        @SuppressWarnings("nullness") // we make sure to set each index to a value of type I
+        WordBuilder<I> wb = new WordBuilder<>(null, ceLength);
+
+        int index = ceLength;
+
+        if (lastSym != null) {
+            wb.setSymbol(--index, lastSym);
+        }
+
+        while (current.reachedFrom != null) {
+            final I reachedVia = current.reachedVia;
+            wb.setSymbol(--index, reachedVia);
+            current = current.reachedFrom;
+        }
+
+        return wb.toWord();
+    }
+
+    @Override
+    protected void restore(Snapshot<I, O> snapshot) throws IOException {
+        final int[] states = new int[snapshot.size()];
+
+        // register the states bottom-up, so that each signature refers to canonical successors only
+        for (int s : snapshot.getBottomUpOrder()) {
+            if (s == 0) {
+                continue;
+            }
+
+            Arrays.fill(buffer, UNDEFINED);
+            for (int t = snapshot.getTransitionsBegin(s); t < snapshot.getTransitionsEnd(s); t++) {
+                final int idx = getSymbolIndex(snapshot.getInput(t));
+                buffer[2 * idx] = states[snapshot.getTarget(t)];
+                buffer[2 * idx + 1] = getOutputIndex(snapshot.getOutput(t));
+            }
+            states[s] = replaceOrRegister(buffer);
+        }
+
+        for (int t = snapshot.getTransitionsBegin(0); t < snapshot.getTransitionsEnd(0); t++) {
+            setInitSuccessor(getSymbolIndex(snapshot.getInput(t)),
+                             states[snapshot.getTarget(t)],
+                             getOutputIndex(snapshot.getOutput(t)));
+        }
+    }
+
+    @Override
+    public GraphView asGraph() {
+        return new GraphView();
+    }
+
+    @Override
+    public AutomatonView asTransitionSystem() {
+        return new AutomatonView();
+    }
+
+    @Override
+    public Alphabet<I> getInputAlphabet() {
+        return inputAlphabet;
+    }
+
+    private int getSuccessor(int state, int symIdx) {
+        checkSymbolIndex(symIdx);
+        return register.get(state, 2 * symIdx);
+    }
+
+    private int getSymbolIndex(I symbol) {
+        final int symIdx = inputAlphabet.getSymbolIndex(symbol);
+        checkSymbolIndex(symIdx);
+        return symIdx;
+    }
+
+    /**
+     * Rejects symbol indices outside the alphabet, which would otherwise address a foreign position of a signature.
+     */
+    private void checkSymbolIndex(int symIdx) {
+        if (symIdx < 0 || symIdx >= alphabetSize) {
+            throw new IllegalArgumentException("Symbol index " + symIdx + " is not within the input alphabet");
+        }
+    }
+
+    private O getOutput(int state, int symIdx) {
+        return outputTable.get(register.get(state, 2 * symIdx + 1));
+    }
+
+    private int getOutputIndex(O output) {
+        Integer idx = outputIndices.get(output);
+        if (idx == null) {
+            idx = outputTable.size();
+            outputTable.add(output);
+            outputIndices.put(output, idx);
+        }
+        return idx;
+    }
+
+    /**
+     * Returns the id of the registered state with the given signature, or registers a new state (and updates the
+     * incoming transitions of its successors) if no such state exists.
+     */
+    private int replaceOrRegister(int[] sig) {
+        int id = register.find(sig);
+        if (id != IntSignatureRegister.NOT_FOUND) {
+            return id;
+        }
+
+        id = register.add(sig);
+        if (id >= incoming.length) {
+            incoming = Arrays.copyOf(incoming, Math.max(incoming.length * 2, id + 1));
+        }
+        incoming[id] = 0;
+
+        for (int i = 0; i < sig.length; i += 2) {
+            if (sig[i] != UNDEFINED) {
+                incoming[sig[i]]++;
+            }
+        }
+
+        return id;
+    }
+
+    private void setInitSuccessor(int symIdx, int succ, int output) {
+        final int oldSucc = getSuccessor(init, symIdx);
+        register.set(init, 2 * symIdx, succ);
+        register.set(init, 2 * symIdx + 1, output);
+        incoming[succ]++;
+
+        if (oldSucc != UNDEFINED) {
+            decreaseIncoming(oldSucc);
+        }
+    }
+
+    /**
+     * Decreases the number of incoming transitions of the given state and removes the state (and transitively all of
+     * its no longer referenced successors) if it becomes unreachable.
+     */
+    private void decreaseIncoming(int state) {
+        if (--incoming[state] > 0) {
+            return;
+        }
+
+        final int width = register.getWidth();
+        int top = 0;
+        stack[top++] = state;
+
+        while (top > 0) {
+            final int curr = stack[--top];
+            for (int i = 0; i < width; i += 2) {
+                final int succ = register.get(curr, i);
+                if (succ != UNDEFINED && --incoming[succ] == 0) {
+                    if (top == stack.length) {
+                        stack = Arrays.copyOf(stack, stack.length * 2);
+                    }
+                    stack[top++] = succ;
+                }
+            }
+            register.remove(curr);
+        }
+    }
+
+    private static final class Record<S, I> {
+
+        private final int state1;
+        private final S state2;
+        private final I reachedVia;
+        private final @Nullable Record<S, I> reachedFrom;
+        private final int depth;
+
+        @SuppressWarnings("nullness") // we will only access reachedVia after checking reachedFrom for null
+        Record(int state1, S state2) {
+            this.state1 = state1;
+            this.state2 = state2;
+            this.reachedFrom = null;
+            this.reachedVia = null;
+            this.depth = 0;
+        }
+
+        Record(int state1, S state2, Record<S, I> reachedFrom, I reachedVia) {
+            this.state1 = state1;
+            this.state2 = state2;
+            this.reachedFrom = reachedFrom;
+            this.reachedVia = reachedVia;
+            this.depth = reachedFrom.depth + 1;
+        }
+    }
+
+    public class GraphView extends AbstractGraphView<I, O, Integer, CompactTransitionRecord> {
+
+        @Override
+        public int size() {
+            return register.size() + 1;
+        }
+
+        @Override
+        public Collection<CompactTransitionRecord> getOutgoingEdges(Integer node) {
+            final List<CompactTransitionRecord> edges = new ArrayList<>(alphabetSize);
+            for (int i = 0; i < alphabetSize; i++) {
+                if (getSuccessor(node, i) != UNDEFINED) {
+                    edges.add(new CompactTransitionRecord(node, i));
+                }
+            }
+            return edges;
+        }
+
+        @Override
+        public Integer getTarget(CompactTransitionRecord edge) {
+            return getSuccessor(edge.source, edge.transIdx);
+        }
+
+        @Override
+        public Collection<Integer> getNodes() {
+            final List<Integer> result = new ArrayList<>(size());
+            result.add(init);
+            for (int i = 0; i < register.getIdBound(); i++) {
+                if (register.isRegistered(i)) {
+                    result.add(i);
+                }
+            }
+            return result;
+        }
+
+        @Override
+        public I getInputSymbol(CompactTransitionRecord edge) {
+            return inputAlphabet.getSymbol(edge.transIdx);
+        }
+
+        @Override
+        public O getOutputSymbol(CompactTransitionRecord edge) {
+            return getOutput(edge.source, edge.transIdx);
+        }
+
+        @Override
+        public Integer getInitialNode() {
+            return init;
+        }
+
+        @Override
+        public VisualizationHelper<Integer, CompactTransitionRecord> getVisualizationHelper() {
+            return new DelegateVisualizationHelper<Integer, CompactTransitionRecord>(super.getVisualizationHelper()) {
+
+                @Override
+                public boolean getNodeProperties(Integer node, Map<String, String> properties) {
+                    if (!super.getNodeProperties(node, properties)) {
+                        return false;
+                    }
+                    properties.put(NodeAttrs.LABEL, "n" + node);
+                    if (node != init && incoming[node] > 1) {
+                        properties.put(NodeAttrs.SHAPE, NodeShapes.OCTAGON);
+                    }
+                    return true;
+                }
+
+            };
+        }
+
+    }
+
+    public class AutomatonView implements MealyTransitionSystem<Integer, I, CompactTransitionRecord, O> {
+
+        @Override
+        public Integer getSuccessor(CompactTransitionRecord transition) {
+            return CompactIncrementalMealyDAGBuilder.this.getSuccessor(transition.source, transition.transIdx);
+        }
+
+        @Override
+        public Integer getInitialState() {
+            return init;
+        }
+
+        @Override
+        public @Nullable CompactTransitionRecord getTransition(Integer state, I input) {
+            final int inputIdx = getSymbolIndex(input);
+            if (CompactIncrementalMealyDAGBuilder.this.getSuccessor(state, inputIdx) == UNDEFINED) {
+                return null;
+            }
+            return new CompactTransitionRecord(state, inputIdx);
+        }
+
+        @Override
+        public O getTransitionOutput(CompactTransitionRecord transition) {
+            return CompactIncrementalMealyDAGBuilder.this.getOutput(transition.source, transition.transIdx);
+        }
+    }
+}
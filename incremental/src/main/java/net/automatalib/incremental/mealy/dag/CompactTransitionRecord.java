@@ -0,0 +1,33 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.incremental.mealy.dag;
+
+/**
+ * A transition of the {@link CompactIncrementalMealyDAGBuilder}, identified by its source state and the index of its
+ * input symbol.
+ *
+ * @author frohme
+ */
+final class CompactTransitionRecord {
+
+    public final int source;
+    public final int transIdx;
+
+    CompactTransitionRecord(int source, int transIdx) {
+        this.source = source;
+        this.transIdx = transIdx;
+    }
+}
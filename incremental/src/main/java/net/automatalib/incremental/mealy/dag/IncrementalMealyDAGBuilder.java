@@ -15,6 +15,7 @@
  */
 package net.automatalib.incremental.mealy.dag;
 
+import java.io.IOException;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -25,21 +26,20 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.Queue;
 
 import net.automatalib.automata.concepts.InputAlphabetHolder;
 import net.automatalib.automata.concepts.StateIDs;
 import net.automatalib.automata.transducers.MealyMachine;
-import net.automatalib.commons.util.IntDisjointSets;
-import net.automatalib.commons.util.UnionFind;
 import net.automatalib.incremental.ConflictException;
+import net.automatalib.incremental.IncrementalSnapshots.Snapshot;
+import net.automatalib.incremental.InsertionLog;
+import net.automatalib.incremental.SearchBuffers;
 import net.automatalib.incremental.mealy.AbstractIncrementalMealyBuilder;
 import net.automatalib.ts.output.MealyTransitionSystem;
 import net.automatalib.visualization.VisualizationHelper;
 import net.automatalib.visualization.helper.DelegateVisualizationHelper;
 import net.automatalib.words.Alphabet;
 import net.automatalib.words.Word;
-import net.automatalib.words.WordBuilder;
 import net.automatalib.words.impl.Alphabets;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
@@ -61,6 +61,10 @@ public class IncrementalMealyDAGBuilder<I, O> extends AbstractIncrementalMealyBu
     private int alphabetSize;
     private final State<O> init;
 
+    private final InsertionLog<I> insertionLog = new InsertionLog<>();
+    private final SearchBuffers searchBuffers = new SearchBuffers();
+    private int nextSearchId;
+
     /**
      * Constructor.
      *
@@ -134,6 +138,8 @@ public class IncrementalMealyDAGBuilder<I, O> extends AbstractIncrementalMealyBu
 
     @Override
     public void insert(Word<? extends I> word, Word<? extends O> outputWord) {
+        insertionLog.log(word);
+
         State<O> curr = init;
         State<O> conf = null;
 
@@ -447,6 +453,35 @@ public class IncrementalMealyDAGBuilder<I, O> extends AbstractIncrementalMealyBu
         return state;
     }
 
+    @Override
+    protected void restore(Snapshot<I, O> snapshot) throws IOException {
+        insertionLog.disarm();
+
+        @SuppressWarnings("unchecked")
+        final State<O>[] states = new State[snapshot.size()];
+
+        // register the states bottom-up, so that each signature refers to canonical successors only
+        for (int s : snapshot.getBottomUpOrder()) {
+            if (s == 0) {
+                continue;
+            }
+
+            final StateSignature<O> sig = new StateSignature<>(alphabetSize);
+            for (int t = snapshot.getTransitionsBegin(s); t < snapshot.getTransitionsEnd(s); t++) {
+                final int idx = inputAlphabet.getSymbolIndex(snapshot.getInput(t));
+                sig.successors.array[idx] = states[snapshot.getTarget(t)];
+                sig.outputs.array[idx] = snapshot.getOutput(t);
+            }
+            sig.updateHashCode();
+            states[s] = replaceOrRegister(sig);
+        }
+
+        for (int t = snapshot.getTransitionsBegin(0); t < snapshot.getTransitionsEnd(0); t++) {
+            final int idx = inputAlphabet.getSymbolIndex(snapshot.getInput(t));
+            updateInitSignature(idx, states[snapshot.getTarget(t)], snapshot.getOutput(t));
+        }
+    }
+
     @Override
     public GraphView asGraph() {
         return new GraphView();
@@ -464,6 +499,51 @@ public class IncrementalMealyDAGBuilder<I, O> extends AbstractIncrementalMealyBu
         return doFindSeparatingWord(target, inputs, omitUndefined);
     }
 
+    /**
+     * Checks the current state of the construction against a given target model, and returns a word exposing a
+     * difference if there is one. See {@link #findSeparatingWord(MealyMachine, Collection, boolean)}.
+     * <p>
+     * If {@code incremental} is set and the previous incremental search has been invoked with the identical target,
+     * inputs and undefined-transition semantics without revealing a separating word, only the paths of the words
+     * inserted since then are checked. Note that in this case the returned separating word is not necessarily a
+     * shortest one. Only modifications of the target that change its number of states are detected (see {@link
+     * InsertionLog}), so a target that has been modified otherwise has to be searched non-incrementally.
+     *
+     * @param target
+     *         the target automaton model
+     * @param inputs
+     *         the set of input symbols to consider
+     * @param omitUndefined
+     *         whether undefined transitions in the {@code target} model should be omitted
+     * @param incremental
+     *         whether the search may only check the words inserted since the previous incremental search
+     *
+     * @return a separating word, or {@code null} if no difference could be found.
+     */
+    public @Nullable Word<I> findSeparatingWord(MealyMachine<?, I, ?, O> target,
+                                                Collection<? extends I> inputs,
+                                                boolean omitUndefined,
+                                                boolean incremental) {
+        if (!incremental) {
+            return doFindSeparatingWord(target, inputs, omitUndefined);
+        }
+
+        final Word<I> result;
+        if (insertionLog.canResume(target, inputs, omitUndefined)) {
+            result = doCheckInsertedWords(target, omitUndefined);
+        } else {
+            result = doFindSeparatingWord(target, inputs, omitUndefined);
+        }
+
+        if (result == null) {
+            insertionLog.arm(target, inputs, omitUndefined, register.size());
+        } else {
+            insertionLog.disarm();
+        }
+
+        return result;
+    }
+
     private <S, T> @Nullable Word<I> doFindSeparatingWord(MealyMachine<S, I, T, O> mealy,
                                                           Collection<? extends I> inputs,
                                                           boolean omitUndefined) {
@@ -475,97 +555,128 @@ public class IncrementalMealyDAGBuilder<I, O> extends AbstractIncrementalMealyBu
 
         State<O> init1 = init;
 
-        Map<State<O>, Integer> ids = new HashMap<>();
         StateIDs<S> mealyIds = mealy.stateIDs();
 
         int thisStates = register.size();
-        int id1 = getStateId(init1, ids), id2 = mealyIds.getStateId(init2) + thisStates;
-
-        IntDisjointSets uf = new UnionFind(thisStates + mealy.size());
-        uf.link(id1, id2);
-
-        Queue<Record<S, I, O>> queue = new ArrayDeque<>();
+        int epoch = searchBuffers.begin(thisStates + mealy.size());
+        nextSearchId = 0;
+
+        int id1 = getStateId(init1, epoch), id2 = mealyIds.getStateId(init2) + thisStates;
+
+        searchBuffers.link(id1, id2);
+        searchBuffers.offer(init1, init2, -1, -1);
+
+        int current;
+        int lastSym = -1;
+
+        try {
+            explore:
+            while ((current = searchBuffers.poll()) >= 0) {
+                @SuppressWarnings("unchecked")
+                State<O> state1 = (State<O>) searchBuffers.getState1(current);
+                @SuppressWarnings("unchecked")
+                S state2 = (S) searchBuffers.getState2(current);
+                assert state1 != null && state2 != null;
+
+                for (I sym : inputs) {
+                    int idx = inputAlphabet.getSymbolIndex(sym);
+                    State<O> succ1 = state1.getSuccessor(idx);
+                    if (succ1 == null) {
+                        continue;
+                    }
 
-        queue.offer(new Record<>(init1, init2));
+                    T trans2 = mealy.getTransition(state2, sym);
+                    if (trans2 == null) {
+                        if (omitUndefined) {
+                            continue;
+                        }
+                        lastSym = idx;
+                        break explore;
+                    }
 
-        I lastSym = null;
+                    Object out1 = state1.getOutput(idx);
+                    Object out2 = mealy.getTransitionOutput(trans2);
+                    if (!Objects.equals(out1, out2)) {
+                        lastSym = idx;
+                        break explore;
+                    }
 
-        Record<S, I, O> current;
+                    S succ2 = mealy.getSuccessor(trans2);
 
-        explore:
-        while ((current = queue.poll()) != null) {
-            State<O> state1 = current.state1;
-            S state2 = current.state2;
+                    id1 = getStateId(succ1, epoch);
+                    id2 = mealyIds.getStateId(succ2) + thisStates;
 
-            for (I sym : inputs) {
-                int idx = inputAlphabet.getSymbolIndex(sym);
-                State<O> succ1 = state1.getSuccessor(idx);
-                if (succ1 == null) {
-                    continue;
-                }
+                    int r1 = searchBuffers.find(id1), r2 = searchBuffers.find(id2);
 
-                T trans2 = mealy.getTransition(state2, sym);
-                if (trans2 == null) {
-                    if (omitUndefined) {
+                    if (r1 == r2) {
                         continue;
                     }
-                    lastSym = sym;
-                    break explore;
-                }
 
-                Object out1 = state1.getOutput(idx);
-                Object out2 = mealy.getTransitionOutput(trans2);
-                if (!Objects.equals(out1, out2)) {
-                    lastSym = sym;
-                    break explore;
+                    searchBuffers.link(r1, r2);
+                    searchBuffers.offer(succ1, succ2, current, idx);
                 }
+            }
 
-                S succ2 = mealy.getSuccessor(trans2);
-
-                id1 = getStateId(succ1, ids);
-                id2 = mealyIds.getStateId(succ2) + thisStates;
-
-                int r1 = uf.find(id1), r2 = uf.find(id2);
+            if (current < 0) {
+                return null;
+            }
 
-                if (r1 == r2) {
-                    continue;
-                }
+            return searchBuffers.toWord(current, lastSym, inputAlphabet);
+        } finally {
+            searchBuffers.end();
+        }
+    }
 
-                uf.link(r1, r2);
+    private <S, T> @Nullable Word<I> doCheckInsertedWords(MealyMachine<S, I, T, O> mealy,
+                                                          boolean omitUndefined) {
+        final S init2 = mealy.getInitialState();
 
-                queue.offer(new Record<>(succ1, succ2, current, sym));
-            }
+        if (init2 == null) {
+            return omitUndefined ? null : Word.epsilon();
         }
 
-        if (current == null) {
-            return null;
-        }
+        for (Word<? extends I> word : insertionLog.getWords()) {
+            State<O> state1 = init;
+            S state2 = init2;
 
-        int ceLength = current.depth;
-        if (lastSym != null) {
-            ceLength++;
-        }
+            for (int i = 0; i < word.length(); i++) {
+                final I sym = word.getSymbol(i);
+                if (!insertionLog.containsInput(sym)) {
+                    break;
+                }
 
-        @SuppressWarnings("nullness") // we make sure to set each index to a value of type I
-        WordBuilder<I> wb = new WordBuilder<>(null, ceLength);
+                final int idx = inputAlphabet.getSymbolIndex(sym);
+                final State<O> succ1 = state1.getSuccessor(idx);
+                if (succ1 == null) {
+                    break;
+                }
 
-        int index = ceLength;
+                final T trans2 = mealy.getTransition(state2, sym);
+                if (trans2 == null) {
+                    if (omitUndefined) {
+                        break;
+                    }
+                    return Word.upcast(word.prefix(i + 1));
+                }
 
-        if (lastSym != null) {
-            wb.setSymbol(--index, lastSym);
-        }
+                if (!Objects.equals(state1.getOutput(idx), mealy.getTransitionOutput(trans2))) {
+                    return Word.upcast(word.prefix(i + 1));
+                }
 
-        while (current.reachedFrom != null) {
-            final I reachedVia = current.reachedVia;
-            wb.setSymbol(--index, reachedVia);
-            current = current.reachedFrom;
+                state1 = succ1;
+                state2 = mealy.getSuccessor(trans2);
+            }
         }
 
-        return wb.toWord();
+        return null;
     }
 
-    private static <O> int getStateId(State<O> state, Map<State<O>, Integer> ids) {
-        return ids.computeIfAbsent(state, k -> ids.size());
+    private int getStateId(State<O> state, int epoch) {
+        if (state.searchEpoch != epoch) {
+            state.searchEpoch = epoch;
+            state.searchId = nextSearchId++;
+        }
+        return state.searchId;
     }
 
     @Override
@@ -573,36 +684,6 @@ public class IncrementalMealyDAGBuilder<I, O> extends AbstractIncrementalMealyBu
         return inputAlphabet;
     }
 
-    // /////////////////////////////////////////////////////////////////////
-    // Equivalence test //
-    // /////////////////////////////////////////////////////////////////////
-
-    private static final class Record<S, I, O> {
-
-        private final State<O> state1;
-        private final S state2;
-        private final I reachedVia;
-        private final @Nullable Record<S, I, O> reachedFrom;
-        private final int depth;
-
-        @SuppressWarnings("nullness") // we will only access reachedVia after checking reachedFrom for null
-        Record(State<O> state1, S state2) {
-            this.state1 = state1;
-            this.state2 = state2;
-            this.reachedFrom = null;
-            this.reachedVia = null;
-            this.depth = 0;
-        }
-
-        Record(State<O> state1, S state2, Record<S, I, O> reachedFrom, I reachedVia) {
-            this.state1 = state1;
-            this.state2 = state2;
-            this.reachedFrom = reachedFrom;
-            this.reachedVia = reachedVia;
-            this.depth = reachedFrom.depth + 1;
-        }
-    }
-
     public class GraphView extends AbstractGraphView<I, O, State<O>, TransitionRecord<O>> {
 
         @Override
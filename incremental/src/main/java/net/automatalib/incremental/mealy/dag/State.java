@@ -16,12 +16,20 @@
 package net.automatalib.incremental.mealy.dag;
 
 import net.automatalib.commons.smartcollections.ResizingArrayStorage;
+import net.automatalib.incremental.SearchBuffers;
 
 public final class State<O> {
 
     private final StateSignature<O> signature;
     private int numIncoming;
 
+    /**
+     * The epoch of the separating word search in which this state has last been numbered (see {@link
+     * SearchBuffers#getEpoch()}) and its id during that search.
+     */
+    int searchEpoch;
+    int searchId;
+
     public State(StateSignature<O> signature) {
         this.signature = signature;
     }
@@ -15,33 +15,42 @@
  */
 package net.automatalib.incremental.mealy.tree;
 
-import java.util.ArrayDeque;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.Deque;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.function.IntFunction;
 
 import com.google.common.collect.Iterators;
 import net.automatalib.automata.transducers.MealyMachine;
 import net.automatalib.incremental.ConflictException;
+import net.automatalib.incremental.IncrementalSnapshots.Snapshot;
+import net.automatalib.incremental.InsertionLog;
+import net.automatalib.incremental.SearchBuffers;
 import net.automatalib.incremental.mealy.AbstractIncrementalMealyBuilder;
 import net.automatalib.ts.output.MealyTransitionSystem;
 import net.automatalib.util.graphs.traversal.GraphTraversal;
 import net.automatalib.visualization.VisualizationHelper;
 import net.automatalib.visualization.helper.DelegateVisualizationHelper;
 import net.automatalib.words.Word;
-import net.automatalib.words.WordBuilder;
-import org.checkerframework.checker.nullness.qual.NonNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
 public abstract class AbstractIncrementalMealyTreeBuilder<N, I, O> extends AbstractIncrementalMealyBuilder<I, O> {
 
     protected final N root;
 
+    /**
+     * The words inserted since the last incremental separating word search. Implementations that override {@link
+     * #insert(Word, Word)} have to {@link InsertionLog#log(Word) log} each inserted word.
+     */
+    protected final InsertionLog<I> insertionLog = new InsertionLog<>();
+
+    private final SearchBuffers searchBuffers = new SearchBuffers();
+
     public AbstractIncrementalMealyTreeBuilder(N root) {
         this.root = root;
     }
@@ -64,6 +73,8 @@ public abstract class AbstractIncrementalMealyTreeBuilder<N, I, O> extends Abstr
 
     @Override
     public void insert(Word<? extends I> input, Word<? extends O> outputWord) {
+        insertionLog.log(input);
+
         N curr = root;
 
         Iterator<? extends O> outputIt = outputWord.iterator();
@@ -98,56 +109,157 @@ public abstract class AbstractIncrementalMealyTreeBuilder<N, I, O> extends Abstr
         return doFindSeparatingWord(target, inputs, omitUndefined);
     }
 
+    /**
+     * Checks the current state of the construction against a given target model, and returns a word exposing a
+     * difference if there is one. See {@link #findSeparatingWord(MealyMachine, Collection, boolean)}.
+     * <p>
+     * If {@code incremental} is set and the previous incremental search has been invoked with the identical target,
+     * inputs and undefined-transition semantics without revealing a separating word, only the paths of the words
+     * inserted since then are checked. Only modifications of the target that change its number of states are detected
+     * (see {@link InsertionLog}), so a target that has been modified otherwise has to be searched non-incrementally.
+     *
+     * @param target
+     *         the target automaton model
+     * @param inputs
+     *         the set of input symbols to consider
+     * @param omitUndefined
+     *         whether undefined transitions in the {@code target} model should be omitted
+     * @param incremental
+     *         whether the search may only check the words inserted since the previous incremental search
+     *
+     * @return a separating word, or {@code null} if no difference could be found.
+     */
+    public @Nullable Word<I> findSeparatingWord(MealyMachine<?, I, ?, O> target,
+                                                Collection<? extends I> inputs,
+                                                boolean omitUndefined,
+                                                boolean incremental) {
+        if (!incremental) {
+            return doFindSeparatingWord(target, inputs, omitUndefined);
+        }
+
+        final Word<I> result;
+        if (insertionLog.canResume(target, inputs, omitUndefined)) {
+            result = doCheckInsertedWords(target, omitUndefined);
+        } else {
+            result = doFindSeparatingWord(target, inputs, omitUndefined);
+        }
+
+        if (result == null) {
+            insertionLog.arm(target, inputs, omitUndefined, Long.MAX_VALUE);
+        } else {
+            insertionLog.disarm();
+        }
+
+        return result;
+    }
+
     private <S, T> @Nullable Word<I> doFindSeparatingWord(MealyMachine<S, I, T, O> target,
                                                           Collection<? extends I> inputs,
                                                           boolean omitUndefined) {
-        Deque<Record<@Nullable S, N, I>> dfsStack = new ArrayDeque<>();
+        @SuppressWarnings("unchecked")
+        final I[] symbols = (I[]) inputs.toArray();
+        final IntFunction<I> symbolFunction = i -> symbols[i];
+
+        searchBuffers.begin(0);
+        searchBuffers.push(root, target.getInitialState(), -1);
+
+        try {
+            int current;
+            while ((current = searchBuffers.peek()) >= 0) {
+                final int cursor = searchBuffers.getCursor(current);
+                if (cursor == symbols.length) {
+                    searchBuffers.pop();
+                    continue;
+                }
+                searchBuffers.setCursor(current, cursor + 1);
 
-        // reachedFrom can be null here, because we will always skip the bottom stack element below
-        @SuppressWarnings("nullness")
-        final Record<@Nullable S, N, I> init = new Record<>(target.getInitialState(), root, null, inputs.iterator());
+                @SuppressWarnings("unchecked")
+                final N node = (N) searchBuffers.getState1(current);
+                @SuppressWarnings("unchecked")
+                final @Nullable S state = (S) searchBuffers.getState2(current);
+                final I input = symbols[cursor];
 
-        dfsStack.push(init);
+                Edge<N, O> edge = getEdge(node, input);
+                if (edge == null) {
+                    continue;
+                }
 
-        while (!dfsStack.isEmpty()) {
-            @SuppressWarnings("nullness") // false positive https://github.com/typetools/checker-framework/issues/399
-            @NonNull Record<@Nullable S, N, I> rec = dfsStack.peek();
-            if (!rec.inputIt.hasNext()) {
-                dfsStack.pop();
-                continue;
-            }
-            I input = rec.inputIt.next();
-            Edge<N, O> edge = getEdge(rec.treeNode, input);
-            if (edge == null) {
-                continue;
-            }
+                T trans = state == null ? null : target.getTransition(state, input);
+                if (omitUndefined && trans == null) {
+                    continue;
+                }
+                if (trans == null || !Objects.equals(target.getTransitionOutput(trans), edge.getOutput())) {
+                    return searchBuffers.toWord(current, cursor, symbolFunction);
+                }
 
-            S state = rec.automatonState;
-            T trans = state == null ? null : target.getTransition(state, input);
-            if (omitUndefined && trans == null) {
-                continue;
+                searchBuffers.push(edge.getTarget(), target.getSuccessor(trans), cursor);
             }
-            if (trans == null || !Objects.equals(target.getTransitionOutput(trans), edge.getOutput())) {
 
-                WordBuilder<I> wb = new WordBuilder<>(dfsStack.size());
-                wb.append(input);
-                dfsStack.pop();
+            return null;
+        } finally {
+            searchBuffers.end();
+        }
+    }
+
+    private <S, T> @Nullable Word<I> doCheckInsertedWords(MealyMachine<S, I, T, O> target,
+                                                          boolean omitUndefined) {
+        for (Word<? extends I> word : insertionLog.getWords()) {
+            N node = root;
+            S state = target.getInitialState();
+
+            for (int i = 0; i < word.length(); i++) {
+                final I input = word.getSymbol(i);
+                if (!insertionLog.containsInput(input)) {
+                    break;
+                }
 
-                while (!dfsStack.isEmpty()) {
-                    wb.append(rec.incomingInput);
-                    rec = dfsStack.pop();
+                final Edge<N, O> edge = getEdge(node, input);
+                if (edge == null) {
+                    break;
+                }
+
+                final T trans = state == null ? null : target.getTransition(state, input);
+                if (omitUndefined && trans == null) {
+                    break;
+                }
+                if (trans == null || !Objects.equals(target.getTransitionOutput(trans), edge.getOutput())) {
+                    return Word.upcast(word.prefix(i + 1));
                 }
-                return wb.reverse().toWord();
-            }
 
-            final Record<@Nullable S, N, I> nextRecord =
-                    new Record<>(target.getSuccessor(trans), edge.getTarget(), input, inputs.iterator());
-            dfsStack.push(nextRecord);
+                node = edge.getTarget();
+                state = target.getSuccessor(trans);
+            }
         }
 
         return null;
     }
 
+    @Override
+    protected void restore(Snapshot<I, O> snapshot) throws IOException {
+        insertionLog.disarm();
+
+        final int size = snapshot.size();
+        final List<@Nullable N> nodes = new ArrayList<>(Collections.nCopies(size, null));
+
+        nodes.set(0, root);
+
+        // states are numbered in breadth-first order, hence each node is created before its outgoing transitions
+        for (int s = 0; s < size; s++) {
+            final N node = nodes.get(s);
+            if (node == null) {
+                throw new IOException("Malformed snapshot: state " + s + " is not reachable");
+            }
+
+            for (int t = snapshot.getTransitionsBegin(s); t < snapshot.getTransitionsEnd(s); t++) {
+                final int target = snapshot.getTarget(t);
+                if (target == 0 || nodes.get(target) != null) {
+                    throw new IOException("The snapshot is not tree-shaped and cannot be restored by a tree");
+                }
+                nodes.set(target, insertNode(node, snapshot.getInput(t), snapshot.getOutput(t)));
+            }
+        }
+    }
+
     protected abstract @Nullable Edge<N, O> getEdge(N node, I symbol);
 
     protected abstract N createNode();
@@ -156,21 +268,6 @@ public abstract class AbstractIncrementalMealyTreeBuilder<N, I, O> extends Abstr
 
     protected abstract Collection<AnnotatedEdge<N, I, O>> getOutgoingEdges(N node);
 
-    private static final class Record<S, N, I> {
-
-        private final S automatonState;
-        private final N treeNode;
-        private final I incomingInput;
-        private final Iterator<? extends I> inputIt;
-
-        Record(S automatonState, N treeNode, I incomingInput, Iterator<? extends I> inputIt) {
-            this.automatonState = automatonState;
-            this.treeNode = treeNode;
-            this.inputIt = inputIt;
-            this.incomingInput = incomingInput;
-        }
-    }
-
     public class GraphView extends AbstractGraphView<I, O, N, AnnotatedEdge<N, I, O>> {
 
         @Override
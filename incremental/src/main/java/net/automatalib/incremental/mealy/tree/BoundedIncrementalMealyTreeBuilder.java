@@ -0,0 +1,422 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.incremental.mealy.tree;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import net.automatalib.automata.concepts.InputAlphabetHolder;
+import net.automatalib.incremental.CacheStatistics;
+import net.automatalib.incremental.ConflictException;
+import net.automatalib.incremental.EvictingCache;
+import net.automatalib.incremental.EvictionPolicy;
+import net.automatalib.incremental.IncrementalSnapshots.Snapshot;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.Word;
+import net.automatalib.words.impl.Alphabets;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A size-bounded variant of the {@link IncrementalMealyTreeBuilder}. Every {@link #lookup(Word, List) lookup} and
+ * {@link #insert(Word, Word) insertion} updates the access information of the nodes along the path of the respective
+ * word. Once an insertion exceeds the capacity, the coldest (unpinned) subtrees are evicted according to the
+ * configured {@link EvictionPolicy} until only three quarters of the capacity are occupied, so that the cost of an
+ * eviction is amortized over many insertions.
+ *
+ * @param <I>
+ *         input symbol type
+ * @param <O>
+ *         output symbol type
+ *
+ * @author frohme
+ */
+public class BoundedIncrementalMealyTreeBuilder<I, O> extends AbstractIncrementalMealyTreeBuilder<BoundedNode<O>, I, O>
+        implements InputAlphabetHolder<I>, EvictingCache<I> {
+
+    private final Alphabet<I> inputAlphabet;
+    private int alphabetSize;
+
+    private final int capacity;
+    private final EvictionPolicy policy;
+    private final long timeToLive;
+    private final LongSupplier clock;
+    private final Set<Word<I>> pins;
+
+    private int size;
+    private long tick;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * Constructor for the {@link EvictionPolicy#LRU} and {@link EvictionPolicy#LFU} policies.
+     *
+     * @param inputAlphabet
+     *         the input alphabet
+     * @param capacity
+     *         the maximum number of nodes
+     * @param policy
+     *         the eviction policy
+     */
+    public BoundedIncrementalMealyTreeBuilder(Alphabet<I> inputAlphabet, int capacity, EvictionPolicy policy) {
+        super(new BoundedNode<>());
+        if (policy == EvictionPolicy.TTL) {
+            throw new IllegalArgumentException("The TTL policy requires a time-to-live");
+        }
+        this.inputAlphabet = inputAlphabet;
+        this.alphabetSize = inputAlphabet.size();
+        this.capacity = capacity;
+        this.policy = policy;
+        this.timeToLive = Long.MAX_VALUE;
+        this.clock = () -> ++tick;
+        this.pins = new HashSet<>();
+        this.size = 1;
+    }
+
+    /**
+     * Constructor for the {@link EvictionPolicy#TTL} policy, measuring time via {@link System#nanoTime()}.
+     *
+     * @param inputAlphabet
+     *         the input alphabet
+     * @param capacity
+     *         the maximum number of nodes
+     * @param timeToLive
+     *         the time after which unused subtrees expire
+     * @param unit
+     *         the unit of {@code timeToLive}
+     */
+    public BoundedIncrementalMealyTreeBuilder(Alphabet<I> inputAlphabet, int capacity, long timeToLive, TimeUnit unit) {
+        this(inputAlphabet, capacity, timeToLive, unit, System::nanoTime);
+    }
+
+    /**
+     * Constructor for the {@link EvictionPolicy#TTL} policy.
+     *
+     * @param inputAlphabet
+     *         the input alphabet
+     * @param capacity
+     *         the maximum number of nodes
+     * @param timeToLive
+     *         the time after which unused subtrees expire
+     * @param unit
+     *         the unit of {@code timeToLive}
+     * @param nanoClock
+     *         the source of the current time (in nanoseconds)
+     */
+    public BoundedIncrementalMealyTreeBuilder(Alphabet<I> inputAlphabet,
+                                              int capacity,
+                                              long timeToLive,
+                                              TimeUnit unit,
+                                              LongSupplier nanoClock) {
+        super(new BoundedNode<>());
+        this.inputAlphabet = inputAlphabet;
+        this.alphabetSize = inputAlphabet.size();
+        this.capacity = capacity;
+        this.policy = EvictionPolicy.TTL;
+        this.timeToLive = unit.toNanos(timeToLive);
+        this.clock = nanoClock;
+        this.pins = new HashSet<>();
+        this.size = 1;
+    }
+
+    @Override
+    public void addAlphabetSymbol(I symbol) {
+        if (!inputAlphabet.containsSymbol(symbol)) {
+            Alphabets.toGrowingAlphabetOrThrowException(inputAlphabet).addSymbol(symbol);
+        }
+
+        // the nodes do not need to be resized, because their storages treat new symbols as undefined
+        alphabetSize = inputAlphabet.size();
+    }
+
+    @Override
+    public boolean lookup(Word<? extends I> word, List<? super O> output) {
+        final long now = clock.getAsLong();
+        BoundedNode<O> curr = root;
+        curr.touch(now);
+
+        for (I sym : word) {
+            final Edge<BoundedNode<O>, O> edge = getEdge(curr, sym);
+            if (edge == null) {
+                misses++;
+                return false;
+            }
+            output.add(edge.getOutput());
+            curr = edge.getTarget();
+            curr.touch(now);
+        }
+
+        hits++;
+        return true;
+    }
+
+    @Override
+    public void insert(Word<? extends I> input, Word<? extends O> outputWord) {
+        insertionLog.log(input);
+
+        final long now = clock.getAsLong();
+        BoundedNode<O> curr = root;
+        curr.touch(now);
+
+        final Iterator<? extends O> outputIt = outputWord.iterator();
+        for (I sym : input) {
+            final O out = outputIt.next();
+            final Edge<BoundedNode<O>, O> edge = getEdge(curr, sym);
+            if (edge == null) {
+                curr = insertNode(curr, sym, out);
+                size++;
+            } else {
+                if (!Objects.equals(out, edge.getOutput())) {
+                    throw new ConflictException();
+                }
+                curr = edge.getTarget();
+            }
+            curr.touch(now);
+        }
+
+        if (size > capacity) {
+            evict();
+        }
+    }
+
+    @Override
+    protected void restore(Snapshot<I, O> snapshot) throws IOException {
+        super.restore(snapshot);
+
+        final long now = clock.getAsLong();
+        final Deque<BoundedNode<O>> stack = new ArrayDeque<>();
+        stack.push(root);
+        size = 0;
+
+        while (!stack.isEmpty()) {
+            final BoundedNode<O> node = stack.pop();
+            node.lastAccess = now;
+            size++;
+            for (int i = 0; i < alphabetSize; i++) {
+                final Edge<BoundedNode<O>, O> edge = node.getEdge(i);
+                if (edge != null) {
+                    stack.push(edge.getTarget());
+                }
+            }
+        }
+
+        if (size > capacity) {
+            evict();
+        }
+    }
+
+    @Override
+    protected @Nullable Edge<BoundedNode<O>, O> getEdge(BoundedNode<O> node, I symbol) {
+        return node.getEdge(inputAlphabet.getSymbolIndex(symbol));
+    }
+
+    @Override
+    protected BoundedNode<O> createNode() {
+        return new BoundedNode<>();
+    }
+
+    @Override
+    protected BoundedNode<O> insertNode(BoundedNode<O> parent, I symbol, O output) {
+        BoundedNode<O> succ = createNode();
+        Edge<BoundedNode<O>, O> edge = new Edge<>(output, succ);
+        parent.setEdge(inputAlphabet.getSymbolIndex(symbol), edge);
+        return succ;
+    }
+
+    @Override
+    protected Collection<AnnotatedEdge<BoundedNode<O>, I, O>> getOutgoingEdges(BoundedNode<O> node) {
+        List<AnnotatedEdge<BoundedNode<O>, I, O>> result = new ArrayList<>(alphabetSize);
+        for (int i = 0; i < alphabetSize; i++) {
+            Edge<BoundedNode<O>, O> edge = node.getEdge(i);
+            if (edge != null) {
+                result.add(new AnnotatedEdge<>(edge, inputAlphabet.getSymbol(i)));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public Alphabet<I> getInputAlphabet() {
+        return inputAlphabet;
+    }
+
+    @Override
+    public void pin(Word<? extends I> word) {
+        pins.add(Word.upcast(word));
+    }
+
+    @Override
+    public void unpin(Word<? extends I> word) {
+        pins.remove(word);
+    }
+
+    @Override
+    public void unpinAll() {
+        pins.clear();
+    }
+
+    @Override
+    public void evict() {
+        final boolean shrink = size > capacity;
+        if (!shrink && policy != EvictionPolicy.TTL) {
+            return;
+        }
+
+        final long now = clock.getAsLong();
+        final int retainedSize = capacity - capacity / 4;
+
+        final List<Candidate<O>> candidates = collectCandidates();
+        candidates.sort(getComparator());
+
+        for (Candidate<O> c : candidates) {
+            if (c.node.evicted) {
+                continue; // an ancestor has already been evicted
+            }
+            if (!isExpired(c.node, now) && (!shrink || size <= retainedSize)) {
+                break;
+            }
+            c.parent.removeEdge(c.index);
+            final int evicted = markEvicted(c.node);
+            size -= evicted;
+            evictions += evicted;
+        }
+    }
+
+    @Override
+    public int getCapacity() {
+        return capacity;
+    }
+
+    @Override
+    public int getSize() {
+        return size;
+    }
+
+    @Override
+    public CacheStatistics getStatistics() {
+        return new CacheStatistics(hits, misses, evictions);
+    }
+
+    @Override
+    public void resetStatistics() {
+        hits = 0;
+        misses = 0;
+        evictions = 0;
+    }
+
+    private List<Candidate<O>> collectCandidates() {
+        final Set<BoundedNode<O>> pinned = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        for (Word<I> pin : pins) {
+            BoundedNode<O> curr = root;
+            for (I sym : pin) {
+                final Edge<BoundedNode<O>, O> edge = getEdge(curr, sym);
+                if (edge == null) {
+                    break;
+                }
+                curr = edge.getTarget();
+                pinned.add(curr);
+            }
+        }
+
+        final List<Candidate<O>> result = new ArrayList<>(size);
+        final Deque<Candidate<O>> stack = new ArrayDeque<>();
+        pushChildren(stack, root, 1);
+
+        while (!stack.isEmpty()) {
+            final Candidate<O> c = stack.pop();
+            if (!pinned.contains(c.node)) {
+                result.add(c);
+            }
+            pushChildren(stack, c.node, c.depth + 1);
+        }
+
+        return result;
+    }
+
+    private void pushChildren(Deque<Candidate<O>> stack, BoundedNode<O> node, int depth) {
+        for (int i = 0; i < alphabetSize; i++) {
+            final Edge<BoundedNode<O>, O> edge = node.getEdge(i);
+            if (edge != null) {
+                stack.push(new Candidate<>(edge.getTarget(), node, i, depth));
+            }
+        }
+    }
+
+    private int markEvicted(BoundedNode<O> node) {
+        final Deque<BoundedNode<O>> stack = new ArrayDeque<>();
+        stack.push(node);
+        int count = 0;
+
+        while (!stack.isEmpty()) {
+            final BoundedNode<O> curr = stack.pop();
+            curr.evicted = true;
+            count++;
+            for (int i = 0; i < alphabetSize; i++) {
+                final Edge<BoundedNode<O>, O> edge = curr.getEdge(i);
+                if (edge != null) {
+                    stack.push(edge.getTarget());
+                }
+            }
+        }
+
+        return count;
+    }
+
+    private boolean isExpired(BoundedNode<O> node, long now) {
+        return policy == EvictionPolicy.TTL && now - node.lastAccess > timeToLive;
+    }
+
+    private Comparator<Candidate<O>> getComparator() {
+        // ancestors are never colder than their descendants, so ties are broken in favor of larger subtrees
+        final Comparator<Candidate<O>> byRecency = Comparator.comparingLong(c -> c.node.lastAccess);
+        final Comparator<Candidate<O>> byDepth = Comparator.comparingInt(c -> c.depth);
+
+        if (policy == EvictionPolicy.LFU) {
+            return Comparator.<Candidate<O>>comparingLong(c -> c.node.accessCount).thenComparing(byRecency)
+                                                                                   .thenComparing(byDepth);
+        }
+        return byRecency.thenComparing(byDepth);
+    }
+
+    private static final class Candidate<O> {
+
+        private final BoundedNode<O> node;
+        private final BoundedNode<O> parent;
+        private final int index;
+        private final int depth;
+
+        Candidate(BoundedNode<O> node, BoundedNode<O> parent, int index, int depth) {
+            this.node = node;
+            this.parent = parent;
+            this.index = index;
+            this.depth = depth;
+        }
+    }
+}
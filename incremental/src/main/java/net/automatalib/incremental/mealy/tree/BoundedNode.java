@@ -0,0 +1,59 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.incremental.mealy.tree;
+
+import net.automatalib.commons.smartcollections.AdaptiveArrayStorage;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A node of the {@link BoundedIncrementalMealyTreeBuilder}, which additionally tracks the accesses to its subtree.
+ *
+ * @param <O>
+ *         output symbol type
+ *
+ * @author frohme
+ */
+final class BoundedNode<O> {
+
+    long lastAccess;
+    long accessCount;
+    boolean evicted;
+
+    // lazily initialized, since most nodes of a tree are leaves
+    private @Nullable AdaptiveArrayStorage<Edge<BoundedNode<O>, O>> outEdges;
+
+    @Nullable Edge<BoundedNode<O>, O> getEdge(int idx) {
+        return outEdges == null ? null : outEdges.get(idx);
+    }
+
+    void setEdge(int idx, Edge<BoundedNode<O>, O> edge) {
+        if (outEdges == null) {
+            outEdges = new AdaptiveArrayStorage<>();
+        }
+        outEdges.set(idx, edge);
+    }
+
+    void removeEdge(int idx) {
+        if (outEdges != null) {
+            outEdges.set(idx, null);
+        }
+    }
+
+    void touch(long time) {
+        lastAccess = time;
+        accessCount++;
+    }
+}
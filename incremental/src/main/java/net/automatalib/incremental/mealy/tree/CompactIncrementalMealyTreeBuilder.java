@@ -0,0 +1,341 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.incremental.mealy.tree;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import net.automatalib.automata.concepts.InputAlphabetHolder;
+import net.automatalib.automata.transducers.MealyMachine;
+import net.automatalib.incremental.ConflictException;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.Word;
+import net.automatalib.words.WordBuilder;
+import net.automatalib.words.impl.Alphabets;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A variation of the normal {@link IncrementalMealyTreeBuilder}, which stores the tree in a columnar, array-based
+ * fashion. Tree nodes are represented by (consecutive) integers, whose successor pointers are stored in pages of flat
+ * {@code int} arrays (one row of alphabet width per node). Since each node of a tree has exactly one incoming edge, the
+ * output of this edge is stored per node in a parallel column of output indices, which refer to a table of the distinct
+ * output symbols.
+ * <p>
+ * Compared to the regular tree, this avoids a node object (including its edge array) per node as well as an edge
+ * object per transition, which significantly reduces the memory footprint of large trees. The views of {@link
+ * #asGraph()} and {@link #asTransitionSystem()} create their edge objects on-the-fly.
+ *
+ * @param <I>
+ *         input symbol type
+ * @param <O>
+ *         output symbol type
+ *
+ * @author frohme
+ */
+public class CompactIncrementalMealyTreeBuilder<I, O> extends AbstractIncrementalMealyTreeBuilder<Integer, I, O>
+        implements InputAlphabetHolder<I> {
+
+    private static final int ROOT = 0;
+    // the root is never the target of a transition, hence we can use its id to encode undefined successors
+    private static final int UNDEFINED = ROOT;
+
+    private static final int PAGE_BITS = 12;
+    private static final int PAGE_SIZE = 1 << PAGE_BITS;
+    private static final int PAGE_MASK = PAGE_SIZE - 1;
+
+    private final Alphabet<I> inputAlphabet;
+    private int alphabetSize;
+
+    private int[][] successorPages;
+    private int[][] outputPages;
+    private int numNodes;
+
+    private final List<O> outputTable;
+    private final Map<O, Integer> outputIndices;
+
+    public CompactIncrementalMealyTreeBuilder(Alphabet<I> inputAlphabet) {
+        super(ROOT);
+        this.inputAlphabet = inputAlphabet;
+        this.alphabetSize = inputAlphabet.size();
+        pageLength(alphabetSize); // fail early for too large alphabets
+        this.successorPages = new int[0][];
+        this.outputPages = new int[0][];
+        this.outputTable = new ArrayList<>();
+        this.outputIndices = new HashMap<>();
+
+        createNode(); // the root
+    }
+
+    @Override
+    public void addAlphabetSymbol(I symbol) {
+        if (!inputAlphabet.containsSymbol(symbol)) {
+            Alphabets.toGrowingAlphabetOrThrowException(inputAlphabet).addSymbol(symbol);
+        }
+
+        final int newAlphabetSize = inputAlphabet.size();
+        // even if the symbol was already in the alphabet, we need to make sure to be able to store the new symbol
+        if (alphabetSize < newAlphabetSize) {
+            final int newPageLength = pageLength(newAlphabetSize);
+            for (int i = 0; i < successorPages.length; i++) {
+                final int[] oldPage = successorPages[i];
+                if (oldPage == null) {
+                    break;
+                }
+                final int[] newPage = new int[newPageLength];
+                for (int j = 0; j < PAGE_SIZE; j++) {
+                    System.arraycopy(oldPage, j * alphabetSize, newPage, j * newAlphabetSize, alphabetSize);
+                }
+                successorPages[i] = newPage;
+            }
+            alphabetSize = newAlphabetSize;
+        }
+    }
+
+    @Override
+    public boolean lookup(Word<? extends I> word, List<? super O> output) {
+        int curr = ROOT;
+
+        for (I sym : word) {
+            final int succ = getSuccessor(curr, inputAlphabet.getSymbolIndex(sym));
+            if (succ == UNDEFINED) {
+                return false;
+            }
+            output.add(getOutput(succ));
+            curr = succ;
+        }
+
+        return true;
+    }
+
+    @Override
+    public boolean hasDefinitiveInformation(Word<? extends I> word) {
+        int curr = ROOT;
+
+        for (I sym : word) {
+            curr = getSuccessor(curr, inputAlphabet.getSymbolIndex(sym));
+            if (curr == UNDEFINED) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    @Override
+    public void insert(Word<? extends I> input, Word<? extends O> outputWord) {
+        insertionLog.log(input);
+
+        int curr = ROOT;
+
+        Iterator<? extends O> outputIt = outputWord.iterator();
+        for (I sym : input) {
+            final O out = outputIt.next();
+            final int symIdx = inputAlphabet.getSymbolIndex(sym);
+            final int succ = getSuccessor(curr, symIdx);
+            if (succ == UNDEFINED) {
+                curr = insertNode(curr, symIdx, out);
+            } else {
+                if (!Objects.equals(out, getOutput(succ))) {
+                    throw new ConflictException();
+                }
+                curr = succ;
+            }
+        }
+    }
+
+    @Override
+    public @Nullable Word<I> findSeparatingWord(MealyMachine<?, I, ?, O> target,
+                                                Collection<? extends I> inputs,
+                                                boolean omitUndefined) {
+        return doFindSeparatingWord(target, inputs, omitUndefined);
+    }
+
+    private <S, T> @Nullable Word<I> doFindSeparatingWord(MealyMachine<S, I, T, O> target,
+                                                          Collection<? extends I> inputs,
+                                                          boolean omitUndefined) {
+
+        // inputs that are not part of the alphabet cannot have any successors in the tree
+        final List<I> symbols = new ArrayList<>(inputs.size());
+        for (I i : inputs) {
+            if (inputAlphabet.containsSymbol(i)) {
+                symbols.add(i);
+            }
+        }
+
+        final int numSymbols = symbols.size();
+        final int[] symbolIndices = new int[numSymbols];
+        for (int i = 0; i < numSymbols; i++) {
+            symbolIndices[i] = inputAlphabet.getSymbolIndex(symbols.get(i));
+        }
+
+        // the DFS stack, stored column-wise: tree node, automaton state and position of the next input to explore
+        int[] nodeStack = new int[16];
+        Object[] stateStack = new Object[16];
+        int[] posStack = new int[16];
+        int depth = 0;
+
+        nodeStack[0] = ROOT;
+        stateStack[0] = target.getInitialState();
+        posStack[0] = 0;
+
+        while (depth >= 0) {
+            final int pos = posStack[depth];
+            if (pos == numSymbols) {
+                depth--;
+                continue;
+            }
+            posStack[depth] = pos + 1;
+
+            final int succ = getSuccessor(nodeStack[depth], symbolIndices[pos]);
+            if (succ == UNDEFINED) {
+                continue;
+            }
+
+            final I input = symbols.get(pos);
+            @SuppressWarnings("unchecked")
+            final S state = (S) stateStack[depth];
+            final T trans = state == null ? null : target.getTransition(state, input);
+            if (omitUndefined && trans == null) {
+                continue;
+            }
+            if (trans == null || !Objects.equals(target.getTransitionOutput(trans), getOutput(succ))) {
+                final WordBuilder<I> wb = new WordBuilder<>(depth + 1);
+                // the positions on the stack point to the successor of the input that has lead to the next level
+                for (int i = 0; i < depth; i++) {
+                    wb.append(symbols.get(posStack[i] - 1));
+                }
+                wb.append(input);
+                return wb.toWord();
+            }
+
+            depth++;
+            if (depth == nodeStack.length) {
+                final int newLength = depth * 2;
+                nodeStack = Arrays.copyOf(nodeStack, newLength);
+                stateStack = Arrays.copyOf(stateStack, newLength);
+                posStack = Arrays.copyOf(posStack, newLength);
+            }
+            nodeStack[depth] = succ;
+            stateStack[depth] = target.getSuccessor(trans);
+            posStack[depth] = 0;
+        }
+
+        return null;
+    }
+
+    @Override
+    protected @Nullable Edge<Integer, O> getEdge(Integer node, I symbol) {
+        final int succ = getSuccessor(node, inputAlphabet.getSymbolIndex(symbol));
+        return succ == UNDEFINED ? null : new Edge<>(getOutput(succ), succ);
+    }
+
+    @Override
+    protected Integer createNode() {
+        final int node = numNodes;
+        final int page = node >>> PAGE_BITS;
+
+        if (page == successorPages.length) {
+            final int newLength = Math.max(1, page * 2);
+            successorPages = Arrays.copyOf(successorPages, newLength);
+            outputPages = Arrays.copyOf(outputPages, newLength);
+        }
+        if (successorPages[page] == null) {
+            successorPages[page] = new int[pageLength(alphabetSize)];
+            outputPages[page] = new int[PAGE_SIZE];
+        }
+
+        numNodes++;
+        return node;
+    }
+
+    @Override
+    protected Integer insertNode(Integer parent, I symbol, O output) {
+        return insertNode(parent, inputAlphabet.getSymbolIndex(symbol), output);
+    }
+
+    private int insertNode(int parent, int symIdx, O output) {
+        checkSymbolIndex(symIdx);
+        final int succ = createNode();
+
+        successorPages[parent >>> PAGE_BITS][(parent & PAGE_MASK) * alphabetSize + symIdx] = succ;
+        outputPages[succ >>> PAGE_BITS][succ & PAGE_MASK] = getOutputIndex(output);
+
+        return succ;
+    }
+
+    @Override
+    protected Collection<AnnotatedEdge<Integer, I, O>> getOutgoingEdges(Integer node) {
+        List<AnnotatedEdge<Integer, I, O>> result = new ArrayList<>(alphabetSize);
+        for (int i = 0; i < alphabetSize; i++) {
+            final int succ = getSuccessor(node, i);
+            if (succ != UNDEFINED) {
+                result.add(new AnnotatedEdge<>(new Edge<>(getOutput(succ), succ), inputAlphabet.getSymbol(i)));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public Alphabet<I> getInputAlphabet() {
+        return inputAlphabet;
+    }
+
+    private int getSuccessor(int node, int symIdx) {
+        checkSymbolIndex(symIdx);
+        return successorPages[node >>> PAGE_BITS][(node & PAGE_MASK) * alphabetSize + symIdx];
+    }
+
+    /**
+     * Rejects symbol indices outside the alphabet, which would otherwise address the successors of a neighboring node
+     * in the same page.
+     */
+    private void checkSymbolIndex(int symIdx) {
+        if (symIdx < 0 || symIdx >= alphabetSize) {
+            throw new IllegalArgumentException("Symbol index " + symIdx + " is not within the input alphabet");
+        }
+    }
+
+    private static int pageLength(int alphabetSize) {
+        try {
+            return Math.multiplyExact(PAGE_SIZE, alphabetSize);
+        } catch (ArithmeticException ae) {
+            throw new IllegalArgumentException("Input alphabet of size " + alphabetSize + " is too large", ae);
+        }
+    }
+
+    private O getOutput(int node) {
+        return outputTable.get(outputPages[node >>> PAGE_BITS][node & PAGE_MASK]);
+    }
+
+    private int getOutputIndex(O output) {
+        final Integer idx = outputIndices.get(output);
+
+        if (idx != null) {
+            return idx;
+        }
+
+        final int newIdx = outputTable.size();
+        outputTable.add(output);
+        outputIndices.put(output, newIdx);
+        return newIdx;
+    }
+}
@@ -30,7 +30,7 @@ public class IncrementalMealyTreeBuilder<I, O> extends AbstractIncrementalMealyT
     private int alphabetSize;
 
     public IncrementalMealyTreeBuilder(Alphabet<I> inputAlphabet) {
-        super(new Node<>(inputAlphabet.size()));
+        super(new Node<>());
         this.inputAlphabet = inputAlphabet;
         this.alphabetSize = inputAlphabet.size();
     }
@@ -41,22 +41,8 @@ public class IncrementalMealyTreeBuilder<I, O> extends AbstractIncrementalMealyT
             Alphabets.toGrowingAlphabetOrThrowException(inputAlphabet).addSymbol(symbol);
         }
 
-        final int newAlphabetSize = inputAlphabet.size();
-        // even if the symbol was already in the alphabet, we need to make sure to be able to store the new symbol
-        if (alphabetSize < newAlphabetSize) {
-            ensureInputCapacity(root, alphabetSize, newAlphabetSize);
-            alphabetSize = newAlphabetSize;
-        }
-    }
-
-    private void ensureInputCapacity(Node<O> node, int oldAlphabetSize, int newAlphabetSize) {
-        node.ensureInputCapacity(newAlphabetSize);
-        for (int i = 0; i < oldAlphabetSize; i++) {
-            final Node<O> child = node.getSuccessor(i);
-            if (child != null) {
-                ensureInputCapacity(child, oldAlphabetSize, newAlphabetSize);
-            }
-        }
+        // the nodes do not need to be resized, because their storages treat new symbols as undefined
+        alphabetSize = inputAlphabet.size();
     }
 
     @Override
@@ -66,7 +52,7 @@ public class IncrementalMealyTreeBuilder<I, O> extends AbstractIncrementalMealyT
 
     @Override
     protected Node<O> createNode() {
-        return new Node<>(alphabetSize);
+        return new Node<>();
     }
 
     @Override
@@ -15,37 +15,22 @@
  */
 package net.automatalib.incremental.mealy.tree;
 
-import net.automatalib.commons.smartcollections.ResizingArrayStorage;
+import net.automatalib.commons.smartcollections.AdaptiveArrayStorage;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
 final class Node<O> {
 
-    private final ResizingArrayStorage<Edge<Node<O>, O>> outEdges;
+    // lazily initialized, since most nodes of a tree are leaves
+    private @Nullable AdaptiveArrayStorage<Edge<Node<O>, O>> outEdges;
 
-    Node(int alphabetSize) {
-        this.outEdges = new ResizingArrayStorage<>(Edge.class, alphabetSize);
-    }
-
-    Edge<Node<O>, O> getEdge(int idx) {
-        return outEdges.array[idx];
+    @Nullable Edge<Node<O>, O> getEdge(int idx) {
+        return outEdges == null ? null : outEdges.get(idx);
     }
 
     void setEdge(int idx, Edge<Node<O>, O> edge) {
-        outEdges.array[idx] = edge;
-    }
-
-    @Nullable Node<O> getSuccessor(int idx) {
-        Edge<Node<O>, O> edge = outEdges.array[idx];
-        if (edge != null) {
-            return edge.getTarget();
+        if (outEdges == null) {
+            outEdges = new AdaptiveArrayStorage<>();
         }
-        return null;
-    }
-
-    /**
-     * See {@link ResizingArrayStorage#ensureCapacity(int)}.
-     */
-    boolean ensureInputCapacity(int capacity) {
-        return this.outEdges.ensureCapacity(capacity);
+        outEdges.set(idx, edge);
     }
 }
@@ -15,18 +15,30 @@
  */
 package net.automatalib.incremental.dfa;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
 
 import javax.swing.SwingUtilities;
 
 import net.automatalib.automata.fsa.impl.compact.CompactDFA;
 import net.automatalib.commons.util.system.JVMUtil;
 import net.automatalib.incremental.ConflictException;
+import net.automatalib.incremental.IncrementalSnapshots;
+import net.automatalib.incremental.SymbolDecoder;
+import net.automatalib.incremental.SymbolEncoder;
 import net.automatalib.incremental.dfa.IncrementalDFABuilder.TransitionSystemView;
 import net.automatalib.visualization.Visualization;
 import net.automatalib.words.Alphabet;
 import net.automatalib.words.GrowingAlphabet;
 import net.automatalib.words.Word;
+import net.automatalib.words.WordBuilder;
 import net.automatalib.words.impl.Alphabets;
 import net.automatalib.words.impl.GrowingMapAlphabet;
 import org.testng.Assert;
@@ -38,6 +50,8 @@ import org.testng.annotations.Test;
 public abstract class AbstractIncrementalDFABuilderTest {
 
     private static final Alphabet<Character> TEST_ALPHABET = Alphabets.characters('a', 'c');
+    private static final SymbolEncoder<Character> SYMBOL_ENCODER = (out, c) -> out.writeChar(c);
+    private static final SymbolDecoder<Character> SYMBOL_DECODER = DataInput::readChar;
 
     private static final Word<Character> W_1 = Word.fromString("abc");
     private static final Word<Character> W_2 = Word.fromString("ac");
@@ -228,4 +242,62 @@ public abstract class AbstractIncrementalDFABuilderTest {
         Assert.assertEquals(growableBuilder.lookup(input2), Acceptance.FALSE);
     }
 
+    @Test
+    public void testSnapshot() throws IOException {
+        final Random random = new Random(42);
+        final IncrementalDFABuilder<Character> source = createIncrementalDFABuilder(TEST_ALPHABET);
+        final List<Word<Character>> words = new ArrayList<>();
+
+        for (int i = 0; i < 100; i++) {
+            final Word<Character> word = randomWord(random);
+            try {
+                source.insert(word, random.nextBoolean());
+            } catch (ConflictException ce) {
+                // ignore
+            }
+            words.add(word);
+        }
+
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        source.writeSnapshot(baos, SYMBOL_ENCODER);
+
+        // append some deltas
+        for (int i = 0; i < 10; i++) {
+            final Word<Character> word = randomWord(random);
+            if (source.lookup(word) == Acceptance.DONT_KNOW) {
+                final boolean accepting = random.nextBoolean();
+                source.insert(word, accepting);
+                IncrementalSnapshots.appendDelta(baos, SYMBOL_ENCODER, word, accepting);
+                words.add(word);
+            }
+        }
+
+        // simulate a crash while writing the last delta
+        final int length = baos.size();
+        IncrementalSnapshots.appendDelta(baos, SYMBOL_ENCODER, Word.fromString("abcabc"), true);
+        final byte[] data = Arrays.copyOf(baos.toByteArray(), length + 5);
+
+        // restore into an initially empty alphabet
+        final IncrementalDFABuilder<Character> target = createIncrementalDFABuilder(new GrowingMapAlphabet<>());
+        target.readSnapshot(new ByteArrayInputStream(data), SYMBOL_DECODER);
+
+        for (Word<Character> w : words) {
+            for (Word<Character> prefix : w.prefixes(false)) {
+                Assert.assertEquals(target.lookup(prefix), source.lookup(prefix), prefix.toString());
+            }
+        }
+        Assert.assertEquals(target.lookup(Word.fromString("abcabc")), source.lookup(Word.fromString("abcabc")));
+
+        Assert.assertThrows(IllegalStateException.class,
+                            () -> target.readSnapshot(new ByteArrayInputStream(data), SYMBOL_DECODER));
+    }
+
+    private static Word<Character> randomWord(Random random) {
+        final int length = random.nextInt(8);
+        final WordBuilder<Character> wb = new WordBuilder<>(length);
+        for (int i = 0; i < length; i++) {
+            wb.append(TEST_ALPHABET.getSymbol(random.nextInt(TEST_ALPHABET.size())));
+        }
+        return wb.toWord();
+    }
 }
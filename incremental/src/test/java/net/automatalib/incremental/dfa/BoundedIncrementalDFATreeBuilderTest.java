@@ -0,0 +1,136 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.incremental.dfa;
+
+import java.util.concurrent.TimeUnit;
+
+import net.automatalib.incremental.CacheStatistics;
+import net.automatalib.incremental.EvictionPolicy;
+import net.automatalib.incremental.dfa.tree.BoundedIncrementalDFATreeBuilder;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.Word;
+import net.automatalib.words.impl.Alphabets;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * @author frohme
+ */
+@Test
+public class BoundedIncrementalDFATreeBuilderTest extends AbstractIncrementalDFABuilderTest {
+
+    private static final Alphabet<Character> ALPHABET = Alphabets.characters('a', 'c');
+    private static final Word<Character> W_A = Word.fromString("aaaa");
+    private static final Word<Character> W_B = Word.fromString("bbbb");
+    private static final Word<Character> W_C = Word.fromString("cc");
+
+    @Override
+    protected <I> IncrementalDFABuilder<I> createIncrementalDFABuilder(Alphabet<I> alphabet) {
+        return new BoundedIncrementalDFATreeBuilder<>(alphabet, Integer.MAX_VALUE, EvictionPolicy.LRU);
+    }
+
+    @Test
+    public void testLRU() {
+        final BoundedIncrementalDFATreeBuilder<Character> builder =
+                new BoundedIncrementalDFATreeBuilder<>(ALPHABET, 10, EvictionPolicy.LRU);
+
+        builder.insert(W_A, true);
+        builder.insert(W_B, false);
+        Assert.assertEquals(builder.lookup(W_A), Acceptance.TRUE);
+        Assert.assertEquals(builder.getSize(), 9);
+
+        // exceeds the capacity and evicts the least recently used subtree
+        builder.insert(W_C, true);
+        Assert.assertEquals(builder.getSize(), 7);
+        Assert.assertEquals(builder.lookup(W_A), Acceptance.TRUE);
+        Assert.assertEquals(builder.lookup(W_B), Acceptance.DONT_KNOW);
+        Assert.assertEquals(builder.lookup(W_C), Acceptance.TRUE);
+
+        final CacheStatistics statistics = builder.getStatistics();
+        Assert.assertEquals(statistics.getHits(), 3);
+        Assert.assertEquals(statistics.getMisses(), 1);
+        Assert.assertEquals(statistics.getEvictions(), 4);
+
+        builder.resetStatistics();
+        Assert.assertEquals(builder.getStatistics().getHits(), 0);
+    }
+
+    @Test
+    public void testLFU() {
+        final BoundedIncrementalDFATreeBuilder<Character> builder =
+                new BoundedIncrementalDFATreeBuilder<>(ALPHABET, 10, EvictionPolicy.LFU);
+
+        builder.insert(W_A, true);
+        builder.lookup(W_A);
+        builder.lookup(W_A);
+        builder.insert(W_B, false);
+
+        // exceeds the capacity and evicts the least frequently (but most recently) used subtree
+        builder.insert(W_C, true);
+        Assert.assertEquals(builder.getSize(), 7);
+        Assert.assertEquals(builder.lookup(W_A), Acceptance.TRUE);
+        Assert.assertEquals(builder.lookup(W_B), Acceptance.DONT_KNOW);
+        Assert.assertEquals(builder.lookup(W_C), Acceptance.TRUE);
+    }
+
+    @Test
+    public void testPinning() {
+        final BoundedIncrementalDFATreeBuilder<Character> builder =
+                new BoundedIncrementalDFATreeBuilder<>(ALPHABET, 10, EvictionPolicy.LRU);
+
+        builder.pin(W_A);
+        builder.insert(W_A, true);
+        builder.insert(W_B, false);
+        builder.insert(W_C, true);
+
+        Assert.assertEquals(builder.lookup(W_A), Acceptance.TRUE);
+        Assert.assertEquals(builder.lookup(W_B), Acceptance.DONT_KNOW);
+
+        builder.unpin(W_A);
+        builder.insert(W_B, false);
+        builder.insert(Word.fromString("bc"), false);
+
+        Assert.assertEquals(builder.lookup(W_A), Acceptance.DONT_KNOW);
+        Assert.assertEquals(builder.lookup(W_B), Acceptance.FALSE);
+    }
+
+    @Test
+    public void testTTL() {
+        final long[] time = {0};
+        final BoundedIncrementalDFATreeBuilder<Character> builder =
+                new BoundedIncrementalDFATreeBuilder<>(ALPHABET, 100, 10, TimeUnit.NANOSECONDS, () -> time[0]);
+
+        builder.insert(W_A, true);
+        time[0] = 5;
+        builder.insert(W_B, false);
+        builder.insert(W_C, true);
+        builder.pin(W_C);
+
+        time[0] = 12;
+        builder.evict();
+
+        Assert.assertEquals(builder.getSize(), 7);
+        Assert.assertEquals(builder.lookup(W_A), Acceptance.DONT_KNOW);
+        Assert.assertEquals(builder.lookup(W_B), Acceptance.FALSE);
+
+        time[0] = 30;
+        builder.evict();
+
+        Assert.assertEquals(builder.getSize(), 3);
+        Assert.assertEquals(builder.lookup(W_B), Acceptance.DONT_KNOW);
+        Assert.assertEquals(builder.lookup(W_C), Acceptance.TRUE);
+    }
+}
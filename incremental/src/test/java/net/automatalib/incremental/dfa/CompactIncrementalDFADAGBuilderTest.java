@@ -0,0 +1,108 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.incremental.dfa;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import net.automatalib.incremental.ConflictException;
+import net.automatalib.incremental.dfa.dag.CompactIncrementalDFADAGBuilder;
+import net.automatalib.incremental.dfa.dag.IncrementalDFADAGBuilder;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.Word;
+import net.automatalib.words.WordBuilder;
+import net.automatalib.words.impl.Alphabets;
+import net.automatalib.words.impl.ListAlphabet;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * @author frohme
+ */
+@Test
+public class CompactIncrementalDFADAGBuilderTest extends IncrementalDFADAGBuilderTest {
+
+    @Override
+    protected <I> IncrementalDFABuilder<I> createIncrementalDFABuilder(Alphabet<I> alphabet) {
+        return new CompactIncrementalDFADAGBuilder<>(alphabet);
+    }
+
+    @Test
+    public void testInvalidSymbolIndices() {
+        // an alphabet that reports unknown symbols by out-of-range indices instead of throwing an exception
+        final Alphabet<Integer> alphabet = new ListAlphabet<Integer>(Arrays.asList(0, 1)) {
+
+            @Override
+            public int getSymbolIndex(Integer symbol) {
+                return symbol;
+            }
+        };
+        final CompactIncrementalDFADAGBuilder<Integer> builder = new CompactIncrementalDFADAGBuilder<>(alphabet);
+
+        builder.insert(Word.fromSymbols(0, 1), true);
+        builder.insert(Word.fromSymbols(1), false);
+
+        // index -1 would address the acceptance of a state
+        Assert.assertThrows(IllegalArgumentException.class, () -> builder.lookup(Word.fromSymbols(0, -1)));
+        Assert.assertThrows(IllegalArgumentException.class, () -> builder.lookup(Word.fromSymbols(2)));
+        Assert.assertThrows(IllegalArgumentException.class, () -> builder.insert(Word.fromSymbols(1, -1), true));
+        Assert.assertThrows(IllegalArgumentException.class, () -> builder.insert(Word.fromSymbols(-1, 0), false));
+
+        // rejected insertions leave the construction unchanged
+        Assert.assertEquals(builder.lookup(Word.fromSymbols(0, 1)), Acceptance.TRUE);
+        Assert.assertEquals(builder.lookup(Word.fromSymbols(1)), Acceptance.FALSE);
+        Assert.assertEquals(builder.lookup(Word.fromSymbols(0)), Acceptance.DONT_KNOW);
+        Assert.assertEquals(builder.lookup(Word.fromSymbols(1, 1)), Acceptance.DONT_KNOW);
+    }
+
+    @Test
+    public void testMinimality() {
+        final Alphabet<Integer> alphabet = Alphabets.integers(0, 3);
+        final Random random = new Random(42);
+
+        final CompactIncrementalDFADAGBuilder<Integer> compact = new CompactIncrementalDFADAGBuilder<>(alphabet);
+        final IncrementalDFADAGBuilder<Integer> reference = new IncrementalDFADAGBuilder<>(alphabet);
+
+        for (int i = 0; i < 2000; i++) {
+            final int length = random.nextInt(12);
+            final WordBuilder<Integer> wb = new WordBuilder<>(length);
+            for (int j = 0; j < length; j++) {
+                wb.append(random.nextInt(alphabet.size()));
+            }
+            final Word<Integer> word = wb.toWord();
+            final boolean accepting = random.nextBoolean();
+
+            boolean conflict = false;
+            try {
+                reference.insert(word, accepting);
+            } catch (ConflictException ce) {
+                conflict = true;
+            }
+
+            if (conflict) {
+                Assert.assertThrows(ConflictException.class, () -> compact.insert(word, accepting));
+            } else {
+                compact.insert(word, accepting);
+            }
+
+            for (Word<Integer> prefix : word.prefixes(false)) {
+                Assert.assertEquals(compact.lookup(prefix), reference.lookup(prefix));
+            }
+        }
+
+        Assert.assertEquals(compact.asGraph().size(), reference.asGraph().size());
+    }
+}
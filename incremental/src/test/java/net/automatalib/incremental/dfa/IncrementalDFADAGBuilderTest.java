@@ -16,14 +16,22 @@
 package net.automatalib.incremental.dfa;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Random;
 
+import net.automatalib.automata.fsa.impl.compact.CompactDFA;
 import net.automatalib.commons.util.Pair;
+import net.automatalib.commons.util.comparison.CmpUtil;
 import net.automatalib.incremental.IntegrationUtil;
 import net.automatalib.incremental.IntegrationUtil.ParsedTraces;
 import net.automatalib.incremental.dfa.dag.IncrementalDFADAGBuilder;
+import net.automatalib.util.automata.random.RandomAutomata;
 import net.automatalib.words.Alphabet;
 import net.automatalib.words.Word;
+import net.automatalib.words.WordBuilder;
+import net.automatalib.words.impl.Alphabets;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
@@ -52,6 +60,136 @@ public class IncrementalDFADAGBuilderTest extends AbstractIncrementalDFABuilderT
         validateTraces("/learnlib76/dfa.gz");
     }
 
+    @Test
+    public void testInsertSorted() {
+        final Alphabet<Integer> alphabet = Alphabets.integers(0, 3);
+        final Random random = new Random(42);
+
+        final List<Word<Integer>> words = new ArrayList<>(1000);
+        for (int i = 0; i < 1000; i++) {
+            words.add(randomWord(random, alphabet, random.nextInt(10)));
+        }
+        words.sort(CmpUtil.lexComparator(alphabet));
+
+        final IncrementalDFADAGBuilder<Integer> bulk = new IncrementalDFADAGBuilder<>(alphabet);
+        final IncrementalDFADAGBuilder<Integer> reference = new IncrementalDFADAGBuilder<>(alphabet);
+
+        bulk.insertSorted(words, true);
+        for (Word<Integer> w : words) {
+            reference.insert(w, true);
+        }
+
+        checkEquivalence(bulk, reference, words);
+
+        // the bulk-constructed builder can be extended incrementally
+        final List<Word<Integer>> additional = new ArrayList<>(words.size());
+        for (Word<Integer> w : words) {
+            final Word<Integer> extension = w.append(random.nextInt(alphabet.size()));
+            if (reference.lookup(extension) == Acceptance.DONT_KNOW) {
+                bulk.insert(extension, false);
+                reference.insert(extension, false);
+                additional.add(extension);
+            }
+        }
+
+        checkEquivalence(bulk, reference, additional);
+        checkEquivalence(bulk, reference, words);
+    }
+
+    @Test
+    public void testInsertUnsorted() {
+        final Alphabet<Character> alphabet = Alphabets.characters('a', 'c');
+        final IncrementalDFADAGBuilder<Character> builder = new IncrementalDFADAGBuilder<>(alphabet);
+
+        final List<Word<Character>> words =
+                Arrays.asList(Word.fromString("ab"), Word.fromString("abc"), Word.fromString("b"), Word.fromString("a"));
+
+        Assert.assertThrows(IllegalArgumentException.class, () -> builder.insertSorted(words, true));
+
+        // words preceding the offending one have been inserted
+        Assert.assertEquals(builder.lookup(Word.fromString("ab")), Acceptance.TRUE);
+        Assert.assertEquals(builder.lookup(Word.fromString("abc")), Acceptance.TRUE);
+        Assert.assertEquals(builder.lookup(Word.fromString("b")), Acceptance.TRUE);
+        Assert.assertEquals(builder.lookup(Word.fromString("a")), Acceptance.DONT_KNOW);
+
+        // the canonical (length-first) order is not sufficient
+        final IncrementalDFADAGBuilder<Character> canonical = new IncrementalDFADAGBuilder<>(alphabet);
+        Assert.assertThrows(IllegalArgumentException.class,
+                            () -> canonical.insertSorted(Arrays.asList(Word.fromString("b"), Word.fromString("ab")),
+                                                         true));
+    }
+
+    @Test
+    public void testIncrementalSeparatingWord() {
+        final Alphabet<Integer> alphabet = Alphabets.integers(0, 2);
+        final Random random = new Random(42);
+        final CompactDFA<Integer> target = RandomAutomata.randomDFA(random, 10, alphabet);
+        final IncrementalDFADAGBuilder<Integer> builder = new IncrementalDFADAGBuilder<>(alphabet);
+
+        Assert.assertNull(builder.findSeparatingWord(target, alphabet, false, true));
+
+        for (int i = 0; i < 100; i++) {
+            final Word<Integer> word = randomWord(random, alphabet, random.nextInt(8));
+            builder.insert(word, target.accepts(word));
+            Assert.assertNull(builder.findSeparatingWord(target, alphabet, false, true));
+        }
+
+        Word<Integer> word;
+        do {
+            word = randomWord(random, alphabet, random.nextInt(8));
+        } while (builder.lookup(word) != Acceptance.DONT_KNOW);
+
+        builder.insert(word, !target.accepts(word));
+
+        Assert.assertEquals(builder.findSeparatingWord(target, alphabet, false, true), word);
+        // after revealing a separating word, the incremental search falls back to a full one
+        Assert.assertEquals(builder.findSeparatingWord(target, alphabet, false, true),
+                            builder.findSeparatingWord(target, alphabet, false));
+    }
+
+    @Test
+    public void testIncrementalSeparatingWordOnModifiedTarget() {
+        final Alphabet<Integer> alphabet = Alphabets.integers(0, 2);
+        final Random random = new Random(42);
+        final CompactDFA<Integer> target = RandomAutomata.randomDFA(random, 10, alphabet);
+        final IncrementalDFADAGBuilder<Integer> builder = new IncrementalDFADAGBuilder<>(alphabet);
+
+        final Word<Integer> word = Word.fromSymbols(0, 1, 2);
+        builder.insert(word, target.accepts(word));
+        Assert.assertNull(builder.findSeparatingWord(target, alphabet, false, true));
+
+        // redirect the last transition of the inserted word to a new state with flipped acceptance
+        final int pred = target.getState(word.prefix(-1));
+        final int lastIdx = alphabet.getSymbolIndex(word.lastSymbol());
+        final int old = target.getSuccessor(pred, lastIdx);
+        final int state = target.addState(!target.isAccepting(old));
+        for (int i = 0; i < alphabet.size(); i++) {
+            target.setTransition(state, i, target.getSuccessor(old, i));
+        }
+        target.setTransition(pred, lastIdx, state);
+
+        Assert.assertEquals(builder.findSeparatingWord(target, alphabet, false, true), word);
+    }
+
+    private static Word<Integer> randomWord(Random random, Alphabet<Integer> alphabet, int length) {
+        final WordBuilder<Integer> wb = new WordBuilder<>(length);
+        for (int j = 0; j < length; j++) {
+            wb.append(random.nextInt(alphabet.size()));
+        }
+        return wb.toWord();
+    }
+
+    private static <I> void checkEquivalence(IncrementalDFADAGBuilder<I> builder,
+                                             IncrementalDFADAGBuilder<I> reference,
+                                             List<Word<I>> words) {
+        for (Word<I> w : words) {
+            for (Word<I> prefix : w.prefixes(false)) {
+                Assert.assertEquals(builder.lookup(prefix), reference.lookup(prefix));
+            }
+        }
+        Assert.assertEquals(builder.asGraph().size(), reference.asGraph().size());
+    }
+
     private void validateTraces(String pathToTraces) throws IOException {
         final ParsedTraces<Integer, Boolean> parsedData = IntegrationUtil.parseDFATraces(pathToTraces);
         final Alphabet<Integer> alphabet = parsedData.alphabet;
@@ -15,15 +15,27 @@
  */
 package net.automatalib.incremental.mealy;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
 
 import javax.swing.SwingUtilities;
 
+import net.automatalib.automata.transducers.MealyMachine;
 import net.automatalib.automata.transducers.impl.compact.CompactMealy;
 import net.automatalib.commons.util.system.JVMUtil;
 import net.automatalib.incremental.ConflictException;
+import net.automatalib.incremental.IncrementalSnapshots;
+import net.automatalib.incremental.SymbolDecoder;
+import net.automatalib.incremental.SymbolEncoder;
 import net.automatalib.ts.output.MealyTransitionSystem;
+import net.automatalib.util.automata.random.RandomAutomata;
 import net.automatalib.visualization.Visualization;
 import net.automatalib.words.Alphabet;
 import net.automatalib.words.GrowingAlphabet;
@@ -31,6 +43,7 @@ import net.automatalib.words.Word;
 import net.automatalib.words.WordBuilder;
 import net.automatalib.words.impl.Alphabets;
 import net.automatalib.words.impl.GrowingMapAlphabet;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.testng.Assert;
 import org.testng.SkipException;
 import org.testng.annotations.BeforeClass;
@@ -40,6 +53,8 @@ import org.testng.annotations.Test;
 public abstract class AbstractIncrementalMealyBuilderTest {
 
     private static final Alphabet<Character> TEST_ALPHABET = Alphabets.characters('a', 'c');
+    private static final SymbolEncoder<Character> SYMBOL_ENCODER = (out, c) -> out.writeChar(c);
+    private static final SymbolDecoder<Character> SYMBOL_DECODER = DataInput::readChar;
     private static final Word<Character> W_1 = Word.fromString("abc");
     private static final Word<Character> W_1_O = Word.fromString("xyz");
     private static final Word<Character> W_2 = Word.fromString("ac");
@@ -243,4 +258,105 @@ public abstract class AbstractIncrementalMealyBuilderTest {
         Assert.assertEquals(growableBuilder.lookup(input2), Word.fromLetter('1'));
     }
 
+    @Test
+    public void testSnapshot() throws IOException {
+        final Random random = new Random(42);
+        final IncrementalMealyBuilder<Character, Character> source = createIncrementalMealyBuilder(TEST_ALPHABET);
+        final List<Word<Character>> words = new ArrayList<>();
+
+        for (int i = 0; i < 100; i++) {
+            final Word<Character> word = randomWord(random);
+            try {
+                source.insert(word, randomWord(random, word.length()));
+            } catch (ConflictException ce) {
+                // ignore
+            }
+            words.add(word);
+        }
+
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        source.writeSnapshot(baos, SYMBOL_ENCODER, SYMBOL_ENCODER);
+
+        // append some deltas
+        for (int i = 0; i < 10; i++) {
+            final Word<Character> word = randomWord(random);
+            final Word<Character> output = source.lookup(word).concat(randomWord(random, word.length()));
+            final Word<Character> trimmed = output.prefix(word.length());
+
+            source.insert(word, trimmed);
+            IncrementalSnapshots.appendDelta(baos, SYMBOL_ENCODER, SYMBOL_ENCODER, word, trimmed);
+            words.add(word);
+        }
+
+        // simulate a crash while writing the last delta
+        final int length = baos.size();
+        final Word<Character> lost = Word.fromString("abcabcabc");
+        IncrementalSnapshots.appendDelta(baos, SYMBOL_ENCODER, SYMBOL_ENCODER, lost, lost);
+        final byte[] data = Arrays.copyOf(baos.toByteArray(), length + 5);
+
+        // restore into an initially empty alphabet
+        final IncrementalMealyBuilder<Character, Character> target =
+                createIncrementalMealyBuilder(new GrowingMapAlphabet<>());
+        target.readSnapshot(new ByteArrayInputStream(data), SYMBOL_DECODER, SYMBOL_DECODER);
+
+        for (Word<Character> w : words) {
+            Assert.assertEquals(target.hasDefinitiveInformation(w), source.hasDefinitiveInformation(w));
+            Assert.assertEquals(target.lookup(w), source.lookup(w));
+        }
+        Assert.assertFalse(target.hasDefinitiveInformation(lost));
+
+        Assert.assertThrows(IllegalStateException.class,
+                            () -> target.readSnapshot(new ByteArrayInputStream(data),
+                                                      SYMBOL_DECODER,
+                                                      SYMBOL_DECODER));
+    }
+
+    /**
+     * Checks the incremental separating word search of the given builder against a random target.
+     */
+    protected static void checkIncrementalSeparatingWord(IncrementalMealyBuilder<Character, Character> builder,
+                                                         IncrementalSearch search) {
+        final Random random = new Random(42);
+        final CompactMealy<Character, Character> target =
+                RandomAutomata.randomMealy(random, 10, TEST_ALPHABET, Arrays.asList('x', 'y'));
+
+        Assert.assertNull(search.find(target, true));
+
+        for (int i = 0; i < 100; i++) {
+            final Word<Character> word = randomWord(random);
+            builder.insert(word, target.computeOutput(word));
+            Assert.assertNull(search.find(target, true));
+        }
+
+        Word<Character> word;
+        do {
+            word = randomWord(random, 1 + random.nextInt(8));
+        } while (builder.hasDefinitiveInformation(word));
+
+        final Word<Character> output = target.computeOutput(word);
+        final char last = output.lastSymbol() == 'x' ? 'y' : 'x';
+        builder.insert(word, output.prefix(output.length() - 1).append(last));
+
+        Assert.assertEquals(search.find(target, true), word);
+        // after revealing a separating word, the incremental search falls back to a full one
+        Assert.assertEquals(search.find(target, true), search.find(target, false));
+    }
+
+    private static Word<Character> randomWord(Random random) {
+        return randomWord(random, random.nextInt(8));
+    }
+
+    private static Word<Character> randomWord(Random random, int length) {
+        final WordBuilder<Character> wb = new WordBuilder<>(length);
+        for (int i = 0; i < length; i++) {
+            wb.append(TEST_ALPHABET.getSymbol(random.nextInt(TEST_ALPHABET.size())));
+        }
+        return wb.toWord();
+    }
+
+    @FunctionalInterface
+    protected interface IncrementalSearch {
+
+        @Nullable Word<Character> find(MealyMachine<?, Character, ?, Character> target, boolean incremental);
+    }
 }
@@ -0,0 +1,86 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.incremental.mealy;
+
+import java.util.concurrent.TimeUnit;
+
+import net.automatalib.incremental.CacheStatistics;
+import net.automatalib.incremental.EvictionPolicy;
+import net.automatalib.incremental.mealy.tree.BoundedIncrementalMealyTreeBuilder;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.Word;
+import net.automatalib.words.impl.Alphabets;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * @author frohme
+ */
+@Test
+public class BoundedIncrementalMealyTreeBuilderTest extends AbstractIncrementalMealyBuilderTest {
+
+    private static final Alphabet<Character> ALPHABET = Alphabets.characters('a', 'c');
+    private static final Word<Character> W_A = Word.fromString("aaaa");
+    private static final Word<Character> W_B = Word.fromString("bbbb");
+    private static final Word<Character> W_C = Word.fromString("cc");
+
+    @Override
+    protected <I, O> IncrementalMealyBuilder<I, O> createIncrementalMealyBuilder(Alphabet<I> alphabet) {
+        return new BoundedIncrementalMealyTreeBuilder<>(alphabet, Integer.MAX_VALUE, EvictionPolicy.LRU);
+    }
+
+    @Test
+    public void testEviction() {
+        final BoundedIncrementalMealyTreeBuilder<Character, Character> builder =
+                new BoundedIncrementalMealyTreeBuilder<>(ALPHABET, 10, EvictionPolicy.LRU);
+
+        builder.pin(W_B);
+        builder.insert(W_A, W_A);
+        builder.insert(W_B, W_B);
+        builder.insert(Word.fromString("a"), Word.fromString("a"));
+        Assert.assertEquals(builder.getSize(), 9);
+
+        // exceeds the capacity and evicts the least recently used, unpinned subtree
+        builder.insert(W_C, W_C);
+        Assert.assertEquals(builder.getSize(), 8);
+        Assert.assertEquals(builder.lookup(W_A), Word.fromString("a"));
+        Assert.assertEquals(builder.lookup(W_B), W_B);
+        Assert.assertEquals(builder.lookup(W_C), W_C);
+
+        final CacheStatistics statistics = builder.getStatistics();
+        Assert.assertEquals(statistics.getHits(), 2);
+        Assert.assertEquals(statistics.getMisses(), 1);
+        Assert.assertEquals(statistics.getEvictions(), 3);
+    }
+
+    @Test
+    public void testTTL() {
+        final long[] time = {0};
+        final BoundedIncrementalMealyTreeBuilder<Character, Character> builder =
+                new BoundedIncrementalMealyTreeBuilder<>(ALPHABET, 100, 10, TimeUnit.NANOSECONDS, () -> time[0]);
+
+        builder.insert(W_A, W_A);
+        time[0] = 5;
+        builder.insert(W_B, W_B);
+
+        time[0] = 12;
+        builder.evict();
+
+        Assert.assertEquals(builder.getSize(), 5);
+        Assert.assertFalse(builder.hasDefinitiveInformation(W_A));
+        Assert.assertTrue(builder.hasDefinitiveInformation(W_B));
+    }
+}
@@ -0,0 +1,79 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.incremental.mealy;
+
+import java.util.Random;
+
+import net.automatalib.incremental.ConflictException;
+import net.automatalib.incremental.mealy.dag.CompactIncrementalMealyDAGBuilder;
+import net.automatalib.incremental.mealy.dag.IncrementalMealyDAGBuilder;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.Word;
+import net.automatalib.words.WordBuilder;
+import net.automatalib.words.impl.Alphabets;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * @author frohme
+ */
+@Test
+public class CompactIncrementalMealyDAGBuilderTest extends IncrementalMealyDAGBuilderTest {
+
+    @Override
+    protected <I, O> IncrementalMealyBuilder<I, O> createIncrementalMealyBuilder(Alphabet<I> alphabet) {
+        return new CompactIncrementalMealyDAGBuilder<>(alphabet);
+    }
+
+    @Test
+    public void testMinimality() {
+        final Alphabet<Integer> alphabet = Alphabets.integers(0, 3);
+        final Random random = new Random(42);
+
+        final CompactIncrementalMealyDAGBuilder<Integer, Integer> compact =
+                new CompactIncrementalMealyDAGBuilder<>(alphabet);
+        final IncrementalMealyDAGBuilder<Integer, Integer> reference = new IncrementalMealyDAGBuilder<>(alphabet);
+
+        for (int i = 0; i < 2000; i++) {
+            final int length = random.nextInt(12);
+            final WordBuilder<Integer> input = new WordBuilder<>(length);
+            final WordBuilder<Integer> output = new WordBuilder<>(length);
+            for (int j = 0; j < length; j++) {
+                input.append(random.nextInt(alphabet.size()));
+                output.append(random.nextInt(2));
+            }
+            final Word<Integer> inputWord = input.toWord();
+            final Word<Integer> outputWord = output.toWord();
+
+            boolean conflict = false;
+            try {
+                reference.insert(inputWord, outputWord);
+            } catch (ConflictException ce) {
+                conflict = true;
+            }
+
+            if (conflict) {
+                Assert.assertThrows(ConflictException.class, () -> compact.insert(inputWord, outputWord));
+            } else {
+                compact.insert(inputWord, outputWord);
+            }
+
+            Assert.assertEquals(compact.lookup(inputWord), reference.lookup(inputWord));
+        }
+
+        Assert.assertEquals(compact.asGraph().size(), reference.asGraph().size());
+    }
+}
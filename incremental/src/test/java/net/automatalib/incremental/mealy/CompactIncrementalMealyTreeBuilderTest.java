@@ -0,0 +1,141 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.incremental.mealy;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import net.automatalib.incremental.mealy.tree.CompactIncrementalMealyTreeBuilder;
+import net.automatalib.incremental.mealy.tree.IncrementalMealyTreeBuilder;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.GrowingAlphabet;
+import net.automatalib.words.Word;
+import net.automatalib.words.WordBuilder;
+import net.automatalib.words.impl.Alphabets;
+import net.automatalib.words.impl.GrowingMapAlphabet;
+import net.automatalib.words.impl.ListAlphabet;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * @author frohme
+ */
+@Test
+public class CompactIncrementalMealyTreeBuilderTest extends AbstractIncrementalMealyBuilderTest {
+
+    @Override
+    protected <I, O> IncrementalMealyBuilder<I, O> createIncrementalMealyBuilder(Alphabet<I> alphabet) {
+        return new CompactIncrementalMealyTreeBuilder<>(alphabet);
+    }
+
+    @Test
+    public void testIncrementalSeparatingWord() {
+        final Alphabet<Character> alphabet = Alphabets.characters('a', 'c');
+        final CompactIncrementalMealyTreeBuilder<Character, Character> builder =
+                new CompactIncrementalMealyTreeBuilder<>(alphabet);
+        checkIncrementalSeparatingWord(builder,
+                                       (target, incremental) -> builder.findSeparatingWord(target,
+                                                                                           alphabet,
+                                                                                           false,
+                                                                                           incremental));
+    }
+
+    @Test
+    public void testLargeTree() {
+        final Random random = new Random(42);
+        final GrowingAlphabet<Integer> alphabet1 = new GrowingMapAlphabet<>();
+        final GrowingAlphabet<Integer> alphabet2 = new GrowingMapAlphabet<>();
+
+        for (int i = 0; i < 3; i++) {
+            alphabet1.addSymbol(i);
+            alphabet2.addSymbol(i);
+        }
+
+        final IncrementalMealyBuilder<Integer, Integer> reference = new IncrementalMealyTreeBuilder<>(alphabet1);
+        final IncrementalMealyBuilder<Integer, Integer> compact = new CompactIncrementalMealyTreeBuilder<>(alphabet2);
+
+        // enough nodes to span multiple pages
+        final List<Word<Integer>> words = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            final Word<Integer> input = randomWord(random, 3, 12);
+            final Word<Integer> output = reference.lookup(input).concat(randomWord(random, 5, input.length()));
+            final Word<Integer> trimmed = output.prefix(input.length());
+
+            reference.insert(input, trimmed);
+            compact.insert(input, trimmed);
+            words.add(input);
+        }
+
+        // grow the alphabet after the tree has been constructed and extend the existing words
+        reference.addAlphabetSymbol(3);
+        compact.addAlphabetSymbol(3);
+
+        for (int i = 0; i < 500; i++) {
+            final Word<Integer> input = words.get(i).concat(randomWord(random, 4, 3));
+            final Word<Integer> output = reference.lookup(input).concat(randomWord(random, 5, input.length()));
+            final Word<Integer> trimmed = output.prefix(input.length());
+
+            reference.insert(input, trimmed);
+            compact.insert(input, trimmed);
+            words.set(i, input);
+        }
+
+        for (Word<Integer> w : words) {
+            Assert.assertTrue(compact.hasDefinitiveInformation(w));
+            Assert.assertEquals(compact.lookup(w), reference.lookup(w));
+        }
+
+        Assert.assertEquals(compact.asGraph().size(), reference.asGraph().size());
+    }
+
+    @Test
+    public void testInvalidSymbolIndices() {
+        // an alphabet that reports unknown symbols by out-of-range indices instead of throwing an exception
+        final Alphabet<Integer> alphabet = new ListAlphabet<Integer>(Arrays.asList(0, 1)) {
+
+            @Override
+            public int getSymbolIndex(Integer symbol) {
+                return symbol;
+            }
+        };
+        final IncrementalMealyBuilder<Integer, Integer> builder = new CompactIncrementalMealyTreeBuilder<>(alphabet);
+
+        builder.insert(Word.fromSymbols(0, 1, 0), Word.fromSymbols(1, 2, 3));
+        builder.insert(Word.fromSymbols(1, 1), Word.fromSymbols(4, 5));
+
+        Assert.assertThrows(IllegalArgumentException.class, () -> builder.lookup(Word.fromSymbols(0, -1)));
+        Assert.assertThrows(IllegalArgumentException.class, () -> builder.lookup(Word.fromSymbols(0, 2)));
+        Assert.assertThrows(IllegalArgumentException.class,
+                            () -> builder.hasDefinitiveInformation(Word.fromSymbols(-1)));
+        Assert.assertThrows(IllegalArgumentException.class,
+                            () -> builder.insert(Word.fromSymbols(1, -1), Word.fromSymbols(4, 6)));
+
+        // rejected insertions leave the tree unchanged
+        Assert.assertEquals(builder.lookup(Word.fromSymbols(0, 1, 0)), Word.fromSymbols(1, 2, 3));
+        Assert.assertEquals(builder.lookup(Word.fromSymbols(1, 1)), Word.fromSymbols(4, 5));
+        Assert.assertEquals(builder.asGraph().size(), 6);
+    }
+
+    private static Word<Integer> randomWord(Random random, int numSymbols, int length) {
+        final WordBuilder<Integer> wb = new WordBuilder<>(length);
+        for (int i = 0; i < length; i++) {
+            wb.append(random.nextInt(numSymbols));
+        }
+        return wb.toWord();
+    }
+}
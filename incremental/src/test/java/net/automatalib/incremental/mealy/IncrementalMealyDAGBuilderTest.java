@@ -24,6 +24,7 @@ import net.automatalib.incremental.IntegrationUtil.ParsedTraces;
 import net.automatalib.incremental.mealy.dag.IncrementalMealyDAGBuilder;
 import net.automatalib.words.Alphabet;
 import net.automatalib.words.Word;
+import net.automatalib.words.impl.Alphabets;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
@@ -52,6 +53,17 @@ public class IncrementalMealyDAGBuilderTest extends AbstractIncrementalMealyBuil
         validateTraces("/learnlib76/mealy.gz");
     }
 
+    @Test
+    public void testIncrementalSeparatingWord() {
+        final Alphabet<Character> alphabet = Alphabets.characters('a', 'c');
+        final IncrementalMealyDAGBuilder<Character, Character> builder = new IncrementalMealyDAGBuilder<>(alphabet);
+        checkIncrementalSeparatingWord(builder,
+                                       (target, incremental) -> builder.findSeparatingWord(target,
+                                                                                           alphabet,
+                                                                                           false,
+                                                                                           incremental));
+    }
+
     private void validateTraces(String pathToTraces) throws IOException {
         final ParsedTraces<Integer, Word<Integer>> parsedData = IntegrationUtil.parseMealyTraces(pathToTraces);
         final Alphabet<Integer> alphabet = parsedData.alphabet;
@@ -17,6 +17,7 @@ package net.automatalib.incremental.mealy;
 
 import net.automatalib.incremental.mealy.tree.IncrementalMealyTreeBuilder;
 import net.automatalib.words.Alphabet;
+import net.automatalib.words.impl.Alphabets;
 import org.testng.annotations.Test;
 
 @Test
@@ -26,4 +27,15 @@ public class IncrementalMealyTreeBuilderTest extends AbstractIncrementalMealyBui
     protected <I, O> IncrementalMealyBuilder<I, O> createIncrementalMealyBuilder(Alphabet<I> alphabet) {
         return new IncrementalMealyTreeBuilder<>(alphabet);
     }
+
+    @Test
+    public void testIncrementalSeparatingWord() {
+        final Alphabet<Character> alphabet = Alphabets.characters('a', 'c');
+        final IncrementalMealyTreeBuilder<Character, Character> builder = new IncrementalMealyTreeBuilder<>(alphabet);
+        checkIncrementalSeparatingWord(builder,
+                                       (target, incremental) -> builder.findSeparatingWord(target,
+                                                                                           alphabet,
+                                                                                           false,
+                                                                                           incremental));
+    }
 }
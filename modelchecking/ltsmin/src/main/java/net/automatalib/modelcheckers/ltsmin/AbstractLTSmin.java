@@ -17,18 +17,33 @@ package net.automatalib.modelcheckers.ltsmin;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
 import java.util.function.Function;
 
 import com.google.common.collect.Lists;
 import net.automatalib.AutomataLibSettings;
+import net.automatalib.automata.simple.SimpleAutomaton;
+import net.automatalib.commons.util.Pair;
+import net.automatalib.commons.util.process.NamedPipe;
 import net.automatalib.commons.util.process.ProcessUtil;
 import net.automatalib.exception.ModelCheckingException;
 import net.automatalib.modelchecking.ModelChecker;
 import net.automatalib.serialization.etf.writer.AbstractETFWriter;
 import net.automatalib.serialization.fsm.parser.AbstractFSMParser;
+import net.automatalib.serialization.fsm.parser.FSMFormatException;
 import org.checkerframework.checker.initialization.qual.UnknownInitialization;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.slf4j.Logger;
@@ -48,6 +63,20 @@ import org.slf4j.LoggerFactory;
  * will write an LTS in GCF format. This LTS will be a subset of the language of the given hypothesis. Next, the GCF is
  * converted to FSM using the ltsmin-convert binary. Lastly, the FSM is read back into an automaton using an {@link
  * AbstractFSMParser}.
+ * <p>
+ * When checking multiple properties at once (see {@link #findCounterExamples(Object, Collection, Collection)}), the
+ * hypothesis is only written once and the individual properties are checked concurrently by (at most) {@link
+ * #getBatchThreads()} LTSmin processes. Once {@link #getMaxCounterExamples()} counterexamples have been found, the
+ * remaining checks are cancelled.
+ * <p>
+ * If enabled via {@link LTSminUtil#setUsePipes(boolean)}, the ETF and FSM files are not written to disk but exchanged
+ * with the LTSmin binaries via (re-used) {@link NamedPipe named pipes}. Only the GCF, which LTSmin needs to access
+ * randomly, remains a temporary file. When checking multiple properties at once, the ETF is still written to a single
+ * temporary file that is shared by all LTSmin processes.
+ * <p>
+ * All LTSmin processes are run by a shared process pool whose size is bounded by {@link
+ * LTSminUtil#getMaxProcesses()}. Each process uses {@link LTSminUtil#computeThreads(int)} many threads, which (unless
+ * configured otherwise) depends on the size of the hypothesis and the number of concurrently running processes.
  *
  * @param <I>
  *         the input type.
@@ -66,6 +95,9 @@ public abstract class AbstractLTSmin<I, A, R> implements ModelChecker<I, A, Stri
 
     private static final Logger LOGGER = LoggerFactory.getLogger(AbstractLTSmin.class);
 
+    private static final String CONVERT_ERROR =
+            "Could not convert GCF to FSM. Enable debug logging to see LTSmin's debug information.";
+
     /**
      * @see #isKeepFiles()
      */
@@ -76,6 +108,28 @@ public abstract class AbstractLTSmin<I, A, R> implements ModelChecker<I, A, Stri
      */
     private final Function<String, I> string2Input;
 
+    /**
+     * @see #getBatchThreads()
+     * @see #setBatchThreads(int)
+     */
+    private int batchThreads = LTSminUtil.getMaxProcesses();
+
+    /**
+     * @see #getMaxCounterExamples()
+     * @see #setMaxCounterExamples(int)
+     */
+    private int maxCounterExamples = Integer.MAX_VALUE;
+
+    /**
+     * Idle named pipes for transmitting ETF files, see {@link LTSminUtil#isUsePipes()}.
+     */
+    private final Queue<NamedPipe> etfPipes = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Idle named pipes for transmitting FSM files, see {@link LTSminUtil#isUsePipes()}.
+     */
+    private final Queue<NamedPipe> fsmPipes = new ConcurrentLinkedQueue<>();
+
     /**
      * Constructs a new AbstractLTSmin.
      *
@@ -93,7 +147,7 @@ public abstract class AbstractLTSmin<I, A, R> implements ModelChecker<I, A, Stri
         this.keepFiles = keepFiles;
         this.string2Input = string2Input;
 
-        if (!LTSminUtil.supports(getMinimumRequiredVersion())) {
+        if (!isSupportedInstallation()) {
             throw new ModelCheckingException("LTSmin binary could not be detected in the correct version");
         }
     }
@@ -105,6 +159,16 @@ public abstract class AbstractLTSmin<I, A, R> implements ModelChecker<I, A, Stri
      */
     protected abstract LTSminVersion getMinimumRequiredVersion(@UnknownInitialization(AbstractLTSmin.class) AbstractLTSmin<I, A, R> this);
 
+    /**
+     * Checks whether the detected LTSmin installation satisfies {@link #getMinimumRequiredVersion()}. Tests may
+     * override this method in order to run without an LTSmin installation.
+     *
+     * @return {@code true} if the LTSmin installation can be used, {@code false} otherwise.
+     */
+    boolean isSupportedInstallation(@UnknownInitialization(AbstractLTSmin.class) AbstractLTSmin<I, A, R> this) {
+        return LTSminUtil.supports(getMinimumRequiredVersion());
+    }
+
     /**
      * Returns the extra command line options that should be given to the etf2lts-mc binary.
      *
@@ -125,6 +189,26 @@ public abstract class AbstractLTSmin<I, A, R> implements ModelChecker<I, A, Stri
      */
     protected abstract void verifyFormula(String formula);
 
+    /**
+     * Converts the FSM file computed by LTSmin to the actual counterexample.
+     *
+     * @param fsm
+     *         the file containing the FSM representation of the counterexample
+     * @param hypothesis
+     *         the hypothesis that has been checked
+     * @param inputs
+     *         the inputs which have been regarded for checking
+     *
+     * @return the counterexample
+     *
+     * @throws IOException
+     *         if the {@code fsm} could not be read
+     * @throws FSMFormatException
+     *         if the {@code fsm} is not a valid FSM
+     */
+    protected abstract R fsm2CounterExample(File fsm, A hypothesis, Collection<? extends I> inputs)
+            throws IOException;
+
     @Override
     public boolean isKeepFiles() {
         return keepFiles;
@@ -135,6 +219,221 @@ public abstract class AbstractLTSmin<I, A, R> implements ModelChecker<I, A, Stri
         return string2Input;
     }
 
+    /**
+     * Returns the maximum number of LTSmin processes that are run concurrently when checking multiple properties.
+     *
+     * @return the maximum number of concurrent LTSmin processes.
+     *
+     * @see #findCounterExamples(Object, Collection, Collection)
+     */
+    public int getBatchThreads() {
+        return batchThreads;
+    }
+
+    /**
+     * Sets the maximum number of LTSmin processes that are run concurrently when checking multiple properties.
+     *
+     * @param batchThreads
+     *         the maximum number of concurrent LTSmin processes.
+     *
+     * @throws IllegalArgumentException
+     *         when {@code batchThreads < 1}.
+     */
+    public void setBatchThreads(int batchThreads) {
+        if (batchThreads < 1) {
+            throw new IllegalArgumentException("must use at least one thread");
+        }
+        this.batchThreads = batchThreads;
+    }
+
+    /**
+     * Returns the number of counterexamples after which the remaining checks of a batch are cancelled.
+     *
+     * @return the maximum number of counterexamples.
+     *
+     * @see #findCounterExamples(Object, Collection, Collection)
+     */
+    public int getMaxCounterExamples() {
+        return maxCounterExamples;
+    }
+
+    /**
+     * Sets the number of counterexamples after which the remaining checks of a batch are cancelled.
+     *
+     * @param maxCounterExamples
+     *         the maximum number of counterexamples.
+     *
+     * @throws IllegalArgumentException
+     *         when {@code maxCounterExamples < 1}.
+     */
+    public void setMaxCounterExamples(int maxCounterExamples) {
+        if (maxCounterExamples < 1) {
+            throw new IllegalArgumentException("must look for at least one counterexample");
+        }
+        this.maxCounterExamples = maxCounterExamples;
+    }
+
+    /**
+     * Checks the given {@code property} on the given {@code hypothesis}. The LTSmin processes are run by the shared
+     * (bounded) process pool of the {@link LTSminUtil}, hence this method may block until a running check has
+     * finished.
+     *
+     * @see LTSminUtil#getMaxProcesses()
+     */
+    @Override
+    public @Nullable R findCounterExample(A hypothesis, Collection<? extends I> inputs, String property) {
+        final Future<@Nullable R> future =
+                LTSminUtil.getProcessPool().submit(() -> checkProperty(hypothesis, inputs, property));
+
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new ModelCheckingException(e);
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        }
+    }
+
+    private @Nullable R checkProperty(A hypothesis, Collection<? extends I> inputs, String property) {
+        if (!isUsePipes()) {
+            final File fsm = findCounterExampleFSM(hypothesis, inputs, property);
+            return fsm == null ? null : readCounterExample(fsm, hypothesis, inputs);
+        }
+
+        verifyFormulaOrThrow(property);
+
+        final NamedPipe etf = acquirePipe(etfPipes, ".etf");
+        final File gcf = createTempFile("etf2gcf", ".gcf");
+        boolean recycle = false;
+
+        try {
+            final Future<?> writer = etf.writeAsync(f -> automaton2ETF(hypothesis, inputs, f));
+            final int ltsminExitValue;
+
+            try {
+                ltsminExitValue = runETF2LTS(etf.getFile(), property, gcf, computeThreads(hypothesis));
+            } catch (ModelCheckingException mce) {
+                abandonPipe(etf, writer);
+                throw mce;
+            }
+
+            try {
+                etf.await(writer);
+            } catch (IOException ioe) {
+                // if LTSmin failed, a broken pipe is only a symptom which is reported below
+                if (ltsminExitValue == 0 || ltsminExitValue == 1) {
+                    throw new ModelCheckingException(ioe);
+                }
+            }
+
+            recycle = true;
+            return hasCounterExample(ltsminExitValue) ? readCounterExampleFromPipe(gcf, hypothesis, inputs) : null;
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new ModelCheckingException(ie);
+        } finally {
+            releasePipe(etfPipes, etf, recycle);
+            if (!gcf.delete()) {
+                LOGGER.warn("Could not delete file: " + gcf.getAbsolutePath());
+            }
+        }
+    }
+
+    /**
+     * Checks all given {@code properties} on the given {@code hypothesis}. The hypothesis is written to an ETF file
+     * only once, which is then shared by the concurrently running LTSmin processes. The LTSmin processes are run by the
+     * shared (bounded) process pool of the {@link LTSminUtil}.
+     *
+     * @see #getBatchThreads()
+     * @see #getMaxCounterExamples()
+     * @see LTSminUtil#getMaxProcesses()
+     */
+    @Override
+    public Map<String, @Nullable R> findCounterExamples(A hypothesis,
+                                                        Collection<? extends I> inputs,
+                                                        Collection<? extends String> properties) {
+
+        if (properties.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        for (String formula : properties) {
+            verifyFormulaOrThrow(formula);
+        }
+
+        final File etf = writeETF(hypothesis, inputs);
+        final int size = getHypothesisSize(hypothesis);
+        final CompletionService<Pair<String, @Nullable R>> completionService =
+                new ExecutorCompletionService<>(LTSminUtil.getProcessPool());
+        final List<Future<?>> futures = new ArrayList<>(properties.size());
+
+        try {
+            final Iterator<? extends String> formulaIter = properties.iterator();
+
+            // only keep batchThreads many checks in flight, so that other model checkers may use the pool as well
+            while (futures.size() < batchThreads && formulaIter.hasNext()) {
+                futures.add(submitCheck(completionService, etf, formulaIter.next(), size, hypothesis, inputs));
+            }
+
+            final Map<String, @Nullable R> results = new HashMap<>();
+            int counterExamples = 0;
+
+            for (int i = 0; i < futures.size() && counterExamples < maxCounterExamples; i++) {
+                final Pair<String, @Nullable R> result = completionService.take().get();
+                results.put(result.getFirst(), result.getSecond());
+                if (result.getSecond() != null) {
+                    counterExamples++;
+                }
+                if (formulaIter.hasNext()) {
+                    futures.add(submitCheck(completionService, etf, formulaIter.next(), size, hypothesis, inputs));
+                }
+            }
+
+            // report the results in the order of the given properties
+            final Map<String, @Nullable R> orderedResults = new LinkedHashMap<>();
+            for (String formula : properties) {
+                if (results.containsKey(formula)) {
+                    orderedResults.put(formula, results.get(formula));
+                }
+            }
+
+            return orderedResults;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ModelCheckingException(e);
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        } finally {
+            for (Future<?> f : futures) {
+                f.cancel(true);
+            }
+            if (!keepFiles && !etf.delete()) {
+                LOGGER.warn("Could not delete file: " + etf.getAbsolutePath());
+            }
+        }
+    }
+
+    private Future<Pair<String, @Nullable R>> submitCheck(CompletionService<Pair<String, @Nullable R>> completionService,
+                                                          File etf,
+                                                          String formula,
+                                                          int size,
+                                                          A hypothesis,
+                                                          Collection<? extends I> inputs) {
+        return completionService.submit(() -> {
+            final int threads = LTSminUtil.computeThreads(size);
+            final R ce;
+            if (isUsePipes()) {
+                ce = findCounterExampleWithPipe(etf, formula, threads, hypothesis, inputs);
+            } else {
+                final File fsm = findCounterExampleFSM(etf, formula, threads);
+                ce = fsm == null ? null : readCounterExample(fsm, hypothesis, inputs);
+            }
+            return Pair.of(formula, ce);
+        });
+    }
+
     /**
      * Finds a counterexample for the given {@code formula}, and given {@code hypothesis} in FSM format.
      *
@@ -152,42 +451,189 @@ public abstract class AbstractLTSmin<I, A, R> implements ModelChecker<I, A, Stri
      */
     protected final @Nullable File findCounterExampleFSM(A hypothesis, Collection<? extends I> inputs, String formula) {
 
+        verifyFormulaOrThrow(formula);
+
+        final File etf = writeETF(hypothesis, inputs);
+
+        try {
+            return findCounterExampleFSM(etf, formula, computeThreads(hypothesis));
+        } finally {
+            if (!keepFiles && !etf.delete()) {
+                LOGGER.warn("Could not delete file: " + etf.getAbsolutePath());
+            }
+        }
+    }
+
+    private void verifyFormulaOrThrow(String formula) {
         try {
             verifyFormula(formula);
         } catch (IllegalArgumentException iae) {
             throw new ModelCheckingException(iae);
         }
+    }
 
-        final File etf;
-
+    /**
+     * Writes the given {@code hypothesis} to a temporary ETF file.
+     *
+     * @param hypothesis
+     *         the hypothesis to write
+     * @param inputs
+     *         the inputs which should be regarded for checking
+     *
+     * @return the written ETF file
+     */
+    private File writeETF(A hypothesis, Collection<? extends I> inputs) {
         try {
             // create the ETF that will contain the LTS of the hypothesis
-            etf = File.createTempFile("automaton2etf", ".etf");
+            final File etf = File.createTempFile("automaton2etf", ".etf");
 
             try {
                 // write to the ETF file
                 automaton2ETF(hypothesis, inputs, etf);
-            } catch (ModelCheckingException mce) {
+            } catch (ModelCheckingException | IOException e) {
                 if (!keepFiles && !etf.delete()) {
                     LOGGER.warn("Could not delete file: " + etf.getAbsolutePath());
                 }
-                throw mce;
+                throw e;
             }
+
+            return etf;
         } catch (IOException ioe) {
             throw new ModelCheckingException(ioe);
         }
+    }
+
+    /**
+     * Reads the counterexample from the given {@code fsm} and deletes the file afterwards (unless files should be
+     * kept).
+     */
+    private R readCounterExample(File fsm, A hypothesis, Collection<? extends I> inputs) {
+        try {
+            return fsm2CounterExample(fsm, hypothesis, inputs);
+        } catch (IOException | FSMFormatException e) {
+            throw new ModelCheckingException(e);
+        } finally {
+            // check if we must keep the FSM
+            if (!keepFiles && !fsm.delete()) {
+                LOGGER.warn("Could not delete file: " + fsm.getAbsolutePath());
+            }
+        }
+    }
+
+    /**
+     * Finds a counterexample for the given {@code formula} on the hypothesis that has been written to the given
+     * {@code etf} file. The {@code etf} file is not deleted by this method.
+     *
+     * @param etf
+     *         the ETF file containing the hypothesis
+     * @param formula
+     *         the (already verified) formula that should be checked
+     * @param threads
+     *         the number of threads LTSmin should use
+     *
+     * @return a file containing the FSM representation for the found counterexample, or {@code null} if no such
+     * counterexample could be found.
+     */
+    private @Nullable File findCounterExampleFSM(File etf, String formula, int threads) {
 
-        final File gcf;
+        // create the GCF that will possibly contain the counterexample
+        final File gcf = createTempFile("etf2gcf", ".gcf");
 
         try {
-            // create the GCF that will possibly contain the counterexample
-            gcf = File.createTempFile("etf2gcf", ".gcf");
-        } catch (IOException ioe) {
-            if (!keepFiles && !etf.delete()) {
-                LOGGER.warn("Could not delete file: " + etf.getAbsolutePath());
+            if (!hasCounterExample(runETF2LTS(etf, formula, gcf, threads))) {
+                return null;
+            }
+
+            // create a file for the FSM
+            final File fsm = createTempFile("gcf2fsm", ".fsm");
+            final int convertExitValue = invokeLTSmin(buildConvertCommandLine(gcf, fsm));
+
+            // check the conversion is successful
+            if (convertExitValue != 0) {
+                throw new ModelCheckingException(CONVERT_ERROR);
+            }
+
+            return fsm;
+        } finally {
+            if (!keepFiles && !gcf.delete()) {
+                LOGGER.warn("Could not delete file: " + gcf.getAbsolutePath());
             }
-            throw new ModelCheckingException(ioe);
         }
+    }
+
+    /**
+     * Finds a counterexample for the given {@code formula} on the hypothesis that has been written to the given
+     * {@code etf} file and reads it back via a named pipe. The {@code etf} file is not deleted by this method.
+     */
+    private @Nullable R findCounterExampleWithPipe(File etf,
+                                                   String formula,
+                                                   int threads,
+                                                   A hypothesis,
+                                                   Collection<? extends I> inputs) {
+
+        final File gcf = createTempFile("etf2gcf", ".gcf");
+
+        try {
+            return hasCounterExample(runETF2LTS(etf, formula, gcf, threads)) ?
+                    readCounterExampleFromPipe(gcf, hypothesis, inputs) :
+                    null;
+        } finally {
+            if (!gcf.delete()) {
+                LOGGER.warn("Could not delete file: " + gcf.getAbsolutePath());
+            }
+        }
+    }
+
+    /**
+     * Converts the given {@code gcf} to FSM and reads the counterexample directly from the output of ltsmin-convert
+     * via a named pipe.
+     */
+    private R readCounterExampleFromPipe(File gcf, A hypothesis, Collection<? extends I> inputs) {
+
+        final NamedPipe fsm = acquirePipe(fsmPipes, ".fsm");
+        boolean recycle = false;
+
+        try {
+            final Future<R> reader = fsm.readAsync(f -> fsm2CounterExample(f, hypothesis, inputs));
+            final int convertExitValue;
+
+            try {
+                convertExitValue = invokeLTSmin(buildConvertCommandLine(gcf, fsm.getFile()));
+            } catch (ModelCheckingException mce) {
+                abandonPipe(fsm, reader);
+                throw mce;
+            }
+
+            final R result;
+
+            try {
+                result = fsm.await(reader);
+            } catch (IOException | FSMFormatException e) {
+                // if the conversion failed, the broken FSM is only a symptom
+                throw convertExitValue == 0 ? new ModelCheckingException(e) : new ModelCheckingException(CONVERT_ERROR);
+            }
+
+            if (convertExitValue != 0) {
+                throw new ModelCheckingException(CONVERT_ERROR);
+            }
+
+            recycle = true;
+            return result;
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new ModelCheckingException(ie);
+        } finally {
+            releasePipe(fsmPipes, fsm, recycle);
+        }
+    }
+
+    /**
+     * Runs the etf2lts-mc binary on the given {@code etf} for the given {@code formula} with the given number of {@code
+     * threads}, writing a possible trace to the given {@code gcf}.
+     *
+     * @return the exit value of the etf2lts-mc binary
+     */
+    private int runETF2LTS(File etf, String formula, File gcf, int threads) {
 
         // the command lines for the ProcessBuilder
         final List<String> ltsminCommandLine = Lists.newArrayList(// add the etf2lts-mc binary
@@ -198,8 +644,8 @@ public abstract class AbstractLTSmin<I, A, R> implements ModelChecker<I, A, Stri
                                                                   "--ltl=" + formula,
                                                                   // write the trace to this file
                                                                   "--trace=" + gcf.getAbsolutePath(),
-                                                                  // use only one thread (hypotheses are always small)
-                                                                  "--threads=1",
+                                                                  // use the given number of threads
+                                                                  "--threads=" + threads,
                                                                   // use LTSmin LTL semantics
                                                                   "--ltl-semantics=ltsmin",
                                                                   // do not abort on partial LTSs
@@ -211,59 +657,123 @@ public abstract class AbstractLTSmin<I, A, R> implements ModelChecker<I, A, Stri
 
         ltsminCommandLine.addAll(getExtraCommandLineOptions());
 
-        try {
-            final int ltsminExitValue = runCommandLine(ltsminCommandLine);
+        return invokeLTSmin(ltsminCommandLine);
+    }
 
-            if (ltsminExitValue == 0) {
-                // we have not found a counterexample
-                return null;
-            } else if (ltsminExitValue == 1) {
-                // we have found a counterexample
-
-                // create a file for the FSM
-                final File fsm;
-                try {
-                    fsm = File.createTempFile("gcf2fsm", ".fsm");
-                } catch (IOException ioe) {
-                    throw new ModelCheckingException(ioe);
-                }
+    /**
+     * Interprets the exit value of the etf2lts-mc binary.
+     *
+     * @return {@code true} if a counterexample has been found, {@code false} if no counterexample has been found
+     *
+     * @throws ModelCheckingException
+     *         if the model checking failed
+     */
+    private static boolean hasCounterExample(int ltsminExitValue) {
+        if (ltsminExitValue == 0) {
+            // we have not found a counterexample
+            return false;
+        } else if (ltsminExitValue == 1) {
+            // we have found a counterexample
+            return true;
+        } else {
+            throw new ModelCheckingException(
+                    "Could not model check ETF. Enable debug logging to see LTSmin's debug information.");
+        }
+    }
 
-                final List<String> convertCommandLine = Lists.newArrayList(// add the ltsmin-convert binary
-                                                                           LTSminUtil.LTSMIN_CONVERT,
-                                                                           // use the GCF as input
-                                                                           gcf.getAbsolutePath(),
-                                                                           // use the FSM as output
-                                                                           fsm.getAbsolutePath(),
-                                                                           // required option
-                                                                           "--rdwr");
-
-                if (LTSminUtil.isVerbose()) {
-                    convertCommandLine.add("-v");
-                }
+    private static List<String> buildConvertCommandLine(File gcf, File fsm) {
+        final List<String> convertCommandLine = Lists.newArrayList(// add the ltsmin-convert binary
+                                                                   LTSminUtil.LTSMIN_CONVERT,
+                                                                   // use the GCF as input
+                                                                   gcf.getAbsolutePath(),
+                                                                   // use the FSM as output
+                                                                   fsm.getAbsolutePath(),
+                                                                   // required option
+                                                                   "--rdwr");
 
-                final int convertExitValue = runCommandLine(convertCommandLine);
+        if (LTSminUtil.isVerbose()) {
+            convertCommandLine.add("-v");
+        }
 
-                // check the conversion is successful
-                if (convertExitValue != 0) {
-                    throw new ModelCheckingException(
-                            "Could not convert GCF to FSM. Enable debug logging to see LTSmin's debug information.");
-                }
+        return convertCommandLine;
+    }
 
-                return fsm;
-            } else {
-                throw new ModelCheckingException(
-                        "Could not model check ETF. Enable debug logging to see LTSmin's debug information.");
-            }
-        } finally {
-            if (!keepFiles) {
-                if (!etf.delete()) {
-                    LOGGER.warn("Could not delete file: " + etf.getAbsolutePath());
-                }
-                if (!gcf.delete()) {
-                    LOGGER.warn("Could not delete file: " + gcf.getAbsolutePath());
-                }
-            }
+    private static int computeThreads(Object hypothesis) {
+        return LTSminUtil.computeThreads(getHypothesisSize(hypothesis));
+    }
+
+    private static int getHypothesisSize(Object hypothesis) {
+        return hypothesis instanceof SimpleAutomaton ? ((SimpleAutomaton<?, ?>) hypothesis).size() : 0;
+    }
+
+    private static RuntimeException unwrap(ExecutionException e) {
+        final Throwable cause = e.getCause();
+        if (cause instanceof RuntimeException) {
+            return (RuntimeException) cause;
         }
+        return new ModelCheckingException(e);
+    }
+
+    private boolean isUsePipes() {
+        // kept files need to be actual files
+        return !keepFiles && LTSminUtil.isUsePipes() && NamedPipe.isSupported();
+    }
+
+    private static NamedPipe acquirePipe(Queue<NamedPipe> pool, String suffix) {
+        final NamedPipe pipe = pool.poll();
+
+        if (pipe != null) {
+            return pipe;
+        }
+
+        try {
+            return NamedPipe.create("ltsmin", suffix);
+        } catch (IOException ioe) {
+            throw new ModelCheckingException(ioe);
+        }
+    }
+
+    /**
+     * Returns the given {@code pipe} to the given {@code pool} if it has been used successfully. Otherwise, the pipe
+     * is deleted, since it may still be in use by an abandoned reader or writer.
+     */
+    private static void releasePipe(Queue<NamedPipe> pool, NamedPipe pipe, boolean recycle) {
+        if (recycle) {
+            pool.add(pipe);
+        } else {
+            pipe.delete();
+        }
+    }
+
+    /**
+     * Releases the local end of the given {@code pipe} after the LTSmin process could not be run.
+     */
+    private static void abandonPipe(NamedPipe pipe, Future<?> future) {
+        try {
+            pipe.await(future);
+        } catch (IOException | RuntimeException e) {
+            LOGGER.debug("Abandoned named pipe " + pipe.getFile().getAbsolutePath(), e);
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static File createTempFile(String prefix, String suffix) {
+        try {
+            return File.createTempFile(prefix, suffix);
+        } catch (IOException ioe) {
+            throw new ModelCheckingException(ioe);
+        }
+    }
+
+    /**
+     * Invokes an LTSmin binary with the given {@code commandLine}. Tests may override this method in order to run
+     * without an LTSmin installation.
+     *
+     * @return the exit value of the LTSmin binary
+     */
+    int invokeLTSmin(List<String> commandLine) {
+        return runCommandLine(commandLine);
     }
 
     static int runCommandLine(List<String> commandLine) {
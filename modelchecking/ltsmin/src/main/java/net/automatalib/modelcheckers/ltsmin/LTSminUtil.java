@@ -18,9 +18,14 @@ package net.automatalib.modelcheckers.ltsmin;
 import java.io.IOException;
 import java.io.StringWriter;
 import java.nio.file.Paths;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import net.automatalib.AutomataLibProperty;
 import net.automatalib.AutomataLibSettings;
+import net.automatalib.commons.util.concurrent.ScalingThreadPoolExecutor;
+import net.automatalib.commons.util.process.NamedPipe;
 import net.automatalib.commons.util.process.ProcessUtil;
 import org.checkerframework.checker.nullness.qual.EnsuresNonNullIf;
 import org.checkerframework.checker.nullness.qual.Nullable;
@@ -62,10 +67,32 @@ public final class LTSminUtil {
      */
     private static final int VERSION_EXIT = 255;
 
+    /**
+     * The (approximate) number of hypothesis states that justify an additional LTSmin thread in adaptive mode.
+     */
+    private static final int STATES_PER_THREAD = 10_000;
+
+    private static final long KEEP_ALIVE_SECONDS = 60L;
+
+    /**
+     * The pool that runs the (blocking) invocations of LTSmin processes.
+     */
+    private static final ScalingThreadPoolExecutor PROCESS_POOL;
+
     /**
      * A flag for triggering verbose LTSmin output.
      */
-    private static boolean verbose;
+    private static volatile boolean verbose;
+
+    /**
+     * A flag for exchanging data with LTSmin via named pipes.
+     */
+    private static volatile boolean usePipes;
+
+    /**
+     * The number of threads per LTSmin process, {@code 0} for choosing adaptively.
+     */
+    private static volatile int threads;
 
     private static @Nullable LTSminVersion detectedVersion;
 
@@ -80,6 +107,19 @@ public final class LTSminUtil {
         verbose = !"false".equalsIgnoreCase(settings.getProperty(AutomataLibProperty.LTSMIN_VERBOSE,
                                                                  Boolean.toString(LOGGER.isDebugEnabled())));
 
+        usePipes = "true".equalsIgnoreCase(settings.getProperty(AutomataLibProperty.LTSMIN_PIPES, "false"));
+
+        final int availableProcessors = Runtime.getRuntime().availableProcessors();
+
+        threads = parseNonNegative(settings, AutomataLibProperty.LTSMIN_THREADS, 0);
+
+        final int maxProcesses = parseNonNegative(settings, AutomataLibProperty.LTSMIN_PROCESSES, availableProcessors);
+
+        PROCESS_POOL = new ScalingThreadPoolExecutor(0, Math.max(1, maxProcesses), KEEP_ALIVE_SECONDS, TimeUnit.SECONDS);
+        PROCESS_POOL.setThreadFactory(new ThreadFactoryBuilder().setNameFormat("automatalib-ltsmin-%d")
+                                                                .setDaemon(true)
+                                                                .build());
+
         detectLTSmin();
     }
 
@@ -134,6 +174,110 @@ public final class LTSminUtil {
         LTSminUtil.verbose = verbose;
     }
 
+    /**
+     * Returns whether to exchange data with LTSmin via named pipes instead of temporary files. Named pipes are only
+     * used if they are {@link NamedPipe#isSupported() supported} by the system.
+     */
+    public static boolean isUsePipes() {
+        return usePipes;
+    }
+
+    /**
+     * Programmatically set, whether to exchange data with LTSmin via named pipes instead of temporary files.
+     */
+    public static void setUsePipes(boolean usePipes) {
+        LTSminUtil.usePipes = usePipes;
+    }
+
+    /**
+     * Returns the number of threads each LTSmin process uses for model checking. A value of {@code 0} denotes that the
+     * number of threads is chosen adaptively.
+     *
+     * @return the number of threads per LTSmin process.
+     *
+     * @see #computeThreads(int)
+     */
+    public static int getThreads() {
+        return threads;
+    }
+
+    /**
+     * Programmatically set the number of threads each LTSmin process uses for model checking.
+     *
+     * @param threads
+     *         the number of threads per LTSmin process, or {@code 0} for choosing the number of threads adaptively.
+     *
+     * @throws IllegalArgumentException
+     *         when {@code threads < 0}.
+     */
+    public static void setThreads(int threads) {
+        if (threads < 0) {
+            throw new IllegalArgumentException("number of threads must not be negative");
+        }
+        LTSminUtil.threads = threads;
+    }
+
+    /**
+     * Returns the maximum number of LTSmin processes that may run concurrently.
+     *
+     * @return the maximum number of concurrent LTSmin processes.
+     */
+    public static int getMaxProcesses() {
+        return PROCESS_POOL.getMaximumPoolSize();
+    }
+
+    /**
+     * Programmatically set the maximum number of LTSmin processes that may run concurrently. Additional checks wait
+     * until a running process has finished.
+     *
+     * @param maxProcesses
+     *         the maximum number of concurrent LTSmin processes.
+     *
+     * @throws IllegalArgumentException
+     *         when {@code maxProcesses < 1}.
+     */
+    public static void setMaxProcesses(int maxProcesses) {
+        if (maxProcesses < 1) {
+            throw new IllegalArgumentException("must allow at least one process");
+        }
+        PROCESS_POOL.setMaximumPoolSize(maxProcesses);
+    }
+
+    /**
+     * Computes the number of threads an LTSmin process should use for checking a hypothesis of the given size. If a
+     * fixed number of threads has been configured (see {@link #setThreads(int)}), this number is returned. Otherwise,
+     * one thread is used for small hypotheses and an additional thread for every 10,000 states, limited by an equal
+     * share of the available processors among the concurrently running LTSmin processes.
+     *
+     * @param hypothesisSize
+     *         the number of states of the hypothesis.
+     *
+     * @return the number of threads to use.
+     */
+    public static int computeThreads(int hypothesisSize) {
+        if (threads > 0) {
+            return threads;
+        }
+
+        final int availableProcessors = Runtime.getRuntime().availableProcessors();
+        final int runningProcesses = Math.max(1, PROCESS_POOL.getActiveCount());
+        final int budget = Math.max(1, availableProcessors / runningProcesses);
+        final int wanted = 1 + hypothesisSize / STATES_PER_THREAD;
+
+        return Math.min(budget, wanted);
+    }
+
+    /**
+     * Returns the pool that runs the (blocking) invocations of LTSmin processes. The pool is bounded by {@link
+     * #getMaxProcesses()} so that concurrent checks do not oversubscribe the machine. Tasks exceeding this bound are
+     * queued.
+     *
+     * @return the pool for invoking LTSmin processes.
+     */
+    static ExecutorService getProcessPool() {
+        return PROCESS_POOL;
+    }
+
     /**
      * (Re-)Checks whether the required binaries for the {@link AbstractLTSmin LTSmin modelchecker} can be executed, by
      * performing a version check. The results to these checks can be accessed by {@link #isInstalled()} and {@link
@@ -164,6 +308,26 @@ public final class LTSminUtil {
         }
     }
 
+    private static int parseNonNegative(AutomataLibSettings settings, AutomataLibProperty property, int defaultValue) {
+        final String value = settings.getProperty(property);
+
+        if (value == null) {
+            return defaultValue;
+        }
+
+        try {
+            final int result = Integer.parseInt(value.trim());
+            if (result >= 0) {
+                return result;
+            }
+        } catch (NumberFormatException nfe) {
+            LOGGER.debug("Could not parse property", nfe);
+        }
+
+        LOGGER.warn("Ignoring invalid value '{}' of property '{}'", value, property.getPropertyKey());
+        return defaultValue;
+    }
+
     private static @Nullable LTSminVersion detectLTSmin(String bin) {
 
         // the command lines for the ProcessBuilder
@@ -23,17 +23,13 @@ import java.util.function.Function;
 import com.github.misberner.buildergen.annotations.GenerateBuilder;
 import net.automatalib.automata.fsa.DFA;
 import net.automatalib.automata.fsa.impl.compact.CompactDFA;
-import net.automatalib.exception.ModelCheckingException;
+import net.automatalib.modelcheckers.ltsmin.AbstractLTSmin;
 import net.automatalib.modelcheckers.ltsmin.LTSminDFA;
 import net.automatalib.modelcheckers.ltsmin.LTSminLTLParser;
 import net.automatalib.modelchecking.Lasso.DFALasso;
 import net.automatalib.modelchecking.ModelCheckerLasso.DFAModelCheckerLasso;
 import net.automatalib.modelchecking.lasso.DFALassoImpl;
 import net.automatalib.serialization.fsm.parser.FSM2DFAParser;
-import net.automatalib.serialization.fsm.parser.FSMFormatException;
-import org.checkerframework.checker.nullness.qual.Nullable;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
 /**
  * An LTL model checker using LTSmin for DFAs.
@@ -46,8 +42,6 @@ import org.slf4j.LoggerFactory;
 public class LTSminLTLDFA<I> extends AbstractLTSminLTL<I, DFA<?, I>, DFALasso<I>>
         implements DFAModelCheckerLasso<I, String>, LTSminDFA<I, DFALasso<I>> {
 
-    private static final Logger LOGGER = LoggerFactory.getLogger(LTSminLTLDFA.class);
-
     /**
      * The index in the FSM state vector for accept/reject.
      */
@@ -74,28 +68,14 @@ public class LTSminLTLDFA<I> extends AbstractLTSminLTL<I, DFA<?, I>, DFALasso<I>
      * @param automaton
      *         the DFA used to compute the number of loop unrolls.
      *
-     * @see AbstractLTSminLTL#findCounterExample(Object, Collection, Object)
+     * @see AbstractLTSmin#fsm2CounterExample(File, Object, Collection)
      */
     @Override
-    public @Nullable DFALasso<I> findCounterExample(DFA<?, I> automaton, Collection<? extends I> inputs, String property) {
-        final File fsm = findCounterExampleFSM(automaton, inputs, property);
-
-        if (fsm == null) {
-            return null;
-        }
-
-        try {
-            final CompactDFA<I> dfa =
-                    FSM2DFAParser.getParser(inputs, getString2Input(), LABEL_NAME, LABEL_VALUE).readModel(fsm);
+    protected DFALasso<I> fsm2CounterExample(File fsm, DFA<?, I> automaton, Collection<? extends I> inputs)
+            throws IOException {
+        final CompactDFA<I> dfa =
+                FSM2DFAParser.getParser(inputs, getString2Input(), LABEL_NAME, LABEL_VALUE).readModel(fsm);
 
-            return new DFALassoImpl<>(dfa, inputs, computeUnfolds(automaton.size()));
-        } catch (IOException | FSMFormatException e) {
-            throw new ModelCheckingException(e);
-        } finally {
-            // check if we must keep the FSM
-            if (!isKeepFiles() && !fsm.delete()) {
-                LOGGER.warn("Could not delete file: " + fsm.getAbsolutePath());
-            }
-        }
+        return new DFALassoImpl<>(dfa, inputs, computeUnfolds(automaton.size()));
     }
 }
@@ -15,6 +15,9 @@
  */
 package net.automatalib.modelcheckers.ltsmin;
 
+import java.util.Arrays;
+import java.util.Map;
+
 import net.automatalib.automata.concepts.DetOutputAutomaton;
 import net.automatalib.automata.concepts.Output;
 import net.automatalib.words.Alphabet;
@@ -89,4 +92,28 @@ public abstract class AbstractLTSminTest<A, R extends Output<String, ?>> {
         Assert.assertNotNull(ce);
         Assert.assertEquals(counterExample.computeOutput(input), ce.computeOutput(input));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testFindCounterExamples() {
+        final String trueProperty = "true";
+        final AbstractLTSmin<String, A, R> modelChecker = getModelChecker();
+
+        final Map<String, R> results =
+                modelChecker.findCounterExamples(automaton, alphabet, Arrays.asList(trueProperty, falseProperty));
+        Assert.assertEquals(results.size(), 2);
+        Assert.assertTrue(results.containsKey(trueProperty));
+        Assert.assertNull(results.get(trueProperty));
+
+        final R ce = results.get(falseProperty);
+        Assert.assertNotNull(ce);
+        Assert.assertEquals(counterExample.computeOutput(input), ce.computeOutput(input));
+
+        // a single counterexample suffices for cancelling the remaining checks
+        modelChecker.setBatchThreads(1);
+        modelChecker.setMaxCounterExamples(1);
+        final Map<String, R> limited =
+                modelChecker.findCounterExamples(automaton, alphabet, Arrays.asList(falseProperty, trueProperty));
+        Assert.assertEquals(limited.size(), 1);
+        Assert.assertNotNull(limited.get(falseProperty));
+    }
+}
@@ -0,0 +1,228 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.modelcheckers.ltsmin;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Function;
+
+import net.automatalib.commons.util.process.NamedPipe;
+import net.automatalib.exception.ModelCheckingException;
+import org.testng.Assert;
+import org.testng.SkipException;
+import org.testng.annotations.Test;
+
+/**
+ * Tests the batch checking of {@link AbstractLTSmin#findCounterExamples(Object, Collection, Collection)} with a fake
+ * LTSmin installation, so that the tests do not depend on the availability of the LTSmin binaries.
+ *
+ * @author frohme
+ */
+public class LTSminBatchTest {
+
+    private static final String HYPOTHESIS = "hypothesis";
+
+    @Test
+    public void testFindCounterExamples() {
+        final FakeLTSmin ltsmin = new FakeLTSmin();
+        final List<String> properties = Arrays.asList("false-1", "true-1", "false-2", "true-2");
+
+        final Map<String, String> results =
+                ltsmin.findCounterExamples(HYPOTHESIS, Collections.emptyList(), properties);
+
+        // results are reported in the order of the properties
+        Assert.assertEquals(results.keySet().toArray(), properties.toArray());
+        Assert.assertEquals(results.get("false-1"), "false-1");
+        Assert.assertNull(results.get("true-1"));
+        Assert.assertEquals(results.get("false-2"), "false-2");
+        Assert.assertNull(results.get("true-2"));
+
+        // every property has been checked on the (single) ETF of the hypothesis
+        Assert.assertEquals(ltsmin.checks.size(), properties.size());
+        Assert.assertEquals(ltsmin.etfs.size(), properties.size());
+        Assert.assertEquals(ltsmin.etfs.stream().distinct().count(), 1);
+        Assert.assertFalse(new File(ltsmin.etfs.peek()).exists());
+    }
+
+    @Test
+    public void testMaxCounterExamples() {
+        final FakeLTSmin ltsmin = new FakeLTSmin();
+        ltsmin.setBatchThreads(1);
+        ltsmin.setMaxCounterExamples(1);
+
+        final Map<String, String> results = ltsmin.findCounterExamples(HYPOTHESIS,
+                                                                       Collections.emptyList(),
+                                                                       Arrays.asList("true-1", "false-1", "false-2"));
+
+        // the first counterexample cancels the remaining checks
+        Assert.assertEquals(results.size(), 2);
+        Assert.assertNull(results.get("true-1"));
+        Assert.assertEquals(results.get("false-1"), "false-1");
+        Assert.assertEquals(ltsmin.checks.size(), 2);
+    }
+
+    @Test
+    public void testInvalidProperty() {
+        final FakeLTSmin ltsmin = new FakeLTSmin();
+
+        Assert.assertThrows(ModelCheckingException.class,
+                            () -> ltsmin.findCounterExamples(HYPOTHESIS,
+                                                             Collections.emptyList(),
+                                                             Arrays.asList("true-1", "invalid")));
+        // formulas are verified before any LTSmin process is started
+        Assert.assertTrue(ltsmin.checks.isEmpty());
+    }
+
+    @Test
+    public void testFailingCheck() {
+        final FakeLTSmin ltsmin = new FakeLTSmin();
+
+        Assert.assertThrows(ModelCheckingException.class,
+                            () -> ltsmin.findCounterExamples(HYPOTHESIS,
+                                                             Collections.emptyList(),
+                                                             Arrays.asList("true-1", "error")));
+    }
+
+    @Test
+    public void testFindCounterExamplesWithPipes() {
+        if (!NamedPipe.isSupported()) {
+            throw new SkipException("Named pipes are not supported");
+        }
+
+        final boolean usePipes = LTSminUtil.isUsePipes();
+
+        try {
+            LTSminUtil.setUsePipes(true);
+
+            final FakeLTSmin ltsmin = new FakeLTSmin();
+            final Map<String, String> results = ltsmin.findCounterExamples(HYPOTHESIS,
+                                                                           Collections.emptyList(),
+                                                                           Arrays.asList("false-1", "true-1"));
+
+            Assert.assertEquals(results.size(), 2);
+            Assert.assertEquals(results.get("false-1"), "false-1");
+            Assert.assertNull(results.get("true-1"));
+
+            Assert.assertEquals(ltsmin.findCounterExample(HYPOTHESIS, Collections.emptyList(), "false-2"), "false-2");
+            Assert.assertNull(ltsmin.findCounterExample(HYPOTHESIS, Collections.emptyList(), "true-2"));
+        } finally {
+            LTSminUtil.setUsePipes(usePipes);
+        }
+    }
+
+    /**
+     * A model checker that simulates the LTSmin binaries: etf2lts-mc finds a counterexample for every formula starting
+     * with {@code false}, which is passed through the GCF and FSM files as plain text.
+     */
+    private static final class FakeLTSmin extends AbstractLTSmin<String, String, String> {
+
+        private final Queue<String> checks = new ConcurrentLinkedQueue<>();
+        private final Queue<String> etfs = new ConcurrentLinkedQueue<>();
+
+        FakeLTSmin() {
+            super(false, Function.identity());
+        }
+
+        @Override
+        boolean isSupportedInstallation() {
+            return true;
+        }
+
+        @Override
+        int invokeLTSmin(List<String> commandLine) {
+            try {
+                if (LTSminUtil.ETF2LTS_MC.equals(commandLine.get(0))) {
+                    return runETF2LTS(commandLine);
+                } else if (LTSminUtil.LTSMIN_CONVERT.equals(commandLine.get(0))) {
+                    final byte[] gcf = Files.readAllBytes(Paths.get(commandLine.get(1)));
+                    Files.write(Paths.get(commandLine.get(2)), gcf);
+                    return 0;
+                }
+            } catch (IOException ioe) {
+                throw new ModelCheckingException(ioe);
+            }
+
+            throw new IllegalArgumentException("Unknown binary: " + commandLine.get(0));
+        }
+
+        private int runETF2LTS(List<String> commandLine) throws IOException {
+            final String etf = commandLine.get(1);
+            final String formula = getOption(commandLine, "--ltl=");
+
+            checks.add(formula);
+            etfs.add(etf);
+
+            if (!HYPOTHESIS.equals(new String(Files.readAllBytes(Paths.get(etf)), StandardCharsets.UTF_8))) {
+                return 2;
+            } else if (formula.startsWith("false")) {
+                Files.write(Paths.get(getOption(commandLine, "--trace=")), formula.getBytes(StandardCharsets.UTF_8));
+                return 1;
+            } else if (formula.startsWith("true")) {
+                return 0;
+            }
+
+            return 2;
+        }
+
+        private static String getOption(List<String> commandLine, String option) {
+            for (String arg : commandLine) {
+                if (arg.startsWith(option)) {
+                    return arg.substring(option.length());
+                }
+            }
+            throw new IllegalArgumentException("Missing option: " + option);
+        }
+
+        @Override
+        protected LTSminVersion getMinimumRequiredVersion() {
+            return LTSminVersion.of(3, 0, 0);
+        }
+
+        @Override
+        protected List<String> getExtraCommandLineOptions() {
+            return Collections.emptyList();
+        }
+
+        @Override
+        protected void verifyFormula(String formula) {
+            if ("invalid".equals(formula)) {
+                throw new IllegalArgumentException("invalid formula");
+            }
+        }
+
+        @Override
+        protected String fsm2CounterExample(File fsm, String hypothesis, Collection<? extends String> inputs)
+                throws IOException {
+            return new String(Files.readAllBytes(fsm.toPath()), StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public void automaton2ETF(String automaton, Collection<? extends String> inputs, File etf)
+                throws IOException {
+            Files.write(etf.toPath(), automaton.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+}
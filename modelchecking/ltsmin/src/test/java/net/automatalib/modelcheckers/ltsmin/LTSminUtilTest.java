@@ -0,0 +1,110 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.modelcheckers.ltsmin;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Test cases for the (thread and process) configuration of the {@link LTSminUtil} class.
+ *
+ * @author frohme
+ */
+public class LTSminUtilTest {
+
+    private int threads;
+    private int maxProcesses;
+
+    @BeforeMethod
+    public void saveSettings() {
+        threads = LTSminUtil.getThreads();
+        maxProcesses = LTSminUtil.getMaxProcesses();
+    }
+
+    @AfterMethod
+    public void restoreSettings() {
+        LTSminUtil.setThreads(threads);
+        LTSminUtil.setMaxProcesses(maxProcesses);
+    }
+
+    @Test
+    public void testFixedThreads() {
+        LTSminUtil.setThreads(3);
+
+        Assert.assertEquals(LTSminUtil.computeThreads(0), 3);
+        Assert.assertEquals(LTSminUtil.computeThreads(1_000_000), 3);
+    }
+
+    @Test
+    public void testAdaptiveThreads() {
+        LTSminUtil.setThreads(0);
+
+        final int availableProcessors = Runtime.getRuntime().availableProcessors();
+
+        Assert.assertEquals(LTSminUtil.computeThreads(0), 1);
+        Assert.assertEquals(LTSminUtil.computeThreads(100), 1);
+        Assert.assertEquals(LTSminUtil.computeThreads(20_000), Math.min(availableProcessors, 3));
+        Assert.assertEquals(LTSminUtil.computeThreads(Integer.MAX_VALUE), availableProcessors);
+    }
+
+    @Test
+    public void testInvalidSettings() {
+        Assert.assertThrows(IllegalArgumentException.class, () -> LTSminUtil.setThreads(-1));
+        Assert.assertThrows(IllegalArgumentException.class, () -> LTSminUtil.setMaxProcesses(0));
+    }
+
+    @Test(timeOut = 10000)
+    public void testBoundedProcessPool() throws InterruptedException, ExecutionException {
+        final int bound = 2;
+        final int tasks = 3 * bound;
+
+        LTSminUtil.setMaxProcesses(bound);
+
+        final ExecutorService pool = LTSminUtil.getProcessPool();
+        final CountDownLatch latch = new CountDownLatch(bound);
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger maxRunning = new AtomicInteger();
+        final List<Future<?>> futures = new ArrayList<>(tasks);
+
+        for (int i = 0; i < tasks; i++) {
+            futures.add(pool.submit(() -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                latch.countDown();
+                // wait until the pool is saturated
+                latch.await(1, TimeUnit.SECONDS);
+                running.decrementAndGet();
+                return null;
+            }));
+        }
+
+        for (Future<?> f : futures) {
+            f.get();
+        }
+
+        Assert.assertEquals(maxRunning.get(), bound);
+    }
+}
@@ -0,0 +1,177 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.serialization.etf.writer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import net.automatalib.automata.Automaton;
+import net.automatalib.words.Alphabet;
+
+/**
+ * Base class of the ETF writers that format their content into {@link ETFBuffer}s.
+ * <p>
+ * Implementations first extract the (integer-based) transition structure and label tables of the automaton. The
+ * transition section, which makes up the major part of an ETF, is then formatted in chunks of states (possibly in
+ * parallel) into byte buffers that are written in order. The {@link PrintWriter}-based hooks of {@link
+ * AbstractETFWriter} are implemented on top of the buffers, so that {@link #write(PrintWriter, Automaton, Alphabet)}
+ * yields the same content as {@link #writeModel(OutputStream, Automaton, Alphabet)}.
+ *
+ * @param <I>
+ *         the input type
+ * @param <A>
+ *         the automaton type
+ *
+ * @author frohme
+ */
+abstract class AbstractBufferedETFWriter<I, A extends Automaton<?, I, ?>> extends AbstractETFWriter<I, A> {
+
+    /**
+     * The number of states whose transitions are formatted by a single task.
+     */
+    static final int CHUNK_SIZE = 1 << 12;
+
+    /**
+     * Write the state vector. The state vector contains one variable of type "id", named "id".
+     *
+     * @param buffer the buffer.
+     */
+    private void writeState(ETFBuffer buffer) throws IOException {
+        buffer.appendLine("begin state");
+        buffer.appendLine("id:id");
+        buffer.appendLine("end state");
+    }
+
+    /**
+     * Write an edge in the LTS.
+     *
+     * @param buffer the buffer.
+     *
+     * @see #writeEdge(PrintWriter)
+     */
+    abstract void writeEdge(ETFBuffer buffer) throws IOException;
+
+    /**
+     * Write parts of the ETF that are dependent on A.
+     *
+     * @param buffer the buffer.
+     * @param a the automaton to write.
+     * @param inputs the alphabet.
+     *
+     * @see #writeETF(PrintWriter, Automaton, Alphabet)
+     */
+    abstract void writeETF(ETFBuffer buffer, A a, Alphabet<I> inputs) throws IOException;
+
+    @Override
+    protected final void writeEdge(PrintWriter printWriter) {
+        printWriter.print(format(this::writeEdge));
+    }
+
+    @Override
+    protected final void writeETF(PrintWriter printWriter, A a, Alphabet<I> inputs) {
+        printWriter.print(format(buffer -> writeETF(buffer, a, inputs)));
+    }
+
+    @Override
+    public void writeModel(OutputStream os, A model, Alphabet<I> alphabet) throws IOException {
+        final ETFBuffer buffer = new ETFBuffer(os);
+
+        writeState(buffer);
+        writeEdge(buffer);
+        writeETF(buffer, model, alphabet);
+
+        buffer.flush();
+        os.flush();
+    }
+
+    private static String format(BufferWriter writer) {
+        final ETFBuffer buffer = new ETFBuffer();
+        try {
+            writer.write(buffer);
+        } catch (IOException e) {
+            // cannot happen, since the buffer is not associated with any stream
+            throw new UncheckedIOException(e);
+        }
+        return buffer.toString();
+    }
+
+    /**
+     * Write the transitions of the states {@code 0} to {@code numStates - 1}. The states are partitioned into chunks of
+     * {@link #CHUNK_SIZE} states, which are formatted in parallel (in windows of a few chunks per available worker, in
+     * order to limit the memory consumption) and appended to the given buffer in their original order.
+     *
+     * @param buffer the buffer.
+     * @param numStates the number of states.
+     * @param formatter the formatter for the transitions of a range of states.
+     */
+    static void writeTransitions(ETFBuffer buffer, int numStates, TransitionFormatter formatter) throws IOException {
+        final int numChunks = (numStates + CHUNK_SIZE - 1) / CHUNK_SIZE;
+
+        if (numChunks <= 1) {
+            formatter.format(buffer, 0, numStates);
+            return;
+        }
+
+        final int window = 4 * ForkJoinPool.getCommonPoolParallelism();
+
+        for (int start = 0; start < numChunks; start += window) {
+            final ETFBuffer[] chunks =
+                    IntStream.range(start, Math.min(start + window, numChunks)).parallel().mapToObj(c -> {
+                        final ETFBuffer chunk = new ETFBuffer();
+                        try {
+                            formatter.format(chunk, c * CHUNK_SIZE, Math.min((c + 1) * CHUNK_SIZE, numStates));
+                        } catch (IOException e) {
+                            // cannot happen, since the chunk is not associated with any stream
+                            throw new UncheckedIOException(e);
+                        }
+                        return chunk;
+                    }).toArray(ETFBuffer[]::new);
+
+            for (ETFBuffer chunk : chunks) {
+                buffer.append(chunk);
+            }
+        }
+    }
+
+    /**
+     * Writes (a part of) the ETF content into a buffer.
+     */
+    @FunctionalInterface
+    interface BufferWriter {
+
+        void write(ETFBuffer buffer) throws IOException;
+    }
+
+    /**
+     * Formats the transitions of a range of states.
+     */
+    @FunctionalInterface
+    interface TransitionFormatter {
+
+        /**
+         * Format the transitions of the states {@code from} (inclusive) to {@code to} (exclusive).
+         *
+         * @param buffer the buffer.
+         * @param from the first state.
+         * @param to the last state (exclusive).
+         */
+        void format(ETFBuffer buffer, int from, int to) throws IOException;
+    }
+}
@@ -15,12 +15,11 @@
  */
 package net.automatalib.serialization.etf.writer;
 
-import java.io.OutputStream;
-import java.io.PrintWriter;
+import java.io.IOException;
 
+import net.automatalib.automata.UniversalDeterministicAutomaton.FullIntAbstraction;
 import net.automatalib.automata.concepts.StateIDs;
 import net.automatalib.automata.fsa.DFA;
-import net.automatalib.commons.util.IOUtil;
 import net.automatalib.words.Alphabet;
 
 /**
@@ -30,20 +29,20 @@ import net.automatalib.words.Alphabet;
  *
  * @param <I> the input type.
  */
-public final class DFA2ETFWriter<I> extends AbstractETFWriter<I, DFA<?, I>> {
+public final class DFA2ETFWriter<I> extends AbstractBufferedETFWriter<I, DFA<?, I>> {
 
     private static final DFA2ETFWriter<?> INSTANCE = new DFA2ETFWriter<>();
 
     /**
      * Writes the type of the edge. A DFA edge contains one label, named 'letter', of type 'letter.
      *
-     * @param pw the Writer.
+     * @param buffer the buffer.
      */
     @Override
-    protected void writeEdge(PrintWriter pw) {
-        pw.println("begin edge");
-        pw.println("letter:letter");
-        pw.println("end edge");
+    void writeEdge(ETFBuffer buffer) throws IOException {
+        buffer.appendLine("begin edge");
+        buffer.appendLine("letter:letter");
+        buffer.appendLine("end edge");
     }
 
     /**
@@ -56,76 +55,77 @@ public final class DFA2ETFWriter<I> extends AbstractETFWriter<I, DFA<?, I>> {
      *  - the state labels (rejecting/accepting),
      *  - the mapping from states to state labels.
      *
-     * @param pw the Writer.
+     * @param buffer the buffer.
      * @param dfa the DFA to write.
      * @param inputs the alphabet.
      */
     @Override
-    protected void writeETF(PrintWriter pw, DFA<?, I> dfa, Alphabet<I> inputs) {
-        writeETFInternal(pw, dfa, inputs);
+    void writeETF(ETFBuffer buffer, DFA<?, I> dfa, Alphabet<I> inputs) throws IOException {
+        writeETFInternal(buffer, dfa, inputs);
     }
 
-    private <S> void writeETFInternal(PrintWriter pw, DFA<S, I> dfa, Alphabet<I> inputs) {
+    private <S> void writeETFInternal(ETFBuffer buffer, DFA<S, I> dfa, Alphabet<I> inputs) throws IOException {
         final StateIDs<S> stateIDs = dfa.stateIDs();
+        final FullIntAbstraction<S, Boolean, Void> abs = dfa.fullIntAbstraction(inputs);
+        final int numStates = abs.size();
+        final int numInputs = inputs.size();
 
         // write the initial state
-        final S init = dfa.getInitialState();
-        if (init != null) {
-            pw.println("begin init");
-            pw.printf("%d%n", stateIDs.getStateId(init));
-            pw.println("end init");
+        final int init = abs.getIntInitialState();
+        if (init != FullIntAbstraction.INVALID_STATE) {
+            buffer.appendLine("begin init");
+            buffer.append(init).newLine();
+            buffer.appendLine("end init");
         }
 
         // write the valuations of the state ids
-        pw.println("begin sort id");
-        dfa.getStates().forEach(s -> pw.printf("\"%s\"%n", s));
-        pw.println("end sort");
+        buffer.appendLine("begin sort id");
+        for (int s = 0; s < numStates; s++) {
+            buffer.appendQuotedLine(stateIDs.getState(s));
+        }
+        buffer.appendLine("end sort");
 
         // write the letters from the alphabet
-        pw.println("begin sort letter");
+        buffer.appendLine("begin sort letter");
         for (I i : inputs) {
-            pw.print("\"");
-            pw.print(i);
-            pw.println("\"");
+            buffer.appendQuotedLine(i);
+        }
+        buffer.appendLine("end sort");
+
+        // extract the successors once, so that the transitions can be formatted concurrently
+        final int[] successors = new int[numStates * numInputs];
+        for (int s = 0; s < numStates; s++) {
+            for (int i = 0; i < numInputs; i++) {
+                successors[s * numInputs + i] = abs.getSuccessor(s, i);
+            }
         }
-        pw.println("end sort");
 
         // write the transitions
-        pw.println("begin trans");
-        for (S s : dfa.getStates()) {
-            for (I i : inputs) {
-                S t = dfa.getSuccessor(s, i);
-                if (t != null) {
-                    pw.printf(
-                            "%d/%d %d%n",
-                            stateIDs.getStateId(s),
-                            stateIDs.getStateId(t),
-                            inputs.getSymbolIndex(i));
+        buffer.appendLine("begin trans");
+        writeTransitions(buffer, numStates, (b, from, to) -> {
+            for (int s = from; s < to; s++) {
+                for (int i = 0; i < numInputs; i++) {
+                    final int t = successors[s * numInputs + i];
+                    if (t != FullIntAbstraction.INVALID_STATE) {
+                        b.append(s).append('/').append(t).append(' ').append(i).newLine();
+                    }
                 }
             }
-        }
-        pw.println("end trans");
+        });
+        buffer.appendLine("end trans");
 
         // write the two state label valuations
-        pw.println("begin sort label");
-        pw.println("\"reject\"");
-        pw.println("\"accept\"");
-        pw.println("end sort");
+        buffer.appendLine("begin sort label");
+        buffer.appendQuotedLine("reject");
+        buffer.appendQuotedLine("accept");
+        buffer.appendLine("end sort");
 
         // write the state labels for each state, e.g. whether it is accepting/rejecting.
-        pw.println("begin map label:label");
-        for (S s : dfa.getStates()) {
-            final int stateId = stateIDs.getStateId(s);
-            pw.printf("%d %d%n", stateId, dfa.isAccepting(s) ? 1 : 0);
-        }
-        pw.println("end map");
-    }
-
-    @Override
-    public void writeModel(OutputStream os, DFA<?, I> model, Alphabet<I> alphabet) {
-        try (PrintWriter pw = new PrintWriter(IOUtil.asBufferedNonClosingUTF8Writer(os))) {
-            write(pw, model, alphabet);
+        buffer.appendLine("begin map label:label");
+        for (int s = 0; s < numStates; s++) {
+            buffer.append(s).append(' ').append(abs.getStateProperty(s) ? 1 : 0).newLine();
         }
+        buffer.appendLine("end map");
     }
 
     @SuppressWarnings("unchecked")
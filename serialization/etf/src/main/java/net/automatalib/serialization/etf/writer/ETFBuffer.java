@@ -0,0 +1,183 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.serialization.etf.writer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A growable byte buffer for efficiently writing (mostly numeric) ETF content. In contrast to a {@link
+ * java.io.PrintWriter}, integers are formatted directly into the buffer without any intermediate string or format
+ * parsing.
+ * <p>
+ * If the buffer is associated with an {@link OutputStream}, its content is written to the stream once it exceeds a
+ * certain size. Otherwise, the buffer grows as needed and can be written to another buffer via {@link
+ * #append(ETFBuffer)}.
+ *
+ * @author frohme
+ */
+final class ETFBuffer {
+
+    private static final byte[] NEW_LINE = System.lineSeparator().getBytes(StandardCharsets.US_ASCII);
+
+    private static final int FLUSH_THRESHOLD = 1 << 16;
+
+    private static final int DEFAULT_CAPACITY = FLUSH_THRESHOLD + 1024;
+
+    /**
+     * The maximum number of digits of a non-negative int.
+     */
+    private static final int MAX_DIGITS = 10;
+
+    private final @Nullable OutputStream os;
+
+    private byte[] bytes;
+    private int size;
+
+    /**
+     * Creates a new buffer that is not associated with any output stream.
+     */
+    ETFBuffer() {
+        this(null);
+    }
+
+    /**
+     * Creates a new buffer that (eventually) writes its content to the given output stream.
+     *
+     * @param os
+     *         the output stream, may be {@code null}
+     */
+    ETFBuffer(@Nullable OutputStream os) {
+        this.os = os;
+        this.bytes = new byte[DEFAULT_CAPACITY];
+    }
+
+    ETFBuffer append(char c) throws IOException {
+        ensureCapacity(1);
+        bytes[size++] = (byte) c;
+        return this;
+    }
+
+    ETFBuffer append(int i) throws IOException {
+        if (i < 0) {
+            return append(Integer.toString(i));
+        }
+
+        ensureCapacity(MAX_DIGITS);
+
+        // write the digits in reverse order and flip them afterwards
+        final int start = size;
+        int rest = i;
+        do {
+            bytes[size++] = (byte) ('0' + rest % 10);
+            rest /= 10;
+        } while (rest > 0);
+
+        for (int lo = start, hi = size - 1; lo < hi; lo++, hi--) {
+            final byte tmp = bytes[lo];
+            bytes[lo] = bytes[hi];
+            bytes[hi] = tmp;
+        }
+
+        return this;
+    }
+
+    ETFBuffer append(String s) throws IOException {
+        final byte[] encoded = s.getBytes(StandardCharsets.UTF_8);
+        ensureCapacity(encoded.length);
+        System.arraycopy(encoded, 0, bytes, size, encoded.length);
+        size += encoded.length;
+        return this;
+    }
+
+    ETFBuffer appendQuoted(@Nullable Object o) throws IOException {
+        return append('"').append(String.valueOf(o)).append('"');
+    }
+
+    ETFBuffer appendLine(String s) throws IOException {
+        return append(s).newLine();
+    }
+
+    ETFBuffer appendQuotedLine(@Nullable Object o) throws IOException {
+        return appendQuoted(o).newLine();
+    }
+
+    ETFBuffer newLine() throws IOException {
+        ensureCapacity(NEW_LINE.length);
+        System.arraycopy(NEW_LINE, 0, bytes, size, NEW_LINE.length);
+        size += NEW_LINE.length;
+        return this;
+    }
+
+    /**
+     * Appends the content of the given buffer to this buffer. If this buffer is associated with an output stream, the
+     * content of the given buffer is directly written to the stream.
+     *
+     * @param other
+     *         the buffer whose content should be appended
+     *
+     * @throws IOException
+     *         if writing to the output stream fails
+     */
+    void append(ETFBuffer other) throws IOException {
+        if (os == null) {
+            ensureCapacity(other.size);
+            System.arraycopy(other.bytes, 0, bytes, size, other.size);
+            size += other.size;
+        } else {
+            flush();
+            os.write(other.bytes, 0, other.size);
+        }
+    }
+
+    /**
+     * Writes the content of this buffer to the associated output stream (if any).
+     *
+     * @throws IOException
+     *         if writing to the output stream fails
+     */
+    void flush() throws IOException {
+        if (os != null && size > 0) {
+            os.write(bytes, 0, size);
+            size = 0;
+        }
+    }
+
+    /**
+     * Returns the (not yet written) content of this buffer.
+     *
+     * @return the content of this buffer
+     */
+    @Override
+    public String toString() {
+        return new String(bytes, 0, size, StandardCharsets.UTF_8);
+    }
+
+    private void ensureCapacity(int additional) throws IOException {
+        if (os != null && size + additional > FLUSH_THRESHOLD) {
+            flush();
+        }
+
+        final int required = size + additional;
+        if (required > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(required, bytes.length * 2));
+        }
+    }
+}
@@ -15,14 +15,16 @@
  */
 package net.automatalib.serialization.etf.writer;
 
-import java.io.OutputStream;
-import java.io.PrintWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
-import com.google.common.collect.BiMap;
-import com.google.common.collect.HashBiMap;
+import net.automatalib.automata.UniversalDeterministicAutomaton.FullIntAbstraction;
+import net.automatalib.automata.concepts.StateIDs;
 import net.automatalib.automata.transducers.MealyMachine;
-import net.automatalib.commons.util.IOUtil;
 import net.automatalib.commons.util.Pair;
 import net.automatalib.words.Alphabet;
 
@@ -38,7 +40,7 @@ import net.automatalib.words.Alphabet;
  * @param <I> the input type
  * @param <O> the output type
  */
-public final class Mealy2ETFWriterAlternating<I, O> extends AbstractETFWriter<I, MealyMachine<?, I, ?, O>> {
+public final class Mealy2ETFWriterAlternating<I, O> extends AbstractBufferedETFWriter<I, MealyMachine<?, I, ?, O>> {
 
     private static final Mealy2ETFWriterAlternating<?, ?> INSTANCE = new Mealy2ETFWriterAlternating<>();
 
@@ -46,13 +48,13 @@ public final class Mealy2ETFWriterAlternating<I, O> extends AbstractETFWriter<I,
      * With alternating edge semantics, there are only edges with one label. Both input and output of the Mealy
      * machine is generalized to a label named 'letter', of type 'letter'.
      *
-     * @param pw the Writer.
+     * @param buffer the buffer.
      */
     @Override
-    protected void writeEdge(PrintWriter pw) {
-        pw.println("begin edge");
-        pw.println("letter:letter");
-        pw.println("end edge");
+    void writeEdge(ETFBuffer buffer) throws IOException {
+        buffer.appendLine("begin edge");
+        buffer.appendLine("letter:letter");
+        buffer.appendLine("end edge");
     }
 
     /**
@@ -67,106 +69,128 @@ public final class Mealy2ETFWriterAlternating<I, O> extends AbstractETFWriter<I,
      * Note that in this context, the alphabet that is written to ETF is not just the inputs, it is the union of
      * inputs and outputs, of type 'letter'.
      *
-     * @param pw the Writer.
+     * @param buffer the buffer.
      * @param mealy the MealyMachine to write to ETF.
      * @param inputs the alphabet, the input alphabet.
      */
     @Override
-    protected void writeETF(PrintWriter pw, MealyMachine<?, I, ?, O> mealy, Alphabet<I> inputs) {
-        writeETFInternal(pw, mealy, inputs);
+    void writeETF(ETFBuffer buffer, MealyMachine<?, I, ?, O> mealy, Alphabet<I> inputs) throws IOException {
+        writeETFInternal(buffer, mealy, inputs);
     }
 
-    private <S, T> void writeETFInternal(PrintWriter pw, MealyMachine<S, I, T, O> mealy, Alphabet<I> inputs) {
+    private <S, T> void writeETFInternal(ETFBuffer buffer, MealyMachine<S, I, T, O> mealy, Alphabet<I> inputs)
+            throws IOException {
+        final StateIDs<S> stateIDs = mealy.stateIDs();
+        final FullIntAbstraction<T, Void, O> abs = mealy.fullIntAbstraction(inputs);
+        final int numStates = abs.size();
+        final int numInputs = inputs.size();
+
+        // write the initial state
+        final int init = abs.getIntInitialState();
+        if (init != FullIntAbstraction.INVALID_STATE) {
+            buffer.appendLine("begin init");
+            buffer.append(init).newLine();
+            buffer.appendLine("end init");
+        }
 
-        // create a bi-mapping from states to integers
-        final BiMap<S, Integer> oldStates = HashBiMap.create();
-        mealy.getStates().forEach(s -> oldStates.put(s, oldStates.size()));
+        /*
+         The key to writing transitions with alternating semantics is that each (output, successor) pair is
+         represented by a single intermediate state (and a single output transition), which is shared by all input
+         transitions with this output and successor. Intermediate states and output letters are numbered in order of
+         their first appearance, and an output transition is written right before the first input transition that
+         leads to its intermediate state.
 
-        // write the initial state, using the bi-map
-        pw.println("begin init");
-        pw.printf("%d%n", oldStates.get(mealy.getInitialState()));
-        pw.println("end init");
+         The intermediate states are computed once, so that the transitions can be formatted concurrently.
+         */
+        final int[] intermediates = new int[numStates * numInputs];
+        final BitSet firstAppearances = new BitSet(numStates * numInputs);
+        final Map<Pair<O, Integer>, Integer> intermediateMap = new HashMap<>();
+        final List<Pair<O, Integer>> intermediateList = new ArrayList<>();
+        final int[] intermediateOutputs = new int[numStates * numInputs];
+        final Map<O, Integer> outputMap = new HashMap<>();
+        final List<O> outputs = new ArrayList<>();
+
+        for (int s = 0; s < numStates; s++) {
+            for (int i = 0; i < numInputs; i++) {
+                final int idx = s * numInputs + i;
+                final T t = abs.getTransition(s, i);
+
+                if (t == null) {
+                    intermediates[idx] = FullIntAbstraction.INVALID_STATE;
+                    continue;
+                }
 
-        // create a bi-map for transitions containing output
-        final BiMap<Pair<O, S>, Integer> outputTransitions = HashBiMap.create();
+                final O o = abs.getTransitionProperty(t);
+                final Pair<O, Integer> outputTransition = Pair.of(o, abs.getIntSuccessor(t));
+                final Integer intermediate = intermediateMap.get(outputTransition);
+
+                if (intermediate == null) {
+                    final int newIntermediate = intermediateList.size();
+                    intermediateMap.put(outputTransition, newIntermediate);
+                    intermediateList.add(outputTransition);
+
+                    // the output may also be a new letter in the alphabet.
+                    intermediateOutputs[newIntermediate] = numInputs + outputMap.computeIfAbsent(o, k -> {
+                        outputs.add(k);
+                        return outputs.size() - 1;
+                    });
+
+                    intermediates[idx] = newIntermediate;
+                    firstAppearances.set(idx);
+                } else {
+                    intermediates[idx] = intermediate;
+                }
+            }
+        }
 
-        // create a bi-map that maps output to integers
-        final BiMap<O, Integer> outputIndices = HashBiMap.create();
+        // write the transitions
+        buffer.appendLine("begin trans");
+        writeTransitions(buffer, numStates, (b, from, to) -> {
+            for (int s = from; s < to; s++) {
+                for (int i = 0; i < numInputs; i++) {
+                    final int idx = s * numInputs + i;
+                    final int intermediate = intermediates[idx];
 
-        /*
-         Write the transitions (here is where the horror begins).
-         The key to writing transitions with alternating semantics is that one have of see if appropriate
-         intermediate states, and output transitions have already been created. If this is the case, that state, and
-         output transitions has to be reused.
-         */
-        pw.println("begin trans");
-        for (S s : mealy.getStates()) {
-            for (I i : inputs) {
-                T t = mealy.getTransition(s, i);
-                if (t != null) {
-                    final S n = mealy.getSuccessor(t);
-                    final O o = mealy.getTransitionOutput(t);
-
-                    // construct a triple that serves as a key in the outputTransitions bi-map
-                    final Pair<O, S> outputTransition = Pair.of(o, n);
-
-                    // compute the integer value of the intermediate state (this may be a new state)
-                    final Integer intermediateState = outputTransitions.computeIfAbsent(
-                            outputTransition, ii -> {
-
-                                // the output may also be a new letter in the alphabet.
-                                final Integer outputIndex = outputIndices.computeIfAbsent(
-                                        o,
-                                        iii -> inputs.size() + outputIndices.size());
-
-                                /*
-                                Write the output transition. Note that this will only be done if the output
-                                transition was not written before.
-                                */
-                                final Integer res = oldStates.size() + outputTransitions.size();
-                                pw.printf("%d/%d %d%n", res, oldStates.get(n), outputIndex);
-                                return res;
-                            });
+                    if (intermediate == FullIntAbstraction.INVALID_STATE) {
+                        continue;
+                    }
+
+                    final int intermediateState = numStates + intermediate;
+
+                    // write the output transition, if it has not been written before
+                    if (firstAppearances.get(idx)) {
+                        final int succ = intermediateList.get(intermediate).getSecond();
+                        b.append(intermediateState).append('/').append(succ).append(' ');
+                        b.append(intermediateOutputs[intermediate]).newLine();
+                    }
 
                     // always write the input transition to the output transition
-                    pw.printf(
-                            "%d/%d %d%n",
-                            oldStates.get(s),
-                            intermediateState,
-                            inputs.getSymbolIndex(i));
+                    b.append(s).append('/').append(intermediateState).append(' ').append(i).newLine();
                 }
             }
-        }
-        pw.println("end trans");
+        });
+        buffer.appendLine("end trans");
 
         // write all state ids, including the newly created intermediate states
-        pw.println("begin sort id");
-        for (int i = 0; i < oldStates.size(); i++) {
-            pw.printf("\"%s\"%n", oldStates.inverse().get(i));
+        buffer.appendLine("begin sort id");
+        for (int s = 0; s < numStates; s++) {
+            buffer.appendQuotedLine(stateIDs.getState(s));
         }
-
-        final Map<Integer, Pair<O, S>> inverseTransitions = outputTransitions.inverse();
-        for (int i = 0; i < outputTransitions.size(); i++) {
-            final Pair<O, S> t = inverseTransitions.get(oldStates.size() + i);
-            assert t != null;
-            pw.printf("\"(%s,%s)\"%n", t.getFirst(), t.getSecond());
+        for (Pair<O, Integer> t : intermediateList) {
+            buffer.append("\"(").append(String.valueOf(t.getFirst())).append(',');
+            buffer.append(String.valueOf(stateIDs.getState(t.getSecond()))).append(")\"").newLine();
         }
-        pw.println("end sort");
+        buffer.appendLine("end sort");
 
         // write all the letters in the new alphabet
-        pw.println("begin sort letter");
-        inputs.forEach(i -> pw.printf("\"%s\"%n", i));
-        for (int i = 0; i < outputIndices.size(); i++) {
-            pw.printf("\"%s\"%n", outputIndices.inverse().get(inputs.size() + i));
+        buffer.appendLine("begin sort letter");
+        for (I i : inputs) {
+            buffer.appendQuotedLine(i);
         }
-        pw.println("end sort");
-    }
-
-    @Override
-    public void writeModel(OutputStream os, MealyMachine<?, I, ?, O> model, Alphabet<I> alphabet) {
-        try (PrintWriter pw = new PrintWriter(IOUtil.asBufferedNonClosingUTF8Writer(os))) {
-            write(pw, model, alphabet);
+        for (O o : outputs) {
+            buffer.appendQuotedLine(o);
         }
+        buffer.appendLine("end sort");
     }
 
     @SuppressWarnings("unchecked")
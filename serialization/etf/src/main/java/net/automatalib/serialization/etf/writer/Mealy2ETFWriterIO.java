@@ -15,14 +15,15 @@
  */
 package net.automatalib.serialization.etf.writer;
 
-import java.io.OutputStream;
-import java.io.PrintWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
-import com.google.common.collect.BiMap;
-import com.google.common.collect.HashBiMap;
+import net.automatalib.automata.UniversalDeterministicAutomaton.FullIntAbstraction;
 import net.automatalib.automata.concepts.StateIDs;
 import net.automatalib.automata.transducers.MealyMachine;
-import net.automatalib.commons.util.IOUtil;
 import net.automatalib.words.Alphabet;
 
 /**
@@ -33,21 +34,21 @@ import net.automatalib.words.Alphabet;
  * @param <I> the input type
  * @param <O> the output type
  */
-public final class Mealy2ETFWriterIO<I, O> extends AbstractETFWriter<I, MealyMachine<?, I, ?, O>> {
+public final class Mealy2ETFWriterIO<I, O> extends AbstractBufferedETFWriter<I, MealyMachine<?, I, ?, O>> {
 
     private static final Mealy2ETFWriterIO<?, ?> INSTANCE = new Mealy2ETFWriterIO<>();
 
     /**
      * Write the edge type. An edge has two edge labels: input of type input, and output of type output.
      *
-     * @param pw the Writer.
+     * @param buffer the buffer.
      */
     @Override
-    protected void writeEdge(PrintWriter pw) {
-        pw.println("begin edge");
-        pw.println("input:input");
-        pw.println("output:output");
-        pw.println("end edge");
+    void writeEdge(ETFBuffer buffer) throws IOException {
+        buffer.appendLine("begin edge");
+        buffer.appendLine("input:input");
+        buffer.appendLine("output:output");
+        buffer.appendLine("end edge");
     }
 
     /**
@@ -60,71 +61,90 @@ public final class Mealy2ETFWriterIO<I, O> extends AbstractETFWriter<I, MealyMac
      *  - the input alphabet (for the input labels on edges),
      *  - the output alphabet (for the output labels on edges).
      *
-     * @param pw the Writer.
+     * @param buffer the buffer.
      * @param mealy the Mealy machine to write.
      * @param inputs the alphabet.
      */
     @Override
-    protected void writeETF(PrintWriter pw, MealyMachine<?, I, ?, O> mealy, Alphabet<I> inputs) {
-        writeETFInternal(pw, mealy, inputs);
+    void writeETF(ETFBuffer buffer, MealyMachine<?, I, ?, O> mealy, Alphabet<I> inputs) throws IOException {
+        writeETFInternal(buffer, mealy, inputs);
     }
 
-    private <S, T> void writeETFInternal(PrintWriter pw, MealyMachine<S, I, T, O> mealy, Alphabet<I> inputs) {
+    private <S, T> void writeETFInternal(ETFBuffer buffer, MealyMachine<S, I, T, O> mealy, Alphabet<I> inputs)
+            throws IOException {
         final StateIDs<S> stateIDs = mealy.stateIDs();
+        final FullIntAbstraction<T, Void, O> abs = mealy.fullIntAbstraction(inputs);
+        final int numStates = abs.size();
+        final int numInputs = inputs.size();
 
         // write the initial state
-        final S init = mealy.getInitialState();
-        if (init != null) {
-            pw.println("begin init");
-            pw.printf("%d%n", stateIDs.getStateId(init));
-            pw.println("end init");
+        final int init = abs.getIntInitialState();
+        if (init != FullIntAbstraction.INVALID_STATE) {
+            buffer.appendLine("begin init");
+            buffer.append(init).newLine();
+            buffer.appendLine("end init");
         }
 
         // write the state ids
-        pw.println("begin sort id");
-        mealy.getStates().forEach(s -> pw.printf("\"%s\"%n", s));
-        pw.println("end sort");
+        buffer.appendLine("begin sort id");
+        for (int s = 0; s < numStates; s++) {
+            buffer.appendQuotedLine(stateIDs.getState(s));
+        }
+        buffer.appendLine("end sort");
 
-        // create a new bi-map that contains indices for the output alphabet
-        final BiMap<O, Integer> outputIndices = HashBiMap.create();
+        // compute the successors and the indices for the output alphabet (in order of appearance) once, so that the
+        // transitions can be formatted concurrently
+        final int[] successors = new int[numStates * numInputs];
+        final int[] outputIndices = new int[numStates * numInputs];
+        final Map<O, Integer> outputMap = new HashMap<>();
+        final List<O> outputs = new ArrayList<>();
 
-        // write the transitions
-        pw.println("begin trans");
-        for (S s : mealy.getStates()) {
-            for (I i : inputs) {
-                final T t = mealy.getTransition(s, i);
-                if (t != null) {
-                    final O o = mealy.getTransitionOutput(t);
-                    outputIndices.computeIfAbsent(o, ii -> outputIndices.size());
-                    final S n = mealy.getSuccessor(t);
-                    pw.printf("%s/%s %d %d%n",
-                              stateIDs.getStateId(s),
-                              stateIDs.getStateId(n),
-                              inputs.getSymbolIndex(i),
-                              outputIndices.get(o));
+        for (int s = 0; s < numStates; s++) {
+            for (int i = 0; i < numInputs; i++) {
+                final int idx = s * numInputs + i;
+                final T t = abs.getTransition(s, i);
+                if (t == null) {
+                    successors[idx] = FullIntAbstraction.INVALID_STATE;
+                } else {
+                    final O o = abs.getTransitionProperty(t);
+                    successors[idx] = abs.getIntSuccessor(t);
+                    outputIndices[idx] = outputMap.computeIfAbsent(o, k -> {
+                        outputs.add(k);
+                        return outputs.size() - 1;
+                    });
                 }
             }
         }
-        pw.println("end trans");
 
-        // write the letters in the input alphabet
-        pw.println("begin sort input");
-        inputs.forEach(i -> pw.printf("\"%s\"%n", i));
-        pw.println("end sort");
+        // write the transitions
+        buffer.appendLine("begin trans");
+        writeTransitions(buffer, numStates, (b, from, to) -> {
+            for (int s = from; s < to; s++) {
+                for (int i = 0; i < numInputs; i++) {
+                    final int idx = s * numInputs + i;
+                    final int n = successors[idx];
+                    if (n != FullIntAbstraction.INVALID_STATE) {
+                        b.append(s).append('/').append(n).append(' ').append(i).append(' ');
+                        b.append(outputIndices[idx]).newLine();
+                    }
+                }
+            }
+        });
+        buffer.appendLine("end trans");
 
-        // write the letters in the output alphabet
-        pw.println("begin sort output");
-        for (int i = 0; i < outputIndices.size(); i++) {
-            pw.printf("\"%s\"%n", outputIndices.inverse().get(i));
+        // write the letters in the input alphabet
+        buffer.appendLine("begin sort input");
+        for (I i : inputs) {
+            buffer.appendQuotedLine(i);
         }
-        pw.println("end sort");
-    }
+        buffer.appendLine("end sort");
 
-    @Override
-    public void writeModel(OutputStream os, MealyMachine<?, I, ?, O> model, Alphabet<I> alphabet) {
-        try (PrintWriter pw = new PrintWriter(IOUtil.asBufferedNonClosingUTF8Writer(os))) {
-            write(pw, model, alphabet);
+        // write the letters in the output alphabet
+        buffer.appendLine("begin sort output");
+        for (O o : outputs) {
+            buffer.appendQuotedLine(o);
         }
+        buffer.appendLine("end sort");
     }
 
     @SuppressWarnings("unchecked")
@@ -16,6 +16,7 @@
 package net.automatalib.serialization.etf.writer;
 
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.io.Reader;
 import java.nio.charset.StandardCharsets;
 import java.util.Random;
@@ -23,6 +24,7 @@ import java.util.Random;
 import com.google.common.io.ByteStreams;
 import com.google.common.io.CharStreams;
 import net.automatalib.automata.fsa.DFA;
+import net.automatalib.automata.fsa.impl.compact.CompactDFA;
 import net.automatalib.commons.util.IOUtil;
 import net.automatalib.commons.util.io.UnclosableOutputStream;
 import net.automatalib.util.automata.builders.AutomatonBuilders;
@@ -75,7 +77,37 @@ public class DFA2ETFWriterTest {
     }
 
     @Test
-    public void doNotCloseOutputStreamTest() {
+    public void testWriteLarge() throws IOException {
+        final Alphabet<Character> alphabet = Alphabets.characters('a', 'c');
+        final int size = 5 * AbstractBufferedETFWriter.CHUNK_SIZE / 2;
+        final CompactDFA<Character> automaton = RandomAutomata.randomDFA(new Random(0), size, alphabet);
+
+        // remove some transitions
+        final Random random = new Random(1);
+        for (int i = 0; i < size; i++) {
+            automaton.removeAllTransitions(random.nextInt(size), alphabet.getSymbol(random.nextInt(alphabet.size())));
+        }
+
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        DFA2ETFWriter.<Character>getInstance().writeModel(baos, automaton, alphabet);
+
+        final StringBuilder expected = new StringBuilder();
+        expected.append("begin trans").append(System.lineSeparator());
+        for (Integer s : automaton) {
+            for (int i = 0; i < alphabet.size(); i++) {
+                final Integer succ = automaton.getSuccessor(s, alphabet.getSymbol(i));
+                if (succ != null) {
+                    expected.append(s).append('/').append(succ).append(' ').append(i).append(System.lineSeparator());
+                }
+            }
+        }
+        expected.append("end trans");
+
+        Assert.assertTrue(baos.toString(StandardCharsets.UTF_8.toString()).contains(expected));
+    }
+
+    @Test
+    public void doNotCloseOutputStreamTest() throws IOException {
         final Alphabet<Character> alphabet = Alphabets.characters('a', 'c');
         final DFA<?, Character> automaton = RandomAutomata.randomDFA(new Random(0), 10, alphabet);
 
@@ -16,14 +16,21 @@
 package net.automatalib.serialization.etf.writer;
 
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintWriter;
 import java.io.Reader;
+import java.io.StringWriter;
 import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Random;
 
 import com.google.common.io.ByteStreams;
 import com.google.common.io.CharStreams;
+import net.automatalib.automata.concepts.StateIDs;
 import net.automatalib.automata.transducers.MealyMachine;
 import net.automatalib.commons.util.IOUtil;
+import net.automatalib.commons.util.Pair;
 import net.automatalib.commons.util.io.UnclosableOutputStream;
 import net.automatalib.util.automata.random.RandomAutomata;
 import net.automatalib.words.Alphabet;
@@ -58,7 +65,29 @@ public class Mealy2ETFWriterAlternatingTest {
     }
 
     @Test
-    public void doNotCloseOutputStreamTest() {
+    public void testWriteLarge() throws IOException {
+        final Alphabet<Character> alphabet = Alphabets.characters('a', 'c');
+        final int size = 5 * AbstractBufferedETFWriter.CHUNK_SIZE / 2;
+        final MealyMachine<?, Character, ?, Character> automaton =
+                RandomAutomata.randomMealy(new Random(0), size, alphabet, alphabet);
+        final Mealy2ETFWriterAlternating<Character, Character> writer = Mealy2ETFWriterAlternating.getInstance();
+
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        writer.writeModel(baos, automaton, alphabet);
+
+        final String etf = baos.toString(StandardCharsets.UTF_8.toString());
+        Assert.assertEquals(etf, writeNaively(automaton, alphabet));
+
+        // the PrintWriter-based extension points yield the same content
+        final StringWriter sw = new StringWriter();
+        try (PrintWriter pw = new PrintWriter(sw)) {
+            writer.write(pw, automaton, alphabet);
+        }
+        Assert.assertEquals(sw.toString(), etf);
+    }
+
+    @Test
+    public void doNotCloseOutputStreamTest() throws IOException {
         final Alphabet<Character> alphabet = Alphabets.characters('a', 'c');
         final MealyMachine<?, Character, ?, Character> automaton =
                 RandomAutomata.randomMealy(new Random(0), 10, alphabet, alphabet);
@@ -68,4 +97,64 @@ public class Mealy2ETFWriterAlternatingTest {
                                                                                   automaton,
                                                                                   alphabet);
     }
+
+    private static <S, T> String writeNaively(MealyMachine<S, Character, T, Character> mealy,
+                                              Alphabet<Character> alphabet) {
+        final String nl = System.lineSeparator();
+        final StringBuilder sb = new StringBuilder();
+        final StateIDs<S> stateIDs = mealy.stateIDs();
+        final int numStates = mealy.size();
+
+        // intermediate states and output letters in the order of their first occurrence
+        final Map<Pair<Character, S>, Integer> intermediates = new LinkedHashMap<>();
+        final Map<Character, Integer> outputs = new LinkedHashMap<>();
+
+        sb.append("begin state").append(nl).append("id:id").append(nl).append("end state").append(nl);
+        sb.append("begin edge").append(nl).append("letter:letter").append(nl).append("end edge").append(nl);
+        sb.append("begin init").append(nl).append(stateIDs.getStateId(mealy.getInitialState())).append(nl);
+        sb.append("end init").append(nl);
+
+        sb.append("begin trans").append(nl);
+        for (int s = 0; s < numStates; s++) {
+            final S state = stateIDs.getState(s);
+            for (int i = 0; i < alphabet.size(); i++) {
+                final T t = mealy.getTransition(state, alphabet.getSymbol(i));
+                if (t != null) {
+                    final S succ = mealy.getSuccessor(t);
+                    final Character o = mealy.getTransitionOutput(t);
+                    final Pair<Character, S> key = Pair.of(o, succ);
+                    Integer intermediate = intermediates.get(key);
+                    if (intermediate == null) {
+                        intermediate = numStates + intermediates.size();
+                        intermediates.put(key, intermediate);
+                        final int outputIdx = outputs.computeIfAbsent(o, x -> alphabet.size() + outputs.size());
+                        sb.append(intermediate).append('/').append(stateIDs.getStateId(succ)).append(' ');
+                        sb.append(outputIdx).append(nl);
+                    }
+                    sb.append(s).append('/').append(intermediate).append(' ').append(i).append(nl);
+                }
+            }
+        }
+        sb.append("end trans").append(nl);
+
+        sb.append("begin sort id").append(nl);
+        for (int s = 0; s < numStates; s++) {
+            sb.append('"').append(stateIDs.getState(s)).append('"').append(nl);
+        }
+        for (Pair<Character, S> p : intermediates.keySet()) {
+            sb.append("\"(").append(p.getFirst()).append(',').append(p.getSecond()).append(")\"").append(nl);
+        }
+        sb.append("end sort").append(nl);
+
+        sb.append("begin sort letter").append(nl);
+        for (Character i : alphabet) {
+            sb.append('"').append(i).append('"').append(nl);
+        }
+        for (Character o : outputs.keySet()) {
+            sb.append('"').append(o).append('"').append(nl);
+        }
+        sb.append("end sort").append(nl);
+
+        return sb.toString();
+    }
 }
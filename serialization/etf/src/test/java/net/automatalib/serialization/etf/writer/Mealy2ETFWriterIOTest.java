@@ -16,12 +16,16 @@
 package net.automatalib.serialization.etf.writer;
 
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.io.Reader;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Random;
 
 import com.google.common.io.ByteStreams;
 import com.google.common.io.CharStreams;
+import net.automatalib.automata.concepts.StateIDs;
 import net.automatalib.automata.transducers.MealyMachine;
 import net.automatalib.commons.util.IOUtil;
 import net.automatalib.commons.util.io.UnclosableOutputStream;
@@ -58,7 +62,21 @@ public class Mealy2ETFWriterIOTest {
     }
 
     @Test
-    public void doNotCloseOutputStreamTest() {
+    public void testWriteLarge() throws IOException {
+        final Alphabet<Character> alphabet = Alphabets.characters('a', 'c');
+        final int size = 5 * AbstractBufferedETFWriter.CHUNK_SIZE / 2;
+        final MealyMachine<?, Character, ?, Character> automaton =
+                RandomAutomata.randomMealy(new Random(0), size, alphabet, alphabet);
+
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        Mealy2ETFWriterIO.<Character, Character>getInstance().writeModel(baos, automaton, alphabet);
+
+        final String etf = baos.toString(StandardCharsets.UTF_8.toString());
+        Assert.assertEquals(etf, writeNaively(automaton, alphabet));
+    }
+
+    @Test
+    public void doNotCloseOutputStreamTest() throws IOException {
         final Alphabet<Character> alphabet = Alphabets.characters('a', 'c');
         final MealyMachine<?, Character, ?, Character> automaton =
                 RandomAutomata.randomMealy(new Random(0), 10, alphabet, alphabet);
@@ -67,4 +85,54 @@ public class Mealy2ETFWriterIOTest {
                                                                          automaton,
                                                                          alphabet);
     }
+
+    private static <S, T> String writeNaively(MealyMachine<S, Character, T, Character> mealy,
+                                              Alphabet<Character> alphabet) {
+        final String nl = System.lineSeparator();
+        final StringBuilder sb = new StringBuilder();
+        final StateIDs<S> stateIDs = mealy.stateIDs();
+        final List<Character> outputs = new ArrayList<>();
+
+        sb.append("begin state").append(nl).append("id:id").append(nl).append("end state").append(nl);
+        sb.append("begin edge").append(nl).append("input:input").append(nl).append("output:output").append(nl);
+        sb.append("end edge").append(nl);
+        sb.append("begin init").append(nl).append(stateIDs.getStateId(mealy.getInitialState())).append(nl);
+        sb.append("end init").append(nl);
+
+        sb.append("begin sort id").append(nl);
+        for (int s = 0; s < mealy.size(); s++) {
+            sb.append('"').append(stateIDs.getState(s)).append('"').append(nl);
+        }
+        sb.append("end sort").append(nl);
+
+        sb.append("begin trans").append(nl);
+        for (int s = 0; s < mealy.size(); s++) {
+            for (int i = 0; i < alphabet.size(); i++) {
+                final T t = mealy.getTransition(stateIDs.getState(s), alphabet.getSymbol(i));
+                if (t != null) {
+                    final Character o = mealy.getTransitionOutput(t);
+                    if (!outputs.contains(o)) {
+                        outputs.add(o);
+                    }
+                    sb.append(s).append('/').append(stateIDs.getStateId(mealy.getSuccessor(t))).append(' ');
+                    sb.append(i).append(' ').append(outputs.indexOf(o)).append(nl);
+                }
+            }
+        }
+        sb.append("end trans").append(nl);
+
+        sb.append("begin sort input").append(nl);
+        for (Character i : alphabet) {
+            sb.append('"').append(i).append('"').append(nl);
+        }
+        sb.append("end sort").append(nl);
+
+        sb.append("begin sort output").append(nl);
+        for (Character o : outputs) {
+            sb.append('"').append(o).append('"').append(nl);
+        }
+        sb.append("end sort").append(nl);
+
+        return sb.toString();
+    }
 }
@@ -24,6 +24,8 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -255,6 +257,100 @@ public final class BacktrackingSearch {
         return searchState.map(s -> constructADS(automaton, new ReflexiveMapView<>(states), s));
     }
 
+    /**
+     * Computes an optimal ADS (see {@link #computeOptimal(MealyMachine, Alphabet, Set, CostAggregator)}) by exploring
+     * the successor tree concurrently on the given pool. Sets of states are encoded as bitsets and the solutions of
+     * sub-problems are memoized in a table that is shared between all threads. The input symbols of a node of the
+     * successor tree are explored in parallel. The automaton must not be modified during the computation.
+     * <p>
+     * The cost of the computed ADS is optimal, but the computed ADS may differ from the one computed by {@link
+     * #computeOptimal(MealyMachine, Alphabet, Set, CostAggregator)} if multiple optimal ADSs exist.
+     *
+     * @param automaton
+     *         The automaton for which an ADS should be computed
+     * @param input
+     *         the input alphabet of the automaton
+     * @param states
+     *         the set of states which should be distinguished by the computed ADS
+     * @param costAggregator
+     *         the optimization function by which solutions should be pruned
+     * @param pool
+     *         the pool on which the successor tree is explored
+     * @param <S>
+     *         (hypothesis) state type
+     * @param <I>
+     *         input alphabet type
+     * @param <O>
+     *         output alphabet type
+     *
+     * @return {@code Optional.empty()} if there exists no ADS that distinguishes the given states, a valid ADS
+     * otherwise.
+     */
+    public static <S, I, O> Optional<ADSNode<S, I, O>> computeOptimal(final MealyMachine<S, I, ?, O> automaton,
+                                                                      final Alphabet<I> input,
+                                                                      final Set<S> states,
+                                                                      final CostAggregator costAggregator,
+                                                                      final ForkJoinPool pool) {
+        return computeOptimal(automaton, input, states, costAggregator, pool, Long.MAX_VALUE);
+    }
+
+    /**
+     * An anytime version of {@link #computeOptimal(MealyMachine, Alphabet, Set, CostAggregator, ForkJoinPool)}. Once
+     * the given time budget is exhausted, the search stops expanding nodes of the successor tree and returns the best
+     * ADS among the input symbols that have been completely explored so far. Hence, the returned ADS is only
+     * guaranteed to be optimal if the search finishes within the given budget.
+     *
+     * @param automaton
+     *         The automaton for which an ADS should be computed
+     * @param input
+     *         the input alphabet of the automaton
+     * @param states
+     *         the set of states which should be distinguished by the computed ADS
+     * @param costAggregator
+     *         the optimization function by which solutions should be pruned
+     * @param pool
+     *         the pool on which the successor tree is explored
+     * @param timeout
+     *         the time budget of the search
+     * @param unit
+     *         the time unit of the {@code timeout} parameter
+     * @param <S>
+     *         (hypothesis) state type
+     * @param <I>
+     *         input alphabet type
+     * @param <O>
+     *         output alphabet type
+     *
+     * @return {@code Optional.empty()} if no ADS that distinguishes the given states has been found within the given
+     * budget, a valid ADS otherwise.
+     */
+    public static <S, I, O> Optional<ADSNode<S, I, O>> computeOptimal(final MealyMachine<S, I, ?, O> automaton,
+                                                                      final Alphabet<I> input,
+                                                                      final Set<S> states,
+                                                                      final CostAggregator costAggregator,
+                                                                      final ForkJoinPool pool,
+                                                                      final long timeout,
+                                                                      final TimeUnit unit) {
+        return computeOptimal(automaton, input, states, costAggregator, pool, unit.toNanos(timeout));
+    }
+
+    private static <S, I, O> Optional<ADSNode<S, I, O>> computeOptimal(final MealyMachine<S, I, ?, O> automaton,
+                                                                       final Alphabet<I> input,
+                                                                       final Set<S> states,
+                                                                       final CostAggregator costAggregator,
+                                                                       final ForkJoinPool pool,
+                                                                       final long budget) {
+
+        if (states.size() == 1) {
+            return ADS.compute(automaton, input, states);
+        }
+
+        final Optional<SearchState<S, I, O>> searchState =
+                ParallelADSSearch.exploreSearchSpace(automaton, input, states, costAggregator, pool, budget);
+
+        return searchState.map(s -> constructADS(automaton, new ReflexiveMapView<>(states), s));
+    }
+
     private static <S, I, T, O> Optional<SearchState<S, I, O>> exploreSearchSpace(final MealyMachine<S, I, T, O> automaton,
                                                                                   final Alphabet<I> alphabet,
                                                                                   final Set<S> targets,
@@ -485,12 +581,12 @@ public final class BacktrackingSearch {
      * @param <O>
      *         output alphabet type
      */
-    private static class SearchState<S, I, O> {
+    static class SearchState<S, I, O> {
 
-        private I symbol;
+        I symbol;
 
-        private Map<O, SearchState<S, I, O>> successors;
+        Map<O, SearchState<S, I, O>> successors;
 
-        private int costs;
+        int costs;
     }
 }
@@ -0,0 +1,267 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.util.automata.ads;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import net.automatalib.words.Word;
+
+/**
+ * An int-encoded split tree used by the algorithm of {@link LeeYannakakis}. The states of the tree are stored in a
+ * single permutation array (similar to the block data of {@link net.automatalib.util.partitionrefinement.PaigeTarjan})
+ * such that every node of the tree covers a contiguous range of this array. Splitting a leaf only permutes the states
+ * within the range of the leaf, hence the ranges of all nodes remain valid throughout the construction. This allows
+ * to compute the lowest node containing a set of states without maintaining explicit sets.
+ * <p>
+ * Nodes are identified by integers (the root has id {@code 0}), outputs are identified by the integer ids of the
+ * client. For each inner node, the tree stores the (current) state reached by each of its states after reading the
+ * node's sequence in two (parallel) sorted arrays.
+ *
+ * @param <I>
+ *         input alphabet type
+ *
+ * @author frohme
+ */
+final class CompactSplitTree<I> {
+
+    static final int NO_NODE = -1;
+
+    private static final int[] EMPTY = new int[0];
+
+    // permutation of states and the position of each state in the permutation
+    private final int[] blockData;
+    private final int[] posData;
+    private final int[] leafOf;
+
+    // nodes
+    private final int[] low;
+    private final int[] high;
+    private final int[] parent;
+    private final int[] output;
+    private final int[] firstChild;
+    private final int[] lastChild;
+    private final int[] nextSibling;
+    private final List<Word<I>> sequences;
+    private final List<int[]> sources;
+    private final List<int[]> targets;
+    private int numNodes;
+
+    // scratch space for splits
+    private final int[] groupSizes;
+
+    CompactSplitTree(int numStates) {
+        this.blockData = new int[numStates];
+        this.posData = new int[numStates];
+        this.leafOf = new int[numStates];
+
+        for (int i = 0; i < numStates; i++) {
+            blockData[i] = i;
+            posData[i] = i;
+        }
+
+        // each split creates at least two new nodes, hence there exist at most 2n - 1 nodes
+        final int maxNodes = Math.max(1, 2 * numStates - 1);
+        this.low = new int[maxNodes];
+        this.high = new int[maxNodes];
+        this.parent = new int[maxNodes];
+        this.output = new int[maxNodes];
+        this.firstChild = new int[maxNodes];
+        this.lastChild = new int[maxNodes];
+        this.nextSibling = new int[maxNodes];
+        this.sequences = new ArrayList<>(maxNodes);
+        this.sources = new ArrayList<>(maxNodes);
+        this.targets = new ArrayList<>(maxNodes);
+
+        this.groupSizes = new int[numStates];
+
+        createNode(0, numStates, NO_NODE, -1);
+    }
+
+    private int createNode(int lo, int hi, int parentNode, int out) {
+        final int node = numNodes++;
+        low[node] = lo;
+        high[node] = hi;
+        parent[node] = parentNode;
+        output[node] = out;
+        firstChild[node] = NO_NODE;
+        lastChild[node] = NO_NODE;
+        nextSibling[node] = NO_NODE;
+        sequences.add(Word.epsilon());
+        sources.add(EMPTY);
+        targets.add(EMPTY);
+
+        for (int i = lo; i < hi; i++) {
+            leafOf[blockData[i]] = node;
+        }
+
+        if (parentNode != NO_NODE) {
+            if (lastChild[parentNode] == NO_NODE) {
+                firstChild[parentNode] = node;
+            } else {
+                nextSibling[lastChild[parentNode]] = node;
+            }
+            lastChild[parentNode] = node;
+        }
+
+        return node;
+    }
+
+    /**
+     * Splits the given leaf into {@code numGroups} children.
+     *
+     * @param leaf
+     *         the leaf to split
+     * @param sequence
+     *         the (splitting) sequence of the leaf
+     * @param groupOfState
+     *         the index of the child of each state (indexed by state)
+     * @param groupOutputs
+     *         the output id of each child
+     * @param numGroups
+     *         the number of children
+     * @param imageOfState
+     *         the state reached by each state after reading the sequence (indexed by state)
+     */
+    void split(int leaf, Word<I> sequence, int[] groupOfState, int[] groupOutputs, int numGroups, int[] imageOfState) {
+        assert isLeaf(leaf);
+
+        final int lo = low[leaf];
+        final int hi = high[leaf];
+
+        // store the mapping of the node
+        final int[] nodeSources = Arrays.copyOfRange(blockData, lo, hi);
+        Arrays.sort(nodeSources);
+        final int[] nodeTargets = new int[nodeSources.length];
+        for (int i = 0; i < nodeSources.length; i++) {
+            nodeTargets[i] = imageOfState[nodeSources[i]];
+        }
+        sequences.set(leaf, sequence);
+        sources.set(leaf, nodeSources);
+        targets.set(leaf, nodeTargets);
+
+        // counting sort of the states of the leaf by their group
+        Arrays.fill(groupSizes, 0, numGroups, 0);
+        for (int i = lo; i < hi; i++) {
+            groupSizes[groupOfState[blockData[i]]]++;
+        }
+
+        int ofs = lo;
+        for (int g = 0; g < numGroups; g++) {
+            final int size = groupSizes[g];
+            groupSizes[g] = ofs;
+            ofs += size;
+        }
+
+        for (final int s : nodeSources) {
+            final int pos = groupSizes[groupOfState[s]]++;
+            blockData[pos] = s;
+            posData[s] = pos;
+        }
+
+        int childLow = lo;
+        for (int g = 0; g < numGroups; g++) {
+            final int childHigh = groupSizes[g];
+            createNode(childLow, childHigh, leaf, groupOutputs[g]);
+            childLow = childHigh;
+        }
+    }
+
+    int getRoot() {
+        return 0;
+    }
+
+    boolean isLeaf(int node) {
+        return firstChild[node] == NO_NODE;
+    }
+
+    int getLeaf(int state) {
+        return leafOf[state];
+    }
+
+    int getLow(int node) {
+        return low[node];
+    }
+
+    int getHigh(int node) {
+        return high[node];
+    }
+
+    int size(int node) {
+        return high[node] - low[node];
+    }
+
+    int getState(int pos) {
+        return blockData[pos];
+    }
+
+    int getOutput(int node) {
+        return output[node];
+    }
+
+    int getFirstChild(int node) {
+        return firstChild[node];
+    }
+
+    int getNextSibling(int node) {
+        return nextSibling[node];
+    }
+
+    Word<I> getSequence(int node) {
+        return sequences.get(node);
+    }
+
+    /**
+     * Returns the state that is reached from the given state after reading the sequence of the given (inner) node.
+     */
+    int getImage(int node, int state) {
+        final int idx = Arrays.binarySearch(sources.get(node), state);
+        assert idx >= 0;
+        return targets.get(node)[idx];
+    }
+
+    /**
+     * Returns the child of the given (inner) node that contains the given state.
+     */
+    int getChild(int node, int state) {
+        int result = leafOf[state];
+        while (parent[result] != node) {
+            result = parent[result];
+        }
+        return result;
+    }
+
+    /**
+     * Returns the lowest node that contains all of the given states.
+     */
+    int findLowestSubsetNode(int[] states, int numStates) {
+        int minPos = Integer.MAX_VALUE;
+        int maxPos = Integer.MIN_VALUE;
+
+        for (int i = 0; i < numStates; i++) {
+            final int pos = posData[states[i]];
+            minPos = Math.min(minPos, pos);
+            maxPos = Math.max(maxPos, pos);
+        }
+
+        int result = leafOf[blockData[minPos]];
+        while (high[result] <= maxPos) {
+            result = parent[result];
+        }
+        return result;
+    }
+}
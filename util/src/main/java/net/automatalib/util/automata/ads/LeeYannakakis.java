@@ -15,32 +15,23 @@
  */
 package net.automatalib.util.automata.ads;
 
-import java.util.Collections;
-import java.util.EnumMap;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.function.Function;
-import java.util.stream.Collectors;
 
-import com.google.common.collect.BiMap;
-import com.google.common.collect.HashBiMap;
-import com.google.common.collect.Maps;
-import com.google.common.collect.Sets;
 import net.automatalib.automata.transducers.MealyMachine;
-import net.automatalib.commons.smartcollections.ReflexiveMapView;
 import net.automatalib.commons.util.Pair;
 import net.automatalib.graphs.ads.ADSNode;
 import net.automatalib.graphs.ads.impl.ADSLeafNode;
-import net.automatalib.graphs.base.compact.CompactEdge;
-import net.automatalib.graphs.base.compact.CompactSimpleGraph;
-import net.automatalib.util.graphs.Path;
-import net.automatalib.util.graphs.ShortestPaths;
-import net.automatalib.util.graphs.traversal.GraphTraversal;
 import net.automatalib.words.Alphabet;
 import net.automatalib.words.Word;
+import net.automatalib.words.WordBuilder;
 
 /**
  * Algorithm of Lee and Yannakakis for computing adaptive distinguishing sequences (of length at most n^2) in O(n^2)
@@ -48,6 +39,9 @@ import net.automatalib.words.Word;
  * <p>
  * See: D. Lee and M. Yannakakis - "Testing Finite-State Machines: State Identification and Verification", IEEE
  * Transactions on Computers 43.3 (1994)
+ * <p>
+ * This implementation operates on int-encoded states, inputs and outputs. The split tree is represented by a {@link
+ * CompactSplitTree} and only the final result is converted to an {@link ADSNode}.
  *
  * @author frohme
  */
@@ -76,362 +70,546 @@ public final class LeeYannakakis {
     public static <S, I, O> LYResult<S, I, O> compute(final MealyMachine<S, I, ?, O> automaton,
                                                       final Alphabet<I> input) {
 
-        final SplitTreeResult<S, I, O> str = computeSplitTree(automaton, input);
+        final Computation<S, I, ?, O> computation = new Computation<>(automaton, input);
+        final SplitTreeResult<S, I, O> str = computation.computeSplitTree();
 
         if (str.isPresent()) {
-            final Set<S> states = new HashSet<>(automaton.getStates());
-            return new LYResult<>(extractADS(automaton, str.get(), states, new ReflexiveMapView<>(states), null));
+            return new LYResult<>(computation.extractADS(str.get()));
         }
 
         return new LYResult<>(str.getIndistinguishableStates());
     }
 
-    private static <S, I, O> SplitTreeResult<S, I, O> computeSplitTree(final MealyMachine<S, I, ?, O> automaton,
-                                                                       final Alphabet<I> input) {
+    private enum Validity {
+        A_VALID,
+        B_VALID,
+        C_VALID,
+        INVALID
+    }
 
-        final SplitTree<S, I, O> st = new SplitTree<>(new HashSet<>(automaton.getStates()));
-        final Set<SplitTree<S, I, O>> leaves = Sets.newHashSetWithExpectedSize(automaton.size());
-        leaves.add(st);
+    /**
+     * The state of a single computation. States, inputs and outputs of the automaton are identified by their indices
+     * and the transitions of the automaton are cached in flat arrays.
+     */
+    private static final class Computation<S, I, T, O> {
+
+        private final MealyMachine<S, I, T, O> automaton;
+        private final Alphabet<I> alphabet;
+        private final List<S> states;
+
+        private final int numStates;
+        private final int numInputs;
+        private final int[] successors;
+        private final int[] outputs;
+        private final List<O> outputSymbols;
+
+        private final CompactSplitTree<I> tree;
+
+        // scratch space
+        private final int[] groupOfState;
+        private final int[] imageOfState;
+        private final int[] groupOutputs;
+        private final int[] groupOfKey;
+        private final int[] buffer;
+        private final long[] keys;
+        private final boolean[] validInputs;
+
+        // per-node information of the current round
+        private final Validity[] validities;
+        private final int[] validInput;
+        private final int[] edgeHead;
+        private final int[] bfsParent;
+        private final int[] bfsSymbol;
+        private final int[] bfsStamp;
+        private int stamp;
+
+        private int[] edgeTarget;
+        private int[] edgeSymbol;
+        private int[] edgeNext;
+        private int numEdges;
+
+        Computation(MealyMachine<S, I, T, O> automaton, Alphabet<I> alphabet) {
+            this.automaton = automaton;
+            this.alphabet = alphabet;
+            this.states = new ArrayList<>(automaton.getStates());
+
+            this.numStates = states.size();
+            this.numInputs = alphabet.size();
+            this.successors = new int[numStates * numInputs];
+            this.outputs = new int[numStates * numInputs];
+            this.outputSymbols = new ArrayList<>();
+
+            final Map<S, Integer> stateIndices = new HashMap<>(numStates * 4 / 3 + 1);
+            for (int s = 0; s < numStates; s++) {
+                stateIndices.put(states.get(s), s);
+            }
 
-        while (leaves.stream().anyMatch(LeeYannakakis::needsRefinement)) {
+            final Map<O, Integer> outputIndices = new HashMap<>();
 
-            final int maxCardinality = leaves.stream()
-                                             .mapToInt(x -> x.getPartition().size())
-                                             .max()
-                                             .orElseThrow(IllegalStateException::new);
-            final Set<SplitTree<S, I, O>> R =
-                    leaves.stream().filter(x -> x.getPartition().size() == maxCardinality).collect(Collectors.toSet());
+            for (int s = 0; s < numStates; s++) {
+                final S state = states.get(s);
+                for (int i = 0; i < numInputs; i++) {
+                    final T trans = automaton.getTransition(state, alphabet.getSymbol(i));
 
-            final Map<Validity, Set<Pair<Word<I>, SplitTree<S, I, O>>>> validitySetMap =
-                    computeValidities(automaton, input, R, leaves);
+                    if (trans == null) {
+                        throw new IllegalArgumentException("Partial automata are not supported");
+                    }
 
-            if (!validitySetMap.get(Validity.INVALID).isEmpty()) {
-                final Set<Pair<Word<I>, SplitTree<S, I, O>>> set = validitySetMap.get(Validity.INVALID);
+                    final O out = automaton.getTransitionOutput(trans);
+                    Integer outIdx = outputIndices.get(out);
+                    if (outIdx == null) {
+                        outIdx = outputSymbols.size();
+                        outputIndices.put(out, outIdx);
+                        outputSymbols.add(out);
+                    }
 
-                final Set<S> indistinguishableStates = new HashSet<>();
+                    successors[s * numInputs + i] = stateIndices.get(automaton.getSuccessor(trans));
+                    outputs[s * numInputs + i] = outIdx;
+                }
+            }
+
+            this.tree = new CompactSplitTree<>(numStates);
+
+            this.groupOfState = new int[numStates];
+            this.imageOfState = new int[numStates];
+            this.groupOutputs = new int[numStates];
+            this.groupOfKey = new int[Math.max(outputSymbols.size(), 2 * numStates)];
+            Arrays.fill(this.groupOfKey, -1);
+            this.buffer = new int[numStates];
+            this.keys = new long[numStates];
+            this.validInputs = new boolean[numInputs];
+
+            final int maxNodes = Math.max(1, 2 * numStates - 1);
+            this.validities = new Validity[maxNodes];
+            this.validInput = new int[maxNodes];
+            this.edgeHead = new int[maxNodes];
+            Arrays.fill(this.edgeHead, -1);
+            this.bfsParent = new int[maxNodes];
+            this.bfsSymbol = new int[maxNodes];
+            this.bfsStamp = new int[maxNodes];
+
+            this.edgeTarget = new int[numStates];
+            this.edgeSymbol = new int[numStates];
+            this.edgeNext = new int[numStates];
+        }
 
-                for (final Pair<Word<I>, SplitTree<S, I, O>> pair : set) {
-                    indistinguishableStates.addAll(pair.getSecond().getPartition());
+        SplitTreeResult<S, I, O> computeSplitTree() {
+
+            List<Integer> leaves = new ArrayList<>();
+            leaves.add(tree.getRoot());
+
+            while (true) {
+                int maxCardinality = 0;
+                for (final int leaf : leaves) {
+                    maxCardinality = Math.max(maxCardinality, tree.size(leaf));
                 }
 
-                return new SplitTreeResult<>(indistinguishableStates);
-            }
+                if (maxCardinality <= 1) {
+                    break;
+                }
 
-            // a-valid partitions
-            for (final Pair<Word<I>, SplitTree<S, I, O>> aPartition : validitySetMap.get(Validity.A_VALID)) {
+                final List<Integer> r = new ArrayList<>();
+                for (final int leaf : leaves) {
+                    if (tree.size(leaf) == maxCardinality) {
+                        r.add(leaf);
+                    }
+                }
 
-                assert aPartition.getFirst().size() == 1 : "a-valid inputs should always contain exactly 1 symbol";
+                final Map<Integer, Word<I>> cWords = computeValidities(r);
 
-                final I aValidInput = aPartition.getFirst().firstSymbol();
-                final SplitTree<S, I, O> nodeToRefine = aPartition.getSecond();
-                final Map<O, Set<S>> successorMap = nodeToRefine.getPartition()
-                                                                .stream()
-                                                                .collect(Collectors.groupingBy(s -> automaton.getOutput(
-                                                                        s,
-                                                                        aValidInput), Collectors.toSet()));
+                final Set<S> indistinguishableStates = new HashSet<>();
+                for (final int node : r) {
+                    if (validities[node] == Validity.INVALID) {
+                        for (int pos = tree.getLow(node); pos < tree.getHigh(node); pos++) {
+                            indistinguishableStates.add(states.get(tree.getState(pos)));
+                        }
+                    }
+                }
 
-                nodeToRefine.setSequence(Word.fromSymbols(aValidInput));
-                leaves.remove(nodeToRefine);
+                if (!indistinguishableStates.isEmpty()) {
+                    return new SplitTreeResult<>(indistinguishableStates);
+                }
 
-                for (Map.Entry<O, Set<S>> entry : successorMap.entrySet()) {
-                    final SplitTree<S, I, O> child = new SplitTree<>(entry.getValue());
-                    nodeToRefine.getSuccessors().put(entry.getKey(), child);
-                    leaves.add(child);
+                for (final int node : r) {
+                    if (validities[node] == Validity.A_VALID) {
+                        refineAValid(node, validInput[node]);
+                    }
                 }
-                for (final S s : nodeToRefine.getPartition()) {
-                    nodeToRefine.getMapping().put(s, automaton.getSuccessor(s, aValidInput));
+                for (final int node : r) {
+                    if (validities[node] == Validity.B_VALID) {
+                        refine(node, Word.fromSymbols(alphabet.getSymbol(validInput[node])));
+                    }
                 }
+                for (final int node : r) {
+                    if (validities[node] == Validity.C_VALID) {
+                        refine(node, cWords.get(node));
+                    }
+                }
+
+                final List<Integer> nextLeaves = new ArrayList<>(leaves.size() + r.size());
+                for (final int leaf : leaves) {
+                    if (tree.isLeaf(leaf)) {
+                        nextLeaves.add(leaf);
+                    } else {
+                        int c = tree.getFirstChild(leaf);
+                        while (c != CompactSplitTree.NO_NODE) {
+                            nextLeaves.add(c);
+                            c = tree.getNextSibling(c);
+                        }
+                    }
+                }
+                leaves = nextLeaves;
             }
 
-            // b-valid partitions
-            for (final Pair<Word<I>, SplitTree<S, I, O>> bPartition : validitySetMap.get(Validity.B_VALID)) {
+            return new SplitTreeResult<>(tree);
+        }
 
-                assert bPartition.getFirst().size() == 1 : "b-valid inputs should always contain exactly 1 symbol";
+        /**
+         * Classifies the nodes of {@code r}, stores the validity (and the valid input for a-valid and b-valid nodes)
+         * in the respective per-node arrays, and returns the valid words of the c-valid nodes.
+         */
+        private Map<Integer, Word<I>> computeValidities(List<Integer> r) {
+
+            final List<Integer> pendingCs = new ArrayList<>();
+            numEdges = 0;
+
+            partitionLoop:
+            for (final int node : r) {
+                final int lo = tree.getLow(node);
+                final int hi = tree.getHigh(node);
+                final int rep = tree.getState(lo);
+                boolean pending = false;
+
+                // general validity
+                for (int i = 0; i < numInputs; i++) {
+                    validInputs[i] = isValidInput(lo, hi, i);
+                }
 
-                final I bValidInput = bPartition.getFirst().firstSymbol();
-                final SplitTree<S, I, O> nodeToRefine = bPartition.getSecond();
-                final Map<S, S> successorsToNodes = nodeToRefine.getPartition()
-                                                                .stream()
-                                                                .collect(Collectors.toMap(x -> automaton.getSuccessor(x,
-                                                                                                                      bValidInput),
-                                                                                          Function.identity()));
-                final SplitTree<S, I, O> v =
-                        st.findLowestSubsetNode(successorsToNodes.keySet()).orElseThrow(IllegalStateException::new);
+                // a valid
+                for (int i = 0; i < numInputs; i++) {
+                    if (validInputs[i] && hasDifferentOutputs(lo, hi, i)) {
+                        setValidity(node, Validity.A_VALID, i);
+                        continue partitionLoop;
+                    }
+                }
 
-                nodeToRefine.setSequence(v.getSequence().prepend(bValidInput));
-                leaves.remove(nodeToRefine);
+                // b valid
+                for (int i = 0; i < numInputs; i++) {
+                    if (validInputs[i] && hasDifferentSuccessorLeaves(lo, hi, i)) {
+                        setValidity(node, Validity.B_VALID, i);
+                        continue partitionLoop;
+                    }
+                }
 
-                for (final Map.Entry<O, SplitTree<S, I, O>> entry : v.getSuccessors().entrySet()) {
+                // c valid
+                // we defer evaluation to later point in time, because we need to check if the target partitions are
+                // a- or b-valid
+                for (int i = 0; i < numInputs; i++) {
+                    if (!validInputs[i]) {
+                        continue;
+                    }
 
-                    final Set<S> wSet = entry.getValue().getPartition();
-                    final Set<S> intersection = new HashSet<>(successorsToNodes.keySet());
-                    intersection.retainAll(wSet);
+                    final int successorLeaf = tree.getLeaf(successors[rep * numInputs + i]);
 
-                    if (!intersection.isEmpty()) {
-                        final Set<S> indistinguishableNodes =
-                                intersection.stream().map(successorsToNodes::get).collect(Collectors.toSet());
-                        final SplitTree<S, I, O> newChild = new SplitTree<>(indistinguishableNodes);
-                        nodeToRefine.getSuccessors().put(entry.getKey(), newChild);
-                        leaves.add(newChild);
+                    if (successorLeaf != node) {
+                        addEdge(node, successorLeaf, i);
+                        pending = true;
                     }
                 }
-                for (final S s : nodeToRefine.getPartition()) {
-                    nodeToRefine.getMapping().put(s, v.getMapping().get(automaton.getSuccessor(s, bValidInput)));
+
+                if (pending) {
+                    pendingCs.add(node);
+                    setValidity(node, Validity.C_VALID, -1);
+                } else {
+                    //if we haven't continued the loop up until here, there is no valid input
+                    setValidity(node, Validity.INVALID, -1);
                 }
             }
 
-            // c-valid partitions
-            for (final Pair<Word<I>, SplitTree<S, I, O>> cPartition : validitySetMap.get(Validity.C_VALID)) {
-                final Word<I> cValidInput = cPartition.getFirst();
-                final SplitTree<S, I, O> nodeToRefine = cPartition.getSecond();
-                final Map<S, S> successorsToNodes = nodeToRefine.getPartition()
-                                                                .stream()
-                                                                .collect(Collectors.toMap(x -> automaton.getSuccessor(x,
-                                                                                                                      cValidInput),
-                                                                                          Function.identity()));
-                final SplitTree<S, I, O> C =
-                        st.findLowestSubsetNode(successorsToNodes.keySet()).orElseThrow(IllegalStateException::new);
-
-                nodeToRefine.setSequence(cValidInput.concat(C.getSequence()));
-                leaves.remove(nodeToRefine);
-
-                for (final Map.Entry<O, SplitTree<S, I, O>> entry : C.getSuccessors().entrySet()) {
-
-                    final Set<S> wSet = entry.getValue().getPartition();
-                    final Set<S> intersection = new HashSet<>(successorsToNodes.keySet());
-                    intersection.retainAll(wSet);
-
-                    if (!intersection.isEmpty()) {
-                        final Set<S> indistinguishableNodes =
-                                intersection.stream().map(successorsToNodes::get).collect(Collectors.toSet());
-                        final SplitTree<S, I, O> newChild = new SplitTree<>(indistinguishableNodes);
-                        nodeToRefine.getSuccessors().put(entry.getKey(), newChild);
-                        leaves.add(newChild);
-                    }
-                }
-                for (final S s : nodeToRefine.getPartition()) {
-                    nodeToRefine.getMapping().put(s, C.getMapping().get(automaton.getSuccessor(s, cValidInput)));
+            //check remaining potential Cs
+            final Map<Integer, Word<I>> result = new HashMap<>();
+            for (final int pendingC : pendingCs) {
+                final Word<I> word = findPathToSplittableNode(pendingC);
+                if (word == null) {
+                    validities[pendingC] = Validity.INVALID;
+                } else {
+                    result.put(pendingC, word);
                 }
             }
-        }
 
-        return new SplitTreeResult<>(st);
-    }
+            for (final int node : pendingCs) {
+                edgeHead[node] = -1;
+            }
 
-    private static <S, I, O> ADSNode<S, I, O> extractADS(final MealyMachine<S, I, ?, O> automaton,
-                                                         final SplitTree<S, I, O> st,
-                                                         final Set<S> currentSet,
-                                                         final Map<S, S> currentToInitialMapping,
-                                                         final ADSNode<S, I, O> predecessor) {
+            return result;
+        }
 
-        if (currentSet.size() == 1) {
-            final S currentNode = currentSet.iterator().next();
+        private void setValidity(int node, Validity validity, int input) {
+            validities[node] = validity;
+            validInput[node] = input;
+        }
 
-            assert currentToInitialMapping.containsKey(currentNode);
+        private void addEdge(int src, int tgt, int symbol) {
+            if (numEdges == edgeTarget.length) {
+                edgeTarget = Arrays.copyOf(edgeTarget, numEdges * 2);
+                edgeSymbol = Arrays.copyOf(edgeSymbol, numEdges * 2);
+                edgeNext = Arrays.copyOf(edgeNext, numEdges * 2);
+            }
 
-            return new ADSLeafNode<>(predecessor, currentToInitialMapping.get(currentNode));
+            edgeTarget[numEdges] = tgt;
+            edgeSymbol[numEdges] = symbol;
+            edgeNext[numEdges] = edgeHead[src];
+            edgeHead[src] = numEdges++;
         }
 
-        final SplitTree<S, I, O> u = st.findLowestSubsetNode(currentSet).orElseThrow(IllegalStateException::new);
-        final Pair<ADSNode<S, I, O>, ADSNode<S, I, O>> ads =
-                ADSUtil.buildFromTrace(automaton, u.getSequence(), currentSet.iterator().next());
-        final ADSNode<S, I, O> head = ads.getFirst();
-        final ADSNode<S, I, O> tail = ads.getSecond();
+        /**
+         * Performs a breadth-first search in the implication graph, starting from the given node, until reaching an
+         * a-valid or b-valid node. Returns the word along the shortest path to this node, or {@code null} if no such
+         * node is reachable.
+         */
+        private Word<I> findPathToSplittableNode(int start) {
+            stamp++;
+
+            final Deque<Integer> queue = new ArrayDeque<>();
+            queue.add(start);
+            bfsStamp[start] = stamp;
+            bfsParent[start] = -1;
+
+            while (!queue.isEmpty()) {
+                final int curr = queue.poll();
+                final Validity validity = validities[curr];
+
+                if (curr != start && (validity == Validity.A_VALID || validity == Validity.B_VALID)) {
+                    final WordBuilder<I> wb = new WordBuilder<>();
+                    for (int n = curr; bfsParent[n] >= 0; n = bfsParent[n]) {
+                        wb.append(alphabet.getSymbol(bfsSymbol[n]));
+                    }
+                    return wb.reverse().toWord();
+                }
 
-        head.setParent(predecessor);
+                // only the pending nodes of the current round have outgoing edges
+                for (int e = edgeHead[curr]; e >= 0; e = edgeNext[e]) {
+                    final int succ = edgeTarget[e];
+                    if (bfsStamp[succ] != stamp) {
+                        bfsStamp[succ] = stamp;
+                        bfsParent[succ] = curr;
+                        bfsSymbol[succ] = edgeSymbol[e];
+                        queue.add(succ);
+                    }
+                }
+            }
 
-        for (final Map.Entry<O, SplitTree<S, I, O>> entry : u.getSuccessors().entrySet()) {
+            return null;
+        }
 
-            final O output = entry.getKey();
-            final SplitTree<S, I, O> tree = entry.getValue();
-            final Set<S> intersection = new HashSet<>(tree.getPartition());
-            intersection.retainAll(currentSet);
+        private boolean isValidInput(int lo, int hi, int input) {
+            for (int pos = lo; pos < hi; pos++) {
+                final int idx = tree.getState(pos) * numInputs + input;
+                keys[pos - lo] = (long) outputs[idx] * numStates + successors[idx];
+            }
 
-            if (!intersection.isEmpty()) {
-                final Map<S, S> nextCurrentToInitialMapping = intersection.stream()
-                                                                          .collect(Collectors.toMap(key -> u.getMapping()
-                                                                                                            .get(key),
-                                                                                                    currentToInitialMapping::get));
+            Arrays.sort(keys, 0, hi - lo);
 
-                final Set<S> nextCurrent =
-                        intersection.stream().map(x -> u.getMapping().get(x)).collect(Collectors.toSet());
-                tail.getChildren()
-                    .put(output, extractADS(automaton, st, nextCurrent, nextCurrentToInitialMapping, tail));
+            for (int i = 1; i < hi - lo; i++) {
+                if (keys[i - 1] == keys[i]) {
+                    return false;
+                }
             }
+
+            return true;
         }
 
-        return head;
-    }
+        private boolean hasDifferentOutputs(int lo, int hi, int input) {
+            final int out = outputs[tree.getState(lo) * numInputs + input];
+            for (int pos = lo + 1; pos < hi; pos++) {
+                if (outputs[tree.getState(pos) * numInputs + input] != out) {
+                    return true;
+                }
+            }
+            return false;
+        }
 
-    private static <S, I, O> boolean needsRefinement(final SplitTree<S, I, O> node) {
-        return node.getPartition().size() > 1;
-    }
+        private boolean hasDifferentSuccessorLeaves(int lo, int hi, int input) {
+            final int leaf = tree.getLeaf(successors[tree.getState(lo) * numInputs + input]);
+            for (int pos = lo + 1; pos < hi; pos++) {
+                if (tree.getLeaf(successors[tree.getState(pos) * numInputs + input]) != leaf) {
+                    return true;
+                }
+            }
+            return false;
+        }
 
-    private static <S, I, O> boolean isValidInput(final MealyMachine<S, I, ?, O> automaton,
-                                                  final I input,
-                                                  final Set<S> states) {
+        private void refineAValid(int node, int input) {
+            int numGroups = 0;
 
-        final Map<O, Set<S>> successors = new HashMap<>();
+            for (int pos = tree.getLow(node); pos < tree.getHigh(node); pos++) {
+                final int s = tree.getState(pos);
+                final int idx = s * numInputs + input;
+                final int out = outputs[idx];
 
-        for (final S s : states) {
-            final O output = automaton.getOutput(s, input);
-            final S successor = automaton.getSuccessor(s, input);
+                if (groupOfKey[out] < 0) {
+                    groupOfKey[out] = numGroups;
+                    groupOutputs[numGroups++] = out;
+                }
 
-            if (!successors.containsKey(output)) {
-                successors.put(output, new HashSet<>());
+                groupOfState[s] = groupOfKey[out];
+                imageOfState[s] = successors[idx];
             }
 
-            if (!successors.get(output).add(successor)) {
-                return false;
+            for (int g = 0; g < numGroups; g++) {
+                groupOfKey[groupOutputs[g]] = -1;
             }
+
+            tree.split(node, Word.fromSymbols(alphabet.getSymbol(input)), groupOfState, groupOutputs, numGroups,
+                       imageOfState);
         }
 
-        return true;
-    }
+        /**
+         * Refines a b-valid node (via a single input) or a c-valid node (via a word) by means of the sequence of the
+         * lowest node that contains all successors.
+         */
+        private void refine(int node, Word<I> prefix) {
+            final int lo = tree.getLow(node);
+            final int hi = tree.getHigh(node);
+
+            final int[] symbols = new int[prefix.length()];
+            for (int i = 0; i < symbols.length; i++) {
+                symbols[i] = alphabet.getSymbolIndex(prefix.getSymbol(i));
+            }
 
-    private static <S, I, O> Map<Validity, Set<Pair<Word<I>, SplitTree<S, I, O>>>> computeValidities(final MealyMachine<S, I, ?, O> automaton,
-                                                                                                     final Alphabet<I> inputs,
-                                                                                                     final Set<SplitTree<S, I, O>> R,
-                                                                                                     final Set<SplitTree<S, I, O>> pi) {
+            for (int pos = lo; pos < hi; pos++) {
+                int succ = tree.getState(pos);
+                for (final int i : symbols) {
+                    succ = successors[succ * numInputs + i];
+                }
+                buffer[pos - lo] = succ;
+            }
 
-        final Map<Validity, Set<Pair<Word<I>, SplitTree<S, I, O>>>> result = new EnumMap<>(Validity.class);
-        final Map<S, Integer> stateToPartitionMap = new HashMap<>();
-        final BiMap<Integer, SplitTree<S, I, O>> partitionToNodeMap = HashBiMap.create();
+            final int v = tree.findLowestSubsetNode(buffer, hi - lo);
+            int numGroups = 0;
 
-        int counter = 0;
-        for (SplitTree<S, I, O> partition : pi) {
-            for (final S s : partition.getPartition()) {
-                final Integer previousValue = stateToPartitionMap.put(s, counter);
-                assert previousValue == null : "Not a true partition";
-            }
-            partitionToNodeMap.put(counter, partition);
-            counter++;
-        }
+            for (int pos = lo; pos < hi; pos++) {
+                final int s = tree.getState(pos);
+                final int succ = buffer[pos - lo];
+                final int child = tree.getChild(v, succ);
 
-        for (final Validity v : Validity.values()) {
-            result.put(v, new HashSet<>());
-        }
+                if (groupOfKey[child] < 0) {
+                    groupOfKey[child] = numGroups;
+                    groupOutputs[numGroups++] = child;
+                }
 
-        final Set<SplitTree<S, I, O>> pendingCs = new HashSet<>();
-        final Map<Integer, Validity> partitionToClassificationMap = new HashMap<>();
+                groupOfState[s] = groupOfKey[child];
+                imageOfState[s] = tree.getImage(v, succ);
+            }
 
-        final CompactSimpleGraph<I> implicationGraph = new CompactSimpleGraph<>(partitionToNodeMap.size());
+            for (int g = 0; g < numGroups; g++) {
+                groupOfKey[groupOutputs[g]] = -1;
+                groupOutputs[g] = tree.getOutput(groupOutputs[g]);
+            }
 
-        for (int i = 0; i < partitionToNodeMap.size(); i++) {
-            implicationGraph.addIntNode();
+            tree.split(node, prefix.concat(tree.getSequence(v)), groupOfState, groupOutputs, numGroups, imageOfState);
         }
 
-        partitionLoop:
-        for (final SplitTree<S, I, O> B : R) {
+        ADSNode<S, I, O> extractADS(CompactSplitTree<I> st) {
 
-            // general validity
-            final Map<I, Boolean> validInputMap = Maps.newHashMapWithExpectedSize(inputs.size());
-            for (final I i : inputs) {
-                validInputMap.put(i, isValidInput(automaton, i, B.getPartition()));
+            final int[] initialStates = new int[numStates];
+            for (int i = 0; i < numStates; i++) {
+                initialStates[i] = i;
             }
 
-            // a valid
-            for (final I i : inputs) {
-
-                if (!validInputMap.get(i)) {
-                    continue;
+            final Deque<Extraction<S, I, O>> stack = new ArrayDeque<>();
+            final Extraction<S, I, O> root = new Extraction<>(initialStates, initialStates.clone(), null, null);
+            stack.push(root);
+
+            while (!stack.isEmpty()) {
+                final Extraction<S, I, O> curr = stack.pop();
+                final int[] current = curr.current;
+                final int[] initial = curr.initial;
+
+                final ADSNode<S, I, O> node;
+
+                if (current.length == 1) {
+                    node = new ADSLeafNode<>(curr.predecessor, states.get(initial[0]));
+                } else {
+                    final int u = st.findLowestSubsetNode(current, current.length);
+                    final Pair<ADSNode<S, I, O>, ADSNode<S, I, O>> ads =
+                            ADSUtil.buildFromTrace(automaton, st.getSequence(u), states.get(current[0]));
+                    node = ads.getFirst();
+                    node.setParent(curr.predecessor);
+                    pushChildren(st, u, current, initial, ads.getSecond(), stack);
                 }
 
-                final Set<O> outputs =
-                        B.getPartition().stream().map(s -> automaton.getOutput(s, i)).collect(Collectors.toSet());
-
-                if (outputs.size() > 1) {
-                    result.get(Validity.A_VALID).add(Pair.of(Word.fromSymbols(i), B));
-                    partitionToClassificationMap.put(stateToPartitionMap.get(B.getPartition().iterator().next()),
-                                                     Validity.A_VALID);
-                    continue partitionLoop;
+                if (curr.predecessor == null) {
+                    root.result = node;
+                } else {
+                    curr.predecessor.getChildren().put(curr.output, node);
                 }
             }
 
-            // b valid
-            for (final I i : inputs) {
-
-                if (!validInputMap.get(i)) {
-                    continue;
-                }
+            return root.result;
+        }
 
-                final Set<Integer> successors = B.getPartition()
-                                                 .stream()
-                                                 .map(s -> stateToPartitionMap.get(automaton.getSuccessor(s, i)))
-                                                 .collect(Collectors.toSet());
+        private void pushChildren(CompactSplitTree<I> st,
+                                  int u,
+                                  int[] current,
+                                  int[] initial,
+                                  ADSNode<S, I, O> tail,
+                                  Deque<Extraction<S, I, O>> stack) {
 
-                if (successors.size() > 1) {
-                    result.get(Validity.B_VALID).add(Pair.of(Word.fromSymbols(i), B));
-                    partitionToClassificationMap.put(stateToPartitionMap.get(B.getPartition().iterator().next()),
-                                                     Validity.B_VALID);
-                    continue partitionLoop;
-                }
-            }
+            // group the current states by the child of u that contains them
+            final int[] groupOfIndex = new int[current.length];
+            int numGroups = 0;
 
-            // c valid
-            // we defer evaluation to later point in time, because we need to check if the target partitions are a- or b-valid
-            for (final I i : inputs) {
+            for (int i = 0; i < current.length; i++) {
+                final int child = st.getChild(u, current[i]);
 
-                if (!validInputMap.get(i)) {
-                    continue;
+                if (groupOfKey[child] < 0) {
+                    groupOfKey[child] = numGroups;
+                    groupOutputs[numGroups] = child;
+                    buffer[numGroups++] = 0;
                 }
 
-                final S nodeInPartition = B.getPartition().iterator().next();
-                final S successor = automaton.getSuccessor(nodeInPartition, i);
+                groupOfIndex[i] = groupOfKey[child];
+                buffer[groupOfIndex[i]]++;
+            }
 
-                final Integer partition = stateToPartitionMap.get(nodeInPartition);
-                final Integer successorPartition = stateToPartitionMap.get(successor);
+            final List<int[]> nextCurrents = new ArrayList<>(numGroups);
+            final List<int[]> nextInitials = new ArrayList<>(numGroups);
 
-                if (!partition.equals(successorPartition)) {
-                    implicationGraph.connect(partition, successorPartition, i);
-                    pendingCs.add(B);
-                }
+            for (int g = 0; g < numGroups; g++) {
+                groupOfKey[groupOutputs[g]] = -1;
+                nextCurrents.add(new int[buffer[g]]);
+                nextInitials.add(new int[buffer[g]]);
+                buffer[g] = 0;
             }
 
-            if (pendingCs.contains(B)) {
-                continue partitionLoop;
+            for (int i = 0; i < current.length; i++) {
+                final int g = groupOfIndex[i];
+                final int idx = buffer[g]++;
+                nextCurrents.get(g)[idx] = st.getImage(u, current[i]);
+                nextInitials.get(g)[idx] = initial[i];
             }
 
-            //if we haven't continued the loop up until here, there is no valid input
-            result.get(Validity.INVALID).add(Pair.of(null, B));
-        }
-
-        //check remaining potential Cs
-        pendingCLoop:
-        for (final SplitTree<S, I, O> pendingC : pendingCs) {
-
-            final Integer pendingPartition = partitionToNodeMap.inverse().get(pendingC);
-            final Iterator<Integer> iter =
-                    GraphTraversal.bfIterator(implicationGraph, Collections.singleton(pendingPartition));
-
-            while (iter.hasNext()) {
-
-                final Integer successor = iter.next();
-                final Validity successorValidity = partitionToClassificationMap.get(successor);
-                if (successorValidity == Validity.A_VALID || successorValidity == Validity.B_VALID) {
-                    final Path<Integer, CompactEdge<I>> path = ShortestPaths.shortestPath(implicationGraph,
-                                                                                          pendingPartition,
-                                                                                          implicationGraph.size(),
-                                                                                          successor);
-                    assert path != null; // by construction should never be null
-                    final Word<I> word =
-                            path.edgeList().stream().map(CompactEdge::getProperty).collect(Word.collector());
-
-                    result.get(Validity.C_VALID).add(Pair.of(word, pendingC));
-                    continue pendingCLoop;
-                }
+            for (int g = 0; g < numGroups; g++) {
+                final O output = outputSymbols.get(st.getOutput(groupOutputs[g]));
+                stack.push(new Extraction<>(nextCurrents.get(g), nextInitials.get(g), tail, output));
             }
-
-            result.get(Validity.INVALID).add(Pair.of(null, pendingC));
         }
-
-        return result;
     }
 
-    private enum Validity {
-        A_VALID,
-        B_VALID,
-        C_VALID,
-        INVALID
+    private static final class Extraction<S, I, O> {
+
+        private final int[] current;
+        private final int[] initial;
+        private final ADSNode<S, I, O> predecessor;
+        private final O output;
+        private ADSNode<S, I, O> result;
+
+        Extraction(int[] current, int[] initial, ADSNode<S, I, O> predecessor, O output) {
+            this.current = current;
+            this.initial = initial;
+            this.predecessor = predecessor;
+            this.output = output;
+        }
     }
 }
@@ -0,0 +1,360 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.util.automata.ads;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.google.common.collect.Maps;
+import net.automatalib.automata.concepts.StateIDs;
+import net.automatalib.automata.transducers.MealyMachine;
+import net.automatalib.util.automata.ads.BacktrackingSearch.CostAggregator;
+import net.automatalib.util.automata.ads.BacktrackingSearch.SearchState;
+import net.automatalib.words.Alphabet;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A concurrent implementation of the optimal ADS search of {@link BacktrackingSearch#computeOptimal(MealyMachine,
+ * Alphabet, java.util.Set, CostAggregator)}. States are encoded by their {@link StateIDs state ids}, sets of states are
+ * encoded as {@link BitSet}s, and the transitions of the automaton are cached in flat arrays. Search results are
+ * memoized in a concurrent table that is shared between all threads, and the input symbols of a search node are
+ * explored in parallel (if the node contains sufficiently many states).
+ * <p>
+ * If a time budget is given, the search stops expanding nodes once the budget is exhausted and every node returns the
+ * best solution among the input symbols that have been completely explored until then. These (potentially
+ * non-optimal) solutions are not memoized.
+ * <p>
+ * The automaton may be accessed concurrently and therefore must not be modified during the computation.
+ *
+ * @param <S>
+ *         (hypothesis) state type
+ * @param <I>
+ *         input alphabet type
+ * @param <T>
+ *         transition type
+ * @param <O>
+ *         output alphabet type
+ *
+ * @author frohme
+ */
+final class ParallelADSSearch<S, I, T, O> {
+
+    private static final int PARALLEL_THRESHOLD = 8;
+
+    private final Alphabet<I> alphabet;
+    private final CostAggregator costAggregator;
+    private final long start;
+    private final long budget;
+
+    private final int numInputs;
+    private final int[] successors;
+    private final Object[] outputs;
+
+    private final Map<BitSet, Optional<SearchState<S, I, O>>> cache;
+    private volatile boolean timedOut;
+
+    private ParallelADSSearch(MealyMachine<S, I, T, O> automaton,
+                              Alphabet<I> alphabet,
+                              CostAggregator costAggregator,
+                              long budget) {
+        this.alphabet = alphabet;
+        this.costAggregator = costAggregator;
+        this.start = System.nanoTime();
+        this.budget = budget;
+
+        final StateIDs<S> stateIds = automaton.stateIDs();
+        final int numStates = automaton.size();
+
+        this.numInputs = alphabet.size();
+        this.successors = new int[numStates * numInputs];
+        this.outputs = new Object[numStates * numInputs];
+        this.cache = new ConcurrentHashMap<>();
+
+        for (final S s : automaton) {
+            final int base = stateIds.getStateId(s) * numInputs;
+            for (int i = 0; i < numInputs; i++) {
+                final T trans = automaton.getTransition(s, alphabet.getSymbol(i));
+
+                if (trans == null) {
+                    throw new IllegalArgumentException("Partial automata are not supported");
+                }
+
+                successors[base + i] = stateIds.getStateId(automaton.getSuccessor(trans));
+                outputs[base + i] = automaton.getTransitionOutput(trans);
+            }
+        }
+    }
+
+    /**
+     * Explores the search space for the given states on the given pool.
+     *
+     * @param budget
+     *         the time (in nanoseconds) after which no further search nodes should be expanded, or {@link
+     *         Long#MAX_VALUE} if the search should not be bounded
+     */
+    static <S, I, T, O> Optional<SearchState<S, I, O>> exploreSearchSpace(MealyMachine<S, I, T, O> automaton,
+                                                                          Alphabet<I> alphabet,
+                                                                          Set<S> states,
+                                                                          CostAggregator costAggregator,
+                                                                          ForkJoinPool pool,
+                                                                          long budget) {
+        final ParallelADSSearch<S, I, T, O> search =
+                new ParallelADSSearch<>(automaton, alphabet, costAggregator, budget);
+
+        final StateIDs<S> stateIds = automaton.stateIDs();
+        final BitSet targets = new BitSet();
+        for (final S s : states) {
+            targets.set(stateIds.getStateId(s));
+        }
+
+        return Optional.ofNullable(pool.invoke(new SearchTask<>(search, targets)));
+    }
+
+    private @Nullable SearchState<S, I, O> search(BitSet targets, int costsBound, Set<BitSet> currentTraceCache) {
+
+        final Optional<SearchState<S, I, O>> cachedValue = cache.get(targets);
+
+        if (cachedValue != null) {
+            return cachedValue.orElse(null);
+        }
+
+        if (currentTraceCache.contains(targets)) {
+            return null;
+        }
+
+        if (targets.cardinality() == 1) {
+            return memoize(targets, new SearchState<>());
+        }
+
+        // any further expansion would lead to a worse result, hence stop here.
+        if (costsBound == 0 || isTimedOut()) {
+            return null;
+        }
+
+        final List<Integer> validInputs = new ArrayList<>(numInputs);
+        final List<Map<O, BitSet>> partitions = new ArrayList<>(numInputs);
+
+        for (int i = 0; i < numInputs; i++) {
+            final Map<O, BitSet> partition = computePartition(targets, i);
+            if (partition != null) {
+                validInputs.add(i);
+                partitions.add(partition);
+            }
+        }
+
+        if (validInputs.isEmpty()) {
+            cache.put(targets, Optional.empty());
+            return null;
+        }
+
+        final AtomicInteger bestCosts = new AtomicInteger(costsBound);
+        final List<Candidate<S, I, O>> candidates = new ArrayList<>(Collections.nCopies(validInputs.size(), null));
+
+        if (validInputs.size() > 1 && targets.cardinality() >= PARALLEL_THRESHOLD && ForkJoinTask.inForkJoinPool()) {
+            final List<CandidateTask<S, I, T, O>> tasks = new ArrayList<>(validInputs.size());
+            for (int i = 0; i < validInputs.size(); i++) {
+                tasks.add(new CandidateTask<>(this,
+                                              targets,
+                                              partitions.get(i),
+                                              bestCosts,
+                                              currentTraceCache,
+                                              candidates,
+                                              i));
+            }
+            ForkJoinTask.invokeAll(tasks);
+        } else {
+            for (int i = 0; i < validInputs.size(); i++) {
+                candidates.set(i, evaluate(targets, partitions.get(i), bestCosts, currentTraceCache));
+            }
+        }
+
+        int bestIdx = -1;
+        for (int i = 0; i < candidates.size(); i++) {
+            final Candidate<S, I, O> candidate = candidates.get(i);
+            if (candidate != null && (bestIdx < 0 || candidate.costs < candidates.get(bestIdx).costs)) {
+                bestIdx = i;
+            }
+        }
+
+        if (bestIdx < 0) {
+            return null;
+        }
+
+        final Candidate<S, I, O> best = candidates.get(bestIdx);
+        final SearchState<S, I, O> result = new SearchState<>();
+        result.costs = best.costs + 1;
+        result.successors = best.successors;
+        result.symbol = alphabet.getSymbol(validInputs.get(bestIdx));
+
+        return memoize(targets, result);
+    }
+
+    private @Nullable Map<O, BitSet> computePartition(BitSet targets, int input) {
+        final Map<O, BitSet> partition = new LinkedHashMap<>();
+
+        for (int s = targets.nextSetBit(0); s >= 0; s = targets.nextSetBit(s + 1)) {
+            final int idx = s * numInputs + input;
+            @SuppressWarnings("unchecked")
+            final O output = (O) outputs[idx];
+            final BitSet child = partition.computeIfAbsent(output, o -> new BitSet());
+            final int succ = successors[idx];
+
+            // invalid input
+            if (child.get(succ)) {
+                return null;
+            }
+            child.set(succ);
+        }
+
+        return partition;
+    }
+
+    private @Nullable Candidate<S, I, O> evaluate(BitSet targets,
+                                                 Map<O, BitSet> partition,
+                                                 AtomicInteger bestCosts,
+                                                 Set<BitSet> currentTraceCache) {
+
+        final Candidate<S, I, O> result;
+
+        if (partition.size() > 1) {
+            final Map<O, SearchState<S, I, O>> successorsForInputSymbol =
+                    Maps.newHashMapWithExpectedSize(partition.size());
+            int partitionCosts = 0;
+
+            for (final Map.Entry<O, BitSet> entry : partition.entrySet()) {
+                final SearchState<S, I, O> subResult = search(entry.getValue(), bestCosts.get(), new HashSet<>());
+
+                if (subResult == null) {
+                    return null;
+                }
+
+                successorsForInputSymbol.put(entry.getKey(), subResult);
+                partitionCosts = costAggregator.apply(partitionCosts, subResult.costs);
+
+                if (partitionCosts >= bestCosts.get()) {
+                    return null;
+                }
+            }
+
+            result = new Candidate<>(partitionCosts, successorsForInputSymbol);
+        } else {
+            final Map.Entry<O, BitSet> entry = partition.entrySet().iterator().next();
+
+            final Set<BitSet> nextTraceCache = new HashSet<>(currentTraceCache);
+            nextTraceCache.add(targets);
+
+            final SearchState<S, I, O> subResult = search(entry.getValue(), bestCosts.get(), nextTraceCache);
+
+            if (subResult == null || subResult.costs >= bestCosts.get()) {
+                return null;
+            }
+
+            result = new Candidate<>(subResult.costs, Collections.singletonMap(entry.getKey(), subResult));
+        }
+
+        bestCosts.accumulateAndGet(result.costs, Math::min);
+        return result;
+    }
+
+    private SearchState<S, I, O> memoize(BitSet targets, SearchState<S, I, O> result) {
+        // results that have been computed after the budget has been exhausted may be non-optimal
+        if (timedOut) {
+            return result;
+        }
+
+        final Optional<SearchState<S, I, O>> existing = cache.putIfAbsent(targets, Optional.of(result));
+        return existing == null ? result : existing.orElse(result);
+    }
+
+    private boolean isTimedOut() {
+        if (!timedOut && budget != Long.MAX_VALUE && System.nanoTime() - start > budget) {
+            timedOut = true;
+        }
+        return timedOut;
+    }
+
+    private static final class Candidate<S, I, O> {
+
+        private final int costs;
+        private final Map<O, SearchState<S, I, O>> successors;
+
+        Candidate(int costs, Map<O, SearchState<S, I, O>> successors) {
+            this.costs = costs;
+            this.successors = successors;
+        }
+    }
+
+    private static final class SearchTask<S, I, T, O> extends RecursiveTask<@Nullable SearchState<S, I, O>> {
+
+        private final ParallelADSSearch<S, I, T, O> search;
+        private final BitSet targets;
+
+        SearchTask(ParallelADSSearch<S, I, T, O> search, BitSet targets) {
+            this.search = search;
+            this.targets = targets;
+        }
+
+        @Override
+        protected @Nullable SearchState<S, I, O> compute() {
+            return search.search(targets, Integer.MAX_VALUE, Collections.emptySet());
+        }
+    }
+
+    private static final class CandidateTask<S, I, T, O> extends RecursiveAction {
+
+        private final ParallelADSSearch<S, I, T, O> search;
+        private final BitSet targets;
+        private final Map<O, BitSet> partition;
+        private final AtomicInteger bestCosts;
+        private final Set<BitSet> currentTraceCache;
+        private final List<@Nullable Candidate<S, I, O>> candidates;
+        private final int idx;
+
+        CandidateTask(ParallelADSSearch<S, I, T, O> search,
+                      BitSet targets,
+                      Map<O, BitSet> partition,
+                      AtomicInteger bestCosts,
+                      Set<BitSet> currentTraceCache,
+                      List<@Nullable Candidate<S, I, O>> candidates,
+                      int idx) {
+            this.search = search;
+            this.targets = targets;
+            this.partition = partition;
+            this.bestCosts = bestCosts;
+            this.currentTraceCache = currentTraceCache;
+            this.candidates = candidates;
+            this.idx = idx;
+        }
+
+        @Override
+        protected void compute() {
+            candidates.set(idx, search.evaluate(targets, partition, bestCosts, currentTraceCache));
+        }
+    }
+}
@@ -35,10 +35,10 @@ import org.checkerframework.checker.nullness.qual.Nullable;
  */
 class SplitTreeResult<S, I, O> {
 
-    private final @Nullable SplitTree<S, I, O> delegate;
+    private final @Nullable CompactSplitTree<I> delegate;
     private final Set<S> indistinguishableStates;
 
-    SplitTreeResult(final SplitTree<S, I, O> result) {
+    SplitTreeResult(final CompactSplitTree<I> result) {
         this.delegate = result;
         this.indistinguishableStates = Collections.emptySet();
     }
@@ -53,7 +53,7 @@ class SplitTreeResult<S, I, O> {
         return this.delegate != null;
     }
 
-    public @Nullable SplitTree<S, I, O> get() {
+    public @Nullable CompactSplitTree<I> get() {
         return this.delegate;
     }
 
@@ -29,6 +29,12 @@ public interface AutomatonCopyMethod {
     AutomatonCopyMethod STATE_BY_STATE = PlainAutomatonCopy::new;
     AutomatonCopyMethod DFS = new TraversalAutomatonCopy.CopyMethod(TraversalOrder.DEPTH_FIRST);
     AutomatonCopyMethod BFS = new TraversalAutomatonCopy.CopyMethod(TraversalOrder.BREADTH_FIRST);
+    /**
+     * Copies compact automata by copying their internal arrays, if possible (see {@link
+     * net.automatalib.automata.base.compact.AbstractCompact#isBulkCopyCompatible(
+     * net.automatalib.automata.base.compact.AbstractCompact)}), and behaves like {@link #STATE_BY_STATE} otherwise.
+     */
+    AutomatonCopyMethod BULK = new BulkAutomatonCopy.CopyMethod();
 
     <S1, I1, T1, S2, I2, T2, SP2, TP2> LowLevelAutomatonCopier<S1, S2> createLowLevelCopier(Automaton<S1, ? super I1, T1> in,
                                                                                             Collection<? extends I1> inputs,
@@ -75,7 +75,15 @@ public final class AutomatonLowLevelCopy {
                                                                              Function<? super I1, ? extends I2> inputsMapping,
                                                                              Function<? super S1, ? extends SP2> spMapping,
                                                                              Function<? super T1, ? extends TP2> tpMapping) {
-        return rawCopy(method, in, inputs, out, inputsMapping, spMapping, tpMapping, s -> true, (s, i, t) -> true);
+        return rawCopy(method,
+                       in,
+                       inputs,
+                       out,
+                       inputsMapping,
+                       spMapping,
+                       tpMapping,
+                       BulkAutomatonCopy.allStates(),
+                       BulkAutomatonCopy.allTransitions());
     }
 
     /**
@@ -179,7 +187,14 @@ public final class AutomatonLowLevelCopy {
                                                                         MutableAutomaton<S2, I, T2, SP2, TP2> out,
                                                                         Function<? super S1, ? extends SP2> spMapping,
                                                                         Function<? super T1, ? extends TP2> tpMapping) {
-        return rawCopy(method, in, inputs, out, spMapping, tpMapping, s -> true, (s, i, t) -> true);
+        return rawCopy(method,
+                       in,
+                       inputs,
+                       out,
+                       spMapping,
+                       tpMapping,
+                       BulkAutomatonCopy.allStates(),
+                       BulkAutomatonCopy.allTransitions());
     }
 
     /**
@@ -227,7 +242,15 @@ public final class AutomatonLowLevelCopy {
                                                                         Function<? super T1, ? extends TP2> tpMapping,
                                                                         Predicate<? super S1> stateFilter,
                                                                         TransitionPredicate<? super S1, ? super I, ? super T1> transFilter) {
-        return rawCopy(method, in, inputs, out, i -> i, spMapping, tpMapping, stateFilter, transFilter);
+        return rawCopy(method,
+                       in,
+                       inputs,
+                       out,
+                       BulkAutomatonCopy.identity(),
+                       spMapping,
+                       tpMapping,
+                       stateFilter,
+                       transFilter);
     }
 
     /**
@@ -278,7 +301,15 @@ public final class AutomatonLowLevelCopy {
                                                                                     Function<? super I1, ? extends I2> inputsMapping,
                                                                                     Function<? super SP1, ? extends SP2> spTransform,
                                                                                     Function<? super TP1, ? extends TP2> tpTransform) {
-        return copy(method, in, inputs, out, inputsMapping, spTransform, tpTransform, s -> true, (s, i, t) -> true);
+        return copy(method,
+                    in,
+                    inputs,
+                    out,
+                    inputsMapping,
+                    spTransform,
+                    tpTransform,
+                    BulkAutomatonCopy.allStates(),
+                    BulkAutomatonCopy.allTransitions());
     }
 
     /**
@@ -335,6 +366,18 @@ public final class AutomatonLowLevelCopy {
                                                                                     Function<? super TP1, ? extends TP2> tpTransform,
                                                                                     Predicate<? super S1> stateFilter,
                                                                                     TransitionPredicate<? super S1, ? super I1, ? super T1> transFilter) {
+        if (method == AutomatonCopyMethod.BULK &&
+            BulkAutomatonCopy.isApplicable(in,
+                                           inputs,
+                                           out,
+                                           inputsMapping,
+                                           spTransform,
+                                           tpTransform,
+                                           stateFilter,
+                                           transFilter)) {
+            return BulkAutomatonCopy.copy(in, out);
+        }
+
         Function<? super S1, ? extends SP2> spMapping = s -> spTransform.apply(in.getStateProperty(s));
         Function<? super T1, ? extends TP2> tpMapping = t -> tpTransform.apply(in.getTransitionProperty(t));
         return rawCopy(method, in, inputs, out, inputsMapping, spMapping, tpMapping, stateFilter, transFilter);
@@ -383,7 +426,14 @@ public final class AutomatonLowLevelCopy {
                                                                                MutableAutomaton<S2, I, T2, ? super SP2, ? super TP2> out,
                                                                                Function<? super SP1, ? extends SP2> spTransform,
                                                                                Function<? super TP1, ? extends TP2> tpTransform) {
-        return copy(method, in, inputs, out, spTransform, tpTransform, s -> true, (s, i, t) -> true);
+        return copy(method,
+                    in,
+                    inputs,
+                    out,
+                    spTransform,
+                    tpTransform,
+                    BulkAutomatonCopy.allStates(),
+                    BulkAutomatonCopy.allTransitions());
     }
 
     /**
@@ -435,7 +485,15 @@ public final class AutomatonLowLevelCopy {
                                                                                Function<? super TP1, ? extends TP2> tpTransform,
                                                                                Predicate<? super S1> stateFilter,
                                                                                TransitionPredicate<? super S1, ? super I, ? super T1> transFilter) {
-        return copy(method, in, inputs, out, i -> i, spTransform, tpTransform, stateFilter, transFilter);
+        return copy(method,
+                    in,
+                    inputs,
+                    out,
+                    BulkAutomatonCopy.identity(),
+                    spTransform,
+                    tpTransform,
+                    stateFilter,
+                    transFilter);
     }
 
     /**
@@ -476,7 +534,13 @@ public final class AutomatonLowLevelCopy {
                                                                         Collection<? extends I1> inputs,
                                                                         MutableAutomaton<S2, I2, T2, ? super SP, ? super TP> out,
                                                                         Function<? super I1, ? extends I2> inputsMapping) {
-        return copy(method, in, inputs, out, inputsMapping, s -> true, (s, i, t) -> true);
+        return copy(method,
+                    in,
+                    inputs,
+                    out,
+                    inputsMapping,
+                    BulkAutomatonCopy.allStates(),
+                    BulkAutomatonCopy.allTransitions());
     }
 
     /**
@@ -522,7 +586,15 @@ public final class AutomatonLowLevelCopy {
                                                                         Function<? super I1, ? extends I2> inputsMapping,
                                                                         Predicate<? super S1> stateFilter,
                                                                         TransitionPredicate<? super S1, ? super I1, ? super T1> transFilter) {
-        return copy(method, in, inputs, out, inputsMapping, sp -> sp, tp -> tp, stateFilter, transFilter);
+        return copy(method,
+                    in,
+                    inputs,
+                    out,
+                    inputsMapping,
+                    BulkAutomatonCopy.identity(),
+                    BulkAutomatonCopy.identity(),
+                    stateFilter,
+                    transFilter);
     }
 
     /**
@@ -558,7 +630,7 @@ public final class AutomatonLowLevelCopy {
                                                                    UniversalAutomaton<S1, ? super I, T1, ? extends SP, ? extends TP> in,
                                                                    Collection<? extends I> inputs,
                                                                    MutableAutomaton<S2, I, T2, ? super SP, ? super TP> out) {
-        return copy(method, in, inputs, out, s -> true, (s, i, t) -> true);
+        return copy(method, in, inputs, out, BulkAutomatonCopy.allStates(), BulkAutomatonCopy.allTransitions());
     }
 
     /**
@@ -599,7 +671,7 @@ public final class AutomatonLowLevelCopy {
                                                                    MutableAutomaton<S2, I, T2, ? super SP, ? super TP> out,
                                                                    Predicate<? super S1> stateFilter,
                                                                    TransitionPredicate<? super S1, ? super I, ? super T1> transFilter) {
-        return copy(method, in, inputs, out, i -> i, stateFilter, transFilter);
+        return copy(method, in, inputs, out, BulkAutomatonCopy.identity(), stateFilter, transFilter);
     }
 
 }
@@ -0,0 +1,175 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.util.automata.copy;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+
+import net.automatalib.automata.Automaton;
+import net.automatalib.automata.MutableAutomaton;
+import net.automatalib.automata.base.compact.AbstractCompact;
+import net.automatalib.commons.util.mappings.Mapping;
+import net.automatalib.ts.TransitionPredicate;
+import net.automatalib.words.Alphabet;
+
+/**
+ * Support for the {@link AutomatonCopyMethod#BULK bulk} copy method. If both the source and the target automaton are
+ * {@link AbstractCompact#isBulkCopyCompatible(AbstractCompact) bulk-copy compatible} compact automata over the same
+ * alphabet, and neither inputs nor properties are transformed and neither states nor transitions are filtered, the
+ * internal arrays of the source automaton are copied directly (in parallel chunks for large automata). Otherwise, the
+ * bulk copy method behaves like {@link AutomatonCopyMethod#STATE_BY_STATE}.
+ * <p>
+ * Since transformations and filters are only known as functions, the identity transformation and the accepting
+ * filters of {@link AutomatonLowLevelCopy} are represented by the shared instances of this class.
+ *
+ * @author frohme
+ */
+final class BulkAutomatonCopy {
+
+    /**
+     * The number of states whose transitions are copied by a single task.
+     */
+    static final int CHUNK_SIZE = 1 << 14;
+
+    /**
+     * The number of states from which on the transitions are copied in parallel.
+     */
+    static final int PARALLEL_THRESHOLD = 4 * CHUNK_SIZE;
+
+    private static final Function<?, ?> IDENTITY = x -> x;
+    private static final Predicate<?> ALL_STATES = s -> true;
+    private static final TransitionPredicate<?, ?, ?> ALL_TRANSITIONS = (s, i, t) -> true;
+
+    private BulkAutomatonCopy() {
+        // prevent instantiation
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> Function<T, T> identity() {
+        return (Function<T, T>) IDENTITY;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <S> Predicate<S> allStates() {
+        return (Predicate<S>) ALL_STATES;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <S, I, T> TransitionPredicate<S, I, T> allTransitions() {
+        return (TransitionPredicate<S, I, T>) ALL_TRANSITIONS;
+    }
+
+    static boolean isApplicable(Automaton<?, ?, ?> in,
+                                Collection<?> inputs,
+                                MutableAutomaton<?, ?, ?, ?, ?> out,
+                                Function<?, ?> inputsMapping,
+                                Function<?, ?> spTransform,
+                                Function<?, ?> tpTransform,
+                                Predicate<?> stateFilter,
+                                TransitionPredicate<?, ?, ?> transFilter) {
+
+        if (!(in instanceof AbstractCompact) || !(out instanceof AbstractCompact) || in == out) {
+            return false;
+        }
+
+        if (inputsMapping != IDENTITY || spTransform != IDENTITY || tpTransform != IDENTITY ||
+            stateFilter != ALL_STATES || transFilter != ALL_TRANSITIONS) {
+            return false;
+        }
+
+        final AbstractCompact<?, ?, ?, ?> compactIn = (AbstractCompact<?, ?, ?, ?>) in;
+        final AbstractCompact<?, ?, ?, ?> compactOut = (AbstractCompact<?, ?, ?, ?>) out;
+
+        return compactOut.isBulkCopyCompatible(compactIn) &&
+               matchesAlphabet(inputs, compactIn.getInputAlphabet()) &&
+               matchesAlphabet(inputs, compactOut.getInputAlphabet());
+    }
+
+    private static boolean matchesAlphabet(Collection<?> inputs, Alphabet<?> alphabet) {
+        if (inputs.size() != alphabet.size()) {
+            return false;
+        }
+
+        final Iterator<?> iter = inputs.iterator();
+        for (int i = 0; iter.hasNext(); i++) {
+            if (!Objects.equals(iter.next(), alphabet.getSymbol(i))) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Copies the given automaton. Requires {@link #isApplicable(Automaton, Collection, MutableAutomaton, Function,
+     * Function, Function, Predicate, TransitionPredicate)} to hold.
+     */
+    @SuppressWarnings("unchecked")
+    static <S1, S2> Mapping<S1, S2> copy(Automaton<S1, ?, ?> in, MutableAutomaton<S2, ?, ?, ?, ?> out) {
+        final AbstractCompact<?, ?, ?, ?> compactIn = (AbstractCompact<?, ?, ?, ?>) in;
+        final AbstractCompact<?, ?, ?, ?> compactOut = (AbstractCompact<?, ?, ?, ?>) out;
+
+        final int numStates = compactIn.size();
+        final int offset = compactOut.addIntStates(numStates);
+
+        compactOut.copyStatePropertiesFrom(compactIn, offset);
+
+        if (numStates < PARALLEL_THRESHOLD) {
+            compactOut.copyTransitionsFrom(compactIn, 0, numStates, offset);
+        } else {
+            final int numChunks = (numStates + CHUNK_SIZE - 1) / CHUNK_SIZE;
+            IntStream.range(0, numChunks).parallel().forEach(c -> {
+                final int from = c * CHUNK_SIZE;
+                compactOut.copyTransitionsFrom(compactIn, from, Math.min(from + CHUNK_SIZE, numStates), offset);
+            });
+        }
+
+        for (Integer init : compactIn.getInitialStates()) {
+            compactOut.setInitial(init + offset, true);
+        }
+
+        final Mapping<Integer, Integer> mapping = s -> s + offset;
+        return (Mapping<S1, S2>) mapping;
+    }
+
+    static final class CopyMethod implements AutomatonCopyMethod {
+
+        @Override
+        public <S1, I1, T1, S2, I2, T2, SP2, TP2> LowLevelAutomatonCopier<S1, S2> createLowLevelCopier(
+                Automaton<S1, ? super I1, T1> in,
+                Collection<? extends I1> inputs,
+                MutableAutomaton<S2, I2, T2, ? super SP2, ? super TP2> out,
+                Function<? super I1, ? extends I2> inputsMapping,
+                Function<? super S1, ? extends SP2> spMapping,
+                Function<? super T1, ? extends TP2> tpMapping,
+                Predicate<? super S1> stateFilter,
+                TransitionPredicate<? super S1, ? super I1, ? super T1> transitionFilter) {
+            // the raw (property) mappings do not allow to detect bulk copies
+            return new PlainAutomatonCopy<>(in,
+                                            inputs,
+                                            out,
+                                            inputsMapping,
+                                            spMapping,
+                                            tpMapping,
+                                            stateFilter,
+                                            transitionFilter);
+        }
+    }
+}
@@ -0,0 +1,261 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.util.automata.cover;
+
+import java.util.Iterator;
+import java.util.function.IntFunction;
+
+import com.google.common.collect.AbstractIterator;
+import net.automatalib.automata.simple.SimpleDeterministicAutomaton.FullIntAbstraction;
+import net.automatalib.words.Word;
+import net.automatalib.words.WordBuilder;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A breadth-first state and transition cover of an {@link FullIntAbstraction int-abstracted} automaton. In contrast to
+ * the (incremental) covers of {@link Covers}, the breadth-first search only stores the parent state and the input of
+ * each reached state in {@code int} arrays. Access sequences are materialized on demand by following these parent
+ * pointers, so that the iterators of this class only hold the access sequence of the currently processed state.
+ * <p>
+ * The cover is computed upon construction and reflects the structure of the automaton at this point in time. The
+ * sequences of the iterators are returned in the same order as the sequences of the corresponding methods of {@link
+ * Covers}.
+ *
+ * @param <I>
+ *         input symbol type
+ *
+ * @author frohme
+ * @see Covers#compactCover(FullIntAbstraction, IntFunction)
+ */
+public final class CompactCover<I> {
+
+    private final FullIntAbstraction automaton;
+    private final IntFunction<? extends I> inputs;
+    private final int numInputs;
+
+    // states in the order of their discovery
+    private final int[] order;
+    private final int[] parents;
+    private final int[] parentInputs;
+    private final int[] depths;
+    private int numReached;
+
+    CompactCover(FullIntAbstraction automaton, IntFunction<? extends I> inputs) {
+        this.automaton = automaton;
+        this.inputs = inputs;
+        this.numInputs = automaton.numInputs();
+
+        final int size = automaton.size();
+        this.order = new int[size];
+        this.parents = new int[size];
+        this.parentInputs = new int[size];
+        this.depths = new int[size];
+
+        final int init = automaton.getIntInitialState();
+
+        if (init < 0 || init >= size) {
+            return;
+        }
+
+        for (int i = 0; i < size; i++) {
+            parents[i] = FullIntAbstraction.INVALID_STATE;
+        }
+
+        parents[init] = init;
+        order[numReached++] = init;
+
+        for (int queuePtr = 0; queuePtr < numReached; queuePtr++) {
+            final int curr = order[queuePtr];
+
+            for (int i = 0; i < numInputs; i++) {
+                final int succ = automaton.getSuccessor(curr, i);
+
+                if (succ >= 0 && succ < size && parents[succ] == FullIntAbstraction.INVALID_STATE) {
+                    parents[succ] = curr;
+                    parentInputs[succ] = i;
+                    depths[succ] = depths[curr] + 1;
+                    order[numReached++] = succ;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the number of states reachable from the initial state, i.e. the size of the state cover.
+     *
+     * @return the number of reachable states
+     */
+    public int getNumReachedStates() {
+        return numReached;
+    }
+
+    /**
+     * Returns the reachable states in the order of their discovery.
+     *
+     * @param idx
+     *         the index of the state in the order of discovery
+     *
+     * @return the (int-abstracted) state that has been discovered at the given index
+     */
+    public int getReachedState(int idx) {
+        return order[idx];
+    }
+
+    /**
+     * Returns whether the given state is reachable from the initial state.
+     *
+     * @param state
+     *         the (int-abstracted) state
+     *
+     * @return {@code true} if the state is reachable, {@code false} otherwise
+     */
+    public boolean isReached(int state) {
+        return numReached > 0 && parents[state] != FullIntAbstraction.INVALID_STATE;
+    }
+
+    /**
+     * Returns the length of the access sequence of the given state without materializing it.
+     *
+     * @param state
+     *         the (int-abstracted) state
+     *
+     * @return the length of the access sequence of the given state, or {@code -1} if the state is not reachable
+     */
+    public int getAccessSequenceLength(int state) {
+        return isReached(state) ? depths[state] : -1;
+    }
+
+    /**
+     * Materializes the access sequence of the given state.
+     *
+     * @param state
+     *         the (int-abstracted) state
+     *
+     * @return the access sequence of the given state, or {@code null} if the state is not reachable
+     */
+    public @Nullable Word<I> getAccessSequence(int state) {
+        if (!isReached(state)) {
+            return null;
+        }
+
+        final WordBuilder<I> wb = new WordBuilder<>(depths[state]);
+
+        int curr = state;
+        while (depths[curr] > 0) {
+            wb.append(inputs.apply(parentInputs[curr]));
+            curr = parents[curr];
+        }
+
+        return wb.reverse().toWord();
+    }
+
+    /**
+     * Returns an iterator over the sequences of the state cover.
+     *
+     * @return an iterator over the sequences of the state cover
+     *
+     * @see Covers#stateCover(net.automatalib.automata.DeterministicAutomaton, java.util.Collection,
+     * java.util.Collection)
+     */
+    public Iterator<Word<I>> stateCoverIterator() {
+        return new StateCoverIterator();
+    }
+
+    /**
+     * Returns an iterator over the sequences of the transition cover, i.e. the access sequences of the reachable
+     * states extended by each input that has a defined successor.
+     *
+     * @return an iterator over the sequences of the transition cover
+     *
+     * @see Covers#transitionCover(net.automatalib.automata.DeterministicAutomaton, java.util.Collection,
+     * java.util.Collection)
+     */
+    public Iterator<Word<I>> transitionCoverIterator() {
+        return new TransitionCoverIterator(false);
+    }
+
+    /**
+     * Returns an iterator over the sequences of the structural cover, i.e. the empty word (the access sequence of the
+     * initial state) followed by the sequences of the transition cover. Contrary to {@link
+     * Covers#structuralCover(net.automatalib.automata.DeterministicAutomaton, java.util.Collection,
+     * java.util.Collection)}, sequences that are contained in both the state and the transition cover are only
+     * returned once.
+     *
+     * @return an iterator over the sequences of the structural cover
+     */
+    public Iterator<Word<I>> structuralCoverIterator() {
+        return new TransitionCoverIterator(true);
+    }
+
+    private final class StateCoverIterator extends AbstractIterator<Word<I>> {
+
+        private int idx;
+
+        @Override
+        protected Word<I> computeNext() {
+            if (idx < numReached) {
+                final Word<I> result = getAccessSequence(order[idx++]);
+                assert result != null;
+                return result;
+            }
+            return endOfData();
+        }
+    }
+
+    private final class TransitionCoverIterator extends AbstractIterator<Word<I>> {
+
+        private boolean includeEpsilon;
+        private int idx;
+        private int input;
+        private @Nullable Word<I> currentAs;
+
+        TransitionCoverIterator(boolean includeEpsilon) {
+            this.includeEpsilon = includeEpsilon && numReached > 0;
+        }
+
+        @Override
+        protected Word<I> computeNext() {
+            if (includeEpsilon) {
+                includeEpsilon = false;
+                return Word.epsilon();
+            }
+
+            while (idx < numReached) {
+                final int state = order[idx];
+
+                if (currentAs == null) {
+                    currentAs = getAccessSequence(state);
+                    assert currentAs != null;
+                }
+
+                while (input < numInputs) {
+                    final int i = input++;
+                    final int succ = automaton.getSuccessor(state, i);
+
+                    if (succ >= 0 && succ < parents.length) {
+                        return currentAs.append(inputs.apply(i));
+                    }
+                }
+
+                idx++;
+                input = 0;
+                currentAs = null;
+            }
+
+            return endOfData();
+        }
+    }
+}
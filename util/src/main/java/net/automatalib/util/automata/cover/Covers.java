@@ -22,9 +22,12 @@ import java.util.Iterator;
 import java.util.Queue;
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
+import java.util.function.IntFunction;
 
 import com.google.common.collect.Sets;
 import net.automatalib.automata.DeterministicAutomaton;
+import net.automatalib.automata.base.compact.AbstractCompactDeterministic;
+import net.automatalib.automata.simple.SimpleDeterministicAutomaton.FullIntAbstraction;
 import net.automatalib.commons.util.mappings.MutableMapping;
 import net.automatalib.words.Word;
 import org.checkerframework.checker.nullness.qual.Nullable;
@@ -216,6 +219,45 @@ public final class Covers {
         }
     }
 
+    /**
+     * Computes a (breadth-first) state and transition cover for a given int-abstracted automaton. The returned cover
+     * only stores parent pointers for the reached states and materializes the cover sequences on demand, which allows
+     * to compute covers of very large automata without storing a sequence for each state.
+     *
+     * @param automaton
+     *         the (int-abstracted) automaton for which the cover should be computed
+     * @param inputs
+     *         the mapping from the (int-abstracted) inputs {@code [0, automaton.numInputs() - 1]} to the input symbols
+     *         of the cover sequences
+     * @param <I>
+     *         input symbol type
+     *
+     * @return the cover of the automaton
+     *
+     * @see CompactCover
+     */
+    public static <I> CompactCover<I> compactCover(FullIntAbstraction automaton, IntFunction<? extends I> inputs) {
+        return new CompactCover<>(automaton, inputs);
+    }
+
+    /**
+     * Computes a (breadth-first) state and transition cover for a given compact automaton (e.g. a {@link
+     * net.automatalib.automata.fsa.impl.compact.CompactDFA} or a {@link
+     * net.automatalib.automata.transducers.impl.compact.CompactMealy}) over its input alphabet.
+     *
+     * @param automaton
+     *         the automaton for which the cover should be computed
+     * @param <I>
+     *         input symbol type
+     *
+     * @return the cover of the automaton
+     *
+     * @see #compactCover(FullIntAbstraction, IntFunction)
+     */
+    public static <I> CompactCover<I> compactCover(AbstractCompactDeterministic<I, ?, ?, ?> automaton) {
+        return compactCover(automaton, automaton.getInputAlphabet());
+    }
+
     /**
      * Computes an incremental state cover for a given automaton, i.e. a cover that only contains the missing sequences
      * for obtaining a complete state cover.
@@ -16,10 +16,9 @@
 package net.automatalib.util.automata.equivalence;
 
 import java.util.Collection;
-import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 
-import com.google.common.collect.Sets;
 import net.automatalib.automata.Automaton;
 import net.automatalib.commons.util.Pair;
 
@@ -32,102 +31,55 @@ public final class Bisimulation {
         // prevent instantiation
     }
 
+    /**
+     * Computes the bisimulation equivalence relation between the states of the two given automata, using the common
+     * pool.
+     *
+     * @see #bisimulationEquivalenceRelation(Automaton, Automaton, Collection, ForkJoinPool)
+     */
     public static <AS, I, AT, A extends Automaton<AS, I, AT>, BS, BT, B extends Automaton<BS, I, BT>> Set<Pair<AS, BS>> bisimulationEquivalenceRelation(
             A a,
             B b,
             Collection<I> inputs) {
+        return bisimulationEquivalenceRelation(a, b, inputs, ForkJoinPool.commonPool());
+    }
 
-        Set<Pair<AS, BS>> bisim = Sets.newHashSetWithExpectedSize(a.size() * b.size());
-        Set<Pair<AS, BS>> change = Sets.newHashSetWithExpectedSize(a.size() * b.size());
-
-        boolean empty;
-
-        for (AS p : a.getStates()) {
-            for (BS q : b.getStates()) {
-
-                empty = true;
-                for (I sym : inputs) {
-                    empty &= a.getTransitions(p, sym).isEmpty() && b.getTransitions(q, sym).isEmpty();
-                    if (!a.getTransitions(p, sym).isEmpty() && !b.getTransitions(q, sym).isEmpty()) {
-                        change.add(Pair.of(p, q));
-                        break;
-                    }
-                }
-
-                if (empty) {
-                    change.add(Pair.of(p, q));
-                }
-            }
-        }
-
-        Set<Pair<AS, BS>> swap;
-        boolean forall, exists;
-        while (!bisim.equals(change)) {
-            swap = change;
-            change = bisim;
-            bisim = swap;
-            change.clear();
-
-            for (Pair<AS, BS> p : bisim) {
-
-                forall = true;
-                for (I sym : inputs) {
-                    for (AT t : a.getTransitions(p.getFirst(), sym)) {
-
-                        exists = false;
-                        for (BT f : b.getTransitions(p.getSecond(), sym)) {
-                            for (Pair<AS, BS> s : bisim) {
-                                if (Objects.equals(a.getSuccessor(t), s.getFirst()) &&
-                                    Objects.equals(b.getSuccessor(f), s.getSecond())) {
-                                    exists = true;
-                                    break;
-                                }
-                            }
-                            if (exists) {
-                                break;
-                            }
-                        }
-                        if (!exists) {
-                            forall = false;
-                            break;
-                        }
-                    }
-                }
-
-                if (!forall) {
-                    continue;
-                }
-
-                forall = true;
-                for (I sym : inputs) {
-                    for (BT f : b.getTransitions(p.getSecond(), sym)) {
-
-                        exists = false;
-                        for (AT t : a.getTransitions(p.getFirst(), sym)) {
-                            for (Pair<AS, BS> s : bisim) {
-                                if (Objects.equals(b.getSuccessor(f), s.getSecond()) &&
-                                    Objects.equals(a.getSuccessor(t), s.getFirst())) {
-                                    exists = true;
-                                    break;
-                                }
-                            }
-                            if (exists) {
-                                break;
-                            }
-                        }
-                        if (!exists) {
-                            forall = false;
-                            break;
-                        }
-                    }
-                }
-
-                if (forall) {
-                    change.add(p);
-                }
-            }
-        }
-
-        return change;
+    /**
+     * Computes the bisimulation equivalence relation between the states of the two given automata, i.e. the greatest
+     * relation in which each transition of a state is matched by an equally labeled transition of the related state,
+     * such that the respective successors are related as well. See {@link ParallelRelationFixpoint} for details on the
+     * computation.
+     *
+     * @param a
+     *         the first automaton
+     * @param b
+     *         the second automaton
+     * @param inputs
+     *         the inputs to consider
+     * @param pool
+     *         the pool whose threads evaluate the relation
+     * @param <AS>
+     *         state type of the first automaton
+     * @param <I>
+     *         input symbol type
+     * @param <AT>
+     *         transition type of the first automaton
+     * @param <A>
+     *         type of the first automaton
+     * @param <BS>
+     *         state type of the second automaton
+     * @param <BT>
+     *         transition type of the second automaton
+     * @param <B>
+     *         type of the second automaton
+     *
+     * @return a (compact, immutable) view on the bisimulation equivalence relation
+     */
+    public static <AS, I, AT, A extends Automaton<AS, I, AT>, BS, BT, B extends Automaton<BS, I, BT>> Set<Pair<AS, BS>> bisimulationEquivalenceRelation(
+            A a,
+            B b,
+            Collection<I> inputs,
+            ForkJoinPool pool) {
+        return ParallelRelationFixpoint.greatestFixedPoint(a, b, inputs, t -> true, t -> true, t -> true, t -> true, pool);
     }
 }
@@ -0,0 +1,175 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.util.automata.equivalence;
+
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+import net.automatalib.automata.concepts.StateIDs;
+import net.automatalib.commons.util.Pair;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A compact, immutable view on a binary relation between the states of two automata. The relation is stored as one
+ * bitset row (a {@code long[]}) per state of the first automaton, indexed by the {@link StateIDs state ids} of the
+ * second automaton. {@link Pair}s are only instantiated upon iteration.
+ *
+ * @param <AS>
+ *         state type of the first automaton
+ * @param <BS>
+ *         state type of the second automaton
+ *
+ * @author frohme
+ * @see ParallelRelationFixpoint
+ */
+public final class BitSetRelation<AS, BS> extends AbstractSet<Pair<AS, BS>> {
+
+    private final StateIDs<AS> idsA;
+    private final StateIDs<BS> idsB;
+    private final int sizeA;
+    private final int sizeB;
+    private final long[][] rows;
+    private final int size;
+
+    BitSetRelation(StateIDs<AS> idsA, StateIDs<BS> idsB, int sizeA, int sizeB, long[][] rows) {
+        this.idsA = idsA;
+        this.idsB = idsB;
+        this.sizeA = sizeA;
+        this.sizeB = sizeB;
+        this.rows = rows;
+
+        int size = 0;
+        for (long[] row : rows) {
+            for (long word : row) {
+                size += Long.bitCount(word);
+            }
+        }
+        this.size = size;
+    }
+
+    /**
+     * Checks whether the two given states are related.
+     *
+     * @param a
+     *         the state of the first automaton
+     * @param b
+     *         the state of the second automaton
+     *
+     * @return {@code true} if the given states are related, {@code false} otherwise
+     */
+    public boolean isRelated(AS a, BS b) {
+        final int idA = indexOf(idsA, sizeA, a);
+        final int idB = indexOf(idsB, sizeB, b);
+        return idA >= 0 && idB >= 0 && isSet(rows[idA], idB);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean contains(@Nullable Object o) {
+        if (!(o instanceof Pair)) {
+            return false;
+        }
+
+        final Pair<?, ?> pair = (Pair<?, ?>) o;
+        return isRelated((AS) pair.getFirst(), (BS) pair.getSecond());
+    }
+
+    @Override
+    public Iterator<Pair<AS, BS>> iterator() {
+        return new RelationIterator();
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    static boolean isSet(long[] row, int idx) {
+        return (row[idx >>> 6] & (1L << idx)) != 0;
+    }
+
+    static int nextSetBit(long[] row, int from) {
+        int wordIdx = from >>> 6;
+        if (wordIdx >= row.length) {
+            return -1;
+        }
+
+        long word = row[wordIdx] & (-1L << from);
+
+        while (word == 0) {
+            if (++wordIdx == row.length) {
+                return -1;
+            }
+            word = row[wordIdx];
+        }
+
+        return (wordIdx << 6) + Long.numberOfTrailingZeros(word);
+    }
+
+    private static <S> int indexOf(StateIDs<S> ids, int size, S state) {
+        final int id;
+
+        try {
+            id = ids.getStateId(state);
+        } catch (ClassCastException | IllegalArgumentException e) {
+            // not a state of the automaton
+            return -1;
+        }
+
+        return id >= 0 && id < size && Objects.equals(ids.getState(id), state) ? id : -1;
+    }
+
+    private final class RelationIterator implements Iterator<Pair<AS, BS>> {
+
+        private int row;
+        private int col;
+
+        RelationIterator() {
+            this.row = 0;
+            this.col = -1;
+            advance();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return row < rows.length;
+        }
+
+        @Override
+        public Pair<AS, BS> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            final Pair<AS, BS> result = Pair.of(idsA.getState(row), idsB.getState(col));
+            advance();
+            return result;
+        }
+
+        private void advance() {
+            while (row < rows.length) {
+                col = nextSetBit(rows[row], col + 1);
+                if (col >= 0) {
+                    return;
+                }
+                row++;
+                col = -1;
+            }
+        }
+    }
+}
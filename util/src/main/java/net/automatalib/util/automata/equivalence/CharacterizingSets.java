@@ -68,6 +68,25 @@ public final class CharacterizingSets {
         findIncrementalCharacterizingSet(automaton, inputs, Collections.emptyList(), result);
     }
 
+    /**
+     * Computes a characterizing set for the given automaton by means of partition refinement. Instead of clustering
+     * states by their (explicitly computed) output traces, states are refined by integer-encoded state and transition
+     * properties and each split of the refinement contributes exactly one distinguishing suffix. Hence, the computed
+     * set contains at most as many words as the automaton has states.
+     *
+     * @param automaton
+     *         the automaton for which to determine the characterizing set.
+     * @param inputs
+     *         the input alphabets to consider
+     * @param result
+     *         the collection in which to store the characterizing words
+     */
+    public static <S, I, T> void findCharacterizingSetByRefinement(UniversalDeterministicAutomaton<S, I, T, ?, ?> automaton,
+                                                                   Collection<? extends I> inputs,
+                                                                   Collection<? super Word<I>> result) {
+        result.addAll(SuffixSplitTree.computeSuffixes(automaton, inputs));
+    }
+
     /**
      * Computes a characterizing set for a specified state in the given automaton.
      *
@@ -0,0 +1,313 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.util.automata.equivalence;
+
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import net.automatalib.automata.UniversalDeterministicAutomaton;
+import net.automatalib.automata.UniversalDeterministicAutomaton.FullIntAbstraction;
+import net.automatalib.commons.util.ConcurrentIntDisjointSets;
+import net.automatalib.commons.util.IntDisjointSets;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.Word;
+import net.automatalib.words.WordBuilder;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A multi-threaded variant of the (near-linear) equivalence test of {@link NearLinearEquivalenceTest}, i.e. the
+ * algorithm by Hopcroft and Karp.
+ * <p>
+ * The product of both automata is explored level by level: The pairs of states of the current level are distributed
+ * among the threads of a {@link ForkJoinPool}, which merge the successor pairs in a shared, lock-free disjoint-set
+ * forest and append newly merged pairs to the (shared) next level. Since all separating words detected on the same
+ * level have the same length, the first level that reveals a difference determines the length of the returned word,
+ * just as in a sequential breadth-first exploration.
+ * <p>
+ * Both automata may be accessed concurrently and therefore must not be modified during the test.
+ *
+ * @author frohme
+ */
+public final class ParallelEquivalenceTest {
+
+    /**
+     * The number of pairs of a level that is processed by a single task.
+     */
+    static final int CHUNK_SIZE = 1 << 10;
+
+    private ParallelEquivalenceTest() {
+        // prevent instantiation
+    }
+
+    /**
+     * Convenience method for {@link #findSeparatingWord(UniversalDeterministicAutomaton,
+     * UniversalDeterministicAutomaton, Alphabet, boolean, ForkJoinPool)} that considers undefined transitions as
+     * distinguishing and uses the common pool.
+     *
+     * @see #findSeparatingWord(UniversalDeterministicAutomaton, UniversalDeterministicAutomaton, Alphabet, boolean,
+     * ForkJoinPool)
+     */
+    public static <I> @Nullable Word<I> findSeparatingWord(UniversalDeterministicAutomaton<?, I, ?, ?, ?> target,
+                                                           UniversalDeterministicAutomaton<?, I, ?, ?, ?> other,
+                                                           Alphabet<I> inputs) {
+        return findSeparatingWord(target, other, inputs, false, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Finds a separating word for the two given automata.
+     *
+     * @param target
+     *         the first automaton
+     * @param other
+     *         the second automaton
+     * @param inputs
+     *         the inputs to consider for a separating word
+     * @param ignoreUndefinedTransitions
+     *         if {@code true}, undefined transitions are not considered to distinguish two states, if {@code false} an
+     *         undefined and defined transition are considered to distinguish two states
+     * @param pool
+     *         the pool whose threads explore the product
+     * @param <S>
+     *         state type of the first automaton
+     * @param <S2>
+     *         state type of the second automaton
+     * @param <I>
+     *         input symbol type
+     * @param <T>
+     *         transition type of the first automaton
+     * @param <T2>
+     *         transition type of the second automaton
+     * @param <SP>
+     *         state property type of the first automaton
+     * @param <SP2>
+     *         state property type of the second automaton
+     * @param <TP>
+     *         transition property type of the first automaton
+     * @param <TP2>
+     *         transition property type of the second automaton
+     *
+     * @return a separating word, or {@code null} if no such word exists
+     */
+    public static <S, S2, I, T, T2, SP, SP2, TP, TP2> @Nullable Word<I> findSeparatingWord(
+            UniversalDeterministicAutomaton<S, I, T, SP, TP> target,
+            UniversalDeterministicAutomaton<S2, I, T2, SP2, TP2> other,
+            Alphabet<I> inputs,
+            boolean ignoreUndefinedTransitions,
+            ForkJoinPool pool) {
+
+        final FullIntAbstraction<T, SP, TP> absTarget = target.fullIntAbstraction(inputs);
+        final FullIntAbstraction<T2, SP2, TP2> absOther = other.fullIntAbstraction(inputs);
+
+        final int init1 = absTarget.getIntInitialState();
+        final int init2 = absOther.getIntInitialState();
+
+        if (init1 < 0 || init2 < 0) {
+            return init1 < 0 && init2 < 0 ? null : Word.epsilon();
+        }
+
+        if (!Objects.equals(absTarget.getStateProperty(init1), absOther.getStateProperty(init2))) {
+            return Word.epsilon();
+        }
+
+        final Exploration<T, T2, SP, SP2, TP, TP2> exploration =
+                new Exploration<>(absTarget, absOther, inputs.size(), ignoreUndefinedTransitions);
+
+        exploration.start(init1, init2);
+
+        int levelStart = 0;
+        int levelEnd = 1;
+
+        while (levelStart < levelEnd) {
+            if (levelEnd - levelStart <= CHUNK_SIZE) {
+                exploration.explore(levelStart, levelEnd);
+            } else {
+                pool.invoke(new LevelTask(exploration, levelStart, levelEnd));
+            }
+
+            final long conflict = exploration.conflict.get();
+            if (conflict != Long.MAX_VALUE) {
+                return exploration.toWord(conflict, inputs);
+            }
+
+            levelStart = levelEnd;
+            levelEnd = exploration.size.get();
+        }
+
+        return null;
+    }
+
+    /**
+     * The shared state of an exploration. Pairs of states are stored in flat arrays, whose indices are allocated
+     * atomically. Since each stored pair corresponds to a successful union in the disjoint-set forest, the number of
+     * pairs is bounded by the number of states of both automata.
+     */
+    private static final class Exploration<T, T2, SP, SP2, TP, TP2> {
+
+        private final FullIntAbstraction<T, SP, TP> target;
+        private final FullIntAbstraction<T2, SP2, TP2> other;
+        private final int numInputs;
+        private final boolean ignoreUndefinedTransitions;
+        private final int targetStates;
+
+        private final IntDisjointSets uf;
+
+        private final int[] states1;
+        private final int[] states2;
+        private final int[] predecessors;
+        private final int[] symbols;
+        private final AtomicInteger size;
+
+        /**
+         * The smallest conflict ({@code pair * numInputs + symbol}) of the current level, or {@link Long#MAX_VALUE} if
+         * no conflict has been detected yet.
+         */
+        private final AtomicLong conflict;
+
+        Exploration(FullIntAbstraction<T, SP, TP> target,
+                    FullIntAbstraction<T2, SP2, TP2> other,
+                    int numInputs,
+                    boolean ignoreUndefinedTransitions) {
+            this.target = target;
+            this.other = other;
+            this.numInputs = numInputs;
+            this.ignoreUndefinedTransitions = ignoreUndefinedTransitions;
+            this.targetStates = target.size();
+
+            final int numStates = targetStates + other.size();
+
+            this.uf = new ConcurrentIntDisjointSets(numStates);
+            this.states1 = new int[numStates];
+            this.states2 = new int[numStates];
+            this.predecessors = new int[numStates];
+            this.symbols = new int[numStates];
+            this.size = new AtomicInteger();
+            this.conflict = new AtomicLong(Long.MAX_VALUE);
+        }
+
+        void start(int init1, int init2) {
+            uf.link(init1, init2 + targetStates);
+            add(init1, init2, -1, -1);
+        }
+
+        void explore(int from, int to) {
+            for (int pair = from; pair < to && conflict.get() == Long.MAX_VALUE; pair++) {
+                explore(pair);
+            }
+        }
+
+        private void explore(int pair) {
+            final int state1 = states1[pair];
+            final int state2 = states2[pair];
+
+            for (int sym = 0; sym < numInputs; sym++) {
+                final T trans1 = target.getTransition(state1, sym);
+                final T2 trans2 = other.getTransition(state2, sym);
+
+                if (ignoreUndefinedTransitions && (trans1 == null || trans2 == null)) {
+                    continue;
+                } else if (trans1 == null) {
+                    if (trans2 == null) {
+                        continue;
+                    }
+                    reportConflict(pair, sym);
+                    return;
+                } else if (trans2 == null) {
+                    reportConflict(pair, sym);
+                    return;
+                }
+
+                if (!Objects.equals(target.getTransitionProperty(trans1), other.getTransitionProperty(trans2))) {
+                    reportConflict(pair, sym);
+                    return;
+                }
+
+                final int succ1 = target.getIntSuccessor(trans1);
+                final int succ2 = other.getIntSuccessor(trans2);
+
+                if (!uf.union(succ1, succ2 + targetStates)) {
+                    continue;
+                }
+
+                if (!Objects.equals(target.getStateProperty(succ1), other.getStateProperty(succ2))) {
+                    reportConflict(pair, sym);
+                    return;
+                }
+
+                add(succ1, succ2, pair, sym);
+            }
+        }
+
+        private void add(int state1, int state2, int predecessor, int symbol) {
+            final int idx = size.getAndIncrement();
+            states1[idx] = state1;
+            states2[idx] = state2;
+            predecessors[idx] = predecessor;
+            symbols[idx] = symbol;
+        }
+
+        private void reportConflict(int pair, int sym) {
+            conflict.accumulateAndGet((long) pair * numInputs + sym, Math::min);
+        }
+
+        <I> Word<I> toWord(long conflict, Alphabet<I> inputs) {
+            final int pair = (int) (conflict / numInputs);
+            final int lastSym = (int) (conflict % numInputs);
+
+            int length = 1;
+            for (int p = pair; predecessors[p] >= 0; p = predecessors[p]) {
+                length++;
+            }
+
+            @SuppressWarnings("nullness") // we make sure to set each index to a value of type I
+            final WordBuilder<I> wb = new WordBuilder<>(null, length);
+
+            int position = length;
+            wb.setSymbol(--position, inputs.getSymbol(lastSym));
+
+            for (int p = pair; predecessors[p] >= 0; p = predecessors[p]) {
+                wb.setSymbol(--position, inputs.getSymbol(symbols[p]));
+            }
+
+            return wb.toWord();
+        }
+    }
+
+    private static final class LevelTask extends RecursiveAction {
+
+        private final Exploration<?, ?, ?, ?, ?, ?> exploration;
+        private final int from;
+        private final int to;
+
+        LevelTask(Exploration<?, ?, ?, ?, ?, ?> exploration, int from, int to) {
+            this.exploration = exploration;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= CHUNK_SIZE) {
+                exploration.explore(from, to);
+            } else {
+                final int mid = (from + to) >>> 1;
+                invokeAll(new LevelTask(exploration, from, mid), new LevelTask(exploration, mid, to));
+            }
+        }
+    }
+}
@@ -0,0 +1,374 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.util.automata.equivalence;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Predicate;
+
+import net.automatalib.automata.Automaton;
+import net.automatalib.automata.concepts.StateIDs;
+
+/**
+ * Computes the greatest relation {@code R} between the states of two automata {@code A} and {@code B}, such that for
+ * every pair {@code (p, q)} in {@code R} and every input {@code i}
+ * <ul>
+ * <li>every <i>forth</i> transition {@code p -i-> p'} of {@code A} is matched by a <i>forth</i> transition {@code q
+ * -i-> q'} of {@code B} with {@code (p', q')} in {@code R}, and</li>
+ * <li>every <i>back</i> transition {@code q -i-> q'} of {@code B} is matched by a <i>back</i> transition {@code p
+ * -i-> p'} of {@code A} with {@code (p', q')} in {@code R}.</li>
+ * </ul>
+ * Which transitions are forth and back transitions is determined by predicates, so that e.g. bisimulations (all
+ * transitions in both directions) and modal refinements (may transitions forth, must transitions back) can be computed
+ * by the same procedure.
+ * <p>
+ * Both automata are abstracted to integers (via their {@link StateIDs}) and the relation is represented by one bitset
+ * row per state of {@code A}. Starting from the full relation, pairs are removed until a fixed point is reached. Since
+ * the pairs of a row {@code p} only depend on the rows of the successors of {@code p}, only the predecessors of changed
+ * rows are re-evaluated in the next round. The rows of a round are evaluated in parallel on a {@link ForkJoinPool},
+ * reading the relation of the previous round only.
+ * <p>
+ * Both automata may be accessed concurrently and therefore must not be modified during the computation.
+ *
+ * @author frohme
+ */
+public final class ParallelRelationFixpoint {
+
+    /**
+     * The number of rows that is evaluated by a single task.
+     */
+    static final int CHUNK_SIZE = 1 << 5;
+
+    private ParallelRelationFixpoint() {
+        // prevent instantiation
+    }
+
+    /**
+     * Computes the greatest relation that satisfies the above conditions.
+     *
+     * @param a
+     *         the first automaton
+     * @param b
+     *         the second automaton
+     * @param inputs
+     *         the inputs to consider
+     * @param forthA
+     *         the predicate determining the forth transitions of the first automaton
+     * @param forthB
+     *         the predicate determining the forth transitions of the second automaton
+     * @param backA
+     *         the predicate determining the back transitions of the first automaton
+     * @param backB
+     *         the predicate determining the back transitions of the second automaton
+     * @param pool
+     *         the pool whose threads evaluate the rows of the relation
+     * @param <AS>
+     *         state type of the first automaton
+     * @param <BS>
+     *         state type of the second automaton
+     * @param <I>
+     *         input symbol type
+     * @param <AT>
+     *         transition type of the first automaton
+     * @param <BT>
+     *         transition type of the second automaton
+     *
+     * @return a compact view on the computed relation
+     */
+    public static <AS, BS, I, AT, BT> BitSetRelation<AS, BS> greatestFixedPoint(Automaton<AS, I, AT> a,
+                                                                                 Automaton<BS, I, BT> b,
+                                                                                 Collection<? extends I> inputs,
+                                                                                 Predicate<? super AT> forthA,
+                                                                                 Predicate<? super BT> forthB,
+                                                                                 Predicate<? super AT> backA,
+                                                                                 Predicate<? super BT> backB,
+                                                                                 ForkJoinPool pool) {
+
+        final List<? extends I> inputList = new ArrayList<>(inputs);
+        final StateIDs<AS> idsA = a.stateIDs();
+        final StateIDs<BS> idsB = b.stateIDs();
+        final int sizeA = a.size();
+        final int sizeB = b.size();
+
+        final IntTransitions forthTransA = IntTransitions.of(a, idsA, sizeA, inputList, forthA);
+        final IntTransitions backTransA = IntTransitions.of(a, idsA, sizeA, inputList, backA);
+
+        final Refinement refinement = new Refinement(forthTransA,
+                                                     IntTransitions.of(b, idsB, sizeB, inputList, forthB),
+                                                     backTransA,
+                                                     IntTransitions.of(b, idsB, sizeB, inputList, backB),
+                                                     sizeA,
+                                                     sizeB);
+
+        final int[][] predecessors = predecessors(sizeA, forthTransA, backTransA);
+
+        final boolean[] queued = new boolean[sizeA];
+        int[] worklist = new int[sizeA];
+        int worklistSize = sizeA;
+
+        for (int i = 0; i < sizeA; i++) {
+            worklist[i] = i;
+            queued[i] = true;
+        }
+
+        int[] nextWorklist = new int[sizeA];
+
+        while (worklistSize > 0) {
+            final long[][] updates = new long[worklistSize][];
+
+            if (worklistSize <= CHUNK_SIZE) {
+                refinement.refine(worklist, updates, 0, worklistSize);
+            } else {
+                pool.invoke(new RefinementTask(refinement, worklist, updates, 0, worklistSize));
+            }
+
+            for (int i = 0; i < worklistSize; i++) {
+                queued[worklist[i]] = false;
+            }
+
+            int nextWorklistSize = 0;
+
+            for (int i = 0; i < worklistSize; i++) {
+                final long[] update = updates[i];
+                if (update != null) {
+                    final int row = worklist[i];
+                    refinement.rows[row] = update;
+
+                    for (int pred : predecessors[row]) {
+                        if (!queued[pred]) {
+                            queued[pred] = true;
+                            nextWorklist[nextWorklistSize++] = pred;
+                        }
+                    }
+                }
+            }
+
+            final int[] swap = worklist;
+            worklist = nextWorklist;
+            nextWorklist = swap;
+            worklistSize = nextWorklistSize;
+        }
+
+        return new BitSetRelation<>(idsA, idsB, sizeA, sizeB, refinement.rows);
+    }
+
+    private static int[][] predecessors(int size, IntTransitions... transitions) {
+        final int[] counts = new int[size];
+
+        for (IntTransitions t : transitions) {
+            for (int target : t.targets) {
+                counts[target]++;
+            }
+        }
+
+        final int[][] result = new int[size][];
+        for (int i = 0; i < size; i++) {
+            result[i] = new int[counts[i]];
+        }
+
+        Arrays.fill(counts, 0);
+
+        for (IntTransitions t : transitions) {
+            for (int src = 0; src < size; src++) {
+                for (int j = t.offsets[src * t.numInputs], end = t.offsets[(src + 1) * t.numInputs]; j < end; j++) {
+                    final int target = t.targets[j];
+                    result[target][counts[target]++] = src;
+                }
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * The (filtered) transitions of an automaton in compressed sparse row format: the successors of state {@code s}
+     * for input (index) {@code i} are stored in {@code targets} from index {@code offsets[s * numInputs + i]}
+     * (inclusive) to index {@code offsets[s * numInputs + i + 1]} (exclusive).
+     */
+    private static final class IntTransitions {
+
+        private final int numInputs;
+        private final int[] offsets;
+        private final int[] targets;
+
+        IntTransitions(int numInputs, int[] offsets, int[] targets) {
+            this.numInputs = numInputs;
+            this.offsets = offsets;
+            this.targets = targets;
+        }
+
+        static <S, I, T> IntTransitions of(Automaton<S, I, T> automaton,
+                                           StateIDs<S> ids,
+                                           int size,
+                                           List<? extends I> inputs,
+                                           Predicate<? super T> filter) {
+            final int numInputs = inputs.size();
+            final int[] offsets = new int[size * numInputs + 1];
+            int[] targets = new int[size];
+            int numTargets = 0;
+
+            for (int s = 0; s < size; s++) {
+                final S state = ids.getState(s);
+                for (int i = 0; i < numInputs; i++) {
+                    for (T t : automaton.getTransitions(state, inputs.get(i))) {
+                        if (filter.test(t)) {
+                            if (numTargets == targets.length) {
+                                targets = Arrays.copyOf(targets, targets.length * 2);
+                            }
+                            targets[numTargets++] = ids.getStateId(automaton.getSuccessor(t));
+                        }
+                    }
+                    offsets[s * numInputs + i + 1] = numTargets;
+                }
+            }
+
+            return new IntTransitions(numInputs, offsets, Arrays.copyOf(targets, numTargets));
+        }
+    }
+
+    private static final class Refinement {
+
+        private final IntTransitions forthA;
+        private final IntTransitions forthB;
+        private final IntTransitions backA;
+        private final IntTransitions backB;
+        private final int numInputs;
+        private final long[][] rows;
+
+        Refinement(IntTransitions forthA,
+                   IntTransitions forthB,
+                   IntTransitions backA,
+                   IntTransitions backB,
+                   int sizeA,
+                   int sizeB) {
+            this.forthA = forthA;
+            this.forthB = forthB;
+            this.backA = backA;
+            this.backB = backB;
+            this.numInputs = forthA.numInputs;
+            this.rows = new long[sizeA][];
+
+            final int words = (sizeB + 63) >>> 6;
+            final long[] full = new long[words];
+
+            if (words > 0) {
+                Arrays.fill(full, -1L);
+                full[words - 1] = -1L >>> (words * 64 - sizeB);
+            }
+
+            for (int i = 0; i < sizeA; i++) {
+                rows[i] = full.clone();
+            }
+        }
+
+        /**
+         * Evaluates the given rows against the current relation and stores the refined rows (or {@code null} if a row
+         * has not changed) in {@code updates}.
+         */
+        void refine(int[] worklist, long[][] updates, int from, int to) {
+            for (int i = from; i < to; i++) {
+                updates[i] = refine(worklist[i]);
+            }
+        }
+
+        private long[] refine(int p) {
+            final long[] row = rows[p];
+            long[] result = null;
+
+            for (int q = BitSetRelation.nextSetBit(row, 0); q >= 0; q = BitSetRelation.nextSetBit(row, q + 1)) {
+                if (!isConsistent(p, q)) {
+                    if (result == null) {
+                        result = row.clone();
+                    }
+                    result[q >>> 6] &= ~(1L << q);
+                }
+            }
+
+            return result;
+        }
+
+        private boolean isConsistent(int p, int q) {
+            for (int i = 0; i < numInputs; i++) {
+                final int idxA = p * numInputs + i;
+                final int idxB = q * numInputs + i;
+
+                if (!isMatched(forthA, idxA, forthB, idxB, false) || !isMatched(backB, idxB, backA, idxA, true)) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+
+        /**
+         * Checks whether each successor in {@code from} has a related successor in {@code to}.
+         */
+        private boolean isMatched(IntTransitions from, int fromIdx, IntTransitions to, int toIdx, boolean inverse) {
+            final int toStart = to.offsets[toIdx];
+            final int toEnd = to.offsets[toIdx + 1];
+
+            for (int j = from.offsets[fromIdx], end = from.offsets[fromIdx + 1]; j < end; j++) {
+                final int succ = from.targets[j];
+                boolean matched = false;
+
+                for (int k = toStart; k < toEnd && !matched; k++) {
+                    final int coSucc = to.targets[k];
+                    matched = inverse ?
+                            BitSetRelation.isSet(rows[coSucc], succ) :
+                            BitSetRelation.isSet(rows[succ], coSucc);
+                }
+
+                if (!matched) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+    }
+
+    private static final class RefinementTask extends RecursiveAction {
+
+        private final Refinement refinement;
+        private final int[] worklist;
+        private final long[][] updates;
+        private final int from;
+        private final int to;
+
+        RefinementTask(Refinement refinement, int[] worklist, long[][] updates, int from, int to) {
+            this.refinement = refinement;
+            this.worklist = worklist;
+            this.updates = updates;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= CHUNK_SIZE) {
+                refinement.refine(worklist, updates, from, to);
+            } else {
+                final int mid = (from + to) >>> 1;
+                invokeAll(new RefinementTask(refinement, worklist, updates, from, mid),
+                          new RefinementTask(refinement, worklist, updates, mid, to));
+            }
+        }
+    }
+}
@@ -0,0 +1,479 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.util.automata.equivalence;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import net.automatalib.automata.UniversalDeterministicAutomaton;
+import net.automatalib.automata.concepts.StateIDs;
+import net.automatalib.words.Word;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A split tree that is constructed by partition refinement over integer-encoded automata and that records, for each
+ * split, a distinguishing suffix.
+ * <p>
+ * State properties and transition properties (combined with the properties of the respective successors) are mapped
+ * to integer codes once, so that the refinement itself only compares integers. Each inner node of the tree stores a
+ * suffix whose traces separate exactly the children of the node. First, the blocks are split by the state codes (the
+ * suffix being the empty word) and by the codes of each input symbol {@code a} (the suffix being {@code a}). Afterwards,
+ * the splits are propagated in the order of their creation: if the {@code a}-successors of the states of a block lie
+ * in different children of a split node {@code v}, the block is split by these children (the suffix being {@code a}
+ * followed by the suffix of {@code v}). Hence, the suffixes of all splits form a characterizing set whose size is
+ * bounded by the number of states. Suffixes that are shared by multiple splits are only reported once.
+ * <p>
+ * The propagation follows Hopcroft's "process the smaller half" strategy: for each split node, only the predecessors
+ * of the states in all but its largest child are inspected and the largest part of a split block keeps the block id.
+ * Hence, the refinement takes {@code O(m log n)} steps (plus sorting), where {@code m} denotes the number of
+ * transitions and {@code n} the number of states.
+ *
+ * @param <I>
+ *         input symbol type
+ *
+ * @author frohme
+ */
+final class SuffixSplitTree<I> {
+
+    private static final int UNDEFINED = -1;
+
+    private final List<I> inputs;
+    private final int numInputs;
+
+    /**
+     * The codes of the transition properties (combined with the state property of the successor), indexed by {@code
+     * state * numInputs + input}.
+     */
+    private final int[] codes;
+
+    /**
+     * The predecessors of each state, grouped by the input of the respective transition, i.e. the {@code
+     * input}-predecessors of {@code state} are stored at the indices {@code predOffsets[state * numInputs + input]}
+     * (inclusive) to {@code predOffsets[state * numInputs + input + 1]} (exclusive).
+     */
+    private final int[] predOffsets;
+    private final int[] predecessors;
+
+    // the states, grouped by the nodes of the split tree
+    private final int[] blockData;
+    private final int[] positions;
+
+    // the (leaf) blocks of the current partition
+    private final int[] blockForState;
+    private final int[] leafForBlock;
+    private int numBlocks;
+
+    // the nodes of the split tree, whose children are allocated consecutively
+    private final int[] low;
+    private final int[] high;
+    private final int[] childrenBegin;
+    private final int[] childrenEnd;
+    private final @Nullable Word<I>[] suffixes;
+    private int numNodes;
+
+    // the split nodes, in the order of their creation
+    private final int[] splitQueue;
+    private int splitQueueHead;
+    private int splitQueueTail;
+
+    // scratch data
+    private final long[] sortBuffer;
+    private final int[] touchedStates;
+    private final int[] touchedChild;
+    private final int[] touchedBlocks;
+    private final int[] blockStamps;
+    private final int[] blockCounts;
+    private final int[] blockOffsets;
+    private final int[] stateStamps;
+    private final int[] bounds;
+    private int stamp;
+
+    private final List<Word<I>> splitLog;
+    private final Set<Word<I>> loggedSuffixes;
+
+    @SuppressWarnings("unchecked")
+    private SuffixSplitTree(List<I> inputs, int numStates, int[] codes, int[] successors) {
+        this.inputs = inputs;
+        this.numInputs = inputs.size();
+        this.codes = codes;
+
+        final int numTransitions = successors.length;
+
+        this.predOffsets = new int[numTransitions + 1];
+        for (int i = 0; i < numTransitions; i++) {
+            final int succ = successors[i];
+            if (succ != UNDEFINED) {
+                predOffsets[succ * numInputs + i % numInputs + 1]++;
+            }
+        }
+        for (int i = 0; i < numTransitions; i++) {
+            predOffsets[i + 1] += predOffsets[i];
+        }
+
+        this.predecessors = new int[predOffsets[numTransitions]];
+        final int[] fill = Arrays.copyOf(predOffsets, numTransitions);
+        for (int i = 0; i < numTransitions; i++) {
+            final int succ = successors[i];
+            if (succ != UNDEFINED) {
+                predecessors[fill[succ * numInputs + i % numInputs]++] = i / numInputs;
+            }
+        }
+
+        final int maxNodes = Math.max(1, 2 * numStates - 1);
+        final int maxBlocks = Math.max(1, numStates);
+
+        this.blockData = new int[numStates];
+        this.positions = new int[numStates];
+        this.blockForState = new int[numStates];
+        this.leafForBlock = new int[maxBlocks];
+
+        this.low = new int[maxNodes];
+        this.high = new int[maxNodes];
+        this.childrenBegin = new int[maxNodes];
+        this.childrenEnd = new int[maxNodes];
+        this.suffixes = new Word[maxNodes];
+        this.splitQueue = new int[maxNodes];
+
+        this.sortBuffer = new long[numStates];
+        this.touchedStates = new int[numStates];
+        this.touchedChild = new int[numStates];
+        this.touchedBlocks = new int[maxBlocks];
+        this.blockStamps = new int[maxBlocks];
+        this.blockCounts = new int[maxBlocks];
+        this.blockOffsets = new int[maxBlocks];
+        this.stateStamps = new int[numStates];
+        this.bounds = new int[numStates + 1];
+
+        this.splitLog = new ArrayList<>();
+        this.loggedSuffixes = new HashSet<>();
+
+        for (int i = 0; i < numStates; i++) {
+            blockData[i] = i;
+            positions[i] = i;
+        }
+
+        high[0] = numStates;
+        numNodes = 1;
+        numBlocks = 1;
+    }
+
+    /**
+     * Computes the split tree for the given automaton and returns the (distinct) suffixes of its splits (in the order
+     * of their creation).
+     */
+    static <S, I, T> List<Word<I>> computeSuffixes(UniversalDeterministicAutomaton<S, I, T, ?, ?> automaton,
+                                                   Collection<? extends I> inputs) {
+
+        final List<I> inputList = new ArrayList<>(inputs);
+        final int numInputs = inputList.size();
+        final int numStates = automaton.size();
+        final StateIDs<S> stateIds = automaton.stateIDs();
+
+        final Map<@Nullable Object, Integer> statePropCodes = new HashMap<>();
+        final int[] stateCodes = new int[numStates];
+
+        for (int i = 0; i < numStates; i++) {
+            final Object prop = automaton.getStateProperty(stateIds.getState(i));
+            stateCodes[i] = statePropCodes.computeIfAbsent(prop, k -> statePropCodes.size());
+        }
+
+        final int numStateCodes = statePropCodes.size();
+        final Map<@Nullable Object, Integer> transPropCodes = new HashMap<>();
+        final int[] codes = new int[numStates * numInputs];
+        final int[] successors = new int[numStates * numInputs];
+
+        for (int i = 0; i < numStates; i++) {
+            final S state = stateIds.getState(i);
+            for (int j = 0; j < numInputs; j++) {
+                final int idx = i * numInputs + j;
+                final T trans = automaton.getTransition(state, inputList.get(j));
+
+                if (trans == null) {
+                    codes[idx] = UNDEFINED;
+                    successors[idx] = UNDEFINED;
+                } else {
+                    final Object prop = automaton.getTransitionProperty(trans);
+                    final int succ = stateIds.getStateId(automaton.getSuccessor(trans));
+                    final int transCode = transPropCodes.computeIfAbsent(prop, k -> transPropCodes.size());
+
+                    codes[idx] = transCode * numStateCodes + stateCodes[succ];
+                    successors[idx] = succ;
+                }
+            }
+        }
+
+        final SuffixSplitTree<I> tree = new SuffixSplitTree<>(inputList, numStates, codes, successors);
+
+        if (numStates > 1) {
+            tree.splitByCodes(0, stateCodes, 1, 0, Word.epsilon());
+            for (int i = 0; i < numInputs; i++) {
+                tree.splitByInput(i);
+            }
+            tree.propagateSplits();
+        }
+
+        return tree.splitLog;
+    }
+
+    /**
+     * Splits all blocks by the codes of the given input. Blocks that are created by these splits agree on the codes of
+     * the input, so each block is examined at most once.
+     */
+    private void splitByInput(int input) {
+        final Word<I> suffix = Word.fromLetter(inputs.get(input));
+
+        for (int block = 0; block < numBlocks; block++) {
+            final int leaf = leafForBlock[block];
+            final int first = blockData[low[leaf]];
+            final int code = codes[first * numInputs + input];
+
+            for (int j = low[leaf] + 1; j < high[leaf]; j++) {
+                if (codes[blockData[j] * numInputs + input] != code) {
+                    splitByCodes(block, codes, numInputs, input, suffix);
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Splits the given block by the given keys, indexed by {@code state * stride + offset}.
+     */
+    private void splitByCodes(int block, int[] keys, int stride, int offset, Word<I> suffix) {
+        final int leaf = leafForBlock[block];
+        final int base = low[leaf];
+        final int size = high[leaf] - base;
+
+        for (int j = 0; j < size; j++) {
+            final int state = blockData[base + j];
+            sortBuffer[j] = ((long) keys[state * stride + offset] << 32) | state;
+        }
+
+        Arrays.sort(sortBuffer, 0, size);
+
+        int numGroups = 0;
+        for (int j = 0; j < size; j++) {
+            final int state = (int) sortBuffer[j];
+            blockData[base + j] = state;
+            positions[state] = base + j;
+
+            if (j == 0 || (sortBuffer[j] >>> 32) != (sortBuffer[j - 1] >>> 32)) {
+                bounds[numGroups++] = base + j;
+            }
+        }
+        bounds[numGroups] = base + size;
+
+        if (numGroups > 1) {
+            split(block, numGroups, suffix);
+        }
+    }
+
+    /**
+     * Propagates the splits (in the order of their creation) to the blocks whose successors lie in different children
+     * of a split node.
+     */
+    private void propagateSplits() {
+        while (splitQueueHead < splitQueueTail) {
+            final int node = splitQueue[splitQueueHead++];
+            final int begin = childrenBegin[node];
+            final int end = childrenEnd[node];
+
+            int largest = begin;
+            for (int c = begin + 1; c < end; c++) {
+                if (high[c] - low[c] > high[largest] - low[largest]) {
+                    largest = c;
+                }
+            }
+
+            for (int i = 0; i < numInputs; i++) {
+                propagateSplit(node, largest, i);
+            }
+        }
+    }
+
+    private void propagateSplit(int node, int largest, int input) {
+        stamp++;
+
+        // collect the input-predecessors of all but the largest child, together with the child of their successor
+        int numTouched = 0;
+        for (int c = childrenBegin[node]; c < childrenEnd[node]; c++) {
+            if (c == largest) {
+                continue;
+            }
+            for (int j = low[c]; j < high[c]; j++) {
+                final int idx = blockData[j] * numInputs + input;
+                for (int k = predOffsets[idx]; k < predOffsets[idx + 1]; k++) {
+                    touchedStates[numTouched] = predecessors[k];
+                    touchedChild[numTouched] = c;
+                    numTouched++;
+                }
+            }
+        }
+
+        if (numTouched == 0) {
+            return;
+        }
+
+        // group the touched states by their blocks (counting sort)
+        int numTouchedBlocks = 0;
+        for (int j = 0; j < numTouched; j++) {
+            final int state = touchedStates[j];
+            final int block = blockForState[state];
+            stateStamps[state] = stamp;
+            if (blockStamps[block] != stamp) {
+                blockStamps[block] = stamp;
+                blockCounts[block] = 0;
+                touchedBlocks[numTouchedBlocks++] = block;
+            }
+            blockCounts[block]++;
+        }
+
+        int offset = 0;
+        for (int j = 0; j < numTouchedBlocks; j++) {
+            final int block = touchedBlocks[j];
+            blockOffsets[block] = offset;
+            offset += blockCounts[block];
+        }
+
+        for (int j = 0; j < numTouched; j++) {
+            final int state = touchedStates[j];
+            final int block = blockForState[state];
+            sortBuffer[blockOffsets[block]++] = ((long) touchedChild[j] << 32) | state;
+        }
+
+        final Word<I> suffix = getSuffix(node).prepend(inputs.get(input));
+
+        for (int j = 0; j < numTouchedBlocks; j++) {
+            final int block = touchedBlocks[j];
+            final int to = blockOffsets[block];
+            final int from = to - blockCounts[block];
+            splitByChildren(block, from, to, suffix);
+        }
+    }
+
+    /**
+     * Splits the given block by the children of the split node that contain the successors of its states. The touched
+     * states of the block (and the respective children) are given by {@code sortBuffer[from]} (inclusive) to {@code
+     * sortBuffer[to]} (exclusive). All other states of the block have a successor in the largest child.
+     */
+    private void splitByChildren(int block, int from, int to, Word<I> suffix) {
+        final int leaf = leafForBlock[block];
+        final int base = low[leaf];
+        final int size = high[leaf] - base;
+        final int numTouched = to - from;
+
+        Arrays.sort(sortBuffer, from, to);
+
+        if (numTouched == size && (sortBuffer[from] >>> 32) == (sortBuffer[to - 1] >>> 32)) {
+            // all successors lie in the same child
+            return;
+        }
+
+        // move the touched states to the end of the block
+        final int tail = high[leaf] - numTouched;
+        int free = tail;
+        for (int j = from; j < to; j++) {
+            final int state = (int) sortBuffer[j];
+            final int pos = positions[state];
+            if (pos < tail) {
+                while (stateStamps[blockData[free]] == stamp) {
+                    free++;
+                }
+                swap(pos, free);
+            }
+        }
+
+        // order the touched states by their children
+        int numGroups = 0;
+        if (tail > base) {
+            bounds[numGroups++] = base;
+        }
+        for (int j = from; j < to; j++) {
+            final int pos = tail + j - from;
+            final int state = (int) sortBuffer[j];
+            blockData[pos] = state;
+            positions[state] = pos;
+
+            if (j == from || (sortBuffer[j] >>> 32) != (sortBuffer[j - 1] >>> 32)) {
+                bounds[numGroups++] = pos;
+            }
+        }
+        bounds[numGroups] = high[leaf];
+
+        split(block, numGroups, suffix);
+    }
+
+    /**
+     * Splits the given block into the groups given by {@link #bounds}. The largest group keeps the id of the block,
+     * all other groups become new blocks.
+     */
+    private void split(int block, int numGroups, Word<I> suffix) {
+        final int leaf = leafForBlock[block];
+
+        int largest = 0;
+        for (int g = 1; g < numGroups; g++) {
+            if (bounds[g + 1] - bounds[g] > bounds[largest + 1] - bounds[largest]) {
+                largest = g;
+            }
+        }
+
+        suffixes[leaf] = suffix;
+        if (loggedSuffixes.add(suffix)) {
+            splitLog.add(suffix);
+        }
+
+        childrenBegin[leaf] = numNodes;
+        for (int g = 0; g < numGroups; g++) {
+            final int child = numNodes++;
+            low[child] = bounds[g];
+            high[child] = bounds[g + 1];
+
+            if (g == largest) {
+                leafForBlock[block] = child;
+            } else {
+                final int newBlock = numBlocks++;
+                leafForBlock[newBlock] = child;
+                for (int j = low[child]; j < high[child]; j++) {
+                    blockForState[blockData[j]] = newBlock;
+                }
+            }
+        }
+        childrenEnd[leaf] = numNodes;
+
+        splitQueue[splitQueueTail++] = leaf;
+    }
+
+    private Word<I> getSuffix(int node) {
+        final Word<I> suffix = suffixes[node];
+        assert suffix != null;
+        return suffix;
+    }
+
+    private void swap(int pos1, int pos2) {
+        final int state1 = blockData[pos1];
+        final int state2 = blockData[pos2];
+        blockData[pos1] = state2;
+        blockData[pos2] = state1;
+        positions[state1] = pos2;
+        positions[state2] = pos1;
+    }
+}
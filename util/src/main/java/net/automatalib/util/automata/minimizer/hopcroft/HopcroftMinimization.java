@@ -15,6 +15,8 @@
  */
 package net.automatalib.util.automata.minimizer.hopcroft;
 
+import java.util.function.IntPredicate;
+
 import net.automatalib.automata.AutomatonCreator;
 import net.automatalib.automata.MutableDeterministic;
 import net.automatalib.automata.UniversalDeterministicAutomaton;
@@ -31,7 +33,9 @@ import net.automatalib.util.partitionrefinement.AutomatonInitialPartitioning;
 import net.automatalib.util.partitionrefinement.PaigeTarjan;
 import net.automatalib.util.partitionrefinement.PaigeTarjanExtractors;
 import net.automatalib.util.partitionrefinement.PaigeTarjanInitializers;
+import net.automatalib.util.partitionrefinement.ValmariLehtinen;
 import net.automatalib.words.Alphabet;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 /**
  * Versions of Hopcroft's minimization algorithm for deterministic finite automata.
@@ -41,8 +45,15 @@ import net.automatalib.words.Alphabet;
  * input DFA and {@code k} the size of the input alphabet.
  * <p>
  * <b>Important note:</b> Hopcroft's minimization algorithm works for complete automata only. If the automaton is
- * partial, please use {@link PaigeTarjanMinimization} instead. If any method is invoked with a partial automaton as its
- * argument, this will result in a {@link IllegalArgumentException} at runtime.
+ * partial, please use {@link PaigeTarjanMinimization} or the {@code minimizePartial*} methods of this class (see below)
+ * instead. If any other method is invoked with a partial automaton as its argument, this will result in a {@link
+ * IllegalArgumentException} at runtime.
+ * <p>
+ * The {@code minimizePartial*} methods are based on the algorithm of Valmari and Lehtinen (see {@link
+ * ValmariLehtinen}), which refines the states without completing the automaton with an artificial sink. Its memory
+ * consumption and the running time of its refinement scale with the number of defined transitions rather than with
+ * {@code nk}, which makes it the preferred choice for sparse automata over large alphabets. Unreachable states are
+ * always pruned before computing state equivalences.
  * <p>
  * Note that the partition refinement step only calculates classes of equivalent states. However, minimization also
  * requires pruning of states that cannot be reached from the initial states. Most methods in this class have a variable
@@ -276,6 +287,144 @@ public final class HopcroftMinimization {
         return result;
     }
 
+    /**
+     * Minimizes the given, possibly partial, DFA. The result is returned in the form of a {@link CompactDFA}.
+     * <p>
+     * Undefined transitions are treated as rejecting. Consequently, states from which no accepting state is reachable
+     * are removed (unless it is the initial state), and the result is the minimal, possibly partial, DFA accepting the
+     * same language.
+     *
+     * @param dfa
+     *         the DFA to minimize
+     * @param alphabet
+     *         the input alphabet (this will be the input alphabet of the returned DFA)
+     *
+     * @return a minimized version of the specified DFA
+     */
+    public static <I> CompactDFA<I> minimizePartialDFA(DFA<?, I> dfa, Alphabet<I> alphabet) {
+        return minimizePartialDFA(dfa, alphabet, new CompactDFA.Creator<>());
+    }
+
+    /**
+     * Minimizes the given, possibly partial, DFA. The result is returned in the form of a {@link MutableDFA},
+     * constructed by the given {@code creator}.
+     * <p>
+     * Undefined transitions are treated as rejecting. Consequently, states from which no accepting state is reachable
+     * are removed (unless it is the initial state), and the result is the minimal, possibly partial, DFA accepting the
+     * same language.
+     *
+     * @param dfa
+     *         the DFA to minimize
+     * @param alphabet
+     *         the input alphabet (this will be the input alphabet of the returned DFA)
+     * @param creator
+     *         the creator for constructing the automata instance to return
+     *
+     * @return a minimized version of the specified DFA
+     */
+    public static <A extends MutableDFA<?, I>, I> A minimizePartialDFA(DFA<?, I> dfa,
+                                                                       Alphabet<I> alphabet,
+                                                                       AutomatonCreator<A, I> creator) {
+        final FullIntAbstraction<?, Boolean, Void> abs = dfa.fullIntAbstraction(alphabet);
+        return minimizePartial(abs,
+                               alphabet,
+                               creator,
+                               AutomatonInitialPartitioning.BY_STATE_PROPERTY,
+                               s -> Boolean.TRUE.equals(abs.getStateProperty(s)));
+    }
+
+    /**
+     * Minimizes the given, possibly partial, Mealy machine. The result is returned in the form of a {@link
+     * CompactMealy}.
+     *
+     * @param mealy
+     *         the Mealy machine to minimize
+     * @param alphabet
+     *         the input alphabet (this will be the input alphabet of the resulting Mealy machine)
+     *
+     * @return a minimized version of the specified Mealy machine
+     *
+     * @see #minimizePartialUniversal(UniversalDeterministicAutomaton, Alphabet, AutomatonCreator,
+     * AutomatonInitialPartitioning)
+     */
+    public static <I, O> CompactMealy<I, O> minimizePartialMealy(MealyMachine<?, I, ?, O> mealy, Alphabet<I> alphabet) {
+        return minimizePartialMealy(mealy, alphabet, new CompactMealy.Creator<>());
+    }
+
+    /**
+     * Minimizes the given, possibly partial, Mealy machine. The result is returned in the form of a {@link
+     * MutableMealyMachine}, constructed by the given {@code creator}.
+     *
+     * @param mealy
+     *         the Mealy machine to minimize
+     * @param alphabet
+     *         the input alphabet (this will be the input alphabet of the resulting Mealy machine)
+     * @param creator
+     *         the creator for constructing the automata instance to return
+     *
+     * @return a minimized version of the specified Mealy machine
+     *
+     * @see #minimizePartialUniversal(UniversalDeterministicAutomaton, Alphabet, AutomatonCreator,
+     * AutomatonInitialPartitioning)
+     */
+    public static <A extends MutableMealyMachine<?, I, ?, O>, I, O> A minimizePartialMealy(MealyMachine<?, I, ?, O> mealy,
+                                                                                           Alphabet<I> alphabet,
+                                                                                           AutomatonCreator<A, I> creator) {
+        return minimizePartialUniversal(mealy,
+                                        alphabet,
+                                        creator,
+                                        AutomatonInitialPartitioning.BY_TRANSITION_PROPERTIES);
+    }
+
+    /**
+     * Minimizes the given, possibly partial, automaton depending on the given partitioning function.
+     * <p>
+     * Note that undefined transitions are distinguished from any defined transition, i.e., two states are only
+     * considered equivalent if they define transitions for the same input symbols (in addition to the criteria of the
+     * partitioning function).
+     *
+     * @param automaton
+     *         the automaton to minimize
+     * @param alphabet
+     *         the input alphabet (this will be the input alphabet of the resulting automaton)
+     * @param creator
+     *         the creator for constructing the automata instance to return
+     * @param ap
+     *         the initial partitioning function, determining how states will be distinguished
+     *
+     * @return the minimized automaton, initially constructed from the given {@code creator}.
+     *
+     * @see AutomatonInitialPartitioning
+     */
+    public static <I, T, SP, TP, A extends MutableDeterministic<?, I, ?, SP, TP>> A minimizePartialUniversal(
+            UniversalDeterministicAutomaton<?, I, T, SP, TP> automaton,
+            Alphabet<I> alphabet,
+            AutomatonCreator<A, I> creator,
+            AutomatonInitialPartitioning ap) {
+        return minimizePartial(automaton.fullIntAbstraction(alphabet), alphabet, creator, ap, null);
+    }
+
+    private static <I, SP, TP, A extends MutableDeterministic<?, I, ?, SP, TP>> A minimizePartial(
+            FullIntAbstraction<?, SP, TP> abs,
+            Alphabet<I> alphabet,
+            AutomatonCreator<A, I> creator,
+            AutomatonInitialPartitioning ap,
+            @Nullable IntPredicate liveStates) {
+
+        final ValmariLehtinen vl = ValmariLehtinen.initDeterministic(abs, ap.initialClassifier(abs), liveStates);
+        vl.computeCoarsestStablePartition();
+
+        @SuppressWarnings("nullness") // getTransitionProperty will only be called for defined transitions
+        final A result = PaigeTarjanExtractors.toDeterministic(vl,
+                                                               creator,
+                                                               alphabet,
+                                                               abs,
+                                                               abs::getStateProperty,
+                                                               abs::getTransitionProperty);
+
+        return result;
+    }
+
     /**
      * Allows for controlling how automata are pruned during minimization.
      *
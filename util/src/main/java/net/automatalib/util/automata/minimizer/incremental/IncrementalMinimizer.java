@@ -0,0 +1,299 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.util.automata.minimizer.incremental;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+import net.automatalib.automata.AutomatonCreator;
+import net.automatalib.automata.MutableDeterministic;
+import net.automatalib.automata.base.compact.AbstractCompactDeterministic;
+import net.automatalib.automata.fsa.impl.compact.CompactDFA;
+import net.automatalib.automata.transducers.impl.compact.CompactMealy;
+import net.automatalib.util.automata.minimizer.hopcroft.HopcroftMinimization;
+import net.automatalib.util.automata.minimizer.paigetarjan.PaigeTarjanMinimization;
+import net.automatalib.util.partitionrefinement.AutomatonInitialPartitioning;
+import net.automatalib.util.partitionrefinement.StateSignature;
+import net.automatalib.words.Alphabet;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * An incremental minimizer for compact deterministic automata. The minimizer keeps the state partition (i.e., the
+ * classes of equivalent states) of the last minimization of the observed automaton, together with the data structures
+ * of the refinement (e.g., the predecessor lists). After the automaton has been modified, and the modifications have
+ * been reported via {@link #markModified(int)} or {@link #markTransitionModified(int, Object)}, the refinement is
+ * resumed from the previous partition:
+ * <ul>
+ * <li>Only the blocks whose sets of predecessors have changed (and the blocks of new or re-classified states) are used
+ * as splitters, so blocks that are not affected by the modifications are not processed at all.</li>
+ * <li>Blocks may only become equivalent because of the modifications, so merges are only checked for blocks
+ * containing modified states and, transitively, for the predecessors of merged blocks.</li>
+ * </ul>
+ * The result coincides with a full minimization via {@link PaigeTarjanMinimization} (or {@link HopcroftMinimization}
+ * with {@link HopcroftMinimization.PruningMode#PRUNE_AFTER} for complete automata), but the costs of an update depend
+ * on the (transitive) impact of the modifications rather than on the size of the automaton.
+ * <p>
+ * Modifications that are not reported to the minimizer lead to incorrect results. Newly added states do not need to be
+ * reported explicitly, but transitions of existing states pointing to them do. Changing the initial state does not
+ * need to be reported either. If states have been removed from the automaton, the next update starts from scratch.
+ *
+ * @param <I>
+ *         input symbol type
+ * @param <SP>
+ *         state property type
+ * @param <TP>
+ *         transition property type
+ *
+ * @author frohme
+ */
+public class IncrementalMinimizer<I, SP, TP> {
+
+    // undefined transitions point to an explicit sink, so the states of the automaton are shifted by one
+    private static final int SINK = 0;
+
+    private final AbstractCompactDeterministic<I, ?, SP, TP> automaton;
+    private final Alphabet<I> alphabet;
+    private final int numInputs;
+    private final IntFunction<?> initialClassifier;
+    private final Object sinkClassification;
+    private final Map<Object, Integer> classIds;
+
+    private final BitSet modifiedStates;
+    private final BitSet modifiedTransitions;
+
+    private @Nullable IncrementalPartition partition;
+
+    /**
+     * Constructor.
+     *
+     * @param automaton
+     *         the automaton to observe
+     * @param ap
+     *         the initial partitioning function, determining how states will be distinguished
+     * @param sinkClassification
+     *         the classification used when an undefined transition is encountered
+     */
+    public IncrementalMinimizer(AbstractCompactDeterministic<I, ?, SP, TP> automaton,
+                                AutomatonInitialPartitioning ap,
+                                Object sinkClassification) {
+        this.automaton = automaton;
+        this.alphabet = automaton.getInputAlphabet();
+        this.numInputs = alphabet.size();
+        this.initialClassifier = ap.initialClassifier(automaton);
+        this.sinkClassification = sinkClassification;
+        this.classIds = new HashMap<>();
+        this.modifiedStates = new BitSet();
+        this.modifiedTransitions = new BitSet();
+    }
+
+    /**
+     * Creates an incremental minimizer for the given DFA. Undefined transitions are treated as transitions into a
+     * rejecting sink.
+     *
+     * @param dfa
+     *         the DFA to observe
+     *
+     * @return the incremental minimizer
+     */
+    public static <I> IncrementalMinimizer<I, Boolean, Void> forDFA(CompactDFA<I> dfa) {
+        return new IncrementalMinimizer<>(dfa, AutomatonInitialPartitioning.BY_STATE_PROPERTY, Boolean.FALSE);
+    }
+
+    /**
+     * Creates an incremental minimizer for the given Mealy machine. Undefined transitions are treated as transitions
+     * into a sink with undefined outputs.
+     *
+     * @param mealy
+     *         the Mealy machine to observe
+     *
+     * @return the incremental minimizer
+     */
+    public static <I, O> IncrementalMinimizer<I, Void, O> forMealy(CompactMealy<I, O> mealy) {
+        return new IncrementalMinimizer<>(mealy,
+                                          AutomatonInitialPartitioning.BY_TRANSITION_PROPERTIES,
+                                          StateSignature.byTransitionProperties(new Object[mealy.numInputs()]));
+    }
+
+    /**
+     * Reports that the state property or any outgoing transition (successor or property) of the given state has been
+     * modified.
+     *
+     * @param state
+     *         the (id of the) modified state
+     */
+    public void markModified(int state) {
+        modifiedStates.set(state);
+    }
+
+    /**
+     * Reports that the transition of the given state for the given input (successor or property) has been modified.
+     *
+     * @param state
+     *         the (id of the) source state of the modified transition
+     * @param input
+     *         the input symbol of the modified transition
+     */
+    public void markTransitionModified(int state, I input) {
+        modifiedTransitions.set(state * numInputs + alphabet.getSymbolIndex(input));
+    }
+
+    /**
+     * Updates the maintained partition with respect to the reported modifications.
+     *
+     * @throws IllegalStateException
+     *         if the observed automaton has no initial state
+     */
+    public void update() {
+        final int numStates = automaton.size();
+
+        if (automaton.getIntInitialState() < 0) {
+            throw new IllegalStateException("The automaton has no initial state");
+        }
+
+        IncrementalPartition p = this.partition;
+        final int numKnown;
+
+        if (p == null || numStates + 1 < p.size()) {
+            // states have been removed (or this is the first update), so previous ids are meaningless
+            p = new IncrementalPartition(numInputs);
+            numKnown = -1;
+            modifiedStates.clear();
+            modifiedTransitions.clear();
+            this.partition = p;
+        } else {
+            numKnown = p.size() - 1;
+        }
+
+        p.beginUpdate(numStates + 1);
+
+        // new states (including the sink, if necessary)
+        if (numStates > numKnown) {
+            final int[] classes = new int[numStates - numKnown];
+            for (int s = numKnown; s < numStates; s++) {
+                final Object classification = s < 0 ? sinkClassification : initialClassifier.apply(s);
+                classes[s - numKnown] = getClassId(classification);
+            }
+            p.addStates(classes);
+            for (int s = numKnown; s < numStates; s++) {
+                for (int i = 0; i < numInputs; i++) {
+                    p.setTarget(s + 1, i, s < 0 ? SINK : automaton.getSuccessor(s, i) + 1);
+                }
+            }
+        }
+
+        // modified states
+        for (int s = modifiedStates.nextSetBit(0); s >= 0 && s < numKnown; s = modifiedStates.nextSetBit(s + 1)) {
+            for (int i = 0; i < numInputs; i++) {
+                p.setTarget(s + 1, i, automaton.getSuccessor(s, i) + 1);
+            }
+            updateClass(p, s);
+        }
+
+        // modified transitions
+        final int numKnownSlots = numKnown * numInputs;
+        for (int t = modifiedTransitions.nextSetBit(0); t >= 0 && t < numKnownSlots;
+             t = modifiedTransitions.nextSetBit(t + 1)) {
+            final int s = t / numInputs;
+            p.setTarget(s + 1, t % numInputs, automaton.getSuccessor(s, t % numInputs) + 1);
+            if (!modifiedStates.get(s)) {
+                updateClass(p, s);
+            }
+        }
+
+        modifiedStates.clear();
+        modifiedTransitions.clear();
+
+        p.refine();
+    }
+
+    /**
+     * Returns a minimal version of the observed automaton. Pending modifications are processed before (see {@link
+     * #update()}).
+     *
+     * @param creator
+     *         the creator for constructing the automata instance to return
+     *
+     * @return the minimized automaton, initially constructed from the given {@code creator}
+     */
+    public <A extends MutableDeterministic<?, I, ?, SP, TP>> A toMinimal(AutomatonCreator<A, I> creator) {
+        update();
+
+        final IncrementalPartition p = this.partition;
+        assert p != null;
+
+        final int numBlocks = p.getNumBlocks();
+        final int[] stateMap = new int[p.size()];
+        final int[] repMap = new int[numBlocks];
+        Arrays.fill(stateMap, -1);
+
+        final A result = creator.createAutomaton(alphabet, numBlocks);
+        final MutableDeterministic.FullIntAbstraction<?, SP, TP> resultAbs = result.fullIntAbstraction(alphabet);
+
+        final int init = automaton.getIntInitialState();
+        final int resInit = resultAbs.addIntInitialState(automaton.getStateProperty(init));
+        stateMap[p.getBlock(init + 1)] = resInit;
+        repMap[resInit] = init;
+
+        int statesPtr = 0;
+        int numResultStates = 1;
+        while (statesPtr < numResultStates) {
+            final int resState = statesPtr++;
+            final int rep = repMap[resState];
+            for (int i = 0; i < numInputs; i++) {
+                final int succ = automaton.getSuccessor(rep, i);
+                if (succ >= 0) {
+                    final int succBlock = p.getBlock(succ + 1);
+                    int resSucc = stateMap[succBlock];
+                    if (resSucc < 0) {
+                        resSucc = resultAbs.addIntState(automaton.getStateProperty(succ));
+                        stateMap[succBlock] = resSucc;
+                        repMap[resSucc] = succ;
+                        numResultStates++;
+                    }
+                    @SuppressWarnings("nullness") // the transition is defined
+                    final TP tp = automaton.getTransitionProperty(rep, i);
+                    resultAbs.setTransition(resState, i, resSucc, tp);
+                }
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns the total size of all splitters processed during the last update.
+     *
+     * @return the total size of all splitters processed during the last update
+     */
+    int getLastNumSplitterStates() {
+        final IncrementalPartition p = this.partition;
+        return p == null ? 0 : p.getNumSplitterStates();
+    }
+
+    private void updateClass(IncrementalPartition p, int state) {
+        final int cls = getClassId(initialClassifier.apply(state));
+        if (p.getBlockClass(p.getBlock(state + 1)) != cls) {
+            p.reclassify(state + 1, cls);
+        }
+    }
+
+    private int getClassId(Object classification) {
+        return classIds.computeIfAbsent(classification, k -> classIds.size());
+    }
+}
@@ -0,0 +1,738 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.util.automata.minimizer.incremental;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The persistent partition refinement data structure of the {@link IncrementalMinimizer}. States are represented by
+ * integers, transitions by the slots {@code state * numInputs + input}. Every state has a defined successor for every
+ * input.
+ * <p>
+ * The structure maintains the transition targets together with intrusive, doubly-linked predecessor lists (one per
+ * target state and input), so that a modified transition can be re-linked in constant time. Blocks are stored as
+ * contiguous ranges of an array of states, similar to {@link net.automatalib.util.partitionrefinement.PaigeTarjan}.
+ * <p>
+ * An update consists of two phases:
+ * <ol>
+ * <li>Splitting: starting from the previous partition (new states are placed into fresh blocks, re-classified states
+ * are split off their blocks), Hopcroft's algorithm is run with only those blocks on the worklist whose sets of
+ * predecessors have changed. Blocks are split such that the smaller half receives the new id, so that it suffices to
+ * add the new block to the worklist.</li>
+ * <li>Merging: two blocks of the refined partition can only be equivalent if they (transitively) lead to a pair of
+ * equivalent blocks of which one contains a modified state. Hence, only blocks with modified states are checked
+ * against the blocks with the same (depth-one) signature, and merges are propagated to the predecessors of the merged
+ * blocks. Each check is a synchronous traversal using a temporary union-find structure.</li>
+ * </ol>
+ *
+ * @author frohme
+ */
+final class IncrementalPartition {
+
+    private static final int NONE = -1;
+
+    private final int numInputs;
+    private final Map<Integer, Set<Integer>> signatureIndex;
+
+    private int numStates;
+    private int capacity;
+    private int statesAtStart;
+
+    // transitions
+    private int[] targets;
+    private int[] predHeads;
+    private int[] predNext;
+    private int[] predPrev;
+
+    // partition
+    private int[] elems;
+    private int elemsEnd;
+    private int[] loc;
+    private int[] setOf;
+    private int[] first;
+    private int[] past;
+    private int[] marked;
+    private int[] blockClass;
+    private int[] blockSig;
+    private int[] freeBlocks;
+    private int numFreeBlocks;
+    private int blockLimit;
+    private int numBlocks;
+    private int[] created;
+    private int numCreated;
+
+    // splitting
+    private boolean[] inWorklist;
+    private int[] worklist;
+    private int worklistSize;
+    private int[] touched;
+    private int numTouched;
+    private int[] scratch;
+    private int numSplitterStates;
+
+    // merging
+    private int[] mergeParent;
+    private int[] mergeNext;
+    private int[] mergeQueue;
+    private int mergeQueueSize;
+    private int[] mergedBlocks;
+    private int numMergedBlocks;
+    private int[] tmpParent;
+    private int[] tmpTouched;
+    private int numTmpTouched;
+    private int[] pairs;
+    private int[] stamps;
+    private int stamp;
+
+    // modifications
+    private int[] dirty;
+    private int numDirty;
+    private boolean[] isDirty;
+    private int[] reclassified;
+    private int[] reclassifiedClasses;
+    private int numReclassified;
+
+    IncrementalPartition(int numInputs) {
+        this.numInputs = numInputs;
+        this.signatureIndex = new HashMap<>();
+        this.pairs = new int[2 * numInputs + 2];
+        allocate(0);
+    }
+
+    int size() {
+        return numStates;
+    }
+
+    /**
+     * Returns the block of the given state. Block ids are always smaller than the number of states.
+     */
+    int getBlock(int state) {
+        return setOf[state];
+    }
+
+    int getNumBlocks() {
+        return numBlocks;
+    }
+
+    int getBlockClass(int block) {
+        return blockClass[block];
+    }
+
+    /**
+     * Returns the total size of all splitters processed during the last update.
+     */
+    int getNumSplitterStates() {
+        return numSplitterStates;
+    }
+
+    /**
+     * Prepares an update that grows the structure to (at most) the given number of states.
+     */
+    void beginUpdate(int newNumStates) {
+        if (newNumStates > capacity) {
+            allocate(Math.max(newNumStates, capacity + (capacity >> 1)));
+        }
+        statesAtStart = numStates;
+        numSplitterStates = 0;
+        numCreated = 0;
+    }
+
+    /**
+     * Adds the states {@code size(), ..., size() + classes.length - 1}, grouped into fresh blocks by the given classes.
+     * The transitions of the new states need to be set via {@link #setTarget(int, int, int)} before the next {@link
+     * #refine()}.
+     */
+    void addStates(int[] classes) {
+        final int from = numStates;
+        final Map<Integer, Integer> blockOfClass = new HashMap<>();
+
+        ensureElems(classes.length);
+
+        for (int cls : classes) {
+            Integer block = blockOfClass.get(cls);
+            if (block == null) {
+                block = newBlock(cls, cls);
+                blockOfClass.put(cls, block);
+                past[block] = 0;
+            }
+            past[block]++;
+        }
+
+        int pos = elemsEnd;
+        for (Integer block : blockOfClass.values()) {
+            final int size = past[block];
+            first[block] = pos;
+            past[block] = pos;
+            pos += size;
+            pushWorklist(block);
+        }
+        elemsEnd = pos;
+
+        for (int i = 0; i < classes.length; i++) {
+            final int state = from + i;
+            final int block = blockOfClass.get(classes[i]);
+            final int p = past[block]++;
+            elems[p] = state;
+            loc[state] = p;
+            setOf[state] = block;
+            Arrays.fill(targets, state * numInputs, (state + 1) * numInputs, NONE);
+            Arrays.fill(predHeads, state * numInputs, (state + 1) * numInputs, NONE);
+            markDirty(state);
+        }
+
+        numStates += classes.length;
+    }
+
+    /**
+     * Sets the target of the given transition. If the target changes, the source state is marked as modified and the
+     * blocks of the previous and the new target are added to the worklist.
+     */
+    void setTarget(int state, int input, int target) {
+        final int slot = state * numInputs + input;
+        final int oldTarget = targets[slot];
+
+        if (oldTarget == target) {
+            return;
+        }
+
+        if (oldTarget != NONE) {
+            final int prev = predPrev[slot];
+            final int next = predNext[slot];
+            if (prev == NONE) {
+                predHeads[oldTarget * numInputs + input] = next;
+            } else {
+                predNext[prev] = next;
+            }
+            if (next != NONE) {
+                predPrev[next] = prev;
+            }
+            pushWorklist(setOf[oldTarget]);
+        }
+
+        final int headSlot = target * numInputs + input;
+        final int head = predHeads[headSlot];
+        predPrev[slot] = NONE;
+        predNext[slot] = head;
+        if (head != NONE) {
+            predPrev[head] = slot;
+        }
+        predHeads[headSlot] = slot;
+        targets[slot] = target;
+
+        pushWorklist(setOf[target]);
+        markDirty(state);
+    }
+
+    /**
+     * Records that the class of the given (previously added) state has changed.
+     */
+    void reclassify(int state, int cls) {
+        markDirty(state);
+        reclassified[numReclassified] = state;
+        reclassifiedClasses[numReclassified] = cls;
+        numReclassified++;
+    }
+
+    /**
+     * Computes the coarsest stable partition with respect to the modifications since the last refinement.
+     */
+    void refine() {
+        applyReclassifications();
+        split();
+        updateSignatures();
+
+        if (statesAtStart > 0) {
+            merge();
+        }
+
+        for (int i = 0; i < numDirty; i++) {
+            isDirty[dirty[i]] = false;
+        }
+        numDirty = 0;
+    }
+
+    private void markDirty(int state) {
+        if (!isDirty[state]) {
+            isDirty[state] = true;
+            dirty[numDirty++] = state;
+        }
+    }
+
+    private void applyReclassifications() {
+        if (numReclassified == 0) {
+            return;
+        }
+
+        // group the states by their new class
+        final long[] byClass = new long[numReclassified];
+        for (int i = 0; i < numReclassified; i++) {
+            final int state = reclassified[i];
+            byClass[i] = ((long) reclassifiedClasses[i] << 32) | state;
+
+            // the signatures of the predecessors change as well
+            for (int a = 0; a < numInputs; a++) {
+                for (int p = predHeads[state * numInputs + a]; p != NONE; p = predNext[p]) {
+                    markDirty(p / numInputs);
+                }
+            }
+        }
+        Arrays.sort(byClass);
+        numReclassified = 0;
+
+        int i = 0;
+        while (i < byClass.length) {
+            final int cls = (int) (byClass[i] >>> 32);
+            while (i < byClass.length && (int) (byClass[i] >>> 32) == cls) {
+                mark((int) byClass[i]);
+                i++;
+            }
+
+            while (numTouched > 0) {
+                final int s = touched[--numTouched];
+                final int j = first[s] + marked[s];
+                marked[s] = 0;
+
+                if (j == past[s]) {
+                    blockClass[s] = cls;
+                } else {
+                    // the marked part always becomes the new block, both parts have to be used as splitters
+                    final int z = newBlock(cls, blockSig[s]);
+                    first[z] = first[s];
+                    past[z] = j;
+                    first[s] = j;
+                    for (int k = first[z]; k < past[z]; k++) {
+                        setOf[elems[k]] = z;
+                    }
+                    pushWorklist(z);
+                }
+                pushWorklist(s);
+            }
+        }
+    }
+
+    private void split() {
+        while (worklistSize > 0) {
+            final int b = worklist[--worklistSize];
+            inWorklist[b] = false;
+
+            final int size = past[b] - first[b];
+            System.arraycopy(elems, first[b], scratch, 0, size);
+            numSplitterStates += size;
+
+            for (int a = 0; a < numInputs; a++) {
+                for (int j = 0; j < size; j++) {
+                    for (int p = predHeads[scratch[j] * numInputs + a]; p != NONE; p = predNext[p]) {
+                        mark(p / numInputs);
+                    }
+                }
+                splitTouched();
+            }
+        }
+    }
+
+    private void mark(int state) {
+        final int s = setOf[state];
+        final int i = first[s] + marked[s];
+        final int j = loc[state];
+
+        if (j < i) {
+            return; // already marked
+        }
+
+        elems[j] = elems[i];
+        loc[elems[j]] = j;
+        elems[i] = state;
+        loc[state] = i;
+
+        if (marked[s]++ == 0) {
+            touched[numTouched++] = s;
+        }
+    }
+
+    private void splitTouched() {
+        while (numTouched > 0) {
+            final int s = touched[--numTouched];
+            final int j = first[s] + marked[s];
+            final int numMarked = marked[s];
+            marked[s] = 0;
+
+            if (j == past[s]) {
+                continue;
+            }
+
+            final int z = newBlock(blockClass[s], blockSig[s]);
+
+            // the smaller half receives the new id, so it suffices to add it to the worklist
+            if (numMarked <= past[s] - j) {
+                first[z] = first[s];
+                past[z] = j;
+                first[s] = j;
+            } else {
+                first[z] = j;
+                past[z] = past[s];
+                past[s] = j;
+            }
+
+            for (int i = first[z]; i < past[z]; i++) {
+                setOf[elems[i]] = z;
+            }
+
+            pushWorklist(z);
+        }
+    }
+
+    private void updateSignatures() {
+        for (int i = 0; i < numCreated; i++) {
+            updateSignature(created[i]);
+        }
+        for (int i = 0; i < numDirty; i++) {
+            updateSignature(setOf[dirty[i]]);
+        }
+    }
+
+    private void updateSignature(int block) {
+        indexRemove(block);
+        final int rep = elems[first[block]] * numInputs;
+        int sig = blockClass[block];
+        for (int a = 0; a < numInputs; a++) {
+            sig = 31 * sig + blockClass[setOf[targets[rep + a]]];
+        }
+        blockSig[block] = sig;
+        indexAdd(block);
+    }
+
+    private void merge() {
+        // merges of blocks with modified states
+        for (int i = 0; i < numDirty; i++) {
+            final int m = setOf[dirty[i]];
+            for (Integer z : signatureIndex.get(blockSig[m])) {
+                tryMerge(m, z);
+            }
+        }
+
+        // merges of predecessors of merged blocks
+        while (mergeQueueSize > 0) {
+            final int group = findMerged(mergeQueue[--mergeQueueSize]);
+
+            for (int a = 0; a < numInputs; a++) {
+                final long[] preds = collectPredecessorBlocks(group, a);
+                int i = 0;
+                while (i < preds.length) {
+                    int j = i + 1;
+                    while (j < preds.length && (int) (preds[j] >>> 32) == (int) (preds[i] >>> 32)) {
+                        j++;
+                    }
+                    for (int x = i; x < j; x++) {
+                        for (int y = x + 1; y < j; y++) {
+                            tryMerge((int) preds[x], (int) preds[y]);
+                        }
+                    }
+                    i = j;
+                }
+            }
+        }
+
+        commitMerges();
+    }
+
+    /**
+     * Collects the (merged) blocks of all {@code input}-predecessors of the given merged block, encoded as {@code
+     * signature << 32 | block} and sorted by signature.
+     */
+    private long[] collectPredecessorBlocks(int group, int input) {
+        stamp++;
+        long[] result = new long[4];
+        int size = 0;
+
+        int member = group;
+        do {
+            for (int i = first[member]; i < past[member]; i++) {
+                for (int p = predHeads[elems[i] * numInputs + input]; p != NONE; p = predNext[p]) {
+                    final int block = findMerged(setOf[p / numInputs]);
+                    if (stamps[block] != stamp) {
+                        stamps[block] = stamp;
+                        if (size == result.length) {
+                            result = Arrays.copyOf(result, size * 2);
+                        }
+                        result[size++] = ((long) blockSig[block] << 32) | block;
+                    }
+                }
+            }
+            member = mergeNext[member];
+        } while (member != group);
+
+        final long[] sorted = Arrays.copyOf(result, size);
+        Arrays.sort(sorted);
+        return sorted;
+    }
+
+    /**
+     * Checks whether the given blocks are equivalent via a synchronous traversal of the (merged) blocks, and merges all
+     * blocks identified during the traversal if so.
+     */
+    private void tryMerge(int x, int y) {
+        if (findMerged(x) == findMerged(y)) {
+            return;
+        }
+
+        int numPairs = 0;
+        pairs[numPairs++] = x;
+        pairs[numPairs++] = y;
+
+        boolean equivalent = true;
+
+        while (numPairs > 0) {
+            final int q = pairs[--numPairs];
+            final int p = pairs[--numPairs];
+            final int rp = findTmp(findMerged(p));
+            final int rq = findTmp(findMerged(q));
+
+            if (rp == rq) {
+                continue;
+            }
+
+            if (blockClass[rp] != blockClass[rq] || blockSig[rp] != blockSig[rq]) {
+                equivalent = false;
+                break;
+            }
+
+            tmpParent[rp] = rq;
+            tmpTouched[numTmpTouched++] = rp;
+
+            final int repP = elems[first[p]] * numInputs;
+            final int repQ = elems[first[q]] * numInputs;
+            if (numPairs + 2 * numInputs > pairs.length) {
+                pairs = Arrays.copyOf(pairs, Math.max(numPairs + 2 * numInputs, 2 * pairs.length));
+            }
+            for (int a = 0; a < numInputs; a++) {
+                pairs[numPairs++] = setOf[targets[repP + a]];
+                pairs[numPairs++] = setOf[targets[repQ + a]];
+            }
+        }
+
+        for (int i = 0; i < numTmpTouched; i++) {
+            final int b = tmpTouched[i];
+            if (equivalent) {
+                unionMerged(b, findTmp(b));
+            }
+        }
+        for (int i = 0; i < numTmpTouched; i++) {
+            tmpParent[tmpTouched[i]] = NONE;
+        }
+        numTmpTouched = 0;
+    }
+
+    private int findTmp(int block) {
+        int b = block;
+        while (tmpParent[b] != NONE) {
+            b = tmpParent[b];
+        }
+        return b;
+    }
+
+    private int findMerged(int block) {
+        int b = block;
+        while (mergeParent[b] != b) {
+            mergeParent[b] = mergeParent[mergeParent[b]];
+            b = mergeParent[b];
+        }
+        return b;
+    }
+
+    private void unionMerged(int x, int y) {
+        final int rx = findMerged(x);
+        final int ry = findMerged(y);
+        if (rx == ry) {
+            return;
+        }
+
+        mergeParent[rx] = ry;
+        // concatenate the circular member lists
+        final int tmp = mergeNext[rx];
+        mergeNext[rx] = mergeNext[ry];
+        mergeNext[ry] = tmp;
+
+        mergeQueue[mergeQueueSize++] = ry;
+        mergedBlocks[numMergedBlocks++] = rx;
+    }
+
+    /**
+     * Moves the states of merged blocks into a single (contiguous) block and releases the ids of the merged blocks.
+     */
+    private void commitMerges() {
+        stamp++;
+
+        for (int i = 0; i < numMergedBlocks; i++) {
+            final int root = findMerged(mergedBlocks[i]);
+            if (stamps[root] == stamp) {
+                continue;
+            }
+            stamps[root] = stamp;
+
+            int size = 0;
+            int member = root;
+            do {
+                size += past[member] - first[member];
+                member = mergeNext[member];
+            } while (member != root);
+
+            ensureElems(size);
+
+            final int start = elemsEnd;
+            int pos = start;
+            member = root;
+            do {
+                for (int j = first[member]; j < past[member]; j++) {
+                    final int state = elems[j];
+                    elems[pos] = state;
+                    loc[state] = pos++;
+                    setOf[state] = root;
+                }
+                final int next = mergeNext[member];
+                if (member != root) {
+                    releaseBlock(member);
+                }
+                member = next;
+            } while (member != root);
+
+            first[root] = start;
+            past[root] = pos;
+            elemsEnd = pos;
+            mergeParent[root] = root;
+            mergeNext[root] = root;
+        }
+
+        numMergedBlocks = 0;
+    }
+
+    private int newBlock(int cls, int sig) {
+        final int b = numFreeBlocks > 0 ? freeBlocks[--numFreeBlocks] : blockLimit++;
+        numBlocks++;
+        blockClass[b] = cls;
+        blockSig[b] = sig;
+        marked[b] = 0;
+        mergeParent[b] = b;
+        mergeNext[b] = b;
+        created[numCreated++] = b;
+        indexAdd(b);
+        return b;
+    }
+
+    private void releaseBlock(int block) {
+        indexRemove(block);
+        first[block] = NONE;
+        past[block] = NONE;
+        mergeParent[block] = block;
+        mergeNext[block] = block;
+        freeBlocks[numFreeBlocks++] = block;
+        numBlocks--;
+    }
+
+    private void pushWorklist(int block) {
+        if (!inWorklist[block]) {
+            inWorklist[block] = true;
+            worklist[worklistSize++] = block;
+        }
+    }
+
+    private void indexAdd(int block) {
+        signatureIndex.computeIfAbsent(blockSig[block], k -> new HashSet<>()).add(block);
+    }
+
+    private void indexRemove(int block) {
+        final Set<Integer> blocks = signatureIndex.get(blockSig[block]);
+        if (blocks != null && blocks.remove(block) && blocks.isEmpty()) {
+            signatureIndex.remove(blockSig[block]);
+        }
+    }
+
+    /**
+     * Ensures that {@code n} states can be appended to the array of states, compacting the array if necessary.
+     */
+    private void ensureElems(int n) {
+        if (elemsEnd + n <= elems.length) {
+            return;
+        }
+
+        final int[] newElems = new int[Math.max(elems.length, 2 * (numStates + n))];
+        int pos = 0;
+        for (int b = 0; b < blockLimit; b++) {
+            if (first[b] == NONE) {
+                continue;
+            }
+            final int size = past[b] - first[b];
+            System.arraycopy(elems, first[b], newElems, pos, size);
+            for (int i = pos; i < pos + size; i++) {
+                loc[newElems[i]] = i;
+            }
+            first[b] = pos;
+            pos += size;
+            past[b] = pos;
+        }
+
+        this.elems = newElems;
+        this.elemsEnd = pos;
+    }
+
+    private void allocate(int newCapacity) {
+        final int slots = newCapacity * numInputs;
+
+        this.targets = grow(targets, slots);
+        this.predHeads = grow(predHeads, slots);
+        this.predNext = grow(predNext, slots);
+        this.predPrev = grow(predPrev, slots);
+
+        this.elems = grow(elems, 2 * newCapacity);
+        this.loc = grow(loc, newCapacity);
+        this.setOf = grow(setOf, newCapacity);
+        this.first = grow(first, newCapacity);
+        this.past = grow(past, newCapacity);
+        this.marked = grow(marked, newCapacity);
+        this.blockClass = grow(blockClass, newCapacity);
+        this.blockSig = grow(blockSig, newCapacity);
+        this.freeBlocks = grow(freeBlocks, newCapacity);
+        this.created = grow(created, newCapacity);
+
+        this.inWorklist = inWorklist == null ? new boolean[newCapacity] : Arrays.copyOf(inWorklist, newCapacity);
+        this.worklist = grow(worklist, newCapacity);
+        this.touched = grow(touched, newCapacity);
+        this.scratch = grow(scratch, newCapacity);
+
+        this.mergeParent = grow(mergeParent, newCapacity);
+        this.mergeNext = grow(mergeNext, newCapacity);
+        this.mergeQueue = grow(mergeQueue, newCapacity);
+        this.mergedBlocks = grow(mergedBlocks, newCapacity);
+        this.tmpParent = grow(tmpParent, newCapacity);
+        Arrays.fill(tmpParent, capacity, newCapacity, NONE);
+        this.tmpTouched = grow(tmpTouched, newCapacity);
+        this.stamps = grow(stamps, newCapacity);
+
+        this.dirty = grow(dirty, newCapacity);
+        this.isDirty = isDirty == null ? new boolean[newCapacity] : Arrays.copyOf(isDirty, newCapacity);
+        this.reclassified = grow(reclassified, newCapacity);
+        this.reclassifiedClasses = grow(reclassifiedClasses, newCapacity);
+
+        this.capacity = newCapacity;
+    }
+
+    private static int[] grow(int[] array, int length) {
+        return array == null ? new int[length] : Arrays.copyOf(array, length);
+    }
+}
@@ -0,0 +1,371 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.util.automata.spa;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import net.automatalib.automata.concepts.StateIDs;
+import net.automatalib.automata.fsa.DFA;
+import net.automatalib.automata.spa.SPA;
+import net.automatalib.commons.util.Pair;
+import net.automatalib.util.automata.cover.Covers;
+import net.automatalib.words.SPAAlphabet;
+import net.automatalib.words.Word;
+import net.automatalib.words.WordBuilder;
+
+/**
+ * Concurrent implementations of the (per-procedure) analyses of {@link SPAUtil}. The procedures are analyzed in rounds,
+ * whereas the procedures of a round are analyzed in parallel on a {@link ForkJoinPool} and the results of a round are
+ * merged sequentially.
+ * <p>
+ * For terminating sequences, each procedure keeps its (int-encoded) reachability information across rounds, so that a
+ * round only explores the transitions of the inputs that have become eligible in the previous round. The eligible
+ * inputs are shared between all procedures in form of a bitset over the indices of the internal symbols, followed by
+ * the indices of the call symbols.
+ * <p>
+ * The procedures of an {@link SPA} may be accessed concurrently and therefore must not be modified during the
+ * computation.
+ *
+ * @author frohme
+ */
+final class ParallelSPAAnalysis {
+
+    private ParallelSPAAnalysis() {
+        // prevent instantiation
+    }
+
+    static <I> Map<I, Word<I>> computeTerminatingSequences(SPA<?, I> spa, SPAAlphabet<I> alphabet, ForkJoinPool pool) {
+
+        final Map<I, DFA<?, I>> procedures = spa.getProcedures();
+        final Map<I, Word<I>> terminatingSequences = Maps.newHashMapWithExpectedSize(alphabet.getNumCalls());
+
+        final int numInternals = alphabet.getNumInternals();
+        final List<I> inputs = new ArrayList<>(numInternals + alphabet.getNumCalls());
+        inputs.addAll(alphabet.getInternalAlphabet());
+        inputs.addAll(alphabet.getCallAlphabet());
+
+        List<Reachability<?, I>> remaining = new ArrayList<>(alphabet.getNumCalls());
+        for (int i = 0; i < alphabet.getNumCalls(); i++) {
+            final DFA<?, I> dfa = procedures.get(alphabet.getCallSymbol(i));
+            if (dfa != null) {
+                remaining.add(new Reachability<>(dfa, i, inputs));
+            }
+        }
+
+        final BitSet eligible = new BitSet(inputs.size());
+        eligible.set(0, numInternals);
+
+        BitSet newlyEligible = (BitSet) eligible.clone();
+
+        while (!remaining.isEmpty()) {
+            pool.invoke(new ExplorationTask(remaining, eligible, newlyEligible, 0, remaining.size()));
+
+            final List<Reachability<?, I>> nextRemaining = new ArrayList<>(remaining.size());
+            newlyEligible = new BitSet(inputs.size());
+
+            for (Reachability<?, I> r : remaining) {
+                if (r.isTerminating()) {
+                    // the trace only contains call symbols of previous rounds
+                    terminatingSequences.put(alphabet.getCallSymbol(r.procedure),
+                                             alphabet.expand(r.getTrace(), terminatingSequences::get));
+                    newlyEligible.set(numInternals + r.procedure);
+                } else {
+                    nextRemaining.add(r);
+                }
+            }
+
+            if (newlyEligible.isEmpty()) {
+                break;
+            }
+
+            eligible.or(newlyEligible);
+            remaining = nextRemaining;
+        }
+
+        return terminatingSequences;
+    }
+
+    static <I> Pair<Map<I, Word<I>>, Map<I, Word<I>>> computeAccessAndReturnSequences(SPA<?, I> spa,
+                                                                                      SPAAlphabet<I> alphabet,
+                                                                                      Map<I, Word<I>> terminatingSequences,
+                                                                                      ForkJoinPool pool) {
+        final I initialProcedure = spa.getInitialProcedure();
+
+        if (initialProcedure == null) {
+            return Pair.of(Collections.emptyMap(), Collections.emptyMap());
+        }
+
+        final Map<I, DFA<?, I>> submodels = spa.getProcedures();
+        final Collection<I> proceduralInputs = spa.getProceduralInputs(alphabet);
+
+        final Map<I, Word<I>> accessSequences = Maps.newHashMapWithExpectedSize(alphabet.getNumCalls());
+        final Map<I, Word<I>> returnSequences = Maps.newHashMapWithExpectedSize(alphabet.getNumCalls());
+        final Set<I> finishedProcedures = Sets.newHashSetWithExpectedSize(alphabet.getNumCalls());
+
+        // initial value
+        accessSequences.put(initialProcedure, Word.fromLetter(initialProcedure));
+        returnSequences.put(initialProcedure, Word.fromLetter(alphabet.getReturnSymbol()));
+        finishedProcedures.add(initialProcedure);
+
+        // processing the procedures level by level preserves the (FIFO) order of the sequential computation
+        List<I> level = Collections.singletonList(initialProcedure);
+
+        while (!level.isEmpty() && !finishedProcedures.containsAll(alphabet.getCallAlphabet())) {
+            final List<DFA<?, I>> dfas = new ArrayList<>(level.size());
+            for (I i : level) {
+                dfas.add(submodels.get(i));
+            }
+
+            final List<List<Word<I>>> acceptedTraces = new ArrayList<>(Collections.nCopies(level.size(), null));
+            pool.invoke(new TraceTask<>(dfas, proceduralInputs, acceptedTraces, 0, level.size()));
+
+            final List<I> nextLevel = new ArrayList<>();
+
+            for (int i = 0; i < level.size(); i++) {
+                final List<Word<I>> traces = acceptedTraces.get(i);
+
+                if (traces != null) {
+                    nextLevel.addAll(SPAUtil.discoverAccessAndReturnSequences(alphabet,
+                                                                              level.get(i),
+                                                                              traces.iterator(),
+                                                                              finishedProcedures,
+                                                                              accessSequences,
+                                                                              terminatingSequences,
+                                                                              returnSequences));
+                }
+            }
+
+            level = nextLevel;
+        }
+
+        return Pair.of(accessSequences, returnSequences);
+    }
+
+    /**
+     * The (incrementally extended) breadth-first reachability information of a single procedure.
+     */
+    private static final class Reachability<S, I> {
+
+        private final DFA<S, I> dfa;
+        private final StateIDs<S> stateIDs;
+        private final int procedure;
+        private final List<I> inputs;
+
+        // states in the order of their discovery
+        private final int[] order;
+        private final int[] predStates;
+        private final int[] predInputs;
+        private final BitSet reached;
+
+        private int numReached;
+        private int accepting;
+        private boolean initialized;
+
+        Reachability(DFA<S, I> dfa, int procedure, List<I> inputs) {
+            final int size = dfa.size();
+
+            this.dfa = dfa;
+            this.stateIDs = dfa.stateIDs();
+            this.procedure = procedure;
+            this.inputs = inputs;
+
+            this.order = new int[size];
+            this.predStates = new int[size];
+            this.predInputs = new int[size];
+            this.reached = new BitSet(size);
+            this.accepting = -1;
+        }
+
+        boolean isTerminating() {
+            return accepting >= 0;
+        }
+
+        /**
+         * Extends the reachable states by the transitions of the eligible inputs. States that have been reached in
+         * previous rounds only need to explore the newly eligible inputs. The exploration stops as soon as an accepting
+         * state has been reached.
+         */
+        void explore(BitSet eligible, BitSet newlyEligible) {
+            final int explored;
+
+            if (initialized) {
+                explored = numReached;
+
+                for (int k = 0; k < explored; k++) {
+                    for (int i = newlyEligible.nextSetBit(0); i >= 0; i = newlyEligible.nextSetBit(i + 1)) {
+                        if (step(order[k], i)) {
+                            return;
+                        }
+                    }
+                }
+            } else {
+                initialized = true;
+                explored = 0;
+
+                final S init = dfa.getInitialState();
+
+                if (init == null) {
+                    return;
+                }
+
+                final int initId = stateIDs.getStateId(init);
+                reach(initId, -1, -1);
+
+                if (dfa.isAccepting(init)) {
+                    accepting = initId;
+                    return;
+                }
+            }
+
+            for (int k = explored; k < numReached; k++) {
+                for (int i = eligible.nextSetBit(0); i >= 0; i = eligible.nextSetBit(i + 1)) {
+                    if (step(order[k], i)) {
+                        return;
+                    }
+                }
+            }
+        }
+
+        private boolean step(int src, int input) {
+            final S succ = dfa.getSuccessor(stateIDs.getState(src), inputs.get(input));
+
+            if (succ == null) {
+                return false;
+            }
+
+            final int succId = stateIDs.getStateId(succ);
+
+            if (reached.get(succId)) {
+                return false;
+            }
+
+            reach(succId, src, input);
+
+            if (dfa.isAccepting(succ)) {
+                accepting = succId;
+                return true;
+            }
+
+            return false;
+        }
+
+        private void reach(int state, int pred, int input) {
+            reached.set(state);
+            predStates[state] = pred;
+            predInputs[state] = input;
+            order[numReached++] = state;
+        }
+
+        Word<I> getTrace() {
+            final WordBuilder<I> wb = new WordBuilder<>();
+
+            for (int s = accepting; predStates[s] >= 0; s = predStates[s]) {
+                wb.append(inputs.get(predInputs[s]));
+            }
+
+            return wb.reverse().toWord();
+        }
+    }
+
+    private static final class ExplorationTask extends RecursiveAction {
+
+        private final List<? extends Reachability<?, ?>> reachabilities;
+        private final BitSet eligible;
+        private final BitSet newlyEligible;
+        private final int from;
+        private final int to;
+
+        ExplorationTask(List<? extends Reachability<?, ?>> reachabilities,
+                        BitSet eligible,
+                        BitSet newlyEligible,
+                        int from,
+                        int to) {
+            this.reachabilities = reachabilities;
+            this.eligible = eligible;
+            this.newlyEligible = newlyEligible;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                reachabilities.get(from).explore(eligible, newlyEligible);
+            } else if (to > from) {
+                final int mid = (from + to) >>> 1;
+                invokeAll(new ExplorationTask(reachabilities, eligible, newlyEligible, from, mid),
+                          new ExplorationTask(reachabilities, eligible, newlyEligible, mid, to));
+            }
+        }
+    }
+
+    private static final class TraceTask<I> extends RecursiveAction {
+
+        private final List<? extends DFA<?, I>> dfas;
+        private final Collection<I> proceduralInputs;
+        private final List<List<Word<I>>> acceptedTraces;
+        private final int from;
+        private final int to;
+
+        TraceTask(List<? extends DFA<?, I>> dfas,
+                  Collection<I> proceduralInputs,
+                  List<List<Word<I>>> acceptedTraces,
+                  int from,
+                  int to) {
+            this.dfas = dfas;
+            this.proceduralInputs = proceduralInputs;
+            this.acceptedTraces = acceptedTraces;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                final DFA<?, I> dfa = dfas.get(from);
+
+                if (dfa != null) {
+                    final List<Word<I>> traces = new ArrayList<>();
+                    final Iterator<Word<I>> iter = Covers.transitionCoverIterator(dfa, proceduralInputs);
+
+                    while (iter.hasNext()) {
+                        final Word<I> trace = iter.next();
+                        if (dfa.accepts(trace)) {
+                            traces.add(trace);
+                        }
+                    }
+
+                    acceptedTraces.set(from, traces);
+                }
+            } else if (to > from) {
+                final int mid = (from + to) >>> 1;
+                invokeAll(new TraceTask<>(dfas, proceduralInputs, acceptedTraces, from, mid),
+                          new TraceTask<>(dfas, proceduralInputs, acceptedTraces, mid, to));
+            }
+        }
+    }
+}
@@ -25,7 +25,9 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 
+import com.google.common.collect.Iterators;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 import net.automatalib.automata.fsa.DFA;
@@ -91,6 +93,36 @@ public final class SPAUtil {
         return new ATRSequences<>(accessSequences, terminatingSequences, returnSequences);
     }
 
+    /**
+     * Concurrent variant of {@link #computeATRSequences(SPA, SPAAlphabet)}, which analyzes the procedures of the given
+     * {@link SPA} in parallel.
+     *
+     * @param spa
+     *         the {@link SPA} for which the sequences should be computed
+     * @param alphabet
+     *         the {@link SPAAlphabet} whose symbols should be used for computing the respective sequences
+     * @param pool
+     *         the pool whose threads analyze the procedures
+     * @param <I>
+     *         input symbol type
+     *
+     * @return a {@link ATRSequences} object which contains the respective sequences.
+     *
+     * @see #computeTerminatingSequences(SPA, SPAAlphabet, ForkJoinPool)
+     * @see #computeAccessAndReturnSequences(SPA, SPAAlphabet, Map, ForkJoinPool)
+     */
+    public static <I> ATRSequences<I> computeATRSequences(SPA<?, I> spa, SPAAlphabet<I> alphabet, ForkJoinPool pool) {
+
+        final Map<I, Word<I>> terminatingSequences = computeTerminatingSequences(spa, alphabet, pool);
+        final Pair<Map<I, Word<I>>, Map<I, Word<I>>> accessAndReturnSequences =
+                computeAccessAndReturnSequences(spa, alphabet, terminatingSequences, pool);
+
+        final Map<I, Word<I>> accessSequences = accessAndReturnSequences.getFirst();
+        final Map<I, Word<I>> returnSequences = accessAndReturnSequences.getSecond();
+
+        return new ATRSequences<>(accessSequences, terminatingSequences, returnSequences);
+    }
+
     /**
      * Computes for a given {@link SPA} the set of terminating sequences using the given {@link SPAAlphabet alphabet}.
      * Terminating sequences transfer a procedure from its initial state to an accepting state. This methods furthermore
@@ -171,6 +203,35 @@ public final class SPAUtil {
         return terminatingSequences;
     }
 
+    /**
+     * Concurrent variant of {@link #computeTerminatingSequences(SPA, SPAAlphabet)}. The procedures are analyzed in
+     * rounds: in each round, all procedures without a terminating sequence search (in parallel) for an accepting state
+     * that is reachable via internal symbols and the procedures that have obtained a terminating sequence in previous
+     * rounds. The reachable states of each procedure are retained across rounds, so that each round only explores the
+     * newly eligible procedures.
+     * <p>
+     * The returned map covers the same procedures as the one returned by the sequential variant, but the individual
+     * terminating sequences may differ.
+     *
+     * @param spa
+     *         the {@link SPA} to analyze
+     * @param alphabet
+     *         the set of allowed alphabet symbols for determining the terminating sequences
+     * @param pool
+     *         the pool whose threads analyze the procedures
+     * @param <I>
+     *         input symbol type
+     *
+     * @return A map from procedures (restricted to the call symbols of the given alphabet) to the terminating
+     * sequences. This map may be partial as some procedures may not have a well-defined terminating sequence for the
+     * given alphabet.
+     */
+    public static <I> Map<I, Word<I>> computeTerminatingSequences(SPA<?, I> spa,
+                                                                  SPAAlphabet<I> alphabet,
+                                                                  ForkJoinPool pool) {
+        return ParallelSPAAnalysis.computeTerminatingSequences(spa, alphabet, pool);
+    }
+
     /**
      * Computes for a given {@link SPA} the set of access and return sequences using the given {@link SPAAlphabet
      * alphabet}. An access sequence (for procedure <i>p</i>) transfers an {@link SPA} from its initial state to a state
@@ -223,10 +284,11 @@ public final class SPAUtil {
             final DFA<?, I> dfa = submodels.get(i);
 
             if (dfa != null) {
+                final Iterator<Word<I>> acceptedTraces =
+                        Iterators.filter(Covers.transitionCoverIterator(dfa, proceduralInputs), dfa::accepts);
                 final Collection<I> newProcedures = discoverAccessAndReturnSequences(alphabet,
-                                                                                     proceduralInputs,
                                                                                      i,
-                                                                                     dfa,
+                                                                                     acceptedTraces,
                                                                                      finishedProcedures,
                                                                                      accessSequences,
                                                                                      terminatingSequences,
@@ -238,78 +300,106 @@ public final class SPAUtil {
         return Pair.of(accessSequences, returnSequences);
     }
 
-    private static <I> Collection<I> discoverAccessAndReturnSequences(SPAAlphabet<I> alphabet,
-                                                                      Collection<I> proceduralInputs,
-                                                                      I procedure,
-                                                                      DFA<?, I> dfa,
-                                                                      Set<I> finishedProcedures,
-                                                                      Map<I, Word<I>> accessSequences,
-                                                                      Map<I, Word<I>> terminatingSequences,
-                                                                      Map<I, Word<I>> returnSequences) {
+    /**
+     * Concurrent variant of {@link #computeAccessAndReturnSequences(SPA, SPAAlphabet, Map)}. The procedures are
+     * processed level by level (in the order of their discovery), whereas the accepted traces of the procedures of a
+     * level are computed in parallel. For the same terminating sequences, the returned sequences equal the ones of the
+     * sequential variant.
+     *
+     * @param spa
+     *         the {@link SPA} to analyze
+     * @param alphabet
+     *         the set of allowed alphabet symbols for determining the access and return sequences
+     * @param terminatingSequences
+     *         a map of terminating sequences (for a given call symbol) used to expand nested invocations in access and
+     *         return sequences
+     * @param pool
+     *         the pool whose threads analyze the procedures
+     * @param <I>
+     *         input symbol type
+     *
+     * @return A pair of maps from procedures (restricted to the call symbols of the given alphabet) to the
+     * access/return sequences. These maps may be partial as some procedures may not have well-defined
+     * access/terminating sequences for the given alphabet.
+     */
+    public static <I> Pair<Map<I, Word<I>>, Map<I, Word<I>>> computeAccessAndReturnSequences(SPA<?, I> spa,
+                                                                                             SPAAlphabet<I> alphabet,
+                                                                                             Map<I, Word<I>> terminatingSequences,
+                                                                                             ForkJoinPool pool) {
+        return ParallelSPAAnalysis.computeAccessAndReturnSequences(spa, alphabet, terminatingSequences, pool);
+    }
+
+    /**
+     * Discovers access and return sequences based on the accepted traces of the given procedure. Returns the newly
+     * discovered procedures.
+     */
+    static <I> Collection<I> discoverAccessAndReturnSequences(SPAAlphabet<I> alphabet,
+                                                              I procedure,
+                                                              Iterator<Word<I>> acceptedTraces,
+                                                              Set<I> finishedProcedures,
+                                                              Map<I, Word<I>> accessSequences,
+                                                              Map<I, Word<I>> terminatingSequences,
+                                                              Map<I, Word<I>> returnSequences) {
 
         final List<I> newASRS = new ArrayList<>();
-        final Iterator<Word<I>> transitionCoverIterator = Covers.transitionCoverIterator(dfa, proceduralInputs);
 
         tc:
-        while (transitionCoverIterator.hasNext()) {
-            final Word<I> trace = transitionCoverIterator.next();
-
-            if (dfa.accepts(trace)) {
-
-                for (int i = 0; i < trace.length(); i++) {
-                    final I input = trace.getSymbol(i);
-
-                    if (alphabet.isCallSymbol(input)) {
-                        if (!finishedProcedures.contains(input)) {
-
-                            final Word<I> remainingTrace = trace.subWord(i + 1);
-                            for (I r : remainingTrace) {
-                                if (alphabet.isCallSymbol(r) && !terminatingSequences.containsKey(r)) {
-                                    // If we encounter a call symbol for which we do not have a terminating sequence,
-                                    // the remaining return sequences cannot be expanded properly.
-                                    // Therefore skip the current trace.
-                                    continue tc;
-                                }
+        while (acceptedTraces.hasNext()) {
+            final Word<I> trace = acceptedTraces.next();
+
+            for (int i = 0; i < trace.length(); i++) {
+                final I input = trace.getSymbol(i);
+
+                if (alphabet.isCallSymbol(input)) {
+                    if (!finishedProcedures.contains(input)) {
+
+                        final Word<I> remainingTrace = trace.subWord(i + 1);
+                        for (I r : remainingTrace) {
+                            if (alphabet.isCallSymbol(r) && !terminatingSequences.containsKey(r)) {
+                                // If we encounter a call symbol for which we do not have a terminating sequence,
+                                // the remaining return sequences cannot be expanded properly.
+                                // Therefore skip the current trace.
+                                continue tc;
                             }
-
-                            // we only query existing terminating sequences, therefore nullity is fine
-                            @SuppressWarnings("methodref.return.invalid")
-                            final Mapping<I, Word<I>> tsMapping = terminatingSequences::get;
-
-                            final WordBuilder<I> accessBuilder = new WordBuilder<>();
-                            // we only invoke this method with finished procedures
-                            @SuppressWarnings("assignment.type.incompatible")
-                            final @NonNull Word<I> as = accessSequences.get(procedure);
-                            accessBuilder.append(as);
-                            accessBuilder.append(alphabet.expand(trace.subWord(0, i), tsMapping));
-                            accessBuilder.append(input);
-
-                            accessSequences.put(input, accessBuilder.toWord());
-
-                            final WordBuilder<I> terminatingBuilder = new WordBuilder<>();
-                            // we only invoke this method with finished procedures
-                            @SuppressWarnings("assignment.type.incompatible")
-                            final @NonNull Word<I> rs = returnSequences.get(procedure);
-                            terminatingBuilder.append(alphabet.getReturnSymbol());
-                            terminatingBuilder.append(alphabet.expand(remainingTrace, tsMapping));
-                            terminatingBuilder.append(rs);
-
-                            returnSequences.put(input, terminatingBuilder.toWord());
-
-                            finishedProcedures.add(input);
-                            newASRS.add(input);
-                        } else if (!terminatingSequences.containsKey(input)) {
-                            // If we encounter a call symbol for which we do not have a terminating sequence,
-                            // all local access sequences of future call symbols cannot be expanded properly.
-                            // Therefore skip the current trace.
-                            continue tc;
                         }
+
+                        // we only query existing terminating sequences, therefore nullity is fine
+                        @SuppressWarnings("methodref.return.invalid")
+                        final Mapping<I, Word<I>> tsMapping = terminatingSequences::get;
+
+                        final WordBuilder<I> accessBuilder = new WordBuilder<>();
+                        // we only invoke this method with finished procedures
+                        @SuppressWarnings("assignment.type.incompatible")
+                        final @NonNull Word<I> as = accessSequences.get(procedure);
+                        accessBuilder.append(as);
+                        accessBuilder.append(alphabet.expand(trace.subWord(0, i), tsMapping));
+                        accessBuilder.append(input);
+
+                        accessSequences.put(input, accessBuilder.toWord());
+
+                        final WordBuilder<I> terminatingBuilder = new WordBuilder<>();
+                        // we only invoke this method with finished procedures
+                        @SuppressWarnings("assignment.type.incompatible")
+                        final @NonNull Word<I> rs = returnSequences.get(procedure);
+                        terminatingBuilder.append(alphabet.getReturnSymbol());
+                        terminatingBuilder.append(alphabet.expand(remainingTrace, tsMapping));
+                        terminatingBuilder.append(rs);
+
+                        returnSequences.put(input, terminatingBuilder.toWord());
+
+                        finishedProcedures.add(input);
+                        newASRS.add(input);
+                    } else if (!terminatingSequences.containsKey(input)) {
+                        // If we encounter a call symbol for which we do not have a terminating sequence,
+                        // all local access sequences of future call symbols cannot be expanded properly.
+                        // Therefore skip the current trace.
+                        continue tc;
                     }
                 }
+            }
 
-                if (finishedProcedures.containsAll(alphabet.getCallAlphabet())) {
-                    return newASRS;
-                }
+            if (finishedProcedures.containsAll(alphabet.getCallAlphabet())) {
+                return newASRS;
             }
         }
         return newASRS;
@@ -347,6 +437,27 @@ public final class SPAUtil {
         return isRedundancyFree(alphabet, computeATRSequences(spa, alphabet));
     }
 
+    /**
+     * Concurrent variant of {@link #isRedundancyFree(SPA, SPAAlphabet)}, which analyzes the procedures of the given
+     * {@link SPA} in parallel.
+     *
+     * @param spa
+     *         the {@link SPA} to check
+     * @param alphabet
+     *         the {@link SPAAlphabet alphabet} which should be used for computing the respective sequences
+     * @param pool
+     *         the pool whose threads analyze the procedures
+     * @param <I>
+     *         input symbol type
+     *
+     * @return {@code true} if {@code spa} is redundancy-free, {@code false} otherwise.
+     *
+     * @see #computeATRSequences(SPA, SPAAlphabet, ForkJoinPool)
+     */
+    public static <I> boolean isRedundancyFree(SPA<?, I> spa, SPAAlphabet<I> alphabet, ForkJoinPool pool) {
+        return isRedundancyFree(alphabet, computeATRSequences(spa, alphabet, pool));
+    }
+
     /**
      * Checks if a pre-computed set of {@link ATRSequences} of an {@link SPA} is redundancy-free.
      *
@@ -0,0 +1,266 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.util.automata.vpda;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import net.automatalib.automata.vpda.CompactOneSEVPA;
+import net.automatalib.util.ts.acceptors.AcceptanceCombiner;
+import net.automatalib.words.VPDAlphabet;
+import net.automatalib.words.Word;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * An exploration of the (reachable part of the) product of two {@link CompactOneSEVPA}s that operates on the primitive
+ * transition tables of the two automata. Product locations are numbered in the order of their discovery, and stack
+ * symbols of the product are only considered implicitly (as pairs of the stack symbols of the two automata). The
+ * exploration follows the one of {@link OneSEVPAUtil#computeAccessSequences(net.automatalib.automata.vpda.OneSEVPA,
+ * VPDAlphabet, boolean, java.util.function.Predicate)}: a location is reachable if it can be reached by a well-matched
+ * word, i.e., via internal transitions or via return transitions whose stack symbol has been pushed in a reachable
+ * location.
+ *
+ * @param <I>
+ *         input symbol type
+ *
+ * @author frohme
+ */
+final class CompactProductExploration<I> {
+
+    private final CompactOneSEVPA<I> sevpa1;
+    private final CompactOneSEVPA<I> sevpa2;
+    private final VPDAlphabet<I> alphabet;
+    private final AcceptanceCombiner combiner;
+
+    private final int size2;
+    private final int numCalls;
+
+    // maps pair indices (loc1 * size2 + loc2) to product locations
+    private final int[] productIds;
+    private int[] firsts;
+    private int[] seconds;
+    private int numLocations;
+
+    private boolean terminateOnAccepting;
+    private int acceptingLocation = CompactOneSEVPA.INVALID_LOCATION;
+
+    // only maintained, if access sequences are requested
+    private final @Nullable List<Word<I>> accessSequences;
+    // only maintained, if the product should be constructed
+    private final @Nullable CompactOneSEVPA<I> product;
+
+    private CompactProductExploration(CompactOneSEVPA<I> sevpa1,
+                                      CompactOneSEVPA<I> sevpa2,
+                                      VPDAlphabet<I> alphabet,
+                                      AcceptanceCombiner combiner,
+                                      boolean computeAs,
+                                      boolean buildProduct) {
+        this.sevpa1 = sevpa1;
+        this.sevpa2 = sevpa2;
+        this.alphabet = alphabet;
+        this.combiner = combiner;
+
+        this.size2 = sevpa2.size();
+        this.numCalls = alphabet.getNumCalls();
+
+        this.productIds = new int[sevpa1.size() * size2];
+        Arrays.fill(this.productIds, CompactOneSEVPA.INVALID_LOCATION);
+
+        final int initialCapacity = Math.max(sevpa1.size(), size2);
+        this.firsts = new int[initialCapacity];
+        this.seconds = new int[initialCapacity];
+
+        this.accessSequences = computeAs ? new ArrayList<>(initialCapacity) : null;
+        this.product = buildProduct ? new CompactOneSEVPA<>(alphabet, initialCapacity) : null;
+    }
+
+    /**
+     * Computes a word that leads the product of the two given automata to an accepting location.
+     */
+    static <I> @Nullable Word<I> findAcceptedWord(CompactOneSEVPA<I> sevpa1,
+                                                  CompactOneSEVPA<I> sevpa2,
+                                                  VPDAlphabet<I> alphabet,
+                                                  AcceptanceCombiner combiner) {
+        final CompactProductExploration<I> exploration =
+                new CompactProductExploration<>(sevpa1, sevpa2, alphabet, combiner, true, false);
+        final int loc = exploration.explore(true);
+
+        if (loc == CompactOneSEVPA.INVALID_LOCATION) {
+            return null;
+        }
+
+        @SuppressWarnings("nullness") // access sequences are computed
+        final List<Word<I>> accessSequences = exploration.accessSequences;
+        return accessSequences.get(loc);
+    }
+
+    /**
+     * Constructs the reachable part of the product of the two given automata.
+     */
+    static <I> CompactOneSEVPA<I> buildProduct(CompactOneSEVPA<I> sevpa1,
+                                               CompactOneSEVPA<I> sevpa2,
+                                               VPDAlphabet<I> alphabet,
+                                               AcceptanceCombiner combiner) {
+        final CompactProductExploration<I> exploration =
+                new CompactProductExploration<>(sevpa1, sevpa2, alphabet, combiner, false, true);
+        exploration.explore(false);
+
+        @SuppressWarnings("nullness") // product is constructed
+        final CompactOneSEVPA<I> product = exploration.product;
+        return product;
+    }
+
+    /**
+     * Explores the product. Returns the first reached accepting location (if requested) or {@link
+     * CompactOneSEVPA#INVALID_LOCATION}.
+     */
+    private int explore(boolean terminateOnAccepting) {
+        final int init1 = sevpa1.getIntInitialLocation();
+        final int init2 = sevpa2.getIntInitialLocation();
+
+        if (init1 == CompactOneSEVPA.INVALID_LOCATION || init2 == CompactOneSEVPA.INVALID_LOCATION) {
+            return CompactOneSEVPA.INVALID_LOCATION;
+        }
+
+        this.terminateOnAccepting = terminateOnAccepting;
+
+        final int init = reach(init1, init2, Word.epsilon());
+
+        if (product != null) {
+            product.setInitialLocation(init);
+        }
+
+        final int numInternals = alphabet.getNumInternals();
+        final int numReturns = alphabet.getNumReturns();
+
+        int queuePtr = 0;
+        while (queuePtr < numLocations && acceptingLocation == CompactOneSEVPA.INVALID_LOCATION) {
+            final int curr = queuePtr++;
+            final int curr1 = firsts[curr];
+            final int curr2 = seconds[curr];
+
+            for (int i = 0; i < numInternals && acceptingLocation == CompactOneSEVPA.INVALID_LOCATION; i++) {
+                final int succ1 = sevpa1.getIntInternalSuccessor(curr1, i);
+                final int succ2 = sevpa2.getIntInternalSuccessor(curr2, i);
+
+                if (succ1 != CompactOneSEVPA.INVALID_LOCATION && succ2 != CompactOneSEVPA.INVALID_LOCATION) {
+                    final int succ = reachIfNew(succ1, succ2, curr, i, -1, -1);
+
+                    if (product != null) {
+                        product.setIntInternalSuccessor(curr, i, succ);
+                    }
+                }
+            }
+
+            for (int c = 0; c < numCalls; c++) {
+                for (int r = 0; r < numReturns; r++) {
+                    for (int src = 0; src < queuePtr && acceptingLocation == CompactOneSEVPA.INVALID_LOCATION; src++) {
+                        // call in src, return in curr
+                        exploreReturn(curr, src, c, r);
+
+                        if (src != curr) {
+                            // call in curr, return in src
+                            exploreReturn(src, curr, c, r);
+                        }
+                    }
+                }
+            }
+        }
+
+        return acceptingLocation;
+    }
+
+    private void exploreReturn(int loc, int stackLoc, int call, int ret) {
+        final int succ1 = sevpa1.getIntReturnSuccessor(firsts[loc],
+                                                       ret,
+                                                       sevpa1.encodeIntStackSym(firsts[stackLoc], call));
+        if (succ1 == CompactOneSEVPA.INVALID_LOCATION) {
+            return;
+        }
+
+        final int succ2 = sevpa2.getIntReturnSuccessor(seconds[loc],
+                                                       ret,
+                                                       sevpa2.encodeIntStackSym(seconds[stackLoc], call));
+        if (succ2 == CompactOneSEVPA.INVALID_LOCATION) {
+            return;
+        }
+
+        final int succ = reachIfNew(succ1, succ2, loc, ret, stackLoc, call);
+
+        if (product != null) {
+            product.setIntReturnSuccessor(loc, ret, product.encodeIntStackSym(stackLoc, call), succ);
+        }
+    }
+
+    /**
+     * Returns the product location of the given pair, and registers it (with an access sequence derived from the
+     * given transition) if it has not been reached before. For internal transitions, {@code stackLoc} is negative.
+     */
+    private int reachIfNew(int loc1, int loc2, int pred, int sym, int stackLoc, int call) {
+        final int existing = productIds[loc1 * size2 + loc2];
+
+        if (existing != CompactOneSEVPA.INVALID_LOCATION) {
+            return existing;
+        }
+
+        final Word<I> as;
+        if (accessSequences == null) {
+            as = Word.epsilon();
+        } else if (stackLoc < 0) {
+            as = accessSequences.get(pred).append(alphabet.getInternalSymbol(sym));
+        } else {
+            as = accessSequences.get(stackLoc)
+                                .append(alphabet.getCallSymbol(call))
+                                .concat(accessSequences.get(pred).append(alphabet.getReturnSymbol(sym)));
+        }
+
+        return reach(loc1, loc2, as);
+    }
+
+    private int reach(int loc1, int loc2, Word<I> as) {
+        final int id = numLocations++;
+
+        if (id == firsts.length) {
+            firsts = Arrays.copyOf(firsts, id * 2);
+            seconds = Arrays.copyOf(seconds, id * 2);
+        }
+
+        firsts[id] = loc1;
+        seconds[id] = loc2;
+        productIds[loc1 * size2 + loc2] = id;
+
+        if (accessSequences != null) {
+            accessSequences.add(as);
+        }
+
+        final boolean accepting = isAccepting(id);
+
+        if (product != null) {
+            product.addLocation(accepting);
+        }
+
+        if (terminateOnAccepting && accepting && acceptingLocation == CompactOneSEVPA.INVALID_LOCATION) {
+            acceptingLocation = id;
+        }
+
+        return id;
+    }
+
+    private boolean isAccepting(int loc) {
+        return combiner.combine(sevpa1.isAcceptingLocation(firsts[loc]), sevpa2.isAcceptingLocation(seconds[loc]));
+    }
+}
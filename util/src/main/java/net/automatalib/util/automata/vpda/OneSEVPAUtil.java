@@ -21,6 +21,7 @@ import java.util.function.Predicate;
 
 import net.automatalib.automata.vpda.OneSEVPA;
 import net.automatalib.commons.smartcollections.ArrayStorage;
+import net.automatalib.util.ts.acceptors.AcceptanceCombiner;
 import net.automatalib.words.VPDAlphabet;
 import net.automatalib.words.Word;
 import org.checkerframework.checker.nullness.qual.Nullable;
@@ -154,8 +155,10 @@ public final class OneSEVPAUtil {
     public static <I> @Nullable Word<I> findSeparatingWord(final OneSEVPA<?, I> sevpa1,
                                                            final OneSEVPA<?, I> sevpa2,
                                                            final VPDAlphabet<I> alphabet) {
-        final OneSEVPA<?, I> prod = OneSEVPAs.xor(sevpa1, sevpa2, alphabet);
-        return findAcceptedWord(prod, alphabet);
+        return CompactProductExploration.findAcceptedWord(OneSEVPAs.asCompact(sevpa1, alphabet),
+                                                          OneSEVPAs.asCompact(sevpa2, alphabet),
+                                                          alphabet,
+                                                          AcceptanceCombiner.XOR);
     }
 
     public static <L, I> @Nullable Word<I> findAcceptedWord(final OneSEVPA<L, I> sevpa, final VPDAlphabet<I> alphabet) {
@@ -15,6 +15,7 @@
  */
 package net.automatalib.util.automata.vpda;
 
+import net.automatalib.automata.vpda.CompactOneSEVPA;
 import net.automatalib.automata.vpda.DefaultOneSEVPA;
 import net.automatalib.automata.vpda.OneSEVPA;
 import net.automatalib.commons.util.Pair;
@@ -74,6 +75,101 @@ public final class OneSEVPAs {
         return new ProductOneSEVPA<>(alphabet, sevpa1, sevpa2, combiner);
     }
 
+    /**
+     * Most general way of combining two SEVPAs. In contrast to {@link #combine(OneSEVPA, OneSEVPA, VPDAlphabet,
+     * AcceptanceCombiner)}, this method eagerly constructs the reachable part of the product as a {@link
+     * CompactOneSEVPA}, whose locations and transitions are computed on the primitive transition tables of the (compact
+     * representations of the) given SEVPAs.
+     *
+     * @param sevpa1
+     *         the first SEVPA
+     * @param sevpa2
+     *         the second SEVPA
+     * @param alphabet
+     *         the input alphabet
+     * @param combiner
+     *         combination method for acceptance values
+     *
+     * @return a new SEVPA representing the reachable part of the combination of the specified SEVPA
+     */
+    public static <I> CompactOneSEVPA<I> combineCompact(final OneSEVPA<?, I> sevpa1,
+                                                        final OneSEVPA<?, I> sevpa2,
+                                                        final VPDAlphabet<I> alphabet,
+                                                        final AcceptanceCombiner combiner) {
+        return CompactProductExploration.buildProduct(asCompact(sevpa1, alphabet),
+                                                      asCompact(sevpa2, alphabet),
+                                                      alphabet,
+                                                      combiner);
+    }
+
+    /**
+     * Copies the given SEVPA into a {@link CompactOneSEVPA} over the given alphabet. Locations of the given SEVPA are
+     * mapped to the integers of their {@link OneSEVPA#getLocationId(Object) location ids}.
+     *
+     * @param sevpa
+     *         the SEVPA to copy
+     * @param alphabet
+     *         the input alphabet
+     *
+     * @return a compact copy of the specified SEVPA
+     */
+    public static <L, I> CompactOneSEVPA<I> toCompact(final OneSEVPA<L, I> sevpa, final VPDAlphabet<I> alphabet) {
+        final int size = sevpa.size();
+        final CompactOneSEVPA<I> result = new CompactOneSEVPA<>(alphabet, size);
+
+        for (int i = 0; i < size; i++) {
+            result.addLocation(sevpa.isAcceptingLocation(sevpa.getLocation(i)));
+        }
+
+        final L init = sevpa.getInitialLocation();
+        if (init != null) {
+            result.setInitialLocation(sevpa.getLocationId(init));
+        }
+
+        for (int i = 0; i < size; i++) {
+            final L loc = sevpa.getLocation(i);
+
+            for (int intIdx = 0; intIdx < alphabet.getNumInternals(); intIdx++) {
+                final L succ = sevpa.getInternalSuccessor(loc, alphabet.getInternalSymbol(intIdx));
+                if (succ != null) {
+                    result.setIntInternalSuccessor(i, intIdx, sevpa.getLocationId(succ));
+                }
+            }
+
+            for (int retIdx = 0; retIdx < alphabet.getNumReturns(); retIdx++) {
+                final I retSym = alphabet.getReturnSymbol(retIdx);
+                for (int stackLoc = 0; stackLoc < size; stackLoc++) {
+                    final L stackL = sevpa.getLocation(stackLoc);
+                    for (int callIdx = 0; callIdx < alphabet.getNumCalls(); callIdx++) {
+                        final int stackSym = sevpa.encodeStackSym(stackL, alphabet.getCallSymbol(callIdx));
+                        final L succ = sevpa.getReturnSuccessor(loc, retSym, stackSym);
+                        if (succ != null) {
+                            result.setIntReturnSuccessor(i,
+                                                         retIdx,
+                                                         result.encodeIntStackSym(stackLoc, callIdx),
+                                                         sevpa.getLocationId(succ));
+                        }
+                    }
+                }
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns the given SEVPA, if it already is a {@link CompactOneSEVPA} over the given alphabet, or a compact copy
+     * of it otherwise.
+     */
+    static <I> CompactOneSEVPA<I> asCompact(final OneSEVPA<?, I> sevpa, final VPDAlphabet<I> alphabet) {
+        if (sevpa instanceof CompactOneSEVPA && ((CompactOneSEVPA<?>) sevpa).getInputAlphabet() == alphabet) {
+            @SuppressWarnings("unchecked") // its input alphabet is the given VPDAlphabet<I>, hence its inputs are I
+            final CompactOneSEVPA<I> compact = (CompactOneSEVPA<I>) sevpa;
+            return compact;
+        }
+        return toCompact(sevpa, alphabet);
+    }
+
     /**
      * Calculates the disjunction ("or") of two SEVPA, and returns the result as a new SEVPA.
      *
@@ -15,14 +15,15 @@
  */
 package net.automatalib.util.minimizer;
 
+import net.automatalib.automata.vpda.CompactOneSEVPA;
 import net.automatalib.automata.vpda.DefaultOneSEVPA;
 import net.automatalib.automata.vpda.Location;
 import net.automatalib.automata.vpda.OneSEVPA;
+import net.automatalib.util.automata.vpda.OneSEVPAs;
 import net.automatalib.util.partitionrefinement.Block;
 import net.automatalib.util.partitionrefinement.PaigeTarjan;
 import net.automatalib.util.partitionrefinement.PaigeTarjanInitializers;
 import net.automatalib.words.VPDAlphabet;
-import org.checkerframework.checker.nullness.qual.NonNull;
 
 /**
  * A Paige/Tarjan partition refinement based minimizer for {@link OneSEVPA}s.
@@ -34,18 +35,21 @@ public final class OneSEVPAMinimizer {
     private OneSEVPAMinimizer() {}
 
     public static <I> DefaultOneSEVPA<I> minimize(final OneSEVPA<?, I> sevpa, final VPDAlphabet<I> alphabet) {
+        final CompactOneSEVPA<I> compact = OneSEVPAs.toCompact(sevpa, alphabet);
         final PaigeTarjan pt = new PaigeTarjan();
-        initPaigeTarjan(pt, sevpa, alphabet);
+        initPaigeTarjan(pt, compact, alphabet);
         pt.initWorklist(false);
         pt.computeCoarsestStablePartition();
 
-        return fromPaigeTarjan(pt, sevpa, alphabet);
+        return fromPaigeTarjan(pt, compact, alphabet);
     }
 
-    private static <L, I> void initPaigeTarjan(PaigeTarjan pt, OneSEVPA<L, I> sevpa, VPDAlphabet<I> alphabet) {
+    private static <I> void initPaigeTarjan(PaigeTarjan pt, CompactOneSEVPA<I> sevpa, VPDAlphabet<I> alphabet) {
         final int numStates = sevpa.size();
-        final int numInputs =
-                alphabet.getNumInternals() + alphabet.getNumCalls() * alphabet.getNumReturns() * sevpa.size() * 2;
+        final int numInternals = alphabet.getNumInternals();
+        final int numCalls = alphabet.getNumCalls();
+        final int numReturns = alphabet.getNumReturns();
+        final int numInputs = numInternals + numCalls * numReturns * numStates * 2;
 
         final int posDataLow = numStates;
         final int predOfsDataLow = posDataLow + numStates;
@@ -59,8 +63,7 @@ public final class OneSEVPAMinimizer {
         final Block[] initBlocks = new Block[2];
 
         for (int i = 0; i < numStates; i++) {
-            final L loc = sevpa.getLocation(i);
-            final int initBlockIdx = sevpa.isAcceptingLocation(loc) ? 1 : 0;
+            final int initBlockIdx = sevpa.isAcceptingLocation(i) ? 1 : 0;
             Block block = initBlocks[initBlockIdx];
             if (block == null) {
                 block = pt.createBlock();
@@ -72,34 +75,19 @@ public final class OneSEVPAMinimizer {
 
             int predCountBase = predOfsDataLow;
 
-            for (I intSym : alphabet.getInternalAlphabet()) {
-                final L succ = sevpa.getInternalSuccessor(loc, intSym);
-                if (succ == null) {
-                    throw new IllegalArgumentException("Partial OneSEVPAs are not supported");
-                }
-
-                final int succId = sevpa.getLocationId(succ);
+            for (int intIdx = 0; intIdx < numInternals; intIdx++) {
+                final int succId = getInternalSuccessor(sevpa, i, intIdx);
                 data[predCountBase + succId]++;
                 predCountBase += numStates;
             }
-            for (I callSym : alphabet.getCallAlphabet()) {
-                for (I retSym : alphabet.getReturnAlphabet()) {
-                    for (L src : sevpa.getLocations()) {
-                        int stackSym = sevpa.encodeStackSym(src, callSym);
-                        L succ = sevpa.getReturnSuccessor(loc, retSym, stackSym);
-                        if (succ == null) {
-                            throw new IllegalArgumentException("Partial OneSEVPAs are not supported");
-                        }
-                        int succId = sevpa.getLocationId(succ);
+            for (int callIdx = 0; callIdx < numCalls; callIdx++) {
+                for (int retIdx = 0; retIdx < numReturns; retIdx++) {
+                    for (int src = 0; src < numStates; src++) {
+                        int succId = getReturnSuccessor(sevpa, i, retIdx, src, callIdx);
                         data[predCountBase + succId]++;
                         predCountBase += numStates;
 
-                        stackSym = sevpa.encodeStackSym(loc, callSym);
-                        succ = sevpa.getReturnSuccessor(src, retSym, stackSym);
-                        if (succ == null) {
-                            throw new IllegalArgumentException("Partial OneSEVPAs are not supported");
-                        }
-                        succId = sevpa.getLocationId(succ);
+                        succId = getReturnSuccessor(sevpa, src, retIdx, i, callIdx);
                         data[predCountBase + succId]++;
                         predCountBase += numStates;
                     }
@@ -124,35 +112,19 @@ public final class OneSEVPAMinimizer {
             data[posDataLow + i] = pos;
             int predOfsBase = predOfsDataLow;
 
-            final L loc = sevpa.getLocation(i);
-            for (I intSym : alphabet.getInternalAlphabet()) {
-                final L succ = sevpa.getInternalSuccessor(loc, intSym);
-                if (succ == null) {
-                    throw new IllegalArgumentException("Partial OneSEVPAs are not supported");
-                }
-
-                final int succId = sevpa.getLocationId(succ);
+            for (int intIdx = 0; intIdx < numInternals; intIdx++) {
+                final int succId = sevpa.getIntInternalSuccessor(i, intIdx);
                 data[--data[predOfsBase + succId]] = i;
                 predOfsBase += numStates;
             }
-            for (I callSym : alphabet.getCallAlphabet()) {
-                for (I retSym : alphabet.getReturnAlphabet()) {
-                    for (L src : sevpa.getLocations()) {
-                        int stackSym = sevpa.encodeStackSym(src, callSym);
-                        L succ = sevpa.getReturnSuccessor(loc, retSym, stackSym);
-                        if (succ == null) {
-                            throw new IllegalArgumentException("Partial OneSEVPAs are not supported");
-                        }
-                        int succId = sevpa.getLocationId(succ);
+            for (int callIdx = 0; callIdx < numCalls; callIdx++) {
+                for (int retIdx = 0; retIdx < numReturns; retIdx++) {
+                    for (int src = 0; src < numStates; src++) {
+                        int succId = sevpa.getIntReturnSuccessor(i, retIdx, sevpa.encodeIntStackSym(src, callIdx));
                         data[--data[predOfsBase + succId]] = i;
                         predOfsBase += numStates;
 
-                        stackSym = sevpa.encodeStackSym(loc, callSym);
-                        succ = sevpa.getReturnSuccessor(src, retSym, stackSym);
-                        if (succ == null) {
-                            throw new IllegalArgumentException("Partial OneSEVPAs are not supported");
-                        }
-                        succId = sevpa.getLocationId(succ);
+                        succId = sevpa.getIntReturnSuccessor(src, retIdx, sevpa.encodeIntStackSym(i, callIdx));
                         data[--data[predOfsBase + succId]] = i;
                         predOfsBase += numStates;
                     }
@@ -168,9 +140,25 @@ public final class OneSEVPAMinimizer {
         pt.setSize(numStates, numInputs);
     }
 
-    private static <L, I> DefaultOneSEVPA<I> fromPaigeTarjan(final PaigeTarjan pt,
-                                                             final OneSEVPA<L, I> original,
-                                                             final VPDAlphabet<I> alphabet) {
+    private static <I> int getInternalSuccessor(CompactOneSEVPA<I> sevpa, int loc, int intIdx) {
+        final int succ = sevpa.getIntInternalSuccessor(loc, intIdx);
+        if (succ == CompactOneSEVPA.INVALID_LOCATION) {
+            throw new IllegalArgumentException("Partial OneSEVPAs are not supported");
+        }
+        return succ;
+    }
+
+    private static <I> int getReturnSuccessor(CompactOneSEVPA<I> sevpa, int loc, int retIdx, int src, int callIdx) {
+        final int succ = sevpa.getIntReturnSuccessor(loc, retIdx, sevpa.encodeIntStackSym(src, callIdx));
+        if (succ == CompactOneSEVPA.INVALID_LOCATION) {
+            throw new IllegalArgumentException("Partial OneSEVPAs are not supported");
+        }
+        return succ;
+    }
+
+    private static <I> DefaultOneSEVPA<I> fromPaigeTarjan(final PaigeTarjan pt,
+                                                          final CompactOneSEVPA<I> original,
+                                                          final VPDAlphabet<I> alphabet) {
 
         final int numBlocks = pt.getNumBlocks();
         final DefaultOneSEVPA<I> result = new DefaultOneSEVPA<>(alphabet, numBlocks);
@@ -183,41 +171,36 @@ public final class OneSEVPAMinimizer {
         for (Block curr : pt.blockList()) {
             final int blockId = curr.id;
             final int rep = pt.getRepresentative(curr);
-            final L repLoc = original.getLocation(rep);
 
             final Location resultLoc = resultLocs[blockId];
-            resultLoc.setAccepting(original.isAcceptingLocation(repLoc));
+            resultLoc.setAccepting(original.isAcceptingLocation(rep));
 
-            for (I intSym : alphabet.getInternalAlphabet()) {
-                @SuppressWarnings("nullness") // partiality is handled during initialization
-                final @NonNull L origSucc = original.getInternalSuccessor(repLoc, intSym);
-                final int origSuccId = original.getLocationId(origSucc);
+            for (int intIdx = 0; intIdx < alphabet.getNumInternals(); intIdx++) {
+                final int origSuccId = original.getIntInternalSuccessor(rep, intIdx);
                 final int resSuccId = pt.getBlockForState(origSuccId).id;
                 final Location resSucc = resultLocs[resSuccId];
-                result.setInternalSuccessor(resultLoc, intSym, resSucc);
+                result.setInternalSuccessor(resultLoc, alphabet.getInternalSymbol(intIdx), resSucc);
             }
-            for (I callSym : alphabet.getCallAlphabet()) {
-                for (I retSym : alphabet.getReturnAlphabet()) {
+            for (int callIdx = 0; callIdx < alphabet.getNumCalls(); callIdx++) {
+                for (int retIdx = 0; retIdx < alphabet.getNumReturns(); retIdx++) {
+                    final I retSym = alphabet.getReturnSymbol(retIdx);
                     for (Block b : pt.blockList()) {
                         final int stackRepId = pt.getRepresentative(b);
-                        final L stackRep = original.getLocation(stackRepId);
                         final Location resultStackRep = resultLocs[b.id];
 
-                        final int origStackSym = original.encodeStackSym(stackRep, callSym);
-                        @SuppressWarnings("nullness") // partiality is handled during initialization
-                        final @NonNull L origSucc = original.getReturnSuccessor(repLoc, retSym, origStackSym);
-                        final int origSuccId = original.getLocationId(origSucc);
+                        final int origStackSym = original.encodeIntStackSym(stackRepId, callIdx);
+                        final int origSuccId = original.getIntReturnSuccessor(rep, retIdx, origStackSym);
                         final int resSuccId = pt.getBlockForState(origSuccId).id;
                         final Location resSucc = resultLocs[resSuccId];
 
-                        final int stackSym = result.encodeStackSym(resultStackRep, callSym);
+                        final int stackSym = result.encodeStackSym(resultStackRep, callIdx);
                         result.setReturnSuccessor(resultLoc, retSym, stackSym, resSucc);
                     }
                 }
             }
         }
 
-        final int origInit = original.getLocationId(original.getInitialLocation());
+        final int origInit = original.getIntInitialLocation();
         result.setInitialLocation(resultLocs[pt.getBlockForState(origInit).id]);
 
         return result;
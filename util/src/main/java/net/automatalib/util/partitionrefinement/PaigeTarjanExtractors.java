@@ -90,6 +90,89 @@ public final class PaigeTarjanExtractors {
         return toDeterministicUnpruned(pt, creator, inputs, absOriginal, spExtractor, tpExtractor);
     }
 
+    /**
+     * Translates the results of a coarsest stable partition computation of {@link ValmariLehtinen} into a
+     * deterministic automaton. Only blocks reachable from the block of the initial state are included in the result,
+     * and transitions into states that have been removed during initialization (see {@link
+     * ValmariLehtinen#initDeterministic(FullIntAbstraction, IntFunction, java.util.function.IntPredicate)}) are
+     * omitted, as are the transitions of an initial state from which no live state is reachable (see {@link
+     * ValmariLehtinen#hasTransitions(int)}).
+     *
+     * @param vl
+     *         the partition refinement data structure, after computing the coarsest stable partition
+     * @param creator
+     *         an {@link AutomatonCreator} for creating the resulting automaton
+     * @param inputs
+     *         the input alphabet to use
+     * @param absOriginal
+     *         the abstraction of the original automaton that was used to build the partition refinement data structure
+     * @param spExtractor
+     *         the state property extractor
+     * @param tpExtractor
+     *         the transition property extractor
+     *
+     * @return an automaton created using the specified creator, over the specified input alphabet, and reflecting the
+     * partition data of the specified {@link ValmariLehtinen} object
+     */
+    public static <I, SP, TP, A extends MutableDeterministic<?, I, ?, SP, TP>> A toDeterministic(ValmariLehtinen vl,
+                                                                                                 AutomatonCreator<A, I> creator,
+                                                                                                 Alphabet<I> inputs,
+                                                                                                 SimpleDeterministicAutomaton.FullIntAbstraction absOriginal,
+                                                                                                 IntFunction<? extends SP> spExtractor,
+                                                                                                 BiIntFunction<? extends TP> tpExtractor) {
+
+        int numBlocks = vl.getNumBlocks();
+        int numInputs = inputs.size();
+        int[] repMap = new int[numBlocks];
+        int[] stateMap = new int[numBlocks];
+        Arrays.fill(stateMap, -1);
+
+        A result = creator.createAutomaton(inputs, numBlocks);
+        MutableDeterministic.FullIntAbstraction<?, SP, TP> resultAbs = result.fullIntAbstraction(inputs);
+
+        int origInit = absOriginal.getIntInitialState();
+        if (origInit < 0) {
+            return result;
+        }
+
+        SP initSp = spExtractor.apply(origInit);
+        int resInit = resultAbs.addIntInitialState(initSp);
+
+        stateMap[vl.getBlockForState(origInit)] = resInit;
+        repMap[resInit] = origInit;
+
+        int statesPtr = 0;
+        int numStates = 1;
+        while (statesPtr < numStates) {
+            int resState = statesPtr++;
+            int rep = repMap[resState];
+            if (!vl.hasTransitions(rep)) {
+                continue;
+            }
+            for (int i = 0; i < numInputs; i++) {
+                int succ = absOriginal.getSuccessor(rep, i);
+                if (succ >= 0) {
+                    int succBlockId = vl.getBlockForState(succ);
+                    if (succBlockId == ValmariLehtinen.NO_BLOCK) {
+                        continue;
+                    }
+                    TP tp = tpExtractor.apply(rep, i);
+                    int resSucc = stateMap[succBlockId];
+                    if (resSucc < 0) {
+                        SP sp = spExtractor.apply(succ);
+                        resSucc = resultAbs.addIntState(sp);
+                        stateMap[succBlockId] = resSucc;
+                        repMap[resSucc] = succ;
+                        numStates++;
+                    }
+                    resultAbs.setTransition(resState, i, resSucc, tp);
+                }
+            }
+        }
+
+        return result;
+    }
+
     private static <I, SP, TP, A extends MutableDeterministic<?, I, ?, SP, TP>> A toDeterministicPruned(PaigeTarjan pt,
                                                                                                         AutomatonCreator<A, I> creator,
                                                                                                         Alphabet<I> inputs,
@@ -0,0 +1,447 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.util.partitionrefinement;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.IntFunction;
+import java.util.function.IntPredicate;
+
+import net.automatalib.automata.simple.SimpleDeterministicAutomaton;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * An implementation of the partition refinement algorithm of Valmari and Lehtinen for deterministic automata with
+ * partially defined transition functions.
+ * <p>
+ * In contrast to {@link PaigeTarjan} (initialized via {@link PaigeTarjanInitializers#initDeterministic(PaigeTarjan,
+ * SimpleDeterministicAutomaton.FullIntAbstraction, IntFunction, Object)}), this implementation does not complete the
+ * automaton with an artificial sink. Instead, it refines a partition of the states and a partition of the (defined)
+ * transitions into so-called <i>cords</i> (transitions with the same label whose targets are in the same block) in an
+ * alternating fashion. Hence, the memory consumption and the running time of the refinement ({@code O(m log n)}, where
+ * {@code m} is the number of defined transitions) scale with the number of defined transitions only, rather than with
+ * {@code n * k}, where {@code k} is the size of the input alphabet.
+ * <p>
+ * Note that an undefined transition is distinguished from any defined transition, i.e., undefined transitions are
+ * <i>not</i> treated as transitions into a sink that may be equivalent to existing states.
+ * <p>
+ * Like {@link PaigeTarjan}, this class is designed in a very low-level fashion and should be hidden behind a facade.
+ *
+ * @author frohme
+ * @see PaigeTarjanExtractors#toDeterministic(ValmariLehtinen, net.automatalib.automata.AutomatonCreator,
+ * net.automatalib.words.Alphabet, SimpleDeterministicAutomaton.FullIntAbstraction, IntFunction,
+ * net.automatalib.commons.util.functions.BiIntFunction)
+ */
+public class ValmariLehtinen {
+
+    /**
+     * The block id of states that have been removed during initialization.
+     */
+    public static final int NO_BLOCK = -1;
+
+    private final int[] stateMap;
+    private final int[] origStates;
+    private final int[] tails;
+    private final int[] predOfs;
+    private final int[] predData;
+    private final boolean deadInitialState;
+
+    private final RefinablePartition blocks;
+    private final RefinablePartition cords;
+
+    private ValmariLehtinen(int[] stateMap,
+                            int[] origStates,
+                            int[] tails,
+                            int[] heads,
+                            int[] labels,
+                            int numLabels,
+                            int[] initialBlocks,
+                            int numInitialBlocks,
+                            boolean deadInitialState) {
+        final int numStates = origStates.length;
+        final int numTransitions = tails.length;
+
+        this.stateMap = stateMap;
+        this.origStates = origStates;
+        this.tails = tails;
+        this.deadInitialState = deadInitialState;
+
+        // incoming transitions of each state
+        this.predOfs = countingSort(heads, numStates, numTransitions);
+        this.predData = new int[numTransitions];
+        final int[] fill = Arrays.copyOf(predOfs, numStates);
+        for (int t = 0; t < numTransitions; t++) {
+            predData[fill[heads[t]]++] = t;
+        }
+
+        this.blocks = new RefinablePartition(initialBlocks, numInitialBlocks);
+        this.cords = new RefinablePartition(labels, numLabels);
+    }
+
+    /**
+     * Initializes the partition refinement data structure from a given (possibly partial) deterministic automaton,
+     * initially partitioning the states according to the given classification function. States that are not reachable
+     * from the initial state are removed.
+     * <p>
+     * Note that determining the defined transitions requires a single pass over all {@code n * k} transitions of the
+     * given abstraction. All further data (and computation) only covers the defined transitions.
+     *
+     * @param absAutomaton
+     *         the abstraction of the input automaton
+     * @param initialClassification
+     *         the initial classification function
+     * @param liveStates
+     *         if non-{@code null}, all states (but the initial one) from which no state satisfying this predicate is
+     *         reachable are removed as well, e.g., states from which no accepting state of a DFA is reachable. If this
+     *         applies to the initial state, it is kept without any transitions
+     *
+     * @return the initialized partition refinement data structure
+     */
+    public static ValmariLehtinen initDeterministic(SimpleDeterministicAutomaton.FullIntAbstraction absAutomaton,
+                                                    IntFunction<?> initialClassification,
+                                                    @Nullable IntPredicate liveStates) {
+
+        final int numStates = absAutomaton.size();
+        final int numInputs = absAutomaton.numInputs();
+        final int init = absAutomaton.getIntInitialState();
+
+        // forward reachability, collecting the defined transitions between reachable states
+        final int[] stateMap = new int[numStates];
+        Arrays.fill(stateMap, NO_BLOCK);
+        final int[] reachable = new int[numStates];
+        int numReachable = 0;
+
+        int[] tails = new int[numStates];
+        int[] heads = new int[numStates];
+        int[] labels = new int[numStates];
+        int numTransitions = 0;
+
+        if (init >= 0) {
+            stateMap[init] = 0;
+            reachable[numReachable++] = init;
+        }
+
+        for (int ptr = 0; ptr < numReachable; ptr++) {
+            final int curr = reachable[ptr];
+            for (int i = 0; i < numInputs; i++) {
+                final int succ = absAutomaton.getSuccessor(curr, i);
+                if (succ >= 0) {
+                    if (stateMap[succ] == NO_BLOCK) {
+                        stateMap[succ] = numReachable;
+                        reachable[numReachable++] = succ;
+                    }
+                    if (numTransitions == tails.length) {
+                        final int newLength = tails.length * 2;
+                        tails = Arrays.copyOf(tails, newLength);
+                        heads = Arrays.copyOf(heads, newLength);
+                        labels = Arrays.copyOf(labels, newLength);
+                    }
+                    tails[numTransitions] = ptr;
+                    heads[numTransitions] = stateMap[succ];
+                    labels[numTransitions] = i;
+                    numTransitions++;
+                }
+            }
+        }
+
+        final boolean[] keep = new boolean[numReachable];
+        boolean deadInitialState = false;
+
+        if (liveStates == null) {
+            Arrays.fill(keep, true);
+        } else {
+            // backward reachability from live states
+            final int[] predOfs = countingSort(heads, numReachable, numTransitions);
+            final int[] preds = new int[numTransitions];
+            final int[] fill = Arrays.copyOf(predOfs, numReachable);
+            for (int t = 0; t < numTransitions; t++) {
+                preds[fill[heads[t]]++] = tails[t];
+            }
+
+            final int[] queue = new int[numReachable];
+            int head = 0;
+            int tail = 0;
+            for (int s = 0; s < numReachable; s++) {
+                if (liveStates.test(reachable[s])) {
+                    keep[s] = true;
+                    queue[tail++] = s;
+                }
+            }
+            while (head < tail) {
+                final int curr = queue[head++];
+                for (int j = predOfs[curr]; j < predOfs[curr + 1]; j++) {
+                    final int pred = preds[j];
+                    if (!keep[pred]) {
+                        keep[pred] = true;
+                        queue[tail++] = pred;
+                    }
+                }
+            }
+            if (numReachable > 0 && !keep[0]) {
+                // all reachable states are dead, keep the initial state but none of its transitions
+                keep[0] = true;
+                numTransitions = 0;
+                deadInitialState = true;
+            }
+        }
+
+        // renumber the kept states and filter the transitions between them
+        final int[] newIds = new int[numReachable];
+        int numKept = 0;
+        for (int s = 0; s < numReachable; s++) {
+            newIds[s] = keep[s] ? numKept++ : NO_BLOCK;
+        }
+
+        final int[] origStates = new int[numKept];
+        Arrays.fill(stateMap, NO_BLOCK);
+        for (int s = 0; s < numReachable; s++) {
+            final int id = newIds[s];
+            if (id != NO_BLOCK) {
+                origStates[id] = reachable[s];
+                stateMap[reachable[s]] = id;
+            }
+        }
+
+        int numKeptTransitions = 0;
+        for (int t = 0; t < numTransitions; t++) {
+            final int src = newIds[tails[t]];
+            final int tgt = newIds[heads[t]];
+            if (src != NO_BLOCK && tgt != NO_BLOCK) {
+                tails[numKeptTransitions] = src;
+                heads[numKeptTransitions] = tgt;
+                labels[numKeptTransitions] = labels[t];
+                numKeptTransitions++;
+            }
+        }
+
+        // initial classification
+        final Map<@Nullable Object, Integer> blockMap = new HashMap<>();
+        final int[] initialBlocks = new int[numKept];
+        for (int s = 0; s < numKept; s++) {
+            final Object clazz = initialClassification.apply(origStates[s]);
+            Integer block = blockMap.get(clazz);
+            if (block == null) {
+                block = blockMap.size();
+                blockMap.put(clazz, block);
+            }
+            initialBlocks[s] = block;
+        }
+
+        return new ValmariLehtinen(stateMap,
+                                   origStates,
+                                   Arrays.copyOf(tails, numKeptTransitions),
+                                   Arrays.copyOf(heads, numKeptTransitions),
+                                   Arrays.copyOf(labels, numKeptTransitions),
+                                   numInputs,
+                                   initialBlocks,
+                                   blockMap.size(),
+                                   deadInitialState);
+    }
+
+    /**
+     * Refines the partition until it stabilizes.
+     */
+    public void computeCoarsestStablePartition() {
+        // splitting w.r.t. all but one initial block suffices, because the cords are initially split by label
+        int b = 1;
+        int c = 0;
+
+        while (c < cords.numSets) {
+            for (int i = cords.first[c]; i < cords.past[c]; i++) {
+                blocks.mark(tails[cords.elems[i]]);
+            }
+            blocks.split();
+            c++;
+
+            while (b < blocks.numSets) {
+                for (int i = blocks.first[b]; i < blocks.past[b]; i++) {
+                    final int state = blocks.elems[i];
+                    for (int j = predOfs[state]; j < predOfs[state + 1]; j++) {
+                        cords.mark(predData[j]);
+                    }
+                }
+                cords.split();
+                b++;
+            }
+        }
+    }
+
+    /**
+     * Retrieves the number of blocks.
+     *
+     * @return the number of blocks
+     */
+    public int getNumBlocks() {
+        return blocks.numSets;
+    }
+
+    /**
+     * Retrieves the (id of the) block of the given state.
+     *
+     * @param state
+     *         the (id of the) state in the original automaton
+     *
+     * @return the id of the block of the given state, or {@link #NO_BLOCK} if the state has been removed during
+     * initialization
+     */
+    public int getBlockForState(int state) {
+        final int id = stateMap[state];
+        return id == NO_BLOCK ? NO_BLOCK : blocks.setOf[id];
+    }
+
+    /**
+     * Checks whether the given state retains its outgoing transitions (to states that have not been removed). This is
+     * not the case for states that have been removed during initialization and for an initial state from which no
+     * live state is reachable.
+     *
+     * @param state
+     *         the (id of the) state in the original automaton
+     *
+     * @return {@code true} if the given state retains its outgoing transitions, {@code false} otherwise
+     */
+    public boolean hasTransitions(int state) {
+        final int id = stateMap[state];
+        return id != NO_BLOCK && !(deadInitialState && id == 0);
+    }
+
+    /**
+     * Retrieves a representative state from the given block.
+     *
+     * @param block
+     *         the id of the block
+     *
+     * @return the (id of the) representative state in the original automaton
+     */
+    public int getRepresentative(int block) {
+        return origStates[blocks.elems[blocks.first[block]]];
+    }
+
+    /**
+     * Counts the occurrences of the given keys (among the first {@code numElems} entries) and returns their prefix
+     * sums, i.e., the start offset of each key if the entries were sorted by key.
+     */
+    private static int[] countingSort(int[] keys, int numKeys, int numElems) {
+        final int[] ofs = new int[numKeys + 1];
+        for (int e = 0; e < numElems; e++) {
+            ofs[keys[e] + 1]++;
+        }
+        for (int k = 0; k < numKeys; k++) {
+            ofs[k + 1] += ofs[k];
+        }
+        return ofs;
+    }
+
+    /**
+     * A refinable partition of the integers {@code 0, ..., n - 1}, in which elements can be marked and sets can be
+     * split into their marked and unmarked elements. The smaller half of a split set always receives the new set id.
+     */
+    private static final class RefinablePartition {
+
+        private final int[] elems;
+        private final int[] loc;
+        private final int[] setOf;
+        private final int[] first;
+        private final int[] past;
+        private final int[] marked;
+        private final int[] touched;
+        private int numTouched;
+        private int numSets;
+
+        RefinablePartition(int[] initialSets, int numInitialSets) {
+            final int size = initialSets.length;
+
+            this.elems = new int[size];
+            this.loc = new int[size];
+            this.setOf = new int[size];
+            this.first = new int[size];
+            this.past = new int[size];
+            this.marked = new int[size];
+            this.touched = new int[size];
+
+            // skip empty initial sets, so that there are never more sets than elements
+            final int[] ofs = countingSort(initialSets, numInitialSets, size);
+            final int[] setIds = new int[numInitialSets];
+            for (int s = 0; s < numInitialSets; s++) {
+                if (ofs[s] < ofs[s + 1]) {
+                    final int id = numSets++;
+                    setIds[s] = id;
+                    first[id] = ofs[s];
+                    past[id] = ofs[s + 1];
+                }
+            }
+
+            final int[] fill = Arrays.copyOf(ofs, numInitialSets);
+            for (int e = 0; e < size; e++) {
+                final int set = initialSets[e];
+                final int pos = fill[set]++;
+                elems[pos] = e;
+                loc[e] = pos;
+                setOf[e] = setIds[set];
+            }
+        }
+
+        void mark(int e) {
+            final int s = setOf[e];
+            final int i = first[s] + marked[s];
+            final int j = loc[e];
+
+            if (j < i) {
+                return; // already marked
+            }
+
+            elems[j] = elems[i];
+            loc[elems[j]] = j;
+            elems[i] = e;
+            loc[e] = i;
+
+            if (marked[s]++ == 0) {
+                touched[numTouched++] = s;
+            }
+        }
+
+        void split() {
+            while (numTouched > 0) {
+                final int s = touched[--numTouched];
+                final int j = first[s] + marked[s];
+
+                if (j == past[s]) {
+                    marked[s] = 0;
+                    continue;
+                }
+
+                final int z = numSets++;
+
+                if (marked[s] <= past[s] - j) {
+                    first[z] = first[s];
+                    past[z] = j;
+                    first[s] = j;
+                } else {
+                    past[z] = past[s];
+                    first[z] = j;
+                    past[s] = j;
+                }
+
+                for (int i = first[z]; i < past[z]; i++) {
+                    setOf[elems[i]] = z;
+                }
+
+                marked[s] = 0;
+                marked[z] = 0;
+            }
+        }
+    }
+}
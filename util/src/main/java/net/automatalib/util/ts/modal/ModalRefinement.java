@@ -18,117 +18,86 @@ package net.automatalib.util.ts.modal;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.EnumSet;
-import java.util.Iterator;
 import java.util.Set;
-import java.util.function.BiPredicate;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Predicate;
 
-import com.google.common.collect.Sets;
 import net.automatalib.commons.util.Pair;
 import net.automatalib.ts.modal.ModalTransitionSystem;
 import net.automatalib.ts.modal.transition.ModalEdgeProperty;
 import net.automatalib.ts.modal.transition.ModalEdgeProperty.ModalType;
+import net.automatalib.util.automata.equivalence.ParallelRelationFixpoint;
 
 public final class ModalRefinement {
 
+    private static final Set<ModalType> MAY = EnumSet.of(ModalType.MAY, ModalType.MUST);
+    private static final Set<ModalType> MUST = Collections.singleton(ModalType.MUST);
+
     private ModalRefinement() {
         // do not instantiate
     }
 
-    private static <BS, I, BT, BTP extends ModalEdgeProperty> Set<BT> partnerTransitions(ModalTransitionSystem<BS, I, BT, BTP> b,
-                                                                                         BS source,
-                                                                                         I input,
-                                                                                         Set<ModalType> acceptableValues) {
-
-        Set<BT> coTransitions = Sets.newHashSetWithExpectedSize(b.getInputAlphabet().size());
-
-        for (BT candidateTransition : b.getTransitions(source, input)) {
-            BTP property = b.getTransitionProperty(candidateTransition);
-
-            if (property != null && acceptableValues.contains(property.getType())) {
-                coTransitions.add(candidateTransition);
-            }
-        }
-
-        return coTransitions;
-    }
-
-    private static <AS, I, AT, BS, BT> boolean eligiblePartner(ModalTransitionSystem<AS, I, AT, ?> a,
-                                                               ModalTransitionSystem<BS, I, BT, ?> b,
-                                                               Collection<I> inputs,
-                                                               BiPredicate<AS, BS> inRefinementRelation,
-                                                               AS source,
-                                                               BS coSource,
-                                                               Set<ModalType> acceptableValues) {
-
-        for (I label : inputs) {
-            for (AT transition : a.getTransitions(source, label)) {
-                if (!acceptableValues.contains(a.getTransitionProperty(transition).getType())) {
-                    continue;
-                }
-
-                Set<BT> partnerTransitions = partnerTransitions(b, coSource, label, acceptableValues);
-
-                AS target = a.getSuccessor(transition);
-                final boolean eligiblePartner = partnerTransitions.stream()
-                                                                  .map(b::getSuccessor)
-                                                                  .anyMatch(s -> inRefinementRelation.test(target, s));
-
-                if (!eligiblePartner) {
-                    return false;
-                }
-            }
-        }
-
-        return true;
-    }
-
+    /**
+     * Computes the refinement relation between the states of the two given modal transition systems, using the
+     * common pool.
+     *
+     * @see #refinementRelation(ModalTransitionSystem, ModalTransitionSystem, Collection, ForkJoinPool)
+     */
     public static <AS, BS, I> Set<Pair<AS, BS>> refinementRelation(ModalTransitionSystem<AS, I, ?, ?> implementation,
                                                                    ModalTransitionSystem<BS, I, ?, ?> specification,
                                                                    Collection<I> inputs) {
+        return refinementRelation(implementation, specification, inputs, ForkJoinPool.commonPool());
+    }
 
-        Set<Pair<AS, BS>> refinement = Sets.newHashSetWithExpectedSize(implementation.size() * specification.size());
-
-        // lower approximation only correct if automaton is finite (image-finite)
-        for (AS p : implementation.getStates()) {
-            for (BS q : specification.getStates()) {
-                refinement.add(Pair.of(p, q));
-            }
-        }
-
-        Set<ModalType> may = EnumSet.of(ModalType.MAY, ModalType.MUST);
-        Set<ModalType> must = Collections.singleton(ModalType.MUST);
-
-        boolean update = true;
-        while (update) {
-            update = false;
-
-            Iterator<Pair<AS, BS>> iterator = refinement.iterator();
-            while (iterator.hasNext()) {
-                Pair<AS, BS> pair = iterator.next();
-
-                boolean eligiblePartner = eligiblePartner(implementation,
-                                                          specification,
-                                                          inputs,
-                                                          (s, t) -> refinement.contains(Pair.of(s, t)),
-                                                          pair.getFirst(),
-                                                          pair.getSecond(),
-                                                          may);
-
-                eligiblePartner &= eligiblePartner(specification,
-                                                   implementation,
-                                                   inputs,
-                                                   (s, t) -> refinement.contains(Pair.of(t, s)),
-                                                   pair.getSecond(),
-                                                   pair.getFirst(),
-                                                   must);
+    /**
+     * Computes the (greatest) refinement relation between the states of the two given modal transition systems. A
+     * state of the implementation refines a state of the specification, if each may transition of the implementation
+     * state is matched by a may transition of the specification state and each must transition of the specification
+     * state is matched by a must transition of the implementation state, such that the respective successors are in
+     * the refinement relation as well. See {@link ParallelRelationFixpoint} for details on the computation.
+     *
+     * @param implementation
+     *         the implementation
+     * @param specification
+     *         the specification
+     * @param inputs
+     *         the inputs to consider
+     * @param pool
+     *         the pool whose threads evaluate the relation
+     * @param <AS>
+     *         state type of the implementation
+     * @param <BS>
+     *         state type of the specification
+     * @param <I>
+     *         input symbol type
+     *
+     * @return a (compact, immutable) view on the refinement relation
+     */
+    public static <AS, BS, I> Set<Pair<AS, BS>> refinementRelation(ModalTransitionSystem<AS, I, ?, ?> implementation,
+                                                                   ModalTransitionSystem<BS, I, ?, ?> specification,
+                                                                   Collection<I> inputs,
+                                                                   ForkJoinPool pool) {
+        return computeRelation(implementation, specification, inputs, pool);
+    }
 
-                if (!eligiblePartner) {
-                    update = true;
-                    iterator.remove();
-                }
-            }
-        }
+    private static <AS, AT, BS, BT, I> Set<Pair<AS, BS>> computeRelation(ModalTransitionSystem<AS, I, AT, ?> implementation,
+                                                                         ModalTransitionSystem<BS, I, BT, ?> specification,
+                                                                         Collection<I> inputs,
+                                                                         ForkJoinPool pool) {
+        return ParallelRelationFixpoint.greatestFixedPoint(implementation,
+                                                           specification,
+                                                           inputs,
+                                                           hasType(implementation, MAY),
+                                                           hasType(specification, MAY),
+                                                           hasType(implementation, MUST),
+                                                           hasType(specification, MUST),
+                                                           pool);
+    }
 
-        return refinement;
+    private static <T> Predicate<T> hasType(ModalTransitionSystem<?, ?, T, ?> mts, Set<ModalType> acceptableValues) {
+        return t -> {
+            final ModalEdgeProperty property = mts.getTransitionProperty(t);
+            return property != null && acceptableValues.contains(property.getType());
+        };
     }
 }
@@ -20,6 +20,8 @@ import java.util.HashSet;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import com.google.common.collect.Maps;
@@ -28,12 +30,26 @@ import net.automatalib.commons.util.Pair;
 import net.automatalib.graphs.ads.ADSNode;
 import net.automatalib.words.Word;
 import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
 
 /**
  * @author frohme
  */
 public abstract class AbstractADSTest {
 
+    private ForkJoinPool pool;
+
+    @BeforeClass
+    public void setUpPool() {
+        this.pool = new ForkJoinPool(4);
+    }
+
+    @AfterClass
+    public void shutDownPool() {
+        this.pool.shutdown();
+    }
+
     protected <I, O> void verifySuccess(final CompactMealy<I, O> mealy) {
         this.verifySuccess(mealy, mealy.getStates());
     }
@@ -87,6 +103,57 @@ public abstract class AbstractADSTest {
         Assert.assertTrue(bfsMinSizeSize <= defaultSize);
         Assert.assertTrue(bfsMinSizeSize <= bestEffortSize);
         Assert.assertTrue(bfsMinSizeSize <= bfsMinLengthSize);
+
+        final ADSNode<Integer, I, O> minLength = bfsMinLengthADS.get();
+        final ADSNode<Integer, I, O> minSize = bfsMinSizeADS.get();
+
+        this.verifyParallelSuccess(mealy, targets, minLength, BacktrackingSearch.CostAggregator.MIN_LENGTH);
+        this.verifyParallelSuccess(mealy, targets, minSize, BacktrackingSearch.CostAggregator.MIN_SIZE);
+    }
+
+    private <I, O> void verifyParallelSuccess(final CompactMealy<I, O> mealy,
+                                              final Set<Integer> targets,
+                                              final ADSNode<Integer, I, O> optimal,
+                                              final BacktrackingSearch.CostAggregator costAggregator) {
+        final Optional<ADSNode<Integer, I, O>> parallelADS =
+                BacktrackingSearch.computeOptimal(mealy, mealy.getInputAlphabet(), targets, costAggregator, pool);
+        final Optional<ADSNode<Integer, I, O>> anytimeADS = BacktrackingSearch.computeOptimal(mealy,
+                                                                                              mealy.getInputAlphabet(),
+                                                                                              targets,
+                                                                                              costAggregator,
+                                                                                              pool,
+                                                                                              1,
+                                                                                              TimeUnit.MINUTES);
+        final Optional<ADSNode<Integer, I, O>> exhaustedADS = BacktrackingSearch.computeOptimal(mealy,
+                                                                                                mealy.getInputAlphabet(),
+                                                                                                targets,
+                                                                                                costAggregator,
+                                                                                                pool,
+                                                                                                0,
+                                                                                                TimeUnit.NANOSECONDS);
+
+        Assert.assertTrue(parallelADS.isPresent());
+        Assert.assertTrue(anytimeADS.isPresent());
+
+        this.verifySuccess(mealy, targets, parallelADS.get());
+        this.verifySuccess(mealy, targets, anytimeADS.get());
+        exhaustedADS.ifPresent(ads -> this.verifySuccess(mealy, targets, ads));
+
+        final int optimalCosts = computeCosts(optimal, costAggregator);
+        Assert.assertEquals(computeCosts(parallelADS.get(), costAggregator), optimalCosts);
+        Assert.assertEquals(computeCosts(anytimeADS.get(), costAggregator), optimalCosts);
+    }
+
+    private static int computeCosts(final ADSNode<?, ?, ?> ads,
+                                    final BacktrackingSearch.CostAggregator costAggregator) {
+        switch (costAggregator) {
+            case MIN_LENGTH:
+                return ADSUtil.computeLength(ads);
+            case MIN_SIZE:
+                return ADSUtil.countSymbolNodes(ads);
+            default:
+                throw new IllegalArgumentException();
+        }
     }
 
     protected <I, O> void verifySuccess(final CompactMealy<I, O> mealy,
@@ -138,5 +205,13 @@ public abstract class AbstractADSTest {
         Assert.assertFalse(bestEffortADS.isPresent());
         Assert.assertFalse(bfsMinLengthADS.isPresent());
         Assert.assertFalse(bfsMinSizeADS.isPresent());
+
+        for (final BacktrackingSearch.CostAggregator costAggregator : BacktrackingSearch.CostAggregator.values()) {
+            Assert.assertFalse(BacktrackingSearch.computeOptimal(mealy,
+                                                                 mealy.getInputAlphabet(),
+                                                                 targets,
+                                                                 costAggregator,
+                                                                 pool).isPresent());
+        }
     }
 }
@@ -0,0 +1,74 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.util.automata.ads;
+
+import java.util.HashSet;
+import java.util.Random;
+
+import net.automatalib.automata.transducers.impl.compact.CompactMealy;
+import net.automatalib.util.automata.random.RandomAutomata;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.impl.Alphabets;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * @author frohme
+ */
+public class LeeYannakakisTest extends AbstractADSTest {
+
+    @Test
+    public void testLargeRing() {
+        final int size = 1000;
+        final Alphabet<Character> alphabet = Alphabets.characters('a', 'b');
+        final CompactMealy<Character, Integer> mealy = new CompactMealy<>(alphabet, size);
+
+        for (int i = 0; i < size; i++) {
+            mealy.addState();
+        }
+        mealy.setInitialState(0);
+
+        // 'a' rotates the ring and only signals the first state, 'b' is a non-distinguishing self-loop
+        for (int i = 0; i < size; i++) {
+            mealy.addTransition(i, 'a', (i + 1) % size, i == 0 ? 1 : 0);
+            mealy.addTransition(i, 'b', i, 0);
+        }
+
+        final LYResult<Integer, Character, Integer> result = LeeYannakakis.compute(mealy, alphabet);
+
+        Assert.assertTrue(result.isPresent());
+        Assert.assertTrue(result.getIndistinguishableStates().isEmpty());
+        super.verifySuccess(mealy, new HashSet<>(mealy.getStates()), result.get());
+    }
+
+    @Test
+    public void testLargeRandomMealy() {
+        final Alphabet<Integer> input = Alphabets.integers(1, 5);
+        final Alphabet<Character> output = Alphabets.characters('a', 'f');
+        final CompactMealy<Integer, Character> mealy =
+                RandomAutomata.randomMealy(new Random(42), 2000, input, output);
+
+        final LYResult<Integer, Integer, Character> result = LeeYannakakis.compute(mealy, input);
+
+        if (result.isPresent()) {
+            super.verifySuccess(mealy, new HashSet<>(mealy.getStates()), result.get());
+        } else {
+            Assert.assertFalse(result.getIndistinguishableStates().isEmpty());
+            Assert.assertFalse(BacktrackingSearch.compute(mealy, input, result.getIndistinguishableStates())
+                                                 .isPresent());
+        }
+    }
+}
@@ -0,0 +1,159 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.util.automata.copy;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import net.automatalib.automata.fsa.impl.compact.CompactDFA;
+import net.automatalib.automata.fsa.impl.compact.CompactNFA;
+import net.automatalib.automata.transducers.impl.compact.CompactMealy;
+import net.automatalib.commons.util.mappings.Mapping;
+import net.automatalib.util.automata.Automata;
+import net.automatalib.util.automata.random.RandomAutomata;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.impl.Alphabets;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * @author frohme
+ */
+public class BulkCopyTest extends AbstractAutomatonCopyTest {
+
+    private static final Alphabet<Character> INPUTS = Alphabets.characters('a', 'c');
+
+    @Override
+    protected AutomatonCopyMethod getCopyMethod() {
+        return AutomatonCopyMethod.BULK;
+    }
+
+    /**
+     * Check that copying into a non-empty target shifts states and transitions accordingly.
+     */
+    @Test
+    public void testNonEmptyTarget() {
+        final Random random = new Random(42);
+        final CompactDFA<Character> source = RandomAutomata.randomDFA(random, 20, INPUTS, false);
+        final CompactDFA<Character> target = RandomAutomata.randomDFA(random, 10, INPUTS, false);
+        final int offset = target.size();
+
+        // a deterministic automaton cannot have an additional initial state
+        target.setInitialState(null);
+
+        final Mapping<Integer, Integer> mapping =
+                AutomatonLowLevelCopy.copy(AutomatonCopyMethod.BULK, source, INPUTS, target);
+
+        Assert.assertEquals(target.size(), offset + source.size());
+        Assert.assertEquals(target.getInitialState(), mapping.get(source.getInitialState()));
+
+        for (Integer s : source) {
+            final Integer t = mapping.get(s);
+            Assert.assertEquals(t.intValue(), s + offset);
+            Assert.assertEquals(target.isAccepting(t), source.isAccepting(s));
+
+            for (Character i : INPUTS) {
+                Assert.assertEquals(target.getSuccessor(t, i), mapping.get(source.getSuccessor(s, i)));
+            }
+        }
+    }
+
+    /**
+     * Check a copy of an automaton that is large enough to be copied in parallel.
+     */
+    @Test
+    public void testLargeCompactMealy() {
+        final int size = BulkAutomatonCopy.PARALLEL_THRESHOLD + BulkAutomatonCopy.CHUNK_SIZE / 2;
+        final CompactMealy<Character, Integer> source =
+                RandomAutomata.randomMealy(new Random(42), size, INPUTS, Alphabets.integers(1, 3), false);
+        final CompactMealy<Character, Integer> target = new CompactMealy<>(INPUTS);
+
+        final Mapping<Integer, Integer> mapping =
+                AutomatonLowLevelCopy.copy(AutomatonCopyMethod.BULK, source, INPUTS, target);
+
+        Assert.assertEquals(target.size(), size);
+
+        for (Integer s : source) {
+            for (Character i : INPUTS) {
+                Assert.assertEquals(target.getSuccessor(mapping.get(s), i), source.getSuccessor(s, i));
+                Assert.assertEquals(target.getOutput(mapping.get(s), i), source.getOutput(s, i));
+            }
+        }
+    }
+
+    /**
+     * Check that incompatible targets (and non-trivial transformations) fall back to a regular copy.
+     */
+    @Test
+    public void testFallback() {
+        final CompactDFA<Character> source = RandomAutomata.randomDFA(new Random(42), 20, INPUTS, false);
+
+        final CompactDFA<Character> smallerAlphabet = new CompactDFA<>(Alphabets.characters('a', 'b'));
+        AutomatonLowLevelCopy.copy(AutomatonCopyMethod.BULK, source, smallerAlphabet.getInputAlphabet(), smallerAlphabet);
+        Assert.assertTrue(Automata.testEquivalence(source, smallerAlphabet, smallerAlphabet.getInputAlphabet()));
+
+        final CompactDFA<Character> negated = new CompactDFA<>(INPUTS);
+        AutomatonLowLevelCopy.copy(AutomatonCopyMethod.BULK, source, INPUTS, negated, b -> !b, tp -> null);
+        for (Integer s : source) {
+            Assert.assertNotEquals(negated.isAccepting(s), source.isAccepting(s));
+        }
+    }
+
+    /**
+     * Check that subclasses do not inherit the bulk-copy compatibility and that the state-by-state default copy of the
+     * copy hooks is correct.
+     */
+    @Test
+    public void testSubclass() {
+        final CompactDFA<Character> source = RandomAutomata.randomDFA(new Random(42), 20, INPUTS, false);
+        final CompactDFA<Character> subclassed = new CompactDFA<Character>(INPUTS) {};
+
+        Assert.assertFalse(subclassed.isBulkCopyCompatible(source));
+        Assert.assertFalse(source.isBulkCopyCompatible(subclassed));
+        Assert.assertTrue(new CompactDFA<>(INPUTS).isBulkCopyCompatible(source));
+
+        AutomatonLowLevelCopy.copy(AutomatonCopyMethod.BULK, source, INPUTS, subclassed);
+        Assert.assertTrue(Automata.testEquivalence(source, subclassed, INPUTS));
+
+        // CompactNFA does not override the copy hooks, so the state-by-state defaults are used
+        final CompactNFA<Character> nfa = new CompactNFA<>(INPUTS);
+        nfa.addInitialState(false);
+        nfa.addState(true);
+        nfa.addState(false);
+        nfa.addTransition(0, (Character) 'a', 1);
+        nfa.addTransition(0, (Character) 'a', 2);
+        nfa.addTransition(1, (Character) 'b', 0);
+        nfa.addTransition(2, (Character) 'c', 2);
+
+        final CompactNFA<Character> target = new CompactNFA<>(INPUTS);
+        target.addState(true);
+        final int offset = target.addIntStates(nfa.size());
+        target.copyStatePropertiesFrom(nfa, offset);
+        target.copyTransitionsFrom(nfa, 0, nfa.size(), offset);
+
+        for (Integer s : nfa) {
+            Assert.assertEquals(target.isAccepting(s + offset), nfa.isAccepting(s));
+            for (Character i : INPUTS) {
+                final Set<Integer> expected = new HashSet<>();
+                for (Integer succ : nfa.getSuccessors(s, i)) {
+                    expected.add(succ + offset);
+                }
+                Assert.assertEquals(new HashSet<>(target.getSuccessors(s + offset, i)), expected);
+            }
+        }
+    }
+}
@@ -17,14 +17,18 @@ package net.automatalib.util.automata.cover;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Random;
 import java.util.Set;
 
+import com.google.common.collect.Lists;
 import net.automatalib.automata.UniversalDeterministicAutomaton;
 import net.automatalib.automata.fsa.DFA;
 import net.automatalib.automata.fsa.impl.compact.CompactDFA;
+import net.automatalib.automata.transducers.impl.compact.CompactMealy;
 import net.automatalib.util.automata.Automata;
 import net.automatalib.util.automata.random.RandomAutomata;
 import net.automatalib.words.Alphabet;
@@ -146,6 +150,65 @@ public class CoversTest {
         testTransitionCover(dfa, alphabet, Automata.transitionCover(dfa, alphabet));
     }
 
+    @Test
+    public void testCompactCover() {
+        final Random random = new Random(42);
+        final Alphabet<Integer> alphabet = Alphabets.integers(0, 5);
+        final CompactDFA<Integer> dfa = RandomAutomata.randomDFA(random, 50, alphabet);
+        final CompactMealy<Integer, Character> mealy =
+                RandomAutomata.randomMealy(random, 50, alphabet, Alphabets.characters('a', 'c'));
+
+        // make the automata partial
+        for (int i = 0; i < 20; i++) {
+            dfa.removeAllTransitions(random.nextInt(dfa.size()), random.nextInt(alphabet.size()));
+            mealy.removeAllTransitions(random.nextInt(mealy.size()), random.nextInt(alphabet.size()));
+        }
+
+        checkCompactCover(dfa, alphabet, Covers.compactCover(dfa));
+        checkCompactCover(mealy, alphabet, Covers.compactCover(mealy));
+
+        // an automaton without initial state has an empty cover
+        final CompactCover<Integer> emptyCover = Covers.compactCover(new CompactDFA<>(alphabet));
+        Assert.assertEquals(emptyCover.getNumReachedStates(), 0);
+        Assert.assertFalse(emptyCover.stateCoverIterator().hasNext());
+        Assert.assertFalse(emptyCover.structuralCoverIterator().hasNext());
+    }
+
+    private static <S, I> void checkCompactCover(UniversalDeterministicAutomaton<S, I, ?, ?, ?> automaton,
+                                                 Alphabet<I> alphabet,
+                                                 CompactCover<I> cover) {
+
+        final List<Word<I>> stateCover = new ArrayList<>();
+        final List<Word<I>> transCover = new ArrayList<>();
+        final Set<Word<I>> structuralCover = new LinkedHashSet<>();
+
+        Covers.cover(automaton, alphabet, stateCover, transCover);
+        Covers.structuralCover(automaton, alphabet, structuralCover);
+
+        Assert.assertEquals(Lists.newArrayList(cover.stateCoverIterator()), stateCover);
+        Assert.assertEquals(Lists.newArrayList(cover.transitionCoverIterator()), transCover);
+        Assert.assertEquals(Lists.newArrayList(cover.structuralCoverIterator()), new ArrayList<>(structuralCover));
+        Assert.assertEquals(cover.getNumReachedStates(), stateCover.size());
+
+        for (int i = 0; i < cover.getNumReachedStates(); i++) {
+            final int state = cover.getReachedState(i);
+            final Word<I> as = cover.getAccessSequence(state);
+
+            Assert.assertNotNull(as);
+            Assert.assertEquals(cover.getAccessSequenceLength(state), as.length());
+            Assert.assertEquals(as, stateCover.get(i));
+        }
+
+        for (int s = 0; s < automaton.size(); s++) {
+            if (!cover.isReached(s)) {
+                Assert.assertNull(cover.getAccessSequence(s));
+                Assert.assertEquals(cover.getAccessSequenceLength(s), -1);
+            }
+        }
+
+        Assert.assertEquals(Collections.frequency(stateCover, Word.epsilon()), 1);
+    }
+
     private static <S, I> void testStateCover(UniversalDeterministicAutomaton<S, I, ?, ?, ?> automaton,
                                               Collection<Word<I>> cover) {
 
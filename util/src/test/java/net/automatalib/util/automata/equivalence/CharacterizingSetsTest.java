@@ -16,7 +16,9 @@
 package net.automatalib.util.automata.equivalence;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
 import java.util.Random;
@@ -26,6 +28,7 @@ import net.automatalib.automata.fsa.impl.compact.CompactDFA;
 import net.automatalib.automata.transducers.impl.compact.CompactMealy;
 import net.automatalib.util.automata.Automata;
 import net.automatalib.util.automata.builders.AutomatonBuilders;
+import net.automatalib.util.automata.fsa.DFAs;
 import net.automatalib.util.automata.random.RandomAutomata;
 import net.automatalib.words.Alphabet;
 import net.automatalib.words.Word;
@@ -79,6 +82,56 @@ public class CharacterizingSetsTest {
         checkCharacterizingSet(MEALY, state, characterizingSet);
     }
 
+    @Test
+    public void characterizingDFARefinementTest() {
+        final List<Word<Integer>> characterizingSet = new ArrayList<>();
+        CharacterizingSets.findCharacterizingSetByRefinement(DFA, INPUT_ALPHABET, characterizingSet);
+
+        Assert.assertTrue(characterizingSet.size() < DFA.size());
+        checkCharacterizingSet(DFA, characterizingSet);
+    }
+
+    @Test
+    public void characterizingMealyRefinementTest() {
+        final List<Word<Integer>> characterizingSet = new ArrayList<>();
+        CharacterizingSets.findCharacterizingSetByRefinement(MEALY, INPUT_ALPHABET, characterizingSet);
+
+        Assert.assertTrue(characterizingSet.size() < MEALY.size());
+        checkCharacterizingSet(MEALY, characterizingSet);
+    }
+
+    @Test
+    public void characterizingNonMinimalRefinementTest() {
+        final CompactMealy<Integer, Character> mealy =
+                RandomAutomata.randomMealy(RANDOM, AUTOMATON_SIZE, INPUT_ALPHABET, Arrays.asList('a', 'b'), false);
+        final List<Word<Integer>> characterizingSet = new ArrayList<>();
+        CharacterizingSets.findCharacterizingSetByRefinement(mealy, INPUT_ALPHABET, characterizingSet);
+
+        for (final Integer s1 : mealy) {
+            for (final Integer s2 : mealy) {
+                final boolean separable = Automata.findSeparatingWord(mealy, s1, s2, INPUT_ALPHABET) != null;
+                boolean separated = false;
+                for (final Word<Integer> w : characterizingSet) {
+                    separated |= !Objects.equals(mealy.computeStateOutput(s1, w), mealy.computeStateOutput(s2, w));
+                }
+                Assert.assertEquals(separated, separable);
+            }
+        }
+    }
+
+    @Test
+    public void characterizingRefinementDistinctTest() {
+        final Alphabet<Integer> inputs = Alphabets.integers(0, 1);
+        final CompactDFA<Integer> dfa =
+                DFAs.minimize(RandomAutomata.randomDFA(new Random(42), 10 * AUTOMATON_SIZE, inputs), inputs);
+        final List<Word<Integer>> characterizingSet = new ArrayList<>();
+        CharacterizingSets.findCharacterizingSetByRefinement(dfa, inputs, characterizingSet);
+
+        Assert.assertEquals(new HashSet<>(characterizingSet).size(), characterizingSet.size());
+        Assert.assertTrue(characterizingSet.size() < dfa.size());
+        checkCharacterizingSet(dfa, characterizingSet);
+    }
+
     /*
      * See https://github.com/LearnLib/automatalib/issues/36
      */
@@ -106,6 +159,10 @@ public class CharacterizingSetsTest {
 
         final List<Word<String>> characterizingSet = Automata.characterizingSet(machine, inputs);
         checkCharacterizingSet(machine, characterizingSet);
+
+        final List<Word<String>> refinementSet = new ArrayList<>();
+        CharacterizingSets.findCharacterizingSetByRefinement(machine, inputs, refinementSet);
+        checkCharacterizingSet(machine, refinementSet);
     }
 
     private <S, I> void checkCharacterizingSet(UniversalDeterministicAutomaton<S, I, ?, ?, ?> automaton,
@@ -0,0 +1,121 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.util.automata.equivalence;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import net.automatalib.automata.fsa.impl.compact.CompactDFA;
+import net.automatalib.automata.transducers.impl.compact.CompactMealy;
+import net.automatalib.util.automata.copy.AutomatonCopyMethod;
+import net.automatalib.util.automata.copy.AutomatonLowLevelCopy;
+import net.automatalib.util.automata.random.RandomAutomata;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.Word;
+import net.automatalib.words.impl.Alphabets;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.Test;
+
+/**
+ * @author frohme
+ */
+public class ParallelEquivalenceTestTest {
+
+    private static final Alphabet<Integer> ALPHABET = Alphabets.integers(0, 3);
+
+    // large enough to process levels in multiple tasks
+    private static final int AUTOMATON_SIZE = 20 * ParallelEquivalenceTest.CHUNK_SIZE;
+
+    private final ForkJoinPool pool = new ForkJoinPool(4);
+
+    @AfterClass
+    public void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    public void testMealy() {
+        final Random random = new Random(42);
+        final CompactMealy<Integer, Character> mealy =
+                RandomAutomata.randomMealy(random, AUTOMATON_SIZE, ALPHABET, Arrays.asList('x', 'y'), false);
+        final CompactMealy<Integer, Character> copy = new CompactMealy<>(ALPHABET);
+        AutomatonLowLevelCopy.copy(AutomatonCopyMethod.STATE_BY_STATE, mealy, ALPHABET, copy);
+
+        Assert.assertNull(ParallelEquivalenceTest.findSeparatingWord(mealy, copy, ALPHABET, false, pool));
+
+        // modify the output of some transition
+        final int state = copy.getState(Word.fromSymbols(0, 1, 2, 0, 1, 2, 0, 1, 2));
+        final int succ = copy.getSuccessor(state, 2);
+        final Character output = copy.getOutput(state, 2) == 'x' ? 'y' : 'x';
+        copy.setTransition(state, 2, succ, output);
+
+        final Word<Integer> sepWord = ParallelEquivalenceTest.findSeparatingWord(mealy, copy, ALPHABET, false, pool);
+        final Word<Integer> seqWord = NearLinearEquivalenceTest.findSeparatingWord(mealy, copy, ALPHABET);
+
+        Assert.assertNotNull(sepWord);
+        Assert.assertNotNull(seqWord);
+        Assert.assertNotEquals(mealy.computeOutput(sepWord), copy.computeOutput(sepWord));
+        Assert.assertEquals(sepWord.length(), seqWord.length());
+    }
+
+    @Test
+    public void testDFA() {
+        final Random random = new Random(42);
+        final CompactDFA<Integer> dfa1 = RandomAutomata.randomDFA(random, AUTOMATON_SIZE, ALPHABET, false);
+        final CompactDFA<Integer> dfa2 = RandomAutomata.randomDFA(random, AUTOMATON_SIZE, ALPHABET, false);
+
+        Assert.assertNull(ParallelEquivalenceTest.findSeparatingWord(dfa1, new CompactDFA<>(dfa1), ALPHABET));
+
+        final Word<Integer> sepWord = ParallelEquivalenceTest.findSeparatingWord(dfa1, dfa2, ALPHABET, false, pool);
+        final Word<Integer> seqWord = NearLinearEquivalenceTest.findSeparatingWord(dfa1, dfa2, ALPHABET);
+
+        Assert.assertNotNull(sepWord);
+        Assert.assertNotNull(seqWord);
+        Assert.assertNotEquals(dfa1.accepts(sepWord), dfa2.accepts(sepWord));
+        Assert.assertEquals(sepWord.length(), seqWord.length());
+    }
+
+    @Test
+    public void testPartialDFA() {
+        final Random random = new Random(42);
+        final CompactDFA<Integer> dfa = RandomAutomata.randomDFA(random, AUTOMATON_SIZE, ALPHABET, false);
+        final CompactDFA<Integer> partial = new CompactDFA<>(dfa);
+
+        final int state = random.nextInt(AUTOMATON_SIZE);
+        partial.removeTransition(state, 1, partial.getTransition(state, 1));
+
+        Assert.assertNull(ParallelEquivalenceTest.findSeparatingWord(dfa, partial, ALPHABET, true, pool));
+
+        final Word<Integer> sepWord = ParallelEquivalenceTest.findSeparatingWord(dfa, partial, ALPHABET, false, pool);
+        Assert.assertNotNull(sepWord);
+        Assert.assertNull(partial.getState(sepWord));
+        Assert.assertNotNull(partial.getState(sepWord.prefix(sepWord.length() - 1)));
+    }
+
+    @Test
+    public void testEmptyDFAs() {
+        final CompactDFA<Integer> uninit = new CompactDFA<>(ALPHABET, 0);
+        final CompactDFA<Integer> empty = new CompactDFA<>(ALPHABET, 1);
+        empty.addInitialState(false);
+
+        Assert.assertNull(ParallelEquivalenceTest.findSeparatingWord(uninit, uninit, ALPHABET));
+        Assert.assertNull(ParallelEquivalenceTest.findSeparatingWord(empty, empty, ALPHABET));
+        Assert.assertEquals(ParallelEquivalenceTest.findSeparatingWord(uninit, empty, ALPHABET), Word.epsilon());
+        Assert.assertEquals(ParallelEquivalenceTest.findSeparatingWord(empty, uninit, ALPHABET), Word.epsilon());
+    }
+}
@@ -0,0 +1,208 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.util.automata.equivalence;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Predicate;
+
+import net.automatalib.commons.util.Pair;
+import net.automatalib.ts.modal.CompactMTS;
+import net.automatalib.ts.modal.MTSTransition;
+import net.automatalib.ts.modal.transition.ModalEdgeProperty.ModalType;
+import net.automatalib.ts.modal.transition.MutableModalEdgeProperty;
+import net.automatalib.util.ts.modal.ModalRefinement;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.impl.Alphabets;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+/**
+ * @author frohme
+ */
+public class ParallelRelationFixpointTest {
+
+    private static final Alphabet<Character> ALPHABET = Alphabets.characters('a', 'c');
+    private static final int SIZE = 4 * ParallelRelationFixpoint.CHUNK_SIZE;
+
+    private ForkJoinPool pool;
+
+    @BeforeClass
+    public void setUp() {
+        this.pool = new ForkJoinPool(4);
+    }
+
+    @AfterClass
+    public void tearDown() {
+        this.pool.shutdown();
+    }
+
+    @Test
+    public void testBisimulation() {
+        final Random random = new Random(42);
+
+        for (int i = 0; i < 5; i++) {
+            final CompactMTS<Character> a = randomMTS(random);
+            final CompactMTS<Character> b = randomMTS(random);
+
+            checkRelation(Bisimulation.bisimulationEquivalenceRelation(a, a, ALPHABET, pool),
+                          referenceRelation(a, a, t -> true, t -> true, t -> true, t -> true));
+            checkRelation(Bisimulation.bisimulationEquivalenceRelation(a, b, ALPHABET, pool),
+                          referenceRelation(a, b, t -> true, t -> true, t -> true, t -> true));
+        }
+    }
+
+    @Test
+    public void testRefinement() {
+        final Random random = new Random(42);
+
+        for (int i = 0; i < 5; i++) {
+            final CompactMTS<Character> a = randomMTS(random);
+            final CompactMTS<Character> b = randomMTS(random);
+
+            final Predicate<MutableModalEdgeProperty> may = p -> true;
+            final Predicate<MutableModalEdgeProperty> must = MutableModalEdgeProperty::isMust;
+
+            checkRelation(ModalRefinement.refinementRelation(a, a, ALPHABET, pool),
+                          referenceRelation(a, a, may, may, must, must));
+            checkRelation(ModalRefinement.refinementRelation(a, b, ALPHABET, pool),
+                          referenceRelation(a, b, may, may, must, must));
+        }
+    }
+
+    @Test
+    public void testView() {
+        final CompactMTS<Character> a = new CompactMTS<>(ALPHABET);
+        final Integer as0 = a.addInitialState();
+        final Integer as1 = a.addState();
+        a.addModalTransition(as0, 'a', as1, ModalType.MUST);
+
+        final Set<Pair<Integer, Integer>> relation = Bisimulation.bisimulationEquivalenceRelation(a, a, ALPHABET);
+
+        Assert.assertEquals(relation.size(), 2);
+        Assert.assertTrue(relation.contains(Pair.of(as0, as0)));
+        Assert.assertTrue(relation.contains(Pair.of(as1, as1)));
+        Assert.assertFalse(relation.contains(Pair.of(as0, as1)));
+        Assert.assertFalse(relation.contains(Pair.of(as0, 2)));
+        Assert.assertFalse(relation.contains(Pair.of(as0, "s0")));
+        Assert.assertFalse(relation.contains(as0));
+
+        final Iterator<Pair<Integer, Integer>> iter = relation.iterator();
+        Assert.assertEquals(iter.next(), Pair.of(as0, as0));
+        Assert.assertEquals(iter.next(), Pair.of(as1, as1));
+        Assert.assertFalse(iter.hasNext());
+
+        Assert.assertThrows(UnsupportedOperationException.class, () -> relation.add(Pair.of(as0, as1)));
+        Assert.assertThrows(UnsupportedOperationException.class, relation::clear);
+    }
+
+    private static void checkRelation(Set<Pair<Integer, Integer>> actual, Set<Pair<Integer, Integer>> expected) {
+        Assert.assertEquals(actual.size(), expected.size());
+        Assert.assertEquals(new HashSet<>(actual), expected);
+        Assert.assertEquals(actual, expected);
+        Assert.assertEquals(actual.hashCode(), expected.hashCode());
+    }
+
+    private static CompactMTS<Character> randomMTS(Random random) {
+        final CompactMTS<Character> result = new CompactMTS<>(ALPHABET);
+
+        result.addInitialState();
+        for (int i = 1; i < SIZE; i++) {
+            result.addState();
+        }
+
+        for (int s = 0; s < SIZE; s++) {
+            for (Character i : ALPHABET) {
+                // a small number of successors yields non-trivial relations
+                final int numSuccs = random.nextInt(3);
+                for (int j = 0; j < numSuccs; j++) {
+                    final ModalType type = random.nextBoolean() ? ModalType.MAY : ModalType.MUST;
+                    result.addModalTransition(s, i, random.nextInt(SIZE), type);
+                }
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * A straightforward fixed-point computation on sets of pairs.
+     */
+    private static Set<Pair<Integer, Integer>> referenceRelation(CompactMTS<Character> a,
+                                                                 CompactMTS<Character> b,
+                                                                 Predicate<MutableModalEdgeProperty> forthA,
+                                                                 Predicate<MutableModalEdgeProperty> forthB,
+                                                                 Predicate<MutableModalEdgeProperty> backA,
+                                                                 Predicate<MutableModalEdgeProperty> backB) {
+        final Set<Pair<Integer, Integer>> relation = new HashSet<>();
+
+        for (Integer p : a.getStates()) {
+            for (Integer q : b.getStates()) {
+                relation.add(Pair.of(p, q));
+            }
+        }
+
+        boolean changed = true;
+        while (changed) {
+            changed = relation.removeIf(pair -> {
+                final Integer p = pair.getFirst();
+                final Integer q = pair.getSecond();
+                return !matches(a, b, forthA, forthB, p, q, relation, false) ||
+                       !matches(b, a, backB, backA, q, p, relation, true);
+            });
+        }
+
+        return relation;
+    }
+
+    private static boolean matches(CompactMTS<Character> from,
+                                   CompactMTS<Character> to,
+                                   Predicate<MutableModalEdgeProperty> fromFilter,
+                                   Predicate<MutableModalEdgeProperty> toFilter,
+                                   Integer source,
+                                   Integer coSource,
+                                   Set<Pair<Integer, Integer>> relation,
+                                   boolean inverse) {
+        for (Character i : ALPHABET) {
+            for (MTSTransition<Character, MutableModalEdgeProperty> t : from.getTransitions(source, i)) {
+                if (!fromFilter.test(from.getTransitionProperty(t))) {
+                    continue;
+                }
+
+                final Integer succ = from.getSuccessor(t);
+                boolean matched = false;
+
+                for (MTSTransition<Character, MutableModalEdgeProperty> coT : to.getTransitions(coSource, i)) {
+                    if (toFilter.test(to.getTransitionProperty(coT))) {
+                        final Integer coSucc = to.getSuccessor(coT);
+                        matched |= relation.contains(inverse ? Pair.of(coSucc, succ) : Pair.of(succ, coSucc));
+                    }
+                }
+
+                if (!matched) {
+                    return false;
+                }
+            }
+        }
+
+        return true;
+    }
+}
@@ -0,0 +1,173 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.util.automata.minimizer;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import net.automatalib.automata.fsa.impl.compact.CompactDFA;
+import net.automatalib.automata.transducers.impl.compact.CompactMealy;
+import net.automatalib.util.automata.Automata;
+import net.automatalib.util.automata.fsa.DFAs;
+import net.automatalib.util.automata.minimizer.hopcroft.HopcroftMinimization;
+import net.automatalib.util.automata.minimizer.paigetarjan.PaigeTarjanMinimization;
+import net.automatalib.util.automata.random.RandomAutomata;
+import net.automatalib.util.partitionrefinement.PaigeTarjanTest;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.impl.Alphabets;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Tests for the sparse (Valmari/Lehtinen-based) minimization of partial automata in {@link HopcroftMinimization}.
+ *
+ * @author frohme
+ */
+@Test
+public class HopcroftPartialMinimizationTest {
+
+    private static final int NUM_STATES = 200;
+    private static final int OUT_DEGREE = 3;
+
+    private final Alphabet<Integer> alphabet = Alphabets.integers(0, 99);
+    private final List<String> outputs = Arrays.asList("o1", "o2");
+
+    @Test
+    public void testMealy() {
+        final CompactMealy<Integer, String> mealy = PaigeTarjanTest.getMealy();
+        final Alphabet<Integer> inputs = mealy.getInputAlphabet();
+
+        final CompactMealy<Integer, String> expected = PaigeTarjanMinimization.minimizeMealy(mealy, inputs);
+        final CompactMealy<Integer, String> actual = HopcroftMinimization.minimizePartialMealy(mealy, inputs);
+
+        Assert.assertEquals(actual.size(), expected.size());
+        Assert.assertTrue(Automata.testEquivalence(actual, expected, inputs));
+    }
+
+    @Test
+    public void testSparseMealy() {
+        final Random random = new Random(42);
+
+        for (int r = 0; r < 10; r++) {
+            final CompactMealy<Integer, String> mealy = new CompactMealy<>(alphabet);
+            mealy.addInitialState();
+            for (int i = 1; i < NUM_STATES; i++) {
+                mealy.addState();
+            }
+
+            for (int s = 0; s < NUM_STATES; s++) {
+                for (int d = 0; d < OUT_DEGREE; d++) {
+                    // use few distinct inputs to provoke equivalent states
+                    mealy.setTransition(s,
+                                        random.nextInt(5),
+                                        random.nextInt(NUM_STATES),
+                                        outputs.get(random.nextInt(outputs.size())));
+                }
+            }
+
+            final CompactMealy<Integer, String> expected = PaigeTarjanMinimization.minimizeMealy(mealy, alphabet);
+            final CompactMealy<Integer, String> actual = HopcroftMinimization.minimizePartialMealy(mealy, alphabet);
+
+            Assert.assertEquals(actual.size(), expected.size());
+            Assert.assertTrue(Automata.testEquivalence(actual, expected, alphabet));
+        }
+    }
+
+    @Test
+    public void testSparseDFA() {
+        final Random random = new Random(1337);
+
+        for (int r = 0; r < 10; r++) {
+            final CompactDFA<Integer> dfa = new CompactDFA<>(alphabet);
+            dfa.addInitialState(random.nextBoolean());
+            for (int i = 1; i < NUM_STATES; i++) {
+                dfa.addState(random.nextInt(10) == 0);
+            }
+
+            for (int s = 0; s < NUM_STATES; s++) {
+                for (int d = 0; d < OUT_DEGREE; d++) {
+                    dfa.setTransition(s, random.nextInt(5), random.nextInt(NUM_STATES));
+                }
+            }
+
+            final CompactDFA<Integer> expected = PaigeTarjanMinimization.minimizeDFA(dfa, alphabet);
+            final CompactDFA<Integer> actual = HopcroftMinimization.minimizePartialDFA(dfa, alphabet);
+
+            Assert.assertTrue(Automata.testEquivalence(actual, expected, alphabet));
+            Assert.assertEquals(actual.size(), expected.size() - countDeadStates(expected));
+            Assert.assertEquals(countDeadStates(actual), 0);
+        }
+    }
+
+    @Test
+    public void testCompleteDFA() {
+        final Random random = new Random(7);
+        final Alphabet<Integer> inputs = Alphabets.integers(0, 2);
+
+        for (int r = 0; r < 10; r++) {
+            final CompactDFA<Integer> dfa = RandomAutomata.randomDFA(random, NUM_STATES, inputs, false);
+
+            final CompactDFA<Integer> expected = HopcroftMinimization.minimizeDFA(dfa, inputs);
+            final CompactDFA<Integer> actual = HopcroftMinimization.minimizePartialDFA(dfa, inputs);
+
+            Assert.assertTrue(Automata.testEquivalence(actual, expected, inputs));
+            Assert.assertEquals(actual.size(), expected.size() - countDeadStates(expected));
+        }
+    }
+
+    @Test
+    public void testEmptyLanguage() {
+        final CompactDFA<Integer> dfa = new CompactDFA<>(alphabet);
+        final int init = dfa.addIntInitialState(false);
+        final int succ = dfa.addIntState(false);
+        dfa.setTransition(init, 0, succ);
+        dfa.setTransition(succ, 1, init);
+
+        final CompactDFA<Integer> actual = HopcroftMinimization.minimizePartialDFA(dfa, alphabet);
+
+        Assert.assertEquals(actual.size(), 1);
+        Assert.assertTrue(DFAs.acceptsEmptyLanguage(actual));
+    }
+
+    @Test
+    public void testDeadInitialState() {
+        final CompactDFA<Integer> dfa = new CompactDFA<>(alphabet);
+        final int init = dfa.addIntInitialState(false);
+        dfa.setTransition(init, 0, init);
+
+        final CompactDFA<Integer> actual = HopcroftMinimization.minimizePartialDFA(dfa, alphabet);
+
+        Assert.assertEquals(actual.size(), 1);
+        for (final Integer i : alphabet) {
+            Assert.assertNull(actual.getSuccessor(actual.getInitialState(), i));
+        }
+    }
+
+    private static int countDeadStates(CompactDFA<Integer> dfa) {
+        final CompactDFA<Integer> copy = new CompactDFA<>(dfa);
+        int dead = 0;
+        for (int s = 0; s < dfa.size(); s++) {
+            if (s != dfa.getIntInitialState()) {
+                copy.setInitialState(s);
+                if (DFAs.acceptsEmptyLanguage(copy)) {
+                    dead++;
+                }
+            }
+        }
+        return dead;
+    }
+}
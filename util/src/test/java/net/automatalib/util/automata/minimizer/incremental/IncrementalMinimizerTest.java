@@ -0,0 +1,221 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.util.automata.minimizer.incremental;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import net.automatalib.automata.base.compact.CompactTransition;
+import net.automatalib.automata.fsa.impl.compact.CompactDFA;
+import net.automatalib.automata.transducers.impl.compact.CompactMealy;
+import net.automatalib.util.automata.Automata;
+import net.automatalib.util.automata.minimizer.hopcroft.HopcroftMinimization;
+import net.automatalib.util.automata.minimizer.paigetarjan.PaigeTarjanMinimization;
+import net.automatalib.util.automata.random.RandomAutomata;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.impl.Alphabets;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * @author frohme
+ */
+@Test
+public class IncrementalMinimizerTest {
+
+    private static final int NUM_STATES = 100;
+    private static final int NUM_ROUNDS = 50;
+
+    private final Alphabet<Integer> alphabet = Alphabets.integers(0, 2);
+    private final List<String> outputs = Arrays.asList("o1", "o2");
+
+    @Test
+    public void testCompleteDFA() {
+        final Random random = new Random(42);
+        final CompactDFA<Integer> dfa = RandomAutomata.randomDFA(random, NUM_STATES, alphabet, false);
+        final IncrementalMinimizer<Integer, Boolean, Void> minimizer = IncrementalMinimizer.forDFA(dfa);
+
+        checkDFA(dfa, minimizer, true);
+
+        for (int r = 0; r < NUM_ROUNDS; r++) {
+            final int numEdits = 1 + random.nextInt(3);
+            for (int e = 0; e < numEdits; e++) {
+                final int src = random.nextInt(dfa.size());
+                final int tgt = random.nextInt(dfa.size());
+
+                switch (random.nextInt(4)) {
+                    case 0:
+                        // redirect a transition
+                        final int input = random.nextInt(alphabet.size());
+                        dfa.setTransition(src, input, random.nextInt(dfa.size()));
+                        minimizer.markTransitionModified(src, alphabet.getSymbol(input));
+                        break;
+                    case 1:
+                        // make two states equivalent
+                        dfa.setAccepting(tgt, dfa.isAccepting(src));
+                        for (int i = 0; i < alphabet.size(); i++) {
+                            dfa.setTransition(tgt, i, dfa.getSuccessor(src, i));
+                        }
+                        minimizer.markModified(tgt);
+                        break;
+                    case 2:
+                        dfa.setAccepting(src, !dfa.isAccepting(src));
+                        minimizer.markModified(src);
+                        break;
+                    default:
+                        // add a new state and make it reachable
+                        final int newState = dfa.addIntState(random.nextBoolean());
+                        for (int i = 0; i < alphabet.size(); i++) {
+                            dfa.setTransition(newState, i, random.nextInt(dfa.size()));
+                        }
+                        dfa.setTransition(src, 0, newState);
+                        minimizer.markModified(src);
+                        break;
+                }
+            }
+
+            if (random.nextInt(5) == 0) {
+                dfa.setInitialState(random.nextInt(dfa.size()));
+            }
+
+            checkDFA(dfa, minimizer, true);
+        }
+    }
+
+    @Test
+    public void testPartialDFA() {
+        final Random random = new Random(1337);
+        final CompactDFA<Integer> dfa = RandomAutomata.randomDFA(random, NUM_STATES, alphabet, false);
+        final IncrementalMinimizer<Integer, Boolean, Void> minimizer = IncrementalMinimizer.forDFA(dfa);
+
+        for (int r = 0; r < NUM_ROUNDS; r++) {
+            final int src = random.nextInt(dfa.size());
+            final int input = random.nextInt(alphabet.size());
+
+            if (random.nextBoolean()) {
+                dfa.setTransition(src, input, (Integer) null);
+            } else {
+                dfa.setTransition(src, input, random.nextInt(dfa.size()));
+            }
+            minimizer.markTransitionModified(src, alphabet.getSymbol(input));
+
+            checkDFA(dfa, minimizer, false);
+        }
+    }
+
+    @Test
+    public void testMealy() {
+        final Random random = new Random(7);
+        final CompactMealy<Integer, String> mealy =
+                RandomAutomata.randomMealy(random, NUM_STATES, alphabet, outputs, false);
+        final IncrementalMinimizer<Integer, Void, String> minimizer = IncrementalMinimizer.forMealy(mealy);
+
+        for (int r = 0; r < NUM_ROUNDS; r++) {
+            final int src = random.nextInt(mealy.size());
+            final int tgt = random.nextInt(mealy.size());
+
+            switch (random.nextInt(3)) {
+                case 0:
+                    final int input = random.nextInt(alphabet.size());
+                    mealy.setTransition(src,
+                                        input,
+                                        random.nextInt(mealy.size()),
+                                        outputs.get(random.nextInt(outputs.size())));
+                    break;
+                case 1:
+                    for (int i = 0; i < alphabet.size(); i++) {
+                        mealy.setTransition(src, i, mealy.getTransition(tgt, i));
+                    }
+                    break;
+                default:
+                    mealy.setTransition(src, random.nextInt(alphabet.size()), (CompactTransition<String>) null);
+                    break;
+            }
+            minimizer.markModified(src);
+
+            final CompactMealy<Integer, String> expected = PaigeTarjanMinimization.minimizeMealy(mealy, alphabet);
+            final CompactMealy<Integer, String> actual = minimizer.toMinimal(new CompactMealy.Creator<>());
+
+            Assert.assertEquals(actual.size(), expected.size());
+            Assert.assertTrue(Automata.testEquivalence(actual, expected, alphabet));
+        }
+    }
+
+    @Test
+    public void testStronglyConnectedDFA() {
+        final Random random = new Random(4711);
+        final int size = 1000;
+
+        // a cycle over the first input makes the DFA strongly connected, and so is its minimized version
+        final CompactDFA<Integer> original = new CompactDFA<>(alphabet);
+        for (int i = 0; i < size; i++) {
+            original.addIntState(random.nextBoolean());
+        }
+        for (int i = 0; i < size; i++) {
+            original.setTransition(i, 0, (i + 1) % size);
+            original.setTransition(i, 1, random.nextInt(size));
+            original.setTransition(i, 2, random.nextInt(size));
+        }
+        original.setInitialState(0);
+
+        final CompactDFA<Integer> dfa = HopcroftMinimization.minimizeDFA(original, alphabet);
+        final int minimalSize = dfa.size();
+        Assert.assertTrue(minimalSize > size / 2);
+        final IncrementalMinimizer<Integer, Boolean, Void> minimizer = IncrementalMinimizer.forDFA(dfa);
+
+        checkDFA(dfa, minimizer, true);
+
+        for (int r = 0; r < NUM_ROUNDS; r++) {
+            // add a copy of the target of a transition and redirect the transition to it, which preserves all classes
+            final int src = random.nextInt(minimalSize);
+            final int input = random.nextInt(alphabet.size());
+            final int copied = dfa.getSuccessor(src, input);
+            final int copy = dfa.addIntState(dfa.isAccepting(copied));
+            for (int i = 0; i < alphabet.size(); i++) {
+                dfa.setTransition(copy, i, dfa.getSuccessor(copied, i));
+            }
+            dfa.setTransition(src, input, copy);
+            minimizer.markTransitionModified(src, alphabet.getSymbol(input));
+
+            checkDFA(dfa, minimizer, true);
+
+            // the retained classes are neither re-computed nor used as splitters
+            Assert.assertTrue(minimizer.getLastNumSplitterStates() < minimalSize / 10);
+        }
+
+        // modifications that change the language still yield the minimal automaton
+        for (int r = 0; r < NUM_ROUNDS; r++) {
+            final int state = random.nextInt(dfa.size());
+            dfa.setAccepting(state, !dfa.isAccepting(state));
+            minimizer.markModified(state);
+
+            checkDFA(dfa, minimizer, true);
+        }
+    }
+
+    private void checkDFA(CompactDFA<Integer> dfa,
+                          IncrementalMinimizer<Integer, Boolean, Void> minimizer,
+                          boolean complete) {
+        final CompactDFA<Integer> expected = complete ?
+                HopcroftMinimization.minimizeDFA(dfa, alphabet) :
+                PaigeTarjanMinimization.minimizeDFA(dfa, alphabet);
+        final CompactDFA<Integer> actual = minimizer.toMinimal(new CompactDFA.Creator<>());
+
+        Assert.assertEquals(actual.size(), expected.size());
+        Assert.assertTrue(Automata.testEquivalence(actual, expected, alphabet));
+    }
+}
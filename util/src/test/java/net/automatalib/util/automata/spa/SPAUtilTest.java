@@ -16,7 +16,9 @@
 package net.automatalib.util.automata.spa;
 
 import java.util.AbstractMap.SimpleEntry;
+import java.util.Map;
 import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
 
 import com.google.common.collect.ImmutableMap;
 import net.automatalib.automata.fsa.impl.FastDFA;
@@ -25,6 +27,7 @@ import net.automatalib.automata.fsa.impl.compact.CompactDFA;
 import net.automatalib.automata.spa.EmptySPA;
 import net.automatalib.automata.spa.SPA;
 import net.automatalib.automata.spa.StackSPA;
+import net.automatalib.commons.util.Pair;
 import net.automatalib.util.automata.Automata;
 import net.automatalib.util.automata.random.RandomAutomata;
 import net.automatalib.words.Alphabet;
@@ -196,6 +199,52 @@ public class SPAUtilTest {
         Assert.assertTrue(SPAUtil.isRedundancyFree(spa));
     }
 
+    @Test
+    public void testParallelATRSequences() {
+        final Random random = new Random(42);
+        final SPAAlphabet<Integer> largeAlphabet =
+                new DefaultSPAAlphabet<>(Alphabets.integers(0, 4), Alphabets.integers(10, 49), -1);
+        final ForkJoinPool pool = new ForkJoinPool(4);
+
+        try {
+            for (int i = 0; i < 10; i++) {
+                final SPA<?, Integer> spa = RandomAutomata.randomSPA(random, largeAlphabet, 3);
+
+                final ATRSequences<Integer> sequential = SPAUtil.computeATRSequences(spa, largeAlphabet);
+                final ATRSequences<Integer> parallel = SPAUtil.computeATRSequences(spa, largeAlphabet, pool);
+
+                Assert.assertEquals(parallel.terminatingSequences.keySet(), sequential.terminatingSequences.keySet());
+                Assert.assertEquals(parallel.accessSequences.keySet(), sequential.accessSequences.keySet());
+                Assert.assertEquals(parallel.returnSequences.keySet(), sequential.returnSequences.keySet());
+                Assert.assertEquals(SPAUtil.isRedundancyFree(spa, largeAlphabet, pool),
+                                    SPAUtil.isRedundancyFree(spa, largeAlphabet));
+
+                for (Integer p : parallel.terminatingSequences.keySet()) {
+                    final Word<Integer> as = parallel.accessSequences.get(p);
+                    final Word<Integer> ts = parallel.terminatingSequences.get(p);
+                    final Word<Integer> rs = parallel.returnSequences.get(p);
+
+                    Assert.assertTrue(spa.getProcedures().get(p).accepts(largeAlphabet.normalize(ts, 0)));
+
+                    if (as != null && rs != null) {
+                        Assert.assertTrue(spa.accepts(Word.fromWords(as, ts, rs)));
+                    }
+                }
+
+                // for the same terminating sequences, access and return sequences are computed identically
+                final Pair<Map<Integer, Word<Integer>>, Map<Integer, Word<Integer>>> asrs =
+                        SPAUtil.computeAccessAndReturnSequences(spa,
+                                                                largeAlphabet,
+                                                                sequential.terminatingSequences,
+                                                                pool);
+                Assert.assertEquals(asrs.getFirst(), sequential.accessSequences);
+                Assert.assertEquals(asrs.getSecond(), sequential.returnSequences);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
     @Test
     public void testEmptyCompleteATRSequences() {
         final SPA<?, Character> spa = new EmptySPA<>(alphabet);
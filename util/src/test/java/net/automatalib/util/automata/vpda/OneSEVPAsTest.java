@@ -0,0 +1,139 @@
+/* Copyright (C) 2013-2021 TU Dortmund
+ * This file is part of AutomataLib, http://www.automatalib.net/.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.automatalib.util.automata.vpda;
+
+import java.util.Random;
+
+import net.automatalib.automata.vpda.CompactOneSEVPA;
+import net.automatalib.automata.vpda.DefaultOneSEVPA;
+import net.automatalib.automata.vpda.OneSEVPA;
+import net.automatalib.util.automata.random.RandomAutomata;
+import net.automatalib.util.ts.acceptors.AcceptanceCombiner;
+import net.automatalib.words.VPDAlphabet;
+import net.automatalib.words.Word;
+import net.automatalib.words.WordBuilder;
+import net.automatalib.words.impl.Alphabets;
+import net.automatalib.words.impl.DefaultVPDAlphabet;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * @author frohme
+ */
+public class OneSEVPAsTest {
+
+    private static final int SIZE = 10;
+    private static final int NUM_WORDS = 500;
+    private static final AcceptanceCombiner[] COMBINERS = {AcceptanceCombiner.AND,
+                                                           AcceptanceCombiner.OR,
+                                                           AcceptanceCombiner.XOR,
+                                                           AcceptanceCombiner.EQUIV,
+                                                           AcceptanceCombiner.IMPL};
+
+    private final VPDAlphabet<Character> alphabet = new DefaultVPDAlphabet<>(Alphabets.characters('1', '2'),
+                                                                             Alphabets.characters('a', 'b'),
+                                                                             Alphabets.characters('r', 's'));
+
+    @Test
+    public void testToCompact() {
+        final Random random = new Random(42);
+        final DefaultOneSEVPA<Character> sevpa =
+                RandomAutomata.randomOneSEVPA(random, SIZE, alphabet, 0.5, 0.1, false);
+        final CompactOneSEVPA<Character> compact = OneSEVPAs.toCompact(sevpa, alphabet);
+
+        Assert.assertEquals(compact.size(), sevpa.size());
+        Assert.assertEquals(compact.getIntInitialLocation(), sevpa.getLocationId(sevpa.getInitialLocation()));
+
+        for (int i = 0; i < NUM_WORDS; i++) {
+            final Word<Character> word = randomWellMatchedWord(random, 3);
+            Assert.assertEquals(compact.accepts(word), sevpa.accepts(word), word.toString());
+        }
+    }
+
+    @Test
+    public void testCombineCompact() {
+        final Random random = new Random(42);
+        final DefaultOneSEVPA<Character> sevpa1 =
+                RandomAutomata.randomOneSEVPA(random, SIZE, alphabet, 0.5, 0.1, false);
+        final DefaultOneSEVPA<Character> sevpa2 =
+                RandomAutomata.randomOneSEVPA(random, SIZE, alphabet, 0.5, 0.1, false);
+
+        for (AcceptanceCombiner combiner : COMBINERS) {
+            final OneSEVPA<?, Character> product = OneSEVPAs.combine(sevpa1, sevpa2, alphabet, combiner);
+            final CompactOneSEVPA<Character> compact = OneSEVPAs.combineCompact(sevpa1, sevpa2, alphabet, combiner);
+
+            Assert.assertTrue(compact.size() <= sevpa1.size() * sevpa2.size());
+            Assert.assertEquals(compact.size(), OneSEVPAUtil.findReachableLocations(product, alphabet).size());
+
+            for (int i = 0; i < NUM_WORDS; i++) {
+                final Word<Character> word = randomWellMatchedWord(random, 3);
+                Assert.assertEquals(compact.accepts(word), product.accepts(word), word.toString());
+            }
+        }
+    }
+
+    @Test
+    public void testSeparatingWord() {
+        final Random random = new Random(42);
+
+        for (int i = 0; i < 10; i++) {
+            final long seed = random.nextLong();
+            final DefaultOneSEVPA<Character> sevpa1 =
+                    RandomAutomata.randomOneSEVPA(new Random(seed), SIZE, alphabet, 0.5, 0.1, false);
+            final DefaultOneSEVPA<Character> sevpa2 =
+                    RandomAutomata.randomOneSEVPA(new Random(seed), SIZE, alphabet, 0.5, 0.1, false);
+            final DefaultOneSEVPA<Character> sevpa3 =
+                    RandomAutomata.randomOneSEVPA(random, SIZE, alphabet, 0.5, 0.1, false);
+
+            Assert.assertNull(OneSEVPAUtil.findSeparatingWord(sevpa1, sevpa2, alphabet));
+            Assert.assertNull(OneSEVPAUtil.findSeparatingWord(sevpa1,
+                                                              OneSEVPAs.toCompact(sevpa2, alphabet),
+                                                              alphabet));
+
+            final Word<Character> sepWord = OneSEVPAUtil.findSeparatingWord(sevpa1, sevpa3, alphabet);
+            final Word<Character> expected =
+                    OneSEVPAUtil.findAcceptedWord(OneSEVPAs.xor(sevpa1, sevpa3, alphabet), alphabet);
+
+            if (expected == null) {
+                Assert.assertNull(sepWord);
+            } else {
+                Assert.assertNotNull(sepWord);
+                Assert.assertTrue(alphabet.isWellMatched(sepWord));
+                Assert.assertNotEquals(sevpa1.accepts(sepWord), sevpa3.accepts(sepWord));
+                Assert.assertEquals(sepWord.length(), expected.length());
+            }
+        }
+    }
+
+    private Word<Character> randomWellMatchedWord(Random random, int maxDepth) {
+        final WordBuilder<Character> wb = new WordBuilder<>();
+        appendWellMatched(random, maxDepth, wb);
+        return wb.toWord();
+    }
+
+    private void appendWellMatched(Random random, int depth, WordBuilder<Character> wb) {
+        final int length = random.nextInt(4);
+        for (int i = 0; i < length; i++) {
+            if (depth > 0 && random.nextBoolean()) {
+                wb.append(alphabet.getCallSymbol(random.nextInt(alphabet.getNumCalls())));
+                appendWellMatched(random, depth - 1, wb);
+                wb.append(alphabet.getReturnSymbol(random.nextInt(alphabet.getNumReturns())));
+            } else {
+                wb.append(alphabet.getInternalSymbol(random.nextInt(alphabet.getNumInternals())));
+            }
+        }
+    }
+}